@@ -82,6 +82,7 @@ public abstract class BaseXServlet extends HttpServlet {
       Util.errln(msg);
       conn.error(SC_INTERNAL_SERVER_ERROR, Util.info(UNEXPECTED_X, msg));
     } finally {
+      conn.requestCtx.close();
       if(Prop.debug) {
         Util.errln("Request: " + request.getMethod() + ' ' + request.getRequestURL());
         for(final Enumeration<String> en = request.getHeaderNames(); en.hasMoreElements();) {
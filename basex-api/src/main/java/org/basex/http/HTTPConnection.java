@@ -68,7 +68,7 @@ public final class HTTPConnection implements ClientInfo {
 
     context = new Context(HTTPContext.get().context(), this);
     method = request.getMethod();
-    requestCtx = new RequestContext(request);
+    requestCtx = new RequestContext(request, context.soptions);
 
     // set UTF8 as default encoding (can be overwritten)
     response.setCharacterEncoding(Strings.UTF8);
@@ -359,7 +359,9 @@ public final class HTTPConnection implements ClientInfo {
 
           String h2 = method + ':' + map.get(Request.URI);
           final String qop = map.get(Request.QOP);
-          if(Strings.eq(qop, AUTH_INT)) h2 += ':' + Strings.md5(requestCtx.payload().toString());
+          if(Strings.eq(qop, AUTH_INT)) {
+            h2 += ':' + Strings.md5(string(requestCtx.payload().read()));
+          }
           final String ha2 = Strings.md5(h2);
 
           final StringBuilder sb = new StringBuilder(ha1).append(':').append(nonce);
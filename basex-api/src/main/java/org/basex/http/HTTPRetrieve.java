@@ -0,0 +1,165 @@
+package org.basex.http;
+
+import static javax.servlet.http.HttpServletResponse.*;
+import static org.basex.core.Text.*;
+import static org.basex.util.http.HttpText.*;
+
+import java.io.*;
+import java.util.regex.*;
+
+import javax.servlet.http.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * Sends a binary resource of a database to the client.
+ * The bytes are directly transferred from the file to the output stream, and single byte ranges
+ * are supported.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class HTTPRetrieve extends Command {
+  /** Single byte range. */
+  private static final Pattern RANGES =
+      Pattern.compile("^\\s*" + BYTES + "\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
+  /** HTTP connection (if {@code null}, the specified range will be sent to the output stream). */
+  private final HTTPConnection conn;
+  /** Output stream (can be {@code null}). */
+  private final OutputStream os;
+  /** Offset of the first byte to be sent. */
+  private final long offset;
+  /** Number of bytes to be sent. */
+  private final long length;
+
+  /**
+   * Constructor. The byte range will be parsed from the request headers, and the response
+   * headers will be assigned.
+   * @param db database
+   * @param path path to the resource
+   * @param conn HTTP connection
+   */
+  public HTTPRetrieve(final String db, final String path, final HTTPConnection conn) {
+    this(db, path, conn, null, 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * Constructor. The specified range of the resource will be written to the output stream.
+   * @param db database
+   * @param path path to the resource
+   * @param os output stream
+   * @param offset offset of the first byte to be sent
+   * @param length number of bytes to be sent
+   */
+  public HTTPRetrieve(final String db, final String path, final OutputStream os,
+      final long offset, final long length) {
+    this(db, path, null, os, offset, length);
+  }
+
+  /**
+   * Constructor.
+   * @param db database
+   * @param path path to the resource
+   * @param conn HTTP connection (can be {@code null})
+   * @param os output stream (can be {@code null})
+   * @param offset offset of the first byte to be sent
+   * @param length number of bytes to be sent
+   */
+  private HTTPRetrieve(final String db, final String path, final HTTPConnection conn,
+      final OutputStream os, final long offset, final long length) {
+    super(Perm.NONE, db, path);
+    this.conn = conn;
+    this.os = os;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  protected boolean run() throws IOException {
+    final Data data = Open.open(args[0], context, options);
+    try {
+      final String path = MetaData.normPath(args[1]);
+      final IOFile bin = path == null || data.inMemory() ? null : data.meta.binary(path);
+      if(bin == null || !bin.exists() || bin.isDir()) return error(RES_NOT_FOUND_X, args[1]);
+
+      if(conn == null) {
+        bin.copyTo(os, offset, length);
+      } else {
+        final HttpServletResponse response = conn.response;
+        final long size = bin.length();
+        long start = 0, end = size - 1;
+        response.setHeader(ACCEPT_RANGES, BYTES);
+
+        final long[] range = range(size);
+        if(range != null) {
+          if(range.length == 0) {
+            response.setStatus(SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(CONTENT_RANGE, BYTES + " */" + size);
+            return true;
+          }
+          start = range[0];
+          end = range[1];
+          response.setStatus(SC_PARTIAL_CONTENT);
+          response.setHeader(CONTENT_RANGE, BYTES + ' ' + start + '-' + end + '/' + size);
+        }
+        response.setContentLengthLong(end - start + 1);
+        bin.copyTo(response.getOutputStream(), start, end - start + 1);
+      }
+    } finally {
+      Close.close(data, context);
+    }
+    return true;
+  }
+
+  @Override
+  public void addLocks() {
+    jc().locks.reads.add(args[0]);
+  }
+
+  /**
+   * Returns the byte range requested by the client.
+   * Multiple and invalid ranges, and conditional range requests are ignored.
+   * @param size size of the resource
+   * @return offsets of the first and last byte, empty array if the range cannot be satisfied,
+   *   or {@code null} if the complete resource will be sent
+   */
+  private long[] range(final long size) {
+    final HttpServletRequest request = conn.request;
+    final String header = request.getHeader(RANGE);
+    if(header == null || request.getHeader(IF_RANGE) != null) return null;
+    final Matcher matcher = RANGES.matcher(header);
+    if(!matcher.matches()) return null;
+
+    final String first = matcher.group(1), last = matcher.group(2);
+    final long start, end;
+    try {
+      if(first.isEmpty()) {
+        // suffix range: last bytes of the resource
+        if(last.isEmpty()) return null;
+        final long suffix = Long.parseLong(last);
+        if(suffix == 0) return new long[0];
+        start = Math.max(0, size - suffix);
+        end = size - 1;
+      } else {
+        start = Long.parseLong(first);
+        if(last.isEmpty()) {
+          end = size - 1;
+        } else {
+          final long l = Long.parseLong(last);
+          if(l < start) return null;
+          end = Math.min(l, size - 1);
+        }
+      }
+    } catch(final NumberFormatException ex) {
+      Util.debug(ex);
+      return null;
+    }
+    return start < size ? new long[] { start, end } : new long[0];
+  }
+}
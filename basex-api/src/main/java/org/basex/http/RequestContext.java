@@ -1,5 +1,7 @@
 package org.basex.http;
 
+import static org.basex.util.Token.*;
+
 import java.io.*;
 import java.net.*;
 import java.util.*;
@@ -9,6 +11,7 @@ import javax.servlet.http.*;
 import org.basex.core.*;
 import org.basex.io.*;
 import org.basex.io.in.*;
+import org.basex.io.out.*;
 import org.basex.query.*;
 import org.basex.query.util.list.*;
 import org.basex.query.value.*;
@@ -33,14 +36,21 @@ public final class RequestContext {
   /** Form parameters. */
   private Map<String, Value> form;
   /** Content body. */
-  private IOContent content;
+  private IO content;
+
+  /** Maximum number of bytes of request data that will be cached in main memory. */
+  private final long spool;
+  /** Output streams with cached request data. */
+  private final ArrayList<SpoolOutput> spooled = new ArrayList<>(1);
 
   /**
    * Returns an immutable map with all query parameters.
    * @param request HTTP request
+   * @param sopts static options
    */
-  public RequestContext(final HttpServletRequest request) {
+  public RequestContext(final HttpServletRequest request, final StaticOptions sopts) {
     this.request = request;
+    spool = (long) sopts.get(StaticOptions.SPOOLSIZE) << 20;
   }
 
   /**
@@ -108,19 +118,49 @@ public final class RequestContext {
   }
 
   /**
-   * Returns the cached payload.
+   * Returns the cached payload. If the payload exceeds {@link StaticOptions#SPOOLSIZE},
+   * it will be spooled to a temporary file.
    * @return value
    * @throws IOException I/O exception
    */
-  public IOContent payload() throws IOException {
+  public IO payload() throws IOException {
     if(content == null) {
-      content = new IOContent(BufferInput.get(request.getInputStream()).content());
+      try(SpoolOutput so = spool(); InputStream is = request.getInputStream()) {
+        so.write(is);
+        content = so.finish();
+      }
     }
     return content;
   }
 
+  /**
+   * Deletes temporary files. Must be called after the request has been processed.
+   */
+  public void close() {
+    for(final SpoolOutput so : spooled) {
+      try {
+        so.close();
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+      final IOFile file = so.file();
+      if(file != null) file.delete();
+    }
+    spooled.clear();
+  }
+
   // PRIVATE FUNCTIONS ============================================================================
 
+  /**
+   * Returns a new output stream for caching request data.
+   * @return output stream
+   */
+  private SpoolOutput spool() {
+    final SpoolOutput so = new SpoolOutput(spool);
+    spooled.add(so);
+    return so;
+  }
+
   /**
    * Adds multipart form-data from the passed on request body.
    * @param type media type
@@ -132,9 +172,9 @@ public final class RequestContext {
   private void addMultipart(final MediaType type, final MainOptions options,
       final Map<String, Value> map) throws QueryException, IOException {
 
-    try(InputStream is = payload().inputStream()) {
+    try(InputStream is = BufferInput.get(payload())) {
       final HttpPayload hp = new HttpPayload(is, true, null, options);
-      hp.multiForm(type).forEach(map::put);
+      hp.multiForm(type, this::spool).forEach(map::put);
     }
   }
 
@@ -144,7 +184,7 @@ public final class RequestContext {
    * @throws IOException I/O exception
    */
   private void addURLEncoded(final Map<String, Value> map) throws IOException {
-    for(final String param : Strings.split(payload().toString(), '&')) {
+    for(final String param : Strings.split(string(payload().read()), '&')) {
       final String[] parts = Strings.split(param, '=', 2);
       if(parts.length == 2) {
         final Atm atm = new Atm(URLDecoder.decode(parts[1], Strings.UTF8));
@@ -0,0 +1,267 @@
+package org.basex.http.restxq;
+
+import static javax.servlet.http.HttpServletResponse.*;
+
+import java.io.*;
+import java.security.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.core.locks.*;
+import org.basex.data.*;
+import org.basex.http.*;
+import org.basex.io.out.*;
+import org.basex.query.*;
+import org.basex.util.*;
+import org.basex.util.http.*;
+
+/**
+ * This class caches the responses of RESTXQ functions that are annotated with {@code %rest:cache}.
+ * An entry will be discarded if one of the databases accessed by the function has been updated.
+ * If the maximum cache size is exceeded, the least recently used entries will be evicted.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class RestXqCache {
+  /** Singleton instance. */
+  private static volatile RestXqCache instance;
+
+  /** Cached responses (in the order of their last access). */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  /** Maximum size of all responses (in bytes). */
+  private final long max;
+  /** Current size of all responses (in bytes). */
+  private long size;
+
+  /**
+   * Private constructor.
+   * @param ctx database context
+   */
+  private RestXqCache(final Context ctx) {
+    max = (long) ctx.soptions.get(StaticOptions.RESTXQCACHE) << 20;
+  }
+
+  /**
+   * Returns the singleton instance.
+   * @param ctx database context
+   * @return instance
+   */
+  public static RestXqCache get(final Context ctx) {
+    if(instance == null) instance = new RestXqCache(ctx);
+    return instance;
+  }
+
+  /**
+   * Discards all entries.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    size = 0;
+  }
+
+  /**
+   * Sends a cached response to the client.
+   * @param func function
+   * @param conn HTTP connection
+   * @param body send body
+   * @return {@code true} if a valid cached response was found
+   * @throws IOException I/O exception
+   */
+  boolean send(final RestXqFunction func, final HTTPConnection conn, final boolean body)
+      throws IOException {
+
+    if(!cacheable(conn)) return false;
+    final Entry entry;
+    final String key = func.cacheKey(conn);
+    synchronized(this) {
+      entry = entries.get(key);
+      if(entry == null) return false;
+      if(!entry.valid(conn.context)) {
+        remove(key);
+        return false;
+      }
+    }
+    conn.log(entry.send(conn, body), "cached");
+    return true;
+  }
+
+  /**
+   * Creates a new entry for the function that is currently evaluated.
+   * Must be called after the locks have been acquired, and before the result is serialized.
+   * @param func function
+   * @param conn HTTP connection
+   * @param qc query context
+   * @return entry, or {@code null} if the response cannot be cached
+   */
+  Entry entry(final RestXqFunction func, final HTTPConnection conn, final QueryContext qc) {
+    if(!cacheable(conn)) return null;
+
+    // responses of updating functions, or functions with unknown or special locks are not cached
+    final Locks locks = qc.jc().locks;
+    if(locks.writes.locking() || locks.reads.global()) return null;
+    final Context ctx = conn.context;
+    final int dl = locks.reads.size();
+    final String[] dbs = new String[dl];
+    final long[] stamps = new long[dl];
+    for(int d = 0; d < dl; d++) {
+      final String db = locks.reads.get(d);
+      if(db.startsWith(Locking.PREFIX) || db.startsWith(Locking.JAVA_PREFIX)) return null;
+      dbs[d] = db;
+      stamps[d] = stamp(db, ctx);
+    }
+    return new Entry(func.cacheKey(conn), dbs, stamps);
+  }
+
+  /**
+   * Caches a serialized response and sends it to the client.
+   * @param entry entry
+   * @param ao serialized response
+   * @param conn HTTP connection
+   * @return status code
+   * @throws IOException I/O exception
+   */
+  int put(final Entry entry, final ArrayOutput ao, final HTTPConnection conn) throws IOException {
+    entry.body = ao.finish();
+    entry.type = conn.response.getContentType();
+    entry.etag = etag(entry.body);
+
+    final int es = entry.size();
+    if(es <= max) {
+      synchronized(this) {
+        remove(entry.key);
+        entries.put(entry.key, entry);
+        size += es;
+        // evict least recently used entries
+        final Iterator<Entry> iter = entries.values().iterator();
+        while(size > max && iter.hasNext()) {
+          size -= iter.next().size();
+          iter.remove();
+        }
+      }
+    }
+    return entry.send(conn, true);
+  }
+
+  /**
+   * Removes an entry.
+   * @param key key
+   */
+  private void remove(final String key) {
+    final Entry entry = entries.remove(key);
+    if(entry != null) size -= entry.size();
+  }
+
+  /**
+   * Checks if the response to the specified request can be cached.
+   * @param conn HTTP connection
+   * @return result of check
+   */
+  private boolean cacheable(final HTTPConnection conn) {
+    return max > 0 && conn.method.equals(HttpMethod.GET.name());
+  }
+
+  /**
+   * Returns the timestamp of the last update of a database.
+   * @param db name of database
+   * @param ctx database context
+   * @return timestamp
+   */
+  private static long stamp(final String db, final Context ctx) {
+    // opened database: return timestamp of last update
+    final Data data = ctx.datas.pin(db);
+    if(data != null) {
+      try {
+        return data.meta.time;
+      } finally {
+        ctx.datas.unpin(data);
+      }
+    }
+    // closed database: return timestamp of meta data file
+    return MetaData.file(ctx.soptions.dbPath(db), DataText.DATAINF).timeStamp();
+  }
+
+  /**
+   * Computes an entity tag for the specified response.
+   * @param body response body
+   * @return entity tag
+   */
+  private static String etag(final byte[] body) {
+    try {
+      final MessageDigest md = MessageDigest.getInstance("MD5");
+      return '"' + Token.string(Token.hex(md.digest(body), false)) + '"';
+    } catch(final NoSuchAlgorithmException ex) {
+      throw Util.notExpected(ex);
+    }
+  }
+
+  /** Cached response. */
+  static final class Entry {
+    /** Key. */
+    private final String key;
+    /** Names of the accessed databases. */
+    private final String[] dbs;
+    /** Timestamps of the accessed databases. */
+    private final long[] stamps;
+    /** Content type (can be {@code null}). */
+    private String type;
+    /** Entity tag. */
+    private String etag;
+    /** Response body. */
+    private byte[] body;
+
+    /**
+     * Constructor.
+     * @param key key
+     * @param dbs names of the accessed databases
+     * @param stamps timestamps of the accessed databases
+     */
+    private Entry(final String key, final String[] dbs, final long[] stamps) {
+      this.key = key;
+      this.dbs = dbs;
+      this.stamps = stamps;
+    }
+
+    /**
+     * Checks if none of the accessed databases has been updated.
+     * @param ctx database context
+     * @return result of check
+     */
+    private boolean valid(final Context ctx) {
+      final int dl = dbs.length;
+      for(int d = 0; d < dl; d++) {
+        if(stamp(dbs[d], ctx) != stamps[d]) return false;
+      }
+      return true;
+    }
+
+    /**
+     * Sends the response to the client.
+     * If the client has a current version of the response, no body will be sent.
+     * @param conn HTTP connection
+     * @param send send body
+     * @return status code
+     * @throws IOException I/O exception
+     */
+    private int send(final HTTPConnection conn, final boolean send) throws IOException {
+      conn.response.setHeader(HttpText.ETAG, etag);
+      final String match = conn.request.getHeader(HttpText.IF_NONE_MATCH);
+      if(match != null && (match.trim().equals("*") ||
+          Arrays.asList(match.split("\\s*,\\s*")).contains(etag))) {
+        conn.response.setStatus(SC_NOT_MODIFIED);
+        return SC_NOT_MODIFIED;
+      }
+      if(type != null) conn.response.setContentType(type);
+      if(send && body.length > 0) conn.response.getOutputStream().write(body);
+      return SC_OK;
+    }
+
+    /**
+     * Returns the estimated memory consumption of this entry.
+     * @return size in bytes
+     */
+    private int size() {
+      return body.length + key.length() * 2 + etag.length() * 2;
+    }
+  }
+}
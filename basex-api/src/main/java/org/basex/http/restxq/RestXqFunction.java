@@ -70,6 +70,8 @@ public final class RestXqFunction extends WebFunction {
   public RestXqPath path;
   /** Singleton id (can be {@code null}). */
   String singleton;
+  /** Cache responses. */
+  boolean cache;
 
   /** Post/Put variable (can be {@code null}). */
   private QNm requestBody;
@@ -132,6 +134,8 @@ public final class RestXqFunction extends WebFunction {
       } else if(sig == _REST_SINGLE) {
         singleton = '\u0001' + (args.length > 0 ? toString(args[0]) :
           (function.info.path() + ':' + function.info.line()));
+      } else if(sig == _REST_CACHE) {
+        cache = true;
       } else if(eq(sig.uri, QueryText.REST_URI)) {
         final Item body = args.length == 0 ? null : args[0];
         addMethod(string(sig.local()), body, declared, ann.info);
@@ -213,7 +217,7 @@ public final class RestXqFunction extends WebFunction {
     final MainOptions mopts = conn.context.options;
     if(requestBody != null) {
       try {
-        final IOContent payload = conn.requestCtx.payload();
+        final IO payload = conn.requestCtx.payload();
         bind(requestBody, args, HttpPayload.value(payload, mopts, conn.contentType()), qc);
       } catch(final IOException ex) {
         throw error(INPUT_CONV_X, ex);
@@ -266,6 +270,44 @@ public final class RestXqFunction extends WebFunction {
     }
   }
 
+  /**
+   * Returns a key for caching the response to the current request.
+   * The key is composed of the function, the request path and the query string,
+   * the current user, the negotiated media type, and the bound headers and cookies.
+   * @param conn HTTP connection
+   * @return key
+   */
+  String cacheKey(final HTTPConnection conn) {
+    final StringBuilder sb = new StringBuilder().append(function.info).append('\n');
+    sb.append(conn.path());
+    final String query = conn.request.getQueryString();
+    if(query != null) sb.append('?').append(query);
+    sb.append('\n').append(conn.context.user().name());
+
+    // negotiated media type
+    sb.append('\n');
+    if(!produces.isEmpty()) {
+      final MediaType type = produce(conn);
+      if(type != null) sb.append(type);
+    }
+    // header and cookie parameters
+    for(final WebParam rxp : headerParams) {
+      sb.append('\n').append(rxp.name).append(':');
+      final Enumeration<?> en = conn.request.getHeaders(rxp.name);
+      while(en.hasMoreElements()) sb.append(' ').append(en.nextElement());
+    }
+    final Cookie[] ck = conn.request.getCookies();
+    for(final WebParam rxp : cookieParams) {
+      sb.append('\n').append(rxp.name).append('=');
+      if(ck != null) {
+        for(final Cookie c : ck) {
+          if(rxp.name.equals(c.getName())) sb.append(c.getValue());
+        }
+      }
+    }
+    return sb.toString();
+  }
+
   /**
    * Checks if an HTTP request matches this function and its constraints.
    * @param conn HTTP connection
@@ -380,14 +422,21 @@ public final class RestXqFunction extends WebFunction {
    */
   private boolean produces(final HTTPConnection conn) {
     // return true if no type is given
-    if(produces.isEmpty()) return true;
-    // check if any combination matches
+    return produces.isEmpty() || produce(conn) != null;
+  }
+
+  /**
+   * Returns the first produced media type that matches the accepted media types.
+   * @param conn HTTP connection
+   * @return media type, or {@code null} if no combination matches
+   */
+  private MediaType produce(final HTTPConnection conn) {
     for(final MediaType accept : conn.accepts()) {
       for(final MediaType produce : produces) {
-        if(produce.matches(accept)) return true;
+        if(produce.matches(accept)) return produce;
       }
     }
-    return false;
+    return null;
   }
 
   /**
@@ -66,12 +66,17 @@ public final class RestXqResponse extends WebResponse {
 
     final String id = func.singleton;
     final RestXqSingleton singleton = id != null ? new RestXqSingleton(conn, id, qc) : null;
+    final RestXqCache cache = func.cache && id == null && body ? RestXqCache.get(ctx) : null;
+    RestXqCache.Entry entry = null;
     String forward = null;
     OutputStream out = null;
     boolean response;
 
     qc.register(ctx);
     try {
+      // cacheable function: record state of accessed databases before query is evaluated
+      if(cache != null) entry = cache.entry(func, conn, qc);
+
       // evaluate query
       final Iter iter = qc.iter();
       Item item = iter.next();
@@ -117,7 +122,8 @@ public final class RestXqResponse extends WebResponse {
 
       // serialize result
       if(item != null && body) {
-        out = id != null ? new ArrayOutput() : conn.response.getOutputStream();
+        out = id != null || entry != null ? new ArrayOutput() :
+          conn.response.getOutputStream();
         try(Serializer ser = Serializer.get(out, so)) {
           for(; item != null; item = qc.next(iter)) ser.serialize(item);
         }
@@ -135,8 +141,15 @@ public final class RestXqResponse extends WebResponse {
       }
     }
 
-    // write cached result
-    if(out instanceof ArrayOutput) {
+    // cache result and send it to the client
+    if(entry != null && status == null && forward == null) {
+      final int s = cache.put(entry, out != null ? (ArrayOutput) out : new ArrayOutput(), conn);
+      if(s != SC_OK) {
+        conn.log(s, "");
+        return Response.CUSTOM;
+      }
+    } else if(out instanceof ArrayOutput) {
+      // write cached result
       final ArrayOutput ao = (ArrayOutput) out;
       final int size = (int) ao.size();
       if(size > 0) conn.response.getOutputStream().write(ao.buffer(), 0, size);
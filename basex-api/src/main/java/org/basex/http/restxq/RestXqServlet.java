@@ -69,7 +69,8 @@ public final class RestXqServlet extends BaseXServlet {
         if(response.create(check, func, body) != Response.NONE) return;
       }
 
-      // run addressed function
+      // return cached response, or run addressed function
+      if(func.cache && RestXqCache.get(conn.context).send(func, conn, body)) return;
       if(response.create(func, null, body) != Response.CUSTOM) conn.log(SC_OK, "");
 
     } catch(final QueryException ex) {
@@ -307,7 +307,10 @@ public final class WebModules {
       if(!path.exists()) throw HTTPCode.NO_RESTXQ.get();
 
       cache = new HashMap<>();
-      parse(ctx, path, cache, modules);
+      // discard cached responses if modules have been added, modified or removed
+      if(parse(ctx, path, cache, modules) || cache.size() != modules.size()) {
+        RestXqCache.get(ctx).clear();
+      }
       modules = cache;
       parsed = true;
     }
@@ -323,22 +326,24 @@ public final class WebModules {
    * @param ctx database context
    * @param cache cached modules
    * @param old old cache
+   * @return {@code true} if new or modified modules have been parsed
    * @throws QueryException query exception
    * @throws IOException I/O exception
    */
-  private static void parse(final Context ctx, final IOFile root,
+  private static boolean parse(final Context ctx, final IOFile root,
       final HashMap<String, WebModule> cache, final HashMap<String, WebModule> old)
       throws QueryException, IOException {
 
     // check if directory is to be skipped
     final IOFile[] files = root.children();
     for(final IOFile file : files) {
-      if(file.name().equals(IO.IGNORESUFFIX)) return;
+      if(file.name().equals(IO.IGNORESUFFIX)) return false;
     }
 
+    boolean modified = false;
     for(final IOFile file : files) {
       if(file.isDir()) {
-        parse(ctx, file, cache, old);
+        modified |= parse(ctx, file, cache, old);
       } else {
         final String path = file.path();
         if(file.hasSuffix(IO.XQSUFFIXES)) {
@@ -355,9 +360,11 @@ public final class WebModules {
           if(parsed || module.parse(ctx)) {
             module.touch();
             cache.put(path, module);
+            modified |= !parsed;
           }
         }
       }
     }
+    return modified;
   }
 }
@@ -48,9 +48,7 @@ final class WebDAVFactory implements ResourceFactory {
       final String db = path.getFirst();
       return path.getLength() > 1 ?
         service.resource(db, path.getStripFirst().toString()) :
-        service.dbExists(db) ?
-          new WebDAVDatabase(new WebDAVMetaData(db, service.timestamp(db)), service) :
-          null;
+        service.database(db);
     } catch(final Exception ex) {
       Util.stack(ex);
     }
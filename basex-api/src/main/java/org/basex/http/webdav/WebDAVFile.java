@@ -58,7 +58,9 @@ final class WebDAVFile extends WebDAVResource implements FileResource {
     new WebDAVCode<Object>(this) {
       @Override
       public void run() throws IOException {
-        service.retrieve(meta.db, meta.path, meta.raw, out);
+        final long start = range != null ? range.getStart() : 0;
+        final long length = range != null ? range.getFinish() - start + 1 : Long.MAX_VALUE;
+        service.retrieve(meta.db, meta.path, meta.raw, out, start, length);
       }
     }.eval();
   }
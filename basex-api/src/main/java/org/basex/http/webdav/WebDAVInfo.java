@@ -0,0 +1,277 @@
+package org.basex.http.webdav;
+
+import static org.basex.http.webdav.WebDAVUtils.*;
+import static org.basex.util.Token.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.locks.*;
+import org.basex.core.users.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.util.http.*;
+import org.basex.util.list.*;
+
+/**
+ * Command for retrieving WebDAV resource information. The database structures are accessed
+ * directly; child listings of XML documents are cached until a database is updated.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class WebDAVInfo extends Command {
+  /** Maximum number of cached listings per database. */
+  private static final int MAX = 1 << 10;
+  /** Maximum number of databases with cached listings. */
+  static final int MAXDBS = 1 << 6;
+  /** Cached listings, indexed by database names. */
+  private static final Map<String, Listings> LISTINGS = new ConcurrentHashMap<>();
+
+  /** Resources. */
+  final ArrayList<WebDAVMetaData> resources = new ArrayList<>();
+  /** Mode. */
+  private final Mode mode;
+
+  /** Mode. */
+  private enum Mode {
+    /** All databases. */ DATABASES,
+    /** Single database. */ DATABASE,
+    /** Single resource or folder. */ RESOURCE,
+    /** Children of a folder. */ CHILDREN
+  }
+
+  /**
+   * Constructor.
+   * @param mode mode
+   * @param db database (can be {@code null})
+   * @param path path (can be {@code null})
+   */
+  private WebDAVInfo(final Mode mode, final String db, final String path) {
+    super(Perm.NONE, db == null ? "" : db, path == null ? "" : path);
+    this.mode = mode;
+  }
+
+  /**
+   * Returns a command for retrieving all databases.
+   * @return command
+   */
+  static WebDAVInfo databases() {
+    return new WebDAVInfo(Mode.DATABASES, null, null);
+  }
+
+  /**
+   * Returns a command for retrieving a database.
+   * @param db database
+   * @return command
+   */
+  static WebDAVInfo database(final String db) {
+    return new WebDAVInfo(Mode.DATABASE, db, null);
+  }
+
+  /**
+   * Returns a command for retrieving a resource or folder.
+   * @param db database
+   * @param path path
+   * @return command
+   */
+  static WebDAVInfo resource(final String db, final String path) {
+    return new WebDAVInfo(Mode.RESOURCE, db, path);
+  }
+
+  /**
+   * Returns a command for retrieving the children of a folder.
+   * @param db database
+   * @param path path
+   * @return command
+   */
+  static WebDAVInfo children(final String db, final String path) {
+    return new WebDAVInfo(Mode.CHILDREN, db, path);
+  }
+
+  /**
+   * Returns the first resource.
+   * @return resource, or {@code null} if no resource was found
+   */
+  WebDAVMetaData first() {
+    return resources.isEmpty() ? null : resources.get(0);
+  }
+
+  @Override
+  protected boolean run() throws IOException {
+    final String db = args[0], path = args[1];
+    if(mode == Mode.DATABASES) {
+      final StringList dbs = context.listDBs();
+      for(final String name : dbs) {
+        resources.add(new WebDAVMetaData(name, soptions.dbPath(name).timeStamp()));
+      }
+      // discard listings of databases that have been dropped or renamed
+      LISTINGS.keySet().retainAll(Arrays.asList(dbs.finish()));
+    } else if(mode == Mode.DATABASE) {
+      if(!context.perm(Perm.READ, db)) return error(Text.PERM_REQUIRED_X, Perm.READ);
+      if(soptions.dbExists(db)) {
+        resources.add(new WebDAVMetaData(db, soptions.dbPath(db).timeStamp()));
+      }
+    } else {
+      final Data data = Open.open(db, context, options);
+      try {
+        if(mode == Mode.RESOURCE) resource(data, path);
+        else children(data, path);
+      } finally {
+        Close.close(data, context);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void addLocks() {
+    final Locks locks = jc().locks;
+    if(mode == Mode.DATABASES) locks.reads.addGlobal();
+    else locks.reads.add(args[0]);
+  }
+
+  /**
+   * Adds the resource or folder with the specified path.
+   * @param data data reference
+   * @param path path
+   */
+  private void resource(final Data data, final String path) {
+    final String db = data.meta.name;
+    final IOFile bin = data.meta.binary(path);
+    if(bin != null && bin.exists() && !bin.isDir()) {
+      resources.add(binary(db, path, bin));
+    } else if(data.resources.doc(path) != -1) {
+      resources.add(new WebDAVMetaData(db, path, data.meta.time, false,
+          MediaType.APPLICATION_XML, null));
+    } else if(!listing(data, path).isEmpty() ||
+        bin != null && bin.isDir() && !data.resources.binaries(path).isEmpty()) {
+      resources.add(new WebDAVMetaData(db, path, data.meta.dbTime()));
+    }
+  }
+
+  /**
+   * Adds the children of the specified folder.
+   * @param data data reference
+   * @param path path
+   */
+  private void children(final Data data, final String path) {
+    final String db = data.meta.name;
+    final HashSet<String> names = new HashSet<>();
+
+    // XML documents and folders
+    final long time = data.meta.time;
+    for(final Map.Entry<String, Boolean> entry : listing(data, path).entrySet()) {
+      final String name = entry.getKey(), pth = path + SEP + name;
+      names.add(name);
+      resources.add(entry.getValue() ? new WebDAVMetaData(db, pth, time) :
+        new WebDAVMetaData(db, pth, time, false, MediaType.APPLICATION_XML, null));
+    }
+
+    // binary resources and folders (not cached, as their modification does not update the database)
+    final IOFile dir = data.meta.binary(path);
+    if(dir != null) {
+      for(final IOFile io : dir.children()) {
+        final String name = io.name(), pth = path + SEP + name;
+        if(!names.add(name)) continue;
+        resources.add(io.isDir() ? new WebDAVMetaData(db, pth, io.timeStamp()) :
+          binary(db, pth, io));
+      }
+    }
+  }
+
+  /**
+   * Returns the meta data of a binary resource.
+   * @param db database
+   * @param path path
+   * @param io file reference
+   * @return meta data
+   */
+  private static WebDAVMetaData binary(final String db, final String path, final IOFile io) {
+    return new WebDAVMetaData(db, path, io.timeStamp(), true, MediaType.get(io.path()),
+        io.length());
+  }
+
+  /**
+   * Discards the cached listings of a database.
+   * @param db database
+   */
+  static void remove(final String db) {
+    LISTINGS.remove(db);
+  }
+
+  /**
+   * Returns the names of the databases with cached listings.
+   * @return names
+   */
+  static HashSet<String> cached() {
+    return new HashSet<>(LISTINGS.keySet());
+  }
+
+  /**
+   * Returns the names of the XML documents and folders that are direct children of the
+   * specified path. The results will be cached until the database is updated.
+   * @param data data reference
+   * @param path path
+   * @return names, mapped to directory flags
+   */
+  private Map<String, Boolean> listing(final Data data, final String path) {
+    final MetaData meta = data.meta;
+    if(!LISTINGS.containsKey(meta.name) && LISTINGS.size() >= MAXDBS) {
+      // limit number of databases: discard listings of databases that do not exist anymore,
+      // or all listings if the limit is still exceeded
+      LISTINGS.keySet().removeIf(name -> !soptions.dbExists(name));
+      if(LISTINGS.size() >= MAXDBS) LISTINGS.clear();
+    }
+    final Listings listings = LISTINGS.compute(meta.name, (name, ls) ->
+      ls != null && ls.time == meta.time && ls.dbTime == meta.dbTime() ? ls :
+        new Listings(meta.time, meta.dbTime()));
+
+    synchronized(listings) {
+      Map<String, Boolean> listing = listings.map.get(path);
+      if(listing == null) {
+        String root = MetaData.normPath(path);
+        if(root == null) return Collections.emptyMap();
+        if(!root.isEmpty() && !root.endsWith("/")) root += '/';
+
+        listing = new LinkedHashMap<>();
+        final IntList docs = data.resources.docs(root, false);
+        final int ds = docs.size(), rl = token(root).length;
+        for(int d = 0; d < ds; d++) {
+          final byte[] np = data.text(docs.get(d), true);
+          final int i = indexOf(np, SLASH, rl);
+          final String name = string(np, rl, (i == -1 ? np.length : i) - rl);
+          if(!name.isEmpty() && !Boolean.TRUE.equals(listing.get(name))) {
+            listing.put(name, i != -1);
+          }
+        }
+        if(listings.map.size() >= MAX) listings.map.clear();
+        listings.map.put(path, listing);
+      }
+      return listing;
+    }
+  }
+
+  /** Cached listings of a database. */
+  private static final class Listings {
+    /** Paths and listings. */
+    private final HashMap<String, Map<String, Boolean>> map = new HashMap<>();
+    /** Timestamp of the last database update. */
+    private final long time;
+    /** Timestamp of the database directory. */
+    private final long dbTime;
+
+    /**
+     * Constructor.
+     * @param time timestamp of the last database update
+     * @param dbTime timestamp of the database directory
+     */
+    private Listings(final long time, final long dbTime) {
+      this.time = time;
+      this.dbTime = dbTime;
+    }
+  }
+}
@@ -4,7 +4,6 @@ import static org.basex.http.webdav.WebDAVUtils.*;
 
 import java.util.*;
 
-import org.basex.util.*;
 import org.basex.util.http.*;
 
 /**
@@ -29,15 +28,15 @@ final class WebDAVMetaData {
 
   /** Default constructor. */
   WebDAVMetaData() {
-    this(null, null);
+    this(null, 0);
   }
 
   /**
    * Constructor.
    * @param db database owning the resource (can be {@code null})
-   * @param ms resource last modification date (can be {@code null})
+   * @param ms resource last modification date in milliseconds ({@code 0} if unknown)
    */
-  WebDAVMetaData(final String db, final String ms) {
+  WebDAVMetaData(final String db, final long ms) {
     this(db, "", ms);
   }
 
@@ -45,9 +44,9 @@ final class WebDAVMetaData {
    * Constructor.
    * @param db database owning the resource (can be {@code null})
    * @param path resource path
-   * @param ms resource last modification date (can be {@code null})
+   * @param ms resource last modification date in milliseconds ({@code 0} if unknown)
    */
-  WebDAVMetaData(final String db, final String path, final String ms) {
+  WebDAVMetaData(final String db, final String path, final long ms) {
     this(db, path, ms, false, null, null);
   }
 
@@ -55,19 +54,19 @@ final class WebDAVMetaData {
    * Constructor.
    * @param db database owning the resource (can be {@code null})
    * @param path resource path
-   * @param ms resource last modification date (can be {@code null})
+   * @param ms resource last modification date in milliseconds ({@code 0} if unknown)
    * @param raw raw binary file flag
    * @param type resource media type (can be {@code null})
-   * @param size resource size in bytes (can be {@code null} or empty)
+   * @param size resource size in bytes (can be {@code null})
    */
-  WebDAVMetaData(final String db, final String path, final String ms, final boolean raw,
-      final MediaType type, final String size) {
+  WebDAVMetaData(final String db, final String path, final long ms, final boolean raw,
+      final MediaType type, final Long size) {
 
     this.db = db;
     this.path = stripLeadingSlash(path);
     this.raw = raw;
     this.type = type;
-    this.size = size == null || size.isEmpty() ? null : Long.valueOf(size);
-    mdate = ms == null ? null : new Date(DateTime.parse(ms).getTime());
+    this.size = size;
+    mdate = ms == 0 ? null : new Date(ms);
   }
 }
@@ -49,8 +49,7 @@ final class WebDAVRoot extends WebDAVFolder {
     return new WebDAVCode<WebDAVResource>(this) {
       @Override
       public WebDAVResource get() throws IOException {
-        return service.dbExists(name) ?
-          new WebDAVDatabase(new WebDAVMetaData(name, service.timestamp(name)), service) : null;
+        return service.database(name);
       }
     }.eval();
   }
@@ -14,7 +14,6 @@ import org.basex.core.cmd.Set;
 import org.basex.http.*;
 import org.basex.io.in.*;
 import org.basex.io.serial.*;
-import org.basex.query.func.db.*;
 import org.basex.util.*;
 import org.basex.util.http.*;
 
@@ -74,49 +73,23 @@ final class WebDAVService {
   }
 
   /**
-   * Checks if the specified database exists.
+   * Returns the database with the specified name.
    * @param db database to be found
-   * @return result of check
+   * @return database, or {@code null} if it does not exist
    * @throws IOException I/O exception
    */
-  boolean dbExists(final String db) throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(_DB_EXISTS.args(" $db")).bind("db", db);
-    return query.execute(session()).equals(Text.TRUE);
+  WebDAVDatabase database(final String db) throws IOException {
+    final WebDAVMetaData meta = info(WebDAVInfo.database(db)).first();
+    return meta != null ? WebDAVFactory.database(this, meta) : null;
   }
 
   /**
    * Retrieves the last modified timestamp of a database.
    * @param db database
    * @return timestamp in milliseconds
-   * @throws IOException I/O exception
    */
-  String timestamp(final String db) throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(DATA.args(_DB_INFO.args(" $db") +
-        "/descendant::" + DbFn.toName(Text.TIMESTAMP) + "[1]")).bind("db",  db);
-    return query.execute(session());
-  }
-
-  /**
-   * Retrieves meta data about the resource at the given path.
-   * @param db database
-   * @param path resource path
-   * @return resource meta data
-   * @throws IOException I/O exception
-   */
-  private WebDAVMetaData metaData(final String db, final String path) throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(
-      "let $a := " + _DB_LIST_DETAILS.args(" $db", " $path") + "[1] " +
-      "return string-join(($a, $a/(@raw, @content-type, @modified-date, @size)),out:tab())");
-    query.bind("db", db);
-    query.bind("path", path);
-
-    final String[] result = Strings.split(query.execute(session()), '\t');
-    final String pth = stripLeadingSlash(result[0]);
-    final boolean raw = Boolean.parseBoolean(result[1]);
-    final MediaType type = new MediaType(result[2]);
-    final String ms = result[3];
-    final String size = raw ? result[4] : null;
-    return new WebDAVMetaData(db, pth, ms, raw, type, size);
+  private long timestamp(final String db) {
+    return conn.context.soptions.dbPath(db).timeStamp();
   }
 
   /**
@@ -206,18 +179,24 @@ final class WebDAVService {
 
   /**
    * Writes a file to the specified output stream.
+   * Binary files are transferred directly, and the specified range will be considered.
    * @param db database
    * @param path path
    * @param raw is the file a raw file
    * @param out output stream
+   * @param offset offset of the first byte to be written (ignored for XML documents)
+   * @param length number of bytes to be written (ignored for XML documents)
    * @throws IOException I/O exception
    */
-  void retrieve(final String db, final String path, final boolean raw, final OutputStream out)
-      throws IOException {
+  void retrieve(final String db, final String path, final boolean raw, final OutputStream out,
+      final long offset, final long length) throws IOException {
 
+    if(raw) {
+      new HTTPRetrieve(db, path, out, offset, length).execute(conn.context);
+      return;
+    }
     session().setOutputStream(out);
-    final WebDAVQuery query = new WebDAVQuery(
-      (raw ? _DB_RETRIEVE : _DB_OPEN).args(" $db", " $path") + "[1]",
+    final WebDAVQuery query = new WebDAVQuery(_DB_OPEN.args(" $db", " $path") + "[1]",
       SerializerOptions.USE_CHARACTER_MAPS.arg(WEBDAV));
     query.bind("db", db);
     query.bind("path", path);
@@ -242,6 +221,7 @@ final class WebDAVService {
    */
   void dropDb(final String db) throws IOException {
     session().execute(new DropDB(db));
+    WebDAVInfo.remove(db);
   }
 
   /**
@@ -252,6 +232,7 @@ final class WebDAVService {
    */
   void renameDb(final String old, final String db) throws IOException {
     session().execute(new AlterDB(old, dbName(db)));
+    WebDAVInfo.remove(old);
   }
 
   /**
@@ -272,29 +253,13 @@ final class WebDAVService {
    * @throws IOException I/O exception
    */
   List<WebDAVResource> list(final String db, final String path) throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(STRING_JOIN.args(
-      _DB_DIR.args(" $db", " $path") + " ! (string(), name() = 'dir', " +
-      "for $a in ('modified-date', 'raw', 'content-type', 'size') " +
-      "return string(@*[name() = $a]))", _OUT_TAB.args()));
-    query.bind("db", db);
-    query.bind("path", path);
-
-    final String[] result = Strings.split(query.execute(session()), '\t');
     final List<WebDAVResource> ch = new ArrayList<>();
-    final int rs = result.length - 5;
-    for(int r = 0; r < rs; r += 6) {
-      final String name = result[r];
-      final boolean dir = Boolean.parseBoolean(result[r + 1]);
-      final String mod = result[r + 2];
+    for(final WebDAVMetaData meta : info(WebDAVInfo.children(db, path)).resources) {
       // check if document or folder
-      final String p = path + SEP + name;
-      if(dir) {
-        ch.add(WebDAVFactory.folder(this, new WebDAVMetaData(db, p, mod)));
-      } else if(!name.equals(DUMMY)) {
-        final boolean raw = Boolean.parseBoolean(result[r + 3]);
-        final MediaType ctype = new MediaType(result[r + 4]);
-        final String size = result[r + 5];
-        ch.add(WebDAVFactory.file(this, new WebDAVMetaData(db, p, mod, raw, ctype, size)));
+      if(meta.type == null) {
+        ch.add(WebDAVFactory.folder(this, meta));
+      } else if(!name(meta.path).equals(DUMMY)) {
+        ch.add(WebDAVFactory.file(this, meta));
       }
     }
     return ch;
@@ -306,16 +271,9 @@ final class WebDAVService {
    * @throws IOException I/O exception
    */
   List<WebDAVResource> listDbs() throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(STRING_JOIN.args(
-        _DB_LIST_DETAILS.args() + " ! (string(), @modified-date)", _OUT_TAB.args()));
-
-    final String[] result = Strings.split(query.execute(session()), '\t');
     final List<WebDAVResource> dbs = new ArrayList<>();
-    final int rs = result.length - 1;
-    for(int r = 0; r < rs; r += 2) {
-      final String name = result[r];
-      final String ms = result[r + 1];
-      dbs.add(WebDAVFactory.database(this, new WebDAVMetaData(name, ms)));
+    for(final WebDAVMetaData meta : info(WebDAVInfo.databases()).resources) {
+      dbs.add(WebDAVFactory.database(this, meta));
     }
     return dbs;
   }
@@ -345,11 +303,9 @@ final class WebDAVService {
    * @throws IOException I/O exception
    */
   WebDAVResource resource(final String db, final String path) throws IOException {
-    return exists(db, path) ?
-      WebDAVFactory.file(this, metaData(db, path)) :
-      pathExists(db, path) ?
-        WebDAVFactory.folder(this, new WebDAVMetaData(db, path, timestamp(db))) :
-        null;
+    final WebDAVMetaData meta = info(WebDAVInfo.resource(db, path)).first();
+    return meta == null ? null : meta.type == null ? WebDAVFactory.folder(this, meta) :
+      WebDAVFactory.file(this, meta);
   }
 
   /**
@@ -397,24 +353,7 @@ final class WebDAVService {
    * @throws IOException I/O exception
    */
   private boolean pathExists(final String db, final String path) throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(EXISTS.args(_DB_LIST.args(" $db", " $path")));
-    query.bind("db", db);
-    query.bind("path", path);
-    return query.execute(session()).equals(Text.TRUE);
-  }
-
-  /**
-   * Checks if any resource with the specified name exists.
-   * @param db name of database
-   * @param path resource path
-   * @return {@code true} if there are resources with the name
-   * @throws IOException I/O exception
-   */
-  private boolean exists(final String db, final String path) throws IOException {
-    final WebDAVQuery query = new WebDAVQuery(_DB_EXISTS.args(" $db", " $path"));
-    query.bind("db", db);
-    query.bind("path", path);
-    return query.execute(session()).equals(Text.TRUE);
+    return info(WebDAVInfo.resource(db, path)).first() != null;
   }
 
   /**
@@ -462,7 +401,7 @@ final class WebDAVService {
     final LocalSession session = session();
     session.execute(new Open(db));
     session.store(path, in);
-    return WebDAVFactory.file(this, metaData(db, path));
+    return resource(db, path);
   }
 
   /**
@@ -522,6 +461,17 @@ final class WebDAVService {
     session.store(path + SEP + DUMMY, new ArrayInput(Token.EMPTY));
   }
 
+  /**
+   * Executes a command for retrieving resource information.
+   * @param info command
+   * @return command
+   * @throws IOException I/O exception
+   */
+  private WebDAVInfo info(final WebDAVInfo info) throws IOException {
+    info.execute(conn.context);
+    return info;
+  }
+
   /**
    * Constructor.
    * @return local session
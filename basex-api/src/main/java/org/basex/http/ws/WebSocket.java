@@ -2,7 +2,6 @@ package org.basex.http.ws;
 
 import static org.basex.http.HTTPText.*;
 
-import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.*;
@@ -35,6 +34,8 @@ public final class WebSocket extends WebSocketAdapter implements ClientInfo {
   public final Context context;
   /** Path. */
   public final WsPath path;
+  /** Queue for outgoing messages. */
+  public final WsQueue queue;
 
   /** Header parameters. */
   final Map<String, Value> headers = new HashMap<>();
@@ -60,6 +61,7 @@ public final class WebSocket extends WebSocketAdapter implements ClientInfo {
     final Context ctx = HTTPContext.get().context();
     context = new Context(ctx, this);
     context.user(ctx.user());
+    queue = new WsQueue(this::getSession, ctx.soptions);
   }
 
   /**
@@ -118,6 +120,7 @@ public final class WebSocket extends WebSocketAdapter implements ClientInfo {
           () -> findAndProcess(Annotation._WS_CLOSE, null));
     } finally {
       WsPool.remove(id);
+      queue.close();
       super.onWebSocketClose(status, message);
     }
   }
@@ -150,6 +153,7 @@ public final class WebSocket extends WebSocketAdapter implements ClientInfo {
    */
   public void close() {
     WsPool.remove(id);
+    queue.close();
     getSession().close();
   }
 
@@ -181,11 +185,8 @@ public final class WebSocket extends WebSocketAdapter implements ClientInfo {
    */
   public void error(final Exception ex) {
     Util.debug(ex);
-    try {
-      getRemote().sendString(ex.getMessage());
-    } catch(final IOException e) {
-      Util.debug(e);
-    }
+    final String message = ex.getMessage();
+    if(message != null) queue.add(Collections.singletonList(message));
   }
 
   /**
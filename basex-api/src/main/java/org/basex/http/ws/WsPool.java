@@ -1,6 +1,5 @@
 package org.basex.http.ws;
 
-import java.nio.*;
 import java.util.*;
 import java.util.Map.*;
 import java.util.concurrent.*;
@@ -9,7 +8,6 @@ import org.basex.io.serial.*;
 import org.basex.query.*;
 import org.basex.query.value.*;
 import org.basex.util.list.*;
-import org.eclipse.jetty.websocket.api.*;
 
 /**
  * This class defines a pool for WebSockets. It manages all connected WebSockets.
@@ -113,7 +111,7 @@ public final class WsPool {
   private static void send(final Value message, final List<WebSocket> websockets)
       throws QueryException {
 
-    // serialize contents once
+    // serialize contents once; byte buffers are shared by all clients
     final List<Object> values;
     try {
       values = WsResponse.serialize(message.iter(), new SerializerOptions());
@@ -121,17 +119,9 @@ public final class WsPool {
       throw ex.getCause();
     }
 
-    // send result to all clients
+    // add result to the outgoing queues of all clients
     for(final WebSocket ws : websockets) {
-      if(!ws.isConnected()) continue;
-      final RemoteEndpoint remote = ws.getSession().getRemote();
-      for(final Object value : values) {
-        if(value instanceof ByteBuffer) {
-          remote.sendBytesByFuture((ByteBuffer) value);
-        } else {
-          remote.sendStringByFuture((String) value);
-        }
-      }
+      if(ws.isConnected()) ws.queue.add(values);
     }
   }
 
@@ -0,0 +1,172 @@
+package org.basex.http.ws;
+
+import java.nio.*;
+import java.util.*;
+import java.util.function.*;
+
+import org.basex.core.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
+import org.basex.util.*;
+import org.eclipse.jetty.websocket.api.*;
+
+/**
+ * Bounded queue for the outgoing messages of a WebSocket client.
+ * Messages are sent asynchronously and in order, and only one message is sent at a time.
+ * If the queue of a slow client is full, new messages will be dropped, or the connection
+ * will be closed.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class WsQueue implements WriteCallback {
+  /** Supplier for the session of the WebSocket. */
+  private final Supplier<Session> session;
+  /** Queued messages (strings or byte buffers). */
+  private final ArrayDeque<Object> messages = new ArrayDeque<>();
+  /** Times at which the queued messages were added (in nanoseconds). */
+  private final ArrayDeque<Long> times = new ArrayDeque<>();
+  /** Maximum number of queued messages. */
+  private final int max;
+  /** Drop messages if the queue is full (otherwise, the connection will be closed). */
+  private final boolean drop;
+
+  /** Indicates if a message is currently being sent. */
+  private boolean sending;
+  /** Time at which the currently sent message was added (in nanoseconds). */
+  private long added;
+  /** Indicates if messages are currently being passed on to the remote endpoint. */
+  private boolean flushing;
+  /** Indicates if the queue has been closed. */
+  private boolean closed;
+
+  /** Number of sent messages. */
+  private long sent;
+  /** Number of dropped messages. */
+  private long dropped;
+  /** Number of messages that could not be sent. */
+  private long failed;
+  /** Total latency of all sent messages (in nanoseconds). */
+  private long latency;
+  /** Maximum latency (in nanoseconds). */
+  private long maxLatency;
+
+  /**
+   * Constructor.
+   * @param session supplier for the session of the WebSocket
+   * @param sopts static options
+   */
+  WsQueue(final Supplier<Session> session, final StaticOptions sopts) {
+    this.session = session;
+    max = Math.max(1, sopts.get(StaticOptions.WSQUEUE));
+    drop = sopts.get(StaticOptions.WSDROP);
+  }
+
+  /**
+   * Adds messages to the queue and starts sending them.
+   * Byte buffers are not modified and can be shared by several queues.
+   * @param values messages (strings or byte buffers)
+   */
+  void add(final List<Object> values) {
+    synchronized(this) {
+      if(closed) return;
+      if(messages.size() + values.size() <= max) {
+        final Long time = System.nanoTime();
+        for(final Object value : values) {
+          messages.add(value instanceof ByteBuffer ? ((ByteBuffer) value).asReadOnlyBuffer() :
+            value);
+          times.add(time);
+        }
+        flush();
+        return;
+      }
+      dropped += values.size();
+      if(drop) return;
+      close();
+    }
+    // slow client: close connection
+    final Session ss = session.get();
+    if(ss != null) ss.close(StatusCode.POLICY_VIOLATION, "Message queue is full.");
+  }
+
+  /**
+   * Closes the queue and discards all queued messages.
+   */
+  synchronized void close() {
+    closed = true;
+    dropped += messages.size();
+    messages.clear();
+    times.clear();
+  }
+
+  /**
+   * Returns statistics on the queue.
+   * @return map
+   * @throws QueryException query exception
+   */
+  public synchronized XQMap info() throws QueryException {
+    final MapBuilder mb = new MapBuilder();
+    mb.put("queued", Int.get(messages.size()));
+    mb.put("sent", Int.get(sent));
+    mb.put("dropped", Int.get(dropped));
+    mb.put("failed", Int.get(failed));
+    mb.put("latency", Dbl.get(sent == 0 ? 0 : latency / 1000000d / sent));
+    mb.put("max-latency", Dbl.get(maxLatency / 1000000d));
+    return mb.finish();
+  }
+
+  @Override
+  public synchronized void writeSuccess() {
+    final long time = System.nanoTime() - added;
+    latency += time;
+    maxLatency = Math.max(maxLatency, time);
+    sent++;
+    next();
+  }
+
+  @Override
+  public synchronized void writeFailed(final Throwable ex) {
+    Util.debug(ex);
+    failed++;
+    next();
+  }
+
+  /**
+   * Proceeds with the next message.
+   */
+  private void next() {
+    sending = false;
+    flush();
+  }
+
+  /**
+   * Passes on the next queued message to the remote endpoint, unless another message is
+   * currently being sent. Messages whose sending is completed immediately are processed in a
+   * loop to avoid recursive calls.
+   */
+  private void flush() {
+    if(flushing) return;
+    flushing = true;
+    try {
+      while(!sending && !messages.isEmpty()) {
+        final Session ss = session.get();
+        if(ss == null || !ss.isOpen()) {
+          close();
+          return;
+        }
+        sending = true;
+        final Object value = messages.poll();
+        added = times.poll();
+        final RemoteEndpoint remote = ss.getRemote();
+        if(value instanceof ByteBuffer) {
+          remote.sendBytes((ByteBuffer) value, this);
+        } else {
+          remote.sendString((String) value, this);
+        }
+      }
+    } finally {
+      flushing = false;
+    }
+  }
+}
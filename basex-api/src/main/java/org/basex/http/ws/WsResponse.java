@@ -15,7 +15,6 @@ import org.basex.query.ann.*;
 import org.basex.query.expr.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.item.*;
-import org.eclipse.jetty.websocket.api.*;
 
 /**
  * Creates WebSocket responses.
@@ -43,7 +42,7 @@ public final class WsResponse extends WebResponse {
   protected void init(final WebFunction function) throws QueryException {
     func = new WsFunction(function.function, qc, function.module);
     qc.putProperty(HTTPText.WEBSOCKET, ws);
-    qc.putProperty(HTTPText.REQUEST, new RequestContext(ws.request));
+    qc.putProperty(HTTPText.REQUEST, new RequestContext(ws.request, ws.context.soptions));
     qc.jc().type(WEBSOCKET);
     func.parse(ctx);
   }
@@ -61,14 +60,7 @@ public final class WsResponse extends WebResponse {
       // don't send anything if the WebSocket connection has been closed
       if(!func.matches(Annotation._WS_CLOSE, null) &&
          !func.matches(Annotation._WS_ERROR, null)) {
-        for(final Object value : values) {
-          final RemoteEndpoint remote = ws.getSession().getRemote();
-          if(value instanceof ByteBuffer) {
-            remote.sendBytes((ByteBuffer) value);
-          } else {
-            remote.sendString((String) value);
-          }
-        }
+        ws.queue.add(values);
       }
     } finally {
       qc.close();
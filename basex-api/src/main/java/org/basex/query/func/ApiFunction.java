@@ -251,6 +251,8 @@ public enum ApiFunction implements AFunction {
   /** XQuery function. */
   _WS_IDS(WsIds.class, "ids()", arg(), STR_ZM, flag(NDT), WS_URI),
   /** XQuery function. */
+  _WS_INFO(WsInfo.class, "info(id)", arg(STR_O), MAP_O, flag(NDT), WS_URI),
+  /** XQuery function. */
   _WS_PATH(WsPath.class, "path(id)", arg(STR_O), STR_O, flag(NDT), WS_URI),
   /** XQuery function. */
   _WS_SEND(WsSend.class, "send(message[,ids])", arg(ITEM_O, STR_ZM), EMP, flag(NDT), WS_URI),
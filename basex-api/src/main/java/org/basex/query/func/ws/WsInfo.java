@@ -0,0 +1,18 @@
+package org.basex.query.func.ws;
+
+import org.basex.query.*;
+import org.basex.query.value.map.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class WsInfo extends WsFn {
+  @Override
+  public XQMap item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    return client(qc).queue.info();
+  }
+}
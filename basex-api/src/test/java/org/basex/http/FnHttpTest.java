@@ -23,6 +23,7 @@ import org.basex.query.QueryError.*;
 import org.basex.query.func.fn.*;
 import org.basex.query.util.list.*;
 import org.basex.query.value.*;
+import org.basex.query.value.array.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.seq.*;
@@ -146,6 +147,48 @@ public class FnHttpTest extends HTTPTest {
     }
   }
 
+  /**
+   * Test sending of multiple HTTP requests.
+   * @throws Exception exception
+   */
+  @Test public void sendRequests() throws Exception {
+    // responses are returned in the order of the requests
+    try(QueryProcessor qp = new QueryProcessor(_HTTP_SEND_REQUESTS.args(
+        " (1 to 5) ! <http:request method='get' override-media-type='text/plain' href='" +
+        REST_ROOT + "?query={ . }'/>", 2) +
+        " ! ?2", ctx)) {
+      assertEquals("1\n2\n3\n4\n5", qp.value().serialize().toString());
+    }
+
+    // single array per response
+    try(QueryProcessor qp = new QueryProcessor(_HTTP_SEND_REQUESTS.args(
+        " <http:request method='get' status-only='true' href='" + REST_ROOT + "'/>"), ctx)) {
+      final Value value = qp.value();
+      assertEquals(1, value.size());
+      checkResponse(((XQArray) value.itemAt(0)).get(0), 1, HttpURLConnection.HTTP_OK);
+    }
+
+    // empty degree of parallelism: default is used
+    try(QueryProcessor qp = new QueryProcessor(_HTTP_SEND_REQUESTS.args(
+        " (1 to 3) ! <http:request method='get' status-only='true' href='" + REST_ROOT + "'/>",
+        " ()"), ctx)) {
+      assertEquals(3, qp.value().size());
+    }
+
+    // no requests
+    try(QueryProcessor qp = new QueryProcessor(_HTTP_SEND_REQUESTS.args(" ()"), ctx)) {
+      assertEquals(0, qp.value().size());
+    }
+
+    // errors are passed on
+    try {
+      new XQuery(_HTTP_SEND_REQUESTS.args(" <http:request/>")).execute(ctx);
+      fail("Error expected");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage().contains(ErrType.HC.toString()));
+    }
+  }
+
   /**
    * Test sending of HTTP DELETE requests.
    * @throws Exception exception
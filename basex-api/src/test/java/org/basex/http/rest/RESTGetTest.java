@@ -3,6 +3,7 @@ package org.basex.http.rest;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.net.*;
 
 import org.basex.core.*;
 import org.basex.io.*;
@@ -32,6 +33,43 @@ public final class RESTGetTest extends RESTTest {
     delete(NAME);
   }
 
+  /**
+   * Byte ranges of binary resources.
+   * @throws Exception exception
+   */
+  @Test public void range() throws Exception {
+    put(NAME, new ArrayInput("<a/>"));
+    put(NAME + "/raw", new ArrayInput("0123456789"), MediaType.APPLICATION_OCTET_STREAM);
+    assertEquals("0123456789", range(null, HttpURLConnection.HTTP_OK));
+    assertEquals("234", range("bytes=2-4", HttpURLConnection.HTTP_PARTIAL));
+    assertEquals("789", range("bytes=7-", HttpURLConnection.HTTP_PARTIAL));
+    assertEquals("89", range("bytes=-2", HttpURLConnection.HTTP_PARTIAL));
+    assertEquals("0123456789", range("bytes=4-2", HttpURLConnection.HTTP_OK));
+    assertEquals("0123456789", range("bytes=0-1,3-4", HttpURLConnection.HTTP_OK));
+    assertEquals("", range("bytes=10-", 416));
+    delete(NAME);
+  }
+
+  /**
+   * Retrieves the binary test resource.
+   * @param range range header (can be {@code null})
+   * @param status expected status code
+   * @return result
+   * @throws IOException I/O exception
+   */
+  private static String range(final String range, final int status) throws IOException {
+    final IOUrl url = new IOUrl(REST_ROOT + NAME + "/raw");
+    final HttpURLConnection conn = (HttpURLConnection) url.connection();
+    try {
+      if(range != null) conn.setRequestProperty(HttpText.RANGE, range);
+      assertEquals(status, conn.getResponseCode());
+      assertEquals(HttpText.BYTES, conn.getHeaderField(HttpText.ACCEPT_RANGES));
+      return status == 416 ? "" : read(conn.getInputStream());
+    } finally {
+      conn.disconnect();
+    }
+  }
+
   /**
    * GET Test.
    * @throws Exception exception
@@ -0,0 +1,68 @@
+package org.basex.http.restxq;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.core.cmd.*;
+import org.basex.util.http.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This test contains cached RESTXQ responses.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class RestXqCacheTest extends RestXqTest {
+  /** Functions for reading and updating the test database. */
+  private static final String FUNCTIONS =
+    "declare %R:POST %R:path('add') %updating function m:add() {" +
+    "  insert node <x/> into db:open('" + NAME + "')/a };" +
+    "declare %R:GET %R:path('count') %R:cache function m:count() {" +
+    "  count(db:open('" + NAME + "')//x) || ':' || random:uuid() };";
+
+  /**
+   * Creates the test database.
+   */
+  @Before public void create() {
+    execute(new CreateDB(NAME, "<a/>"));
+  }
+
+  /**
+   * Drops the test database.
+   */
+  @After public void drop() {
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Cached responses are returned until the accessed database is updated.
+   * @throws IOException I/O exception
+   */
+  @Test public void cache() throws IOException {
+    install(FUNCTIONS);
+    final String first = get("count");
+    assertTrue(first.startsWith("0:"));
+    assertEquals(first, get("count"));
+
+    post("add", "", MediaType.TEXT_PLAIN);
+    final String second = get("count");
+    assertTrue(second.startsWith("1:"));
+    assertEquals(second, get("count"));
+  }
+
+  /**
+   * Responses of functions with unknown database accesses are not cached.
+   * @throws IOException I/O exception
+   */
+  @Test public void uncached() throws IOException {
+    install("declare %R:GET %R:path('uuid') %R:cache function m:uuid() {" +
+      "  count(db:open('" + NAME + "' || substring(random:uuid(), 1, 0))) ||" +
+      "  ':' || random:uuid() };");
+    assertNotEquals(get("uuid"), get("uuid"));
+    install("declare %R:GET %R:path('uuid') function m:uuid() { random:uuid() };");
+    assertNotEquals(get("uuid"), get("uuid"));
+  }
+}
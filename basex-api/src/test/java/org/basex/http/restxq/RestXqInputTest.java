@@ -1,7 +1,14 @@
 package org.basex.http.restxq;
 
+import static org.junit.Assert.*;
+
+import java.net.*;
+
+import org.basex.core.*;
+import org.basex.http.*;
 import org.basex.util.http.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This test contains RESTXQ filters.
@@ -54,4 +61,46 @@ public final class RestXqInputTest extends RestXqTest {
     post("declare %R:POST('{$x}') %R:path('') function m:f($x) {$x//A};",
         "", "A\n1", MediaType.TEXT_CSV, "");
   }
+
+  /**
+   * Spooled request bodies and uploaded files.
+   * @throws Exception exception
+   */
+  @Test public void spooled() throws Exception {
+    final StaticOptions sopts = HTTPContext.get().context().soptions;
+    final int spool = sopts.get(StaticOptions.SPOOLSIZE);
+    // spool all request data to temporary files, keep session cookies
+    sopts.set(StaticOptions.SPOOLSIZE, 0);
+    final CookieHandler handler = CookieHandler.getDefault();
+    CookieHandler.setDefault(new CookieManager());
+    try {
+      final StringBuilder sb = new StringBuilder();
+      for(int i = 0; i < 10000; i++) sb.append((char) ('a' + i % 26));
+      final String content = sb.toString();
+
+      // binary body
+      post("declare %R:POST('{$x}') %R:path('') function m:f($x) { bin:length($x) };",
+          "", content, MediaType.APPLICATION_OCTET_STREAM, "10000");
+
+      // uploaded files: contents are still available after the request has been processed
+      final MediaType type = new MediaType(MediaType.MULTIPART_FORM_DATA + "; boundary=XX");
+      final String request = "--XX\r\n"
+          + "Content-Disposition: form-data; name=\"f\"; filename=\"a.txt\"\r\n\r\n"
+          + content + "\r\n--XX\r\n"
+          + "Content-Disposition: form-data; name=\"s\"\r\n\r\n"
+          + "x\r\n--XX--\r\n";
+      install("declare %R:POST %R:path('set') %R:form-param('f', '{$f}') "
+          + "%R:form-param('s', '{$s}') function m:set($f, $s) {"
+          + "  session:set('f', $f), $s || ':' || bin:length($f('a.txt'))"
+          + "};"
+          + "declare %R:GET %R:path('get') function m:get() {"
+          + "  bin:length(session:get('f')('a.txt'))"
+          + "};");
+      assertEquals("x:10000", post("set", request, type));
+      assertEquals("10000", get("get"));
+    } finally {
+      CookieHandler.setDefault(handler);
+      sopts.set(StaticOptions.SPOOLSIZE, spool);
+    }
+  }
 }
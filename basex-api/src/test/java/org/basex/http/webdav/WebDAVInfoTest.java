@@ -0,0 +1,98 @@
+package org.basex.http.webdav;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the cached WebDAV listings.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class WebDAVInfoTest extends SandboxTest {
+  /** Drops the test databases. */
+  @After public void tearDown() {
+    execute(new DropDB(NAME + '*'));
+  }
+
+  /** Lists resources and updates the listings. */
+  @Test public void children() {
+    execute(new CreateDB(NAME));
+    execute(new Add("a/b/x.xml", "<x/>"));
+    execute(new Add("a/y.xml", "<y/>"));
+    assertEquals("[a]", names(WebDAVInfo.children(NAME, "")));
+    assertEquals("[b, y.xml]", names(WebDAVInfo.children(NAME, "a")));
+    assertTrue(WebDAVInfo.cached().contains(NAME));
+
+    // listings are updated after the database has been changed
+    execute(new Delete("a/b"));
+    execute(new Add("a/z.xml", "<z/>"));
+    assertEquals("[y.xml, z.xml]", names(WebDAVInfo.children(NAME, "a")));
+  }
+
+  /** Discards the listings of dropped and renamed databases. */
+  @Test public void dropRename() {
+    execute(new CreateDB(NAME, "<x/>"));
+    execute(new CreateDB(NAME + '2', "<x/>"));
+    names(WebDAVInfo.children(NAME, ""));
+    names(WebDAVInfo.children(NAME + '2', ""));
+    assertTrue(WebDAVInfo.cached().containsAll(Arrays.asList(NAME, NAME + '2')));
+
+    execute(new DropDB(NAME));
+    execute(new AlterDB(NAME + '2', NAME + '3'));
+    names(WebDAVInfo.databases());
+    final HashSet<String> cached = WebDAVInfo.cached();
+    assertFalse(cached.contains(NAME));
+    assertFalse(cached.contains(NAME + '2'));
+
+    WebDAVInfo.remove(NAME + '3');
+    assertFalse(WebDAVInfo.cached().contains(NAME + '3'));
+  }
+
+  /** Limits the number of databases with cached listings. */
+  @Test public void limit() {
+    WebDAVInfo.cached().forEach(WebDAVInfo::remove);
+    final int max = WebDAVInfo.MAXDBS;
+    for(int d = 0; d < max; d++) {
+      execute(new CreateDB(NAME + d, "<x/>"));
+      assertEquals("[" + NAME + d + ".xml]", names(WebDAVInfo.children(NAME + d, "")));
+    }
+    assertEquals(max, WebDAVInfo.cached().size());
+
+    // listings of dropped databases are discarded first
+    execute(new DropDB(NAME + '0'));
+    execute(new CreateDB(NAME, "<x/>"));
+    names(WebDAVInfo.children(NAME, ""));
+    HashSet<String> cached = WebDAVInfo.cached();
+    assertEquals(max, cached.size());
+    assertTrue(cached.contains(NAME));
+    assertFalse(cached.contains(NAME + '0'));
+
+    // all listings are discarded if the limit is still exceeded
+    execute(new CreateDB(NAME + max, "<x/>"));
+    names(WebDAVInfo.children(NAME + max, ""));
+    cached = WebDAVInfo.cached();
+    assertEquals(1, cached.size());
+    assertTrue(cached.contains(NAME + max));
+  }
+
+  /**
+   * Runs a command and returns the sorted names of the resulting resources.
+   * @param info command
+   * @return names
+   */
+  private static String names(final WebDAVInfo info) {
+    execute(info);
+    final TreeSet<String> names = new TreeSet<>();
+    for(final WebDAVMetaData meta : info.resources) {
+      names.add(meta.path.isEmpty() ? meta.db : meta.path.replaceAll(".*/", ""));
+    }
+    return names.toString();
+  }
+}
@@ -0,0 +1,208 @@
+package org.basex.http.ws;
+
+import static org.basex.query.QueryError.*;
+import static org.basex.query.func.ApiFunction.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.*;
+import java.nio.*;
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
+import org.eclipse.jetty.websocket.api.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the message queue of WebSocket clients.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class WsQueueTest extends SandboxTest {
+  /** Messages that have been passed on to the remote endpoint. */
+  private final ArrayList<Object> received = new ArrayList<>();
+  /** Callbacks of the messages that are currently being sent. */
+  private final ArrayDeque<WriteCallback> callbacks = new ArrayDeque<>();
+  /** Status code of a closed session ({@code 0} if the session is open). */
+  private int status;
+
+  /**
+   * Drops messages if the queue is full.
+   * @throws QueryException query exception
+   */
+  @Test public void drop() throws QueryException {
+    final WsQueue queue = queue(2, true);
+    add(queue, "1", "2", "3", "4");
+    // first message is being sent, two messages are queued, last message is dropped
+    assertEquals(Arrays.asList("1"), received);
+    check(queue, 2, 0, 1, 0);
+
+    add(queue, "5");
+    check(queue, 2, 0, 2, 0);
+    // messages are sent in order, one at a time
+    complete(queue);
+    assertEquals(Arrays.asList("1", "2", "3"), received);
+    check(queue, 0, 3, 2, 0);
+    assertEquals(0, status);
+
+    // multiple messages are only added if all of them fit into the queue
+    add(queue, "6");
+    queue.add(Arrays.asList("7", "8", "9"));
+    check(queue, 0, 3, 5, 0);
+    queue.add(Arrays.asList("7", "8"));
+    check(queue, 2, 3, 5, 0);
+    complete(queue);
+    assertEquals(Arrays.asList("1", "2", "3", "6", "7", "8"), received);
+    assertEquals(0, status);
+  }
+
+  /**
+   * Closes the connection if the queue is full.
+   * @throws QueryException query exception
+   */
+  @Test public void close() throws QueryException {
+    final WsQueue queue = queue(2, false);
+    add(queue, "1", "2", "3");
+    assertEquals(0, status);
+    add(queue, "4");
+    assertEquals(StatusCode.POLICY_VIOLATION, status);
+    // queued and rejected messages are dropped
+    check(queue, 0, 0, 3, 0);
+
+    // closed queue: further messages are ignored
+    add(queue, "5");
+    complete(queue);
+    assertEquals(Arrays.asList("1"), received);
+    check(queue, 0, 1, 3, 0);
+  }
+
+  /**
+   * Returns statistics on the queue.
+   * @throws QueryException query exception
+   */
+  @Test public void info() throws QueryException {
+    final WsQueue queue = queue(10, false);
+    check(queue, 0, 0, 0, 0);
+    assertEquals(0, latency(queue, "latency"), 0);
+    assertEquals(0, latency(queue, "max-latency"), 0);
+
+    // byte buffers are shared, but not modified
+    final ByteBuffer bytes = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+    queue.add(Arrays.asList("1", bytes, "2"));
+    callbacks.poll().writeFailed(new Exception());
+    complete(queue);
+    check(queue, 0, 2, 0, 1);
+    assertEquals(3, bytes.remaining());
+    assertTrue(received.get(1) instanceof ByteBuffer && received.get(1) != bytes);
+
+    final double latency = latency(queue, "latency"), max = latency(queue, "max-latency");
+    assertTrue(latency >= 0 && max >= latency);
+
+    // ws:info: unknown client
+    error(_WS_INFO.args("unknown"), WS_NOTFOUND_X);
+  }
+
+  /**
+   * Creates a queue.
+   * @param max maximum number of queued messages
+   * @param drop drop messages
+   * @return queue
+   */
+  private WsQueue queue(final int max, final boolean drop) {
+    final StaticOptions sopts = new StaticOptions(false);
+    sopts.set(StaticOptions.WSQUEUE, max);
+    sopts.set(StaticOptions.WSDROP, drop);
+    final Session session = proxy(Session.class, (method, args) -> {
+      switch(method) {
+        case "isOpen": return status == 0;
+        case "close": status = (Integer) args[0]; return null;
+        case "getRemote": return proxy(RemoteEndpoint.class, (m, a) -> {
+          // messages are sent asynchronously: callbacks are invoked later on
+          received.add(a[0]);
+          callbacks.add((WriteCallback) a[1]);
+          return null;
+        });
+        default: throw new UnsupportedOperationException(method);
+      }
+    });
+    return new WsQueue(() -> session, sopts);
+  }
+
+  /**
+   * Adds single messages.
+   * @param queue queue
+   * @param messages messages
+   */
+  private static void add(final WsQueue queue, final String... messages) {
+    for(final String message : messages) queue.add(Collections.singletonList(message));
+  }
+
+  /**
+   * Completes the sending of all messages.
+   * @param queue queue
+   */
+  private void complete(final WsQueue queue) {
+    for(WriteCallback callback; (callback = callbacks.poll()) != null;) {
+      assertSame(queue, callback);
+      callback.writeSuccess();
+    }
+  }
+
+  /**
+   * Checks the statistics of the queue.
+   * @param queue queue
+   * @param queued expected number of queued messages
+   * @param sent expected number of sent messages
+   * @param dropped expected number of dropped messages
+   * @param failed expected number of failed messages
+   * @throws QueryException query exception
+   */
+  private static void check(final WsQueue queue, final long queued, final long sent,
+      final long dropped, final long failed) throws QueryException {
+    final XQMap info = queue.info();
+    assertEquals(6, info.mapSize());
+    assertEquals(queued, ((Int) info.get(Str.get("queued"), null)).itr());
+    assertEquals(sent, ((Int) info.get(Str.get("sent"), null)).itr());
+    assertEquals(dropped, ((Int) info.get(Str.get("dropped"), null)).itr());
+    assertEquals(failed, ((Int) info.get(Str.get("failed"), null)).itr());
+  }
+
+  /**
+   * Returns a latency value.
+   * @param queue queue
+   * @param key key
+   * @return latency
+   * @throws QueryException query exception
+   */
+  private static double latency(final WsQueue queue, final String key) throws QueryException {
+    return ((Dbl) queue.info().get(Str.get(key), null)).dbl();
+  }
+
+  /**
+   * Creates a proxy for the specified interface.
+   * @param <T> type of interface
+   * @param type interface
+   * @param handler handler for method names and arguments
+   * @return proxy
+   */
+  private static <T> T proxy(final Class<T> type, final Handler handler) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+        (proxy, method, args) -> handler.invoke(method.getName(), args)));
+  }
+
+  /** Handler for proxy invocations. */
+  private interface Handler {
+    /**
+     * Invokes a method.
+     * @param method method name
+     * @param args arguments
+     * @return result
+     */
+    Object invoke(String method, Object[] args);
+  }
+}
@@ -43,6 +43,8 @@ public final class Context {
   public final Log log;
   /** Locking. */
   public final Locking locking;
+  /** Cached external documents. */
+  public final DocCache docs;
 
   /** Client info. Set to {@code null} in standalone/server mode. */
   private final ClientInfo client;
@@ -107,6 +109,7 @@ public final class Context {
     repo = ctx.repo;
     log = ctx.log;
     jobs = ctx.jobs;
+    docs = ctx.docs;
   }
 
   /**
@@ -126,6 +129,7 @@ public final class Context {
     log = new Log(soptions);
     user = users.get(UserText.ADMIN);
     jobs = new JobPool(soptions);
+    docs = new DocCache(soptions);
     client = null;
   }
 
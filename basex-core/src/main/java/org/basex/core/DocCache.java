@@ -0,0 +1,161 @@
+package org.basex.core;
+
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.util.options.*;
+
+/**
+ * This class caches main-memory instances of external documents that have been parsed by
+ * read-only queries. Entries are indexed by the document URI and the parsing options.
+ * Local files are validated by their timestamp and length, and all entries expire after
+ * {@link StaticOptions#DOCCACHETIMEOUT} seconds. If the maximum size is exceeded, the least
+ * recently used entries will be evicted.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DocCache {
+  /** Cached documents (in the order of their last access). */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  /** Maximum size of all documents (in bytes). */
+  private final long max;
+  /** Timeout (in milliseconds). */
+  private final long timeout;
+  /** Current size of all documents (in bytes). */
+  private long size;
+
+  /**
+   * Constructor.
+   * @param sopts static options
+   */
+  DocCache(final StaticOptions sopts) {
+    max = (long) sopts.get(StaticOptions.DOCCACHE) << 20;
+    timeout = sopts.get(StaticOptions.DOCCACHETIMEOUT) * 1000L;
+  }
+
+  /**
+   * Indicates if the specified input can be cached.
+   * @param io input
+   * @return result of check
+   */
+  public boolean enabled(final IO io) {
+    return max > 0 && (io instanceof IOFile || io instanceof IOUrl);
+  }
+
+  /**
+   * Returns the cache key for the specified input and parsing options.
+   * @param io input
+   * @param opts main options
+   * @param parsing parsing options
+   * @return key
+   */
+  public static String key(final IO io, final MainOptions opts, final Option<?>... parsing) {
+    final StringBuilder sb = new StringBuilder(io.path());
+    for(final Option<?> option : parsing) {
+      sb.append('\n').append(option.name()).append('=').append(opts.get(option));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns a cached document.
+   * @param key key
+   * @param io input
+   * @return data reference, or {@code null} if no valid entry was found
+   */
+  public synchronized Data get(final String key, final IO io) {
+    final Entry entry = entries.get(key);
+    if(entry == null) return null;
+    if(System.currentTimeMillis() - entry.time < timeout && (!(io instanceof IOFile) ||
+        io.timeStamp() == entry.stamp && io.length() == entry.length)) return entry.data;
+    remove(key);
+    return null;
+  }
+
+  /**
+   * Caches a document. Must only be called for documents that will not be updated.
+   * @param key key
+   * @param io input
+   * @param stamp timestamp of the input, requested before it was parsed
+   * @param data data reference
+   */
+  public void put(final String key, final IO io, final long stamp, final Data data) {
+    final Entry entry = new Entry(io, stamp, data);
+    if(entry.size > max) return;
+
+    synchronized(this) {
+      remove(key);
+      entries.put(key, entry);
+      size += entry.size;
+      final Iterator<Entry> iter = entries.values().iterator();
+      while(size > max && iter.hasNext()) {
+        size -= iter.next().size;
+        iter.remove();
+      }
+    }
+  }
+
+  /**
+   * Discards the documents with the specified URI.
+   * @param uri URI of the documents (if {@code null}, all documents will be discarded)
+   * @return number of discarded documents
+   */
+  public synchronized int invalidate(final String uri) {
+    final int es = entries.size();
+    if(uri == null) {
+      entries.clear();
+      size = 0;
+    } else {
+      final Iterator<Entry> iter = entries.values().iterator();
+      while(iter.hasNext()) {
+        final Entry entry = iter.next();
+        if(entry.path.equals(uri)) {
+          size -= entry.size;
+          iter.remove();
+        }
+      }
+    }
+    return es - entries.size();
+  }
+
+  /**
+   * Removes an entry.
+   * @param key key
+   */
+  private void remove(final String key) {
+    final Entry entry = entries.remove(key);
+    if(entry != null) size -= entry.size;
+  }
+
+  /** Cached document. */
+  private static final class Entry {
+    /** Data reference. */
+    private final Data data;
+    /** Path of the document. */
+    private final String path;
+    /** Time at which the entry was created. */
+    private final long time = System.currentTimeMillis();
+    /** Timestamp of the input. */
+    private final long stamp;
+    /** Length of the input. */
+    private final long length;
+    /** Estimated size of the document in main memory. */
+    private final long size;
+
+    /**
+     * Constructor.
+     * @param io input
+     * @param stamp timestamp of the input
+     * @param data data reference
+     */
+    private Entry(final IO io, final long stamp, final Data data) {
+      this.data = data;
+      this.stamp = stamp;
+      path = io.path();
+      length = io.length();
+      size = Math.max(length, (long) data.meta.size << IO.NODEPOWER);
+    }
+  }
+}
@@ -22,6 +22,11 @@ public final class MainOptions extends Options {
   public static final BooleanOption MAINMEM = new BooleanOption("MAINMEM", false);
   /** Flag for closing a database after creating it. */
   public static final BooleanOption CREATEONLY = new BooleanOption("CREATEONLY", false);
+  /** Flag for compressing backups. */
+  public static final BooleanOption BACKUPCOMPRESS = new BooleanOption("BACKUPCOMPRESS", true);
+  /** Flag for only backing up files that changed since the last backup. */
+  public static final BooleanOption BACKUPINCREMENTAL =
+      new BooleanOption("BACKUPINCREMENTAL", false);
 
   // Parsing
 
@@ -143,6 +148,8 @@ public final class MainOptions extends Options {
   public static final NumberOption RUNS = new NumberOption("RUNS", 1);
   /** Flag for enforcing index rewritings. */
   public static final BooleanOption ENFORCEINDEX = new BooleanOption("ENFORCEINDEX", false);
+  /** Flag for rewriting substring searches for n-gram lookups in the value indexes. */
+  public static final BooleanOption NGRAMINDEX = new BooleanOption("NGRAMINDEX", false);
   /** Deep node copies. */
   public static final BooleanOption COPYNODE = new BooleanOption("COPYNODE", true);
 
@@ -33,6 +33,14 @@ public final class StaticOptions extends Options {
   public static final BooleanOption FAIRLOCK = new BooleanOption("FAIRLOCK", false);
   /** Timeout (seconds) for remembering result of asynchronous queries. */
   public static final NumberOption CACHETIMEOUT = new NumberOption("CACHETIMEOUT", 3600);
+  /** Maximum size of cached external documents (in megabytes). */
+  public static final NumberOption DOCCACHE = new NumberOption("DOCCACHE", 0);
+  /** Timeout (seconds) for caching external documents. */
+  public static final NumberOption DOCCACHETIMEOUT = new NumberOption("DOCCACHETIMEOUT", 3600);
+  /** Maximum number of idle pooled JDBC connections per data source. */
+  public static final NumberOption SQLPOOL = new NumberOption("SQLPOOL", 0);
+  /** Timeout (seconds) for closing idle pooled JDBC connections. */
+  public static final NumberOption SQLPOOLTIMEOUT = new NumberOption("SQLPOOLTIMEOUT", 300);
 
   /** Comment: written to options file. */
   public static final Comment C_CLIENT = new Comment("Client/Server Architecture");
@@ -70,6 +78,10 @@ public final class StaticOptions extends Options {
   public static final BooleanOption LOG = new BooleanOption("LOG", true);
   /** Log message cut-off. */
   public static final NumberOption LOGMSGMAXLEN = new NumberOption("LOGMSGMAXLEN", 1000);
+  /** Maximum number of queued log entries; entries are written synchronously if set to 0. */
+  public static final NumberOption LOGQUEUE = new NumberOption("LOGQUEUE", 10000);
+  /** Drop new log entries if the queue is full (instead of waiting). */
+  public static final BooleanOption LOGDROP = new BooleanOption("LOGDROP", false);
 
   /** Comment: written to options file. */
   public static final Comment C_HTTP = new Comment("HTTP Services");
@@ -87,6 +99,14 @@ public final class StaticOptions extends Options {
   public static final NumberOption PARSERESTXQ = new NumberOption("PARSERESTXQ", 3);
   /** Show errors in RESTXQ directory. */
   public static final BooleanOption RESTXQERRORS = new BooleanOption("RESTXQERRORS", true);
+  /** Maximum size of cached RESTXQ responses (in megabytes). */
+  public static final NumberOption RESTXQCACHE = new NumberOption("RESTXQCACHE", 16);
+  /** Maximum size of request bodies kept in main memory (in megabytes, larger ones are spooled). */
+  public static final NumberOption SPOOLSIZE = new NumberOption("SPOOLSIZE", 16);
+  /** Maximum number of queued WebSocket messages per client. */
+  public static final NumberOption WSQUEUE = new NumberOption("WSQUEUE", 1024);
+  /** Drop WebSocket messages if a queue is full (otherwise, the connection is closed). */
+  public static final BooleanOption WSDROP = new BooleanOption("WSDROP", false);
   /** Local (embedded) mode. */
   public static final BooleanOption HTTPLOCAL = new BooleanOption("HTTPLOCAL", false);
   /** Port for stopping the web server. */
@@ -1,16 +1,35 @@
 package org.basex.core.cmd;
 
+import static org.basex.data.DataText.*;
+import static org.basex.util.Token.*;
+
+import java.io.*;
+import java.util.zip.*;
+
 import org.basex.core.*;
 import org.basex.core.locks.*;
 import org.basex.core.users.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * Abstract class for database backup.
  *
+ * Each backup contains a manifest, which lists the states (size, modification time, CRC32
+ * checksum) of all database files, and the date of the backup it is based on. Full backups have
+ * no base, incremental backups only contain the files that changed since their base was created.
+ * As table and index files are rewritten in place, checksums are compared as well: a file that
+ * is rewritten with the same size and modification time will still be detected as changed.
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
 abstract class ABackup extends Command {
+  /** Name of the backup manifest. */
+  static final String MANIFEST = DATABKP + IO.BASEXSUFFIX;
+
   /**
    * Protected constructor.
    * @param args arguments
@@ -23,4 +42,97 @@ abstract class ABackup extends Command {
   public void addLocks() {
     jc().locks.writes.add(Locking.BACKUP); // No parallel backup operations
   }
+
+  /**
+   * Creates a backup manifest.
+   * @param states map with relative file paths and states
+   * @param base date of the base backup (empty string for full backups)
+   * @return manifest
+   */
+  static byte[] manifest(final TokenMap states, final String base) {
+    final TokenBuilder tb = new TokenBuilder().add(base).add('\n');
+    for(final byte[] path : states) tb.add(states.get(path)).add('\t').add(path).add('\n');
+    return tb.finish();
+  }
+
+  /**
+   * Returns the manifest of a backup.
+   * @param db name of the database
+   * @param backup name of the backup
+   * @param sopts static options
+   * @return manifest, or {@code null} if the backup was created without manifest
+   * @throws IOException I/O exception
+   */
+  static byte[] manifest(final String db, final String backup, final StaticOptions sopts)
+      throws IOException {
+    try {
+      return new Zip(sopts.dbPath(backup + IO.ZIPSUFFIX)).read(db + '/' + MANIFEST);
+    } catch(final FileNotFoundException ex) {
+      Util.debug(ex);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the date of the backup a manifest is based on.
+   * @param manifest manifest
+   * @return date, or empty string if the manifest belongs to a full backup
+   */
+  static String base(final byte[] manifest) {
+    final int i = indexOf(manifest, '\n');
+    return string(i == -1 ? manifest : substring(manifest, 0, i));
+  }
+
+  /**
+   * Returns the file states recorded in a manifest.
+   * @param manifest manifest
+   * @return map with relative file paths and states
+   */
+  static TokenMap states(final byte[] manifest) {
+    final TokenMap map = new TokenMap();
+    final byte[][] lines = split(manifest, '\n');
+    for(int l = 1; l < lines.length; l++) {
+      final byte[] line = lines[l];
+      final int i = indexOf(line, '\t');
+      if(i != -1) map.put(substring(line, i + 1), substring(line, 0, i));
+    }
+    return map;
+  }
+
+  /**
+   * Returns the current states of database files.
+   * @param root database directory
+   * @param files relative paths of the database files
+   * @return map with relative file paths and states
+   * @throws IOException I/O exception
+   */
+  static TokenMap states(final IOFile root, final StringList files) throws IOException {
+    final TokenMap map = new TokenMap();
+    for(final String file : files) map.put(path(file), state(new IOFile(root, file)));
+    return map;
+  }
+
+  /**
+   * Returns the state of a file.
+   * @param file file
+   * @return state
+   * @throws IOException I/O exception
+   */
+  private static byte[] state(final IOFile file) throws IOException {
+    final CRC32 crc = new CRC32();
+    try(InputStream in = file.inputStream()) {
+      final byte[] buffer = new byte[IO.BLOCKSIZE];
+      for(int r; (r = in.read(buffer)) != -1;) crc.update(buffer, 0, r);
+    }
+    return token(file.length() + " " + file.timeStamp() + ' ' + Long.toHexString(crc.getValue()));
+  }
+
+  /**
+   * Returns a normalized relative file path.
+   * @param file relative file path
+   * @return normalized path
+   */
+  static byte[] path(final String file) {
+    return token(Prop.WIN ? file.replace('\\', '/') : file);
+  }
 }
@@ -2,6 +2,7 @@ package org.basex.core.cmd;
 
 import static org.basex.core.Text.*;
 import static org.basex.data.DataText.*;
+import static org.basex.util.Token.*;
 
 import java.io.*;
 import java.util.*;
@@ -13,6 +14,7 @@ import org.basex.core.parse.Commands.CmdCreate;
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.util.*;
+import org.basex.util.hash.*;
 import org.basex.util.list.*;
 
 /**
@@ -49,7 +51,7 @@ public final class CreateBackup extends ABackup {
         ok = false;
       } else {
         try {
-          backup(db, soptions, this);
+          backup(db, context, this);
           // backup was successful
           info(DB_BACKUP_X, db, jc().performance);
         } catch(final IOException ex) {
@@ -65,24 +67,49 @@ public final class CreateBackup extends ABackup {
   /**
    * Backups the specified database.
    * @param db name of the database
-   * @param sopts static options
+   * @param ctx database context
    * @param cmd calling command instance
    * @throws IOException I/O Exception
    */
-  public static void backup(final String db, final StaticOptions sopts, final CreateBackup cmd)
+  public static void backup(final String db, final Context ctx, final CreateBackup cmd)
       throws IOException {
 
-    final String backup = db + '-' + DateTime.format(new Date(), DateTime.DATETIME) + IO.ZIPSUFFIX;
-    final IOFile zf = sopts.dbPath(backup);
-    final Zip zip = new Zip(zf);
+    final StaticOptions sopts = ctx.soptions;
+    final String date = DateTime.format(new Date(), DateTime.DATETIME);
+    final IOFile dbpath = sopts.dbPath(db);
+    final StringList files = dbpath.descendants();
+    // ignore file indicating an update (this file is generated when using XQuery)
+    files.removeAll(DATAUPD + IO.BASEXSUFFIX);
+    files.removeAll(MANIFEST);
 
+    final TokenMap states = states(dbpath, files);
+
+    // incremental backup: only add files that changed since the latest backup
+    String base = "";
+    StringList changed = files;
+    if(ctx.options.get(MainOptions.BACKUPINCREMENTAL)) {
+      final StringList backups = ctx.databases.backups(db);
+      final String latest = backups.isEmpty() ? null : backups.get(0);
+      final String ldate = latest != null ? Databases.date(latest) : null;
+      // the latest backup must have a date and a manifest
+      final byte[] manifest = ldate != null && !ldate.equals(latest) && !ldate.equals(date) ?
+        manifest(db, latest, sopts) : null;
+      if(manifest != null) {
+        final TokenMap old = states(manifest);
+        changed = new StringList();
+        for(final String file : files) {
+          final byte[] path = path(file);
+          if(!eq(old.get(path), states.get(path))) changed.add(file);
+        }
+        base = ldate;
+      }
+    }
+
+    final Zip zip = new Zip(sopts.dbPath(db + '-' + date + IO.ZIPSUFFIX));
     try {
       if(cmd != null) cmd.pushJob(zip);
-      final IOFile dbpath = sopts.dbPath(db);
-      final StringList files = dbpath.descendants();
-      // ignore file indicating an update (this file is generated when using XQuery)
-      files.removeAll(DATAUPD + IO.BASEXSUFFIX);
-      zip.zip(dbpath, files);
+      final int level = ctx.options.get(MainOptions.BACKUPCOMPRESS) ? 1 : 0;
+      zip.zip(dbpath, changed, level, MANIFEST, manifest(states, base));
     } finally {
       if(cmd != null) cmd.popJob();
     }
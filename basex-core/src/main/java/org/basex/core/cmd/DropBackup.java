@@ -2,12 +2,15 @@ package org.basex.core.cmd;
 
 import static org.basex.core.Text.*;
 
+import java.io.*;
+
 import org.basex.core.*;
 import org.basex.core.parse.*;
 import org.basex.core.parse.Commands.Cmd;
 import org.basex.core.parse.Commands.CmdDrop;
 import org.basex.core.users.*;
 import org.basex.io.*;
+import org.basex.util.*;
 import org.basex.util.list.*;
 
 /**
@@ -44,13 +47,52 @@ public final class DropBackup extends ABackup {
   }
 
   /**
-   * Drops a backup with the specified name.
+   * Drops a backup with the specified name. Incremental backups that are based on this backup
+   * cannot be restored anymore; they will be dropped as well.
    * @param name name of backup file
    * @param sopts static options
    * @return success flag
    */
   public static boolean drop(final String name, final StaticOptions sopts) {
-    return sopts.dbPath(name + IO.ZIPSUFFIX).delete();
+    boolean ok = true;
+    final String db = Databases.name(name), date = Databases.date(name);
+    if(!date.equals(name)) {
+      for(final IOFile file : sopts.dbPath().children()) {
+        final String fn = file.name();
+        if(!fn.endsWith(IO.ZIPSUFFIX)) continue;
+        final String backup = fn.substring(0, fn.lastIndexOf('.'));
+        if(!backup.equals(name) && Databases.name(backup).equals(db) &&
+            basedOn(db, backup, date, sopts)) ok &= file.delete();
+      }
+    }
+    return sopts.dbPath(name + IO.ZIPSUFFIX).delete() && ok;
+  }
+
+  /**
+   * Checks if the specified backup is directly or indirectly based on the backup with the
+   * specified date.
+   * @param db name of the database
+   * @param backup name of the backup
+   * @param date date of the base backup
+   * @param sopts static options
+   * @return result of check
+   */
+  private static boolean basedOn(final String db, final String backup, final String date,
+      final StaticOptions sopts) {
+    try {
+      // follow the chain of bases (each base is older than the backup that is based on it)
+      String bkp = backup;
+      for(byte[] manifest; (manifest = manifest(db, bkp, sopts)) != null;) {
+        final String base = base(manifest);
+        if(base.compareTo(date) <= 0) return base.equals(date);
+        if(base.compareTo(Databases.date(bkp)) >= 0) break;
+        bkp = db + '-' + base;
+        if(!sopts.dbPath(bkp + IO.ZIPSUFFIX).exists()) break;
+      }
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+    return false;
   }
 
   @Override
@@ -160,7 +160,7 @@ public final class Optimize extends ACreate {
     optimize(IndexType.TEXT, data, meta.createtext, enforceText, cmd);
     optimize(IndexType.ATTRIBUTE, data, meta.createattr, enforceAttr, cmd);
     optimize(IndexType.TOKEN, data, meta.createtoken, enforceToken, cmd);
-    optimize(IndexType.FULLTEXT, data, meta.createft, enforceFt, cmd);
+    optimize(IndexType.FULLTEXT, data, meta.createft, enforceFt || meta.oldftindex(), cmd);
   }
 
   /**
@@ -199,6 +199,7 @@ public final class Optimize extends ACreate {
       if(data.meta.textindex) optimize(IndexType.TEXT, data, true, true, null);
       if(data.meta.attrindex) optimize(IndexType.ATTRIBUTE, data, true, true, null);
       if(data.meta.tokenindex) optimize(IndexType.TOKEN, data, true, true, null);
+      if(data.meta.ftindex) optimize(IndexType.FULLTEXT, data, true, true, null);
     }
   }
 }
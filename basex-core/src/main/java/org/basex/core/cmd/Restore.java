@@ -7,6 +7,7 @@ import java.io.*;
 import org.basex.core.*;
 import org.basex.io.*;
 import org.basex.util.*;
+import org.basex.util.hash.*;
 import org.basex.util.list.*;
 
 /**
@@ -74,16 +75,39 @@ public final class Restore extends ABackup {
   public static void restore(final String db, final String backup, final StaticOptions sopts,
       final Restore cmd) throws IOException {
 
+    // incremental backup: collect all backups it is based on
+    final StringList chain = new StringList().add(backup);
+    for(byte[] manifest; (manifest = manifest(db, chain.peek(), sopts)) != null;) {
+      final String base = base(manifest);
+      if(base.isEmpty()) break;
+      final String bkp = db + '-' + base;
+      if(base.compareTo(Databases.date(chain.peek())) >= 0 ||
+          !sopts.dbPath(bkp + IO.ZIPSUFFIX).exists()) throw new FileNotFoundException(bkp);
+      chain.add(bkp);
+    }
+
     // drop target database
     DropDB.drop(db, sopts);
 
+    // restore full backup, followed by incremental backups
     final IOFile dbPath = sopts.dbPath();
-    final Zip zip = new Zip(new IOFile(dbPath, backup + IO.ZIPSUFFIX));
-    try {
-      if(cmd != null) cmd.pushJob(zip);
-      zip.unzip(dbPath);
-    } finally {
-      if(cmd != null) cmd.popJob();
+    for(int c = chain.size() - 1; c >= 0; c--) {
+      final Zip zip = new Zip(new IOFile(dbPath, chain.get(c) + IO.ZIPSUFFIX));
+      try {
+        if(cmd != null) cmd.pushJob(zip);
+        zip.unzip(dbPath);
+      } finally {
+        if(cmd != null) cmd.popJob();
+      }
+    }
+
+    // delete manifest and files that did not exist when the backup was created
+    final IOFile dir = sopts.dbPath(db), manifest = new IOFile(dir, MANIFEST);
+    if(manifest.exists()) {
+      final TokenMap states = states(manifest.read());
+      for(final String file : dir.descendants()) {
+        if(!states.contains(path(file))) new IOFile(dir, file).delete();
+      }
     }
   }
 
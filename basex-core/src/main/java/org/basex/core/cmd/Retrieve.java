@@ -8,7 +8,6 @@ import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.io.*;
-import org.basex.io.in.*;
 
 /**
  * Evaluates the 'retrieve' command and retrieves binary content.
@@ -36,8 +35,8 @@ public final class Retrieve extends ACreate {
     final IOFile bin = data.meta.binary(path);
     if(bin == null || !bin.exists() || bin.isDir()) return error(RES_NOT_FOUND_X, path);
 
-    try(BufferInput bi = BufferInput.get(bin)) {
-      for(int b; (b = bi.read()) != -1;) out.write(b);
+    try {
+      bin.copyTo(out, 0, bin.length());
     } catch(final IOException ex) {
       return error(ex.toString());
     }
@@ -110,6 +110,8 @@ public abstract class Data {
 
   /** Indicates if distances are to be updated. */
   public boolean updateDists = true;
+  /** Cached value index updates ({@code null} if updates are directly applied). */
+  private EnumMap<IndexType, ValueUpdates> valueUpdates;
   /** ID-PRE mapping. */
   public IdPreMap idmap;
 
@@ -535,23 +537,57 @@ public abstract class Data {
 
       } else {
         // update element name
-        final IntList pres = new IntList();
-        // update text index
-        if(meta.updindex && meta.textindex) {
-          final int last = pre + size;
+        final IntList texts = new IntList(), attrs = new IntList();
+        final boolean updText = meta.updindex && meta.textindex;
+        final boolean updFt = meta.updindex && meta.ftindex;
+        final boolean updAttr = meta.updindex && meta.attrindex && paths(IndexType.ATTRIBUTE);
+        final boolean updToken = meta.updindex && meta.tokenindex && paths(IndexType.TOKEN);
+        final int last = pre + size;
+        if(updText && paths(IndexType.TEXT) || updFt && paths(IndexType.FULLTEXT) || updAttr ||
+            updToken) {
+          // included paths: values of all descendants may be affected
+          for(int curr = pre; curr < last; curr++) {
+            final int k = kind(curr);
+            if(k == TEXT && (updText || updFt)) texts.add(curr);
+            else if(k == ATTR) attrs.add(curr);
+          }
+        } else if(updText || updFt) {
           for(int curr = pre + attSize(pre, kind); curr < last; curr += size(curr, kind(curr))) {
-            if(kind(curr) == TEXT) pres.add(curr);
+            if(kind(curr) == TEXT) texts.add(curr);
           }
-          textIndex.delete(new ValueCache(pres, IndexType.TEXT, this));
         }
+        // delete old values from indexes
+        if(!texts.isEmpty()) {
+          if(updText) textIndex.delete(new ValueCache(texts, IndexType.TEXT, this));
+          if(updFt) ftIndex.delete(new ValueCache(texts, IndexType.FULLTEXT, this));
+        }
+        if(updAttr) attrIndex.delete(new ValueCache(attrs, IndexType.ATTRIBUTE, this));
+        if(updToken) tokenIndex.delete(new ValueCache(attrs, IndexType.TOKEN, this));
+
         table.write1(pre, 3, uriId);
         final int nameId = elemNames.put(name);
         table.write2(nsPre, 1, (nsFlag || nsFlag(nsPre) ? 1 << 15 : 0) | nameId);
-        if(!pres.isEmpty()) textIndex.add(new ValueCache(pres, IndexType.TEXT, this));
+
+        // add new values to indexes
+        if(!texts.isEmpty()) {
+          if(updText) textIndex.add(new ValueCache(texts, IndexType.TEXT, this));
+          if(updFt) ftIndex.add(new ValueCache(texts, IndexType.FULLTEXT, this));
+        }
+        if(updAttr) attrIndex.add(new ValueCache(attrs, IndexType.ATTRIBUTE, this));
+        if(updToken) tokenIndex.add(new ValueCache(attrs, IndexType.TOKEN, this));
       }
     }
   }
 
+  /**
+   * Checks if the include option of the specified index contains paths.
+   * @param type index type
+   * @return result of check
+   */
+  private boolean paths(final IndexType type) {
+    return new IndexNames(type, this).containsPaths();
+  }
+
   /**
    * Updates (replaces) the value of a single text, comment, pi, attribute or document node.
    * @param pre pre value of the node to be updated
@@ -1069,9 +1105,10 @@ public abstract class Data {
   protected final void indexDelete(final int pre, final int id, final int size) {
     if(id != -1) resources.delete(pre, size);
     if(meta.updindex) {
-      if(meta.textindex) textIndex.delete(new ValueCache(pre, size, IndexType.TEXT, this));
-      if(meta.attrindex) attrIndex.delete(new ValueCache(pre, size, IndexType.ATTRIBUTE, this));
-      if(meta.tokenindex) tokenIndex.delete(new ValueCache(pre, size, IndexType.TOKEN, this));
+      if(meta.textindex) indexUpdate(IndexType.TEXT, pre, size, false);
+      if(meta.attrindex) indexUpdate(IndexType.ATTRIBUTE, pre, size, false);
+      if(meta.tokenindex) indexUpdate(IndexType.TOKEN, pre, size, false);
+      if(meta.ftindex) ftIndex.delete(new ValueCache(pre, size, IndexType.FULLTEXT, this));
       if(id != -1) idmap.delete(pre, id, -size);
     }
   }
@@ -1087,9 +1124,51 @@ public abstract class Data {
     if(id != -1) resources.insert(pre, clip);
     if(meta.updindex) {
       if(id != -1) idmap.insert(pre, id, size);
-      if(meta.textindex) textIndex.add(new ValueCache(pre, size, IndexType.TEXT, this));
-      if(meta.attrindex) attrIndex.add(new ValueCache(pre, size, IndexType.ATTRIBUTE, this));
-      if(meta.tokenindex) tokenIndex.add(new ValueCache(pre, size, IndexType.TOKEN, this));
+      if(meta.textindex) indexUpdate(IndexType.TEXT, pre, size, true);
+      if(meta.attrindex) indexUpdate(IndexType.ATTRIBUTE, pre, size, true);
+      if(meta.tokenindex) indexUpdate(IndexType.TOKEN, pre, size, true);
+      if(meta.ftindex) ftIndex.add(new ValueCache(pre, size, IndexType.FULLTEXT, this));
+    }
+  }
+
+  /**
+   * Adds or deletes value index entries, or caches the changes if index updates are cached.
+   * @param type index type
+   * @param pre first pre value of the nodes
+   * @param size number of descendants
+   * @param add add or delete entries
+   */
+  private void indexUpdate(final IndexType type, final int pre, final int size,
+      final boolean add) {
+    final ValueCache vc = new ValueCache(pre, size, type, this);
+    if(valueUpdates != null) {
+      final ValueUpdates vu = valueUpdates.computeIfAbsent(type, ValueUpdates::new);
+      if(add) {
+        vu.add(vc);
+      } else {
+        ((ValueIndex) index(type)).prepareDelete(vc);
+        vu.delete(vc);
+      }
+    } else {
+      final ValueIndex index = (ValueIndex) index(type);
+      if(add) index.add(vc);
+      else index.delete(vc);
+    }
+  }
+
+  /**
+   * Starts or finishes the caching of value index updates. While updates are cached, all changes
+   * are collected and merged. They are applied in a single step when caching is finished.
+   * This way, the index structures will only be rewritten once if many nodes are updated.
+   * @param cache start or finish caching
+   */
+  public final void cacheIndexUpdates(final boolean cache) {
+    if(cache) {
+      if(meta.updindex && valueUpdates == null) valueUpdates = new EnumMap<>(IndexType.class);
+    } else if(valueUpdates != null) {
+      final EnumMap<IndexType, ValueUpdates> vus = valueUpdates;
+      valueUpdates = null;
+      vus.forEach((type, vu) -> vu.apply((ValueIndex) index(type)));
     }
   }
 
@@ -14,7 +14,9 @@ public interface DataText {
   /** Database version; older version cannot open these instances. */
   String STORAGE = "9.0.1";
   /** Index version; older version cannot open indexes of these instances. */
-  String ISTORAGE = "8.6";
+  String ISTORAGE = "9.3.1";
+  /** Oldest index version with compatible full-text indexes. */
+  String FTSTORAGE = "9.3.1";
 
   /** Database version. */
   String DBSTR = "STORAGE";
@@ -94,6 +96,8 @@ public interface DataText {
 
   /** Database - Info. */
   String DATAINF = "inf";
+  /** Database - Histograms and sketches of the statistics. */
+  String DATASKT = "skt";
   /** Database - Tokens. */
   String DATATBL = "tbl";
   /** Database - Temporary Size References. */
@@ -114,6 +118,8 @@ public interface DataText {
   String DATAPTH = "pth";
   /** Database - ID-PRE mapping. */
   String DATAIDP = "idp";
+  /** Database - Backup manifest. */
+  String DATABKP = "bkp";
 
   // XML SERIALIZATION ============================================================================
 
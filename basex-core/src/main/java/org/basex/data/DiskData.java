@@ -79,6 +79,7 @@ public final class DiskData extends Data {
         }
       }
     }
+    readSketches();
 
     // open data and indexes
     init();
@@ -117,6 +118,43 @@ public final class DiskData extends Data {
     init();
   }
 
+  /**
+   * Reads the histograms and sketches of the statistics. They are stored in a separate file,
+   * which is ignored if the statistics are outdated or if it belongs to another database state.
+   */
+  private void readSketches() {
+    final IOFile file = meta.dbFile(DATASKT);
+    if(!meta.uptodate || !file.exists()) return;
+    try(DataInput in = new DataInput(file)) {
+      if(toLong(in.readToken()) != meta.time) return;
+      elemNames.readSketches(in);
+      attrNames.readSketches(in);
+      paths.readSketches(in);
+    } catch(final IOException ex) {
+      // statistics can be used without histograms and sketches
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Writes the histograms and sketches of the statistics.
+   * @throws IOException I/O exception
+   */
+  private void writeSketches() throws IOException {
+    final IOFile file = meta.dbFile(DATASKT);
+    // outdated statistics: delete existing file
+    if(!meta.uptodate) {
+      file.delete();
+      return;
+    }
+    try(DataOutput out = new DataOutput(file)) {
+      out.writeToken(token(meta.time));
+      elemNames.writeSketches(out);
+      attrNames.writeSketches(out);
+      paths.writeSketches(out);
+    }
+  }
+
   /**
    * Initializes the database.
    * @throws IOException I/O exception
@@ -148,6 +186,7 @@ public final class DiskData extends Data {
       resources.write(out);
       out.write(0);
     }
+    writeSketches();
     if(meta.updindex) idmap.write(meta.dbFile(DATAIDP));
     meta.dirty = false;
   }
@@ -206,6 +245,12 @@ public final class DiskData extends Data {
     close(type);
     final Index index = index(type);
     if(index != null && !index.drop()) throw new BaseXException(INDEX_NOT_DROPPED_X, type);
+    // drop full-text index with outdated format
+    if(type == IndexType.FULLTEXT && meta.oldftindex) {
+      if(!meta.drop(DATAFTX + ".*")) throw new BaseXException(INDEX_NOT_DROPPED_X, type);
+      meta.oldftindex = false;
+      meta.dirty = true;
+    }
   }
 
   /**
@@ -261,6 +306,7 @@ public final class DiskData extends Data {
         values.flush();
         if(textIndex != null) textIndex.flush();
         if(attrIndex != null) attrIndex.flush();
+        if(ftIndex != null) ftIndex.flush();
       }
     } catch(final IOException ex) {
       Util.stack(ex);
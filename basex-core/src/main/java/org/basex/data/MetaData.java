@@ -103,6 +103,10 @@ public final class MetaData {
 
   /** Flag for out-of-date indexes. */
   private boolean oldindex;
+  /** Flag for a full-text index with an outdated format, which needs to be dropped. */
+  boolean oldftindex;
+  /** Version of the index storage (written back while an outdated full-text index exists). */
+  private String istorage = ISTORAGE;
 
   /**
    * Constructor for a main-memory database instance.
@@ -236,7 +240,15 @@ public final class MetaData {
    * @return result of check
    */
   public boolean oldindex() {
-    return oldindex;
+    return oldindex || oldftindex;
+  }
+
+  /**
+   * Returns true if the full-text index has an outdated format and needs to be dropped.
+   * @return result of check
+   */
+  public boolean oldftindex() {
+    return oldftindex;
   }
 
   /**
@@ -382,7 +394,8 @@ public final class MetaData {
    * @throws IOException I/O exception
    */
   void read(final DataInput in) throws IOException {
-    String storage = "", istorage = "";
+    String storage = "";
+    istorage = "";
     while(true) {
       final String k = Token.string(in.readToken());
       if(k.isEmpty()) break;
@@ -428,6 +441,9 @@ public final class MetaData {
     // check version of database indexes
     oldindex = !istorage.equals(ISTORAGE) &&
         new Version(istorage).compareTo(new Version(ISTORAGE)) > 0;
+    // full-text indexes with absolute references cannot be opened anymore
+    oldftindex = ftindex && new Version(istorage).compareTo(new Version(FTSTORAGE)) < 0;
+    if(oldftindex) ftindex = false;
     corrupt = dbFile(DATAUPD).exists();
   }
 
@@ -440,7 +456,8 @@ public final class MetaData {
     writeInfo(out, DBSTR,      STORAGE);
     writeInfo(out, DBFNAME,    original);
     writeInfo(out, DBTIME,     time);
-    writeInfo(out, IDBSTR,     ISTORAGE);
+    // an outdated full-text index will be detected again until it has been dropped
+    writeInfo(out, IDBSTR,     oldftindex ? istorage : ISTORAGE);
     writeInfo(out, DBFSIZE,    inputsize);
     writeInfo(out, DBNDOCS,    ndocs);
     writeInfo(out, DBSIZE,     size);
@@ -449,7 +466,7 @@ public final class MetaData {
     writeInfo(out, DBTXTIDX,   textindex);
     writeInfo(out, DBATVIDX,   attrindex);
     writeInfo(out, DBTOKIDX,   tokenindex);
-    writeInfo(out, DBFTXIDX,   ftindex);
+    writeInfo(out, DBFTXIDX,   ftindex || oldftindex);
     writeInfo(out, DBTXTINC,   textinclude);
     writeInfo(out, DBATVINC,   attrinclude);
     writeInfo(out, DBTOKINC,   tokeninclude);
@@ -475,16 +492,16 @@ public final class MetaData {
    * Notifies the meta structures of an update and invalidates the indexes.
    */
   public void update() {
-    // update database timestamp
-    time = System.currentTimeMillis();
+    // update database timestamp (consecutive updates yield different timestamps)
+    time = Math.max(System.currentTimeMillis(), time + 1);
     uptodate = false;
     dirty = true;
     if(!updindex) {
       textindex = false;
       attrindex = false;
       tokenindex = false;
+      ftindex = false;
     }
-    ftindex = false;
   }
 
   /**
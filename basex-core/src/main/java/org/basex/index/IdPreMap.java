@@ -33,6 +33,9 @@ public class IdPreMap {
 
   /** Number of records in the table. */
   private int rows;
+  /** Indexes of the records with inserted IDs, sorted by their first ID.
+   * Created on demand, reset after updates. */
+  private volatile int[] order;
 
   /**
    * Constructor.
@@ -99,9 +102,14 @@ public class IdPreMap {
     if(rows == 0 || id < pres[0]) return id;
 
     if(id > baseid) {
-      // id was inserted by update
-      for(int i = 0; i < rows; ++i) {
-        if(fids[i] <= id && id <= nids[i]) return pres[i] + id - fids[i];
+      // id was inserted by update: binary search on the records with inserted IDs
+      final int[] ord = order();
+      int l = 0, h = ord.length - 1;
+      while(l <= h) {
+        final int m = l + h >>> 1, i = ord[m];
+        if(nids[i] < id) l = m + 1;
+        else if(fids[i] > id) h = m - 1;
+        else return pres[i] + id - fids[i];
       }
     } else {
       // id is affected by updates
@@ -118,6 +126,7 @@ public class IdPreMap {
    * @param c number of inserted records
    */
   public void insert(final int pre, final int id, final int c) {
+    order = null;
     if(rows == 0 && pre == id && id == baseid + 1) {
       // no mapping and we append at the end => nothing to do
       baseid += c;
@@ -155,11 +164,13 @@ public class IdPreMap {
           } else {
             oid = pre - incs[prev];
             inc += incs[prev];
+            if(append(pos, pre, id, c, inc, oid)) return;
           }
         }
       } else if(pos > 0) {
         oid = oids[pos];
         inc += incs[pos - 1];
+        if(append(pos, pre, id, c, inc, oid)) return;
       }
 
       increment(pos, c);
@@ -169,6 +180,29 @@ public class IdPreMap {
     add(pos, pre, id, id + c - 1, inc, oid);
   }
 
+  /**
+   * Appends inserted IDs to the interval of the previous record if the IDs and PRE values
+   * directly follow this interval.
+   * @param pos position of the record that will follow the inserted IDs
+   * @param pre PRE of the first inserted record
+   * @param id ID of the first inserted record
+   * @param c number of inserted records
+   * @param inc increment of the inserted records
+   * @param oid original ID of the inserted records
+   * @return {@code true} if the IDs were appended
+   */
+  private boolean append(final int pos, final int pre, final int id, final int c,
+      final int inc, final int oid) {
+    final int prev = pos - 1;
+    if(fids[prev] == INV || id != nids[prev] + 1 || oid != oids[prev] ||
+        pre != pres[prev] + nids[prev] - fids[prev] + 1) return false;
+
+    nids[prev] += c;
+    incs[prev] = inc;
+    increment(pos, c);
+    return true;
+  }
+
   /**
    * Deletes records.
    * @param pre PRE of the first record
@@ -176,6 +210,7 @@ public class IdPreMap {
    * @param c number of deleted records (negative)
    */
   public void delete(final int pre, final int id, final int c) {
+    order = null;
     if(rows == 0 && pre == id && id - c == baseid + 1) {
       // no mapping and we delete at the end => nothing to do
       baseid += c;
@@ -286,6 +321,29 @@ public class IdPreMap {
     return rows;
   }
 
+  /**
+   * Returns the indexes of all records with inserted IDs, sorted by their first ID.
+   * @return record indexes
+   */
+  private int[] order() {
+    int[] ord = order;
+    if(ord == null) {
+      final IntList rws = new IntList(), ids = new IntList();
+      for(int i = 0; i < rows; ++i) {
+        if(fids[i] != INV) {
+          rws.add(i);
+          ids.add(fids[i]);
+        }
+      }
+      final int[] offsets = Array.createOrder(ids.finish(), true);
+      final int ol = offsets.length;
+      ord = new int[ol];
+      for(int o = 0; o < ol; o++) ord[o] = rws.get(offsets[o]);
+      order = ord;
+    }
+    return ord;
+  }
+
   /**
    * Searches for a given pre value.
    * @param pre pre value
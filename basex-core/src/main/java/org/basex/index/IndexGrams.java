@@ -0,0 +1,103 @@
+package org.basex.index;
+
+import java.util.*;
+
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides an n-gram lookup for the keys of an index structure.
+ * All n-grams of the keys (byte sequences of length {@link #N}) are mapped to the ids
+ * of the keys in which they occur. Keys that contain a substring must contain all of its
+ * n-grams, so the intersection of the id lists yields a superset of the keys that need
+ * to be checked.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class IndexGrams {
+  /** Length of n-grams. */
+  public static final int N = 3;
+  /** Ids of the keys, indexed by n-grams. */
+  private final IntObjMap<IntList> grams = new IntObjMap<>();
+
+  /**
+   * Adds the n-grams of a key. Ids must be added in ascending order.
+   * @param key key
+   * @param id id of the key
+   */
+  public void add(final byte[] key, final int id) {
+    final int kl = key.length - N;
+    for(int k = 0; k <= kl; k++) {
+      final int gram = gram(key, k);
+      IntList ids = grams.get(gram);
+      if(ids == null) {
+        ids = new IntList(1);
+        grams.put(gram, ids);
+      }
+      // skip n-grams that occur repeatedly in the same key
+      if(ids.isEmpty() || ids.peek() != id) ids.add(id);
+    }
+  }
+
+  /**
+   * Returns the ids of all keys that contain all n-grams of the specified substring.
+   * @param sub substring
+   * @return ascending ids, or {@code null} if the substring is shorter than an n-gram
+   */
+  public IntList ids(final byte[] sub) {
+    final int sl = sub.length - N;
+    if(sl < 0) return null;
+
+    // collect distinct n-grams; return empty list if one of the n-grams does not exist
+    final IntSet set = new IntSet();
+    final ArrayList<IntList> lists = new ArrayList<>();
+    for(int s = 0; s <= sl; s++) {
+      final int gram = gram(sub, s);
+      if(!set.add(gram)) continue;
+      final IntList ids = grams.get(gram);
+      if(ids == null) return new IntList(0);
+      lists.add(ids);
+    }
+
+    // intersect lists, starting with the smallest one
+    lists.sort((l1, l2) -> l1.size() - l2.size());
+    final IntList result = new IntList(lists.get(0).toArray());
+    final int ls = lists.size();
+    for(int l = 1; l < ls && !result.isEmpty(); l++) intersect(result, lists.get(l));
+    return result;
+  }
+
+  /**
+   * Removes all entries from the first list that do not occur in the second list.
+   * @param list1 first list (ascending)
+   * @param list2 second list (ascending)
+   */
+  private static void intersect(final IntList list1, final IntList list2) {
+    final int s1 = list1.size(), s2 = list2.size();
+    int i1 = 0, i2 = 0, n = 0;
+    while(i1 < s1 && i2 < s2) {
+      final int v1 = list1.get(i1), v2 = list2.get(i2);
+      if(v1 < v2) {
+        i1++;
+      } else if(v1 > v2) {
+        i2++;
+      } else {
+        list1.set(n++, v1);
+        i1++;
+        i2++;
+      }
+    }
+    list1.size(n);
+  }
+
+  /**
+   * Returns the n-gram at the specified position.
+   * @param token token
+   * @param pos position
+   * @return n-gram
+   */
+  private static int gram(final byte[] token, final int pos) {
+    return (token[pos] & 0xFF) << 16 | (token[pos + 1] & 0xFF) << 8 | token[pos + 2] & 0xFF;
+  }
+}
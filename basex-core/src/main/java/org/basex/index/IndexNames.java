@@ -9,9 +9,13 @@ import org.basex.data.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * Names and namespace uris of elements/attribute to index.
+ * Entries can also be specified as paths of local names (e.g. {@code order/status} or
+ * {@code order/@id}). In this case, only values are indexed whose parent elements or attributes
+ * are reached via the specified child steps.
  *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
@@ -19,6 +23,8 @@ import org.basex.util.hash.*;
 public final class IndexNames {
   /** Local names and namespace uris. All names are accepted if the list is empty. */
   private final Atts qnames = new Atts();
+  /** Paths of local names, ending with the name of the indexed element or attribute. */
+  private final ArrayList<byte[][]> paths = new ArrayList<>();
   /** Data reference. */
   private final Data data;
 
@@ -35,8 +41,16 @@ public final class IndexNames {
       // global wildcard: ignore all assignments
       if(entry.equals("*") || entry.equals("*:*")) {
         qnames.reset();
+        paths.clear();
         return;
       }
+      // path of local names
+      if(entry.indexOf('/') != -1) {
+        final byte[][] path = path(entry, type);
+        if(path != null) paths.add(path);
+        else Util.debug("Included path is invalid: %", entry);
+        continue;
+      }
 
       final String uri, ln;
       final Matcher m = QNm.EQNAME.matcher(entry);
@@ -62,7 +76,15 @@ public final class IndexNames {
    * @return result of check
    */
   public boolean isEmpty() {
-    return qnames.isEmpty();
+    return qnames.isEmpty() && paths.isEmpty();
+  }
+
+  /**
+   * Checks if the list contains paths.
+   * @return result of check
+   */
+  public boolean containsPaths() {
+    return !paths.isEmpty();
   }
 
   /**
@@ -75,7 +97,7 @@ public final class IndexNames {
     final byte[][] qname = text ? data.qname(data.parent(pre, Data.TEXT), Data.ELEM) :
       data.qname(pre, Data.ATTR);
     qname[0] = local(qname[0]);
-    return contains(qname);
+    return contains(qname) || containsPath(pre, text);
   }
 
   /**
@@ -100,6 +122,69 @@ public final class IndexNames {
     return false;
   }
 
+  /**
+   * Checks if the specified name or path is an index candidate.
+   * @param qname local name and namespace uri (reference or array entries can be {@code null})
+   * @param names local names of the addressed element or attribute and its ancestors,
+   *   starting with the innermost name, as far as they are known
+   * @return result of check
+   */
+  public boolean contains(final byte[][] qname, final TokenList names) {
+    if(contains(qname)) return true;
+
+    final int ns = names.size();
+    for(final byte[][] path : paths) {
+      final int pl = path.length;
+      if(pl > ns) continue;
+      int p = 0;
+      while(p < pl && eq(path[pl - 1 - p], names.get(p))) p++;
+      if(p == pl) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the addressed database entry is reached via one of the included paths.
+   * @param pre pre value
+   * @param text text flag
+   * @return result of check
+   */
+  private boolean containsPath(final int pre, final boolean text) {
+    for(final byte[][] path : paths) {
+      int p = text ? data.parent(pre, Data.TEXT) : pre, kind = text ? Data.ELEM : Data.ATTR;
+      int n = path.length;
+      while(--n >= 0 && p >= 0 && kind != Data.DOC &&
+          eq(local(data.name(p, kind)), path[n])) {
+        p = data.parent(p, kind);
+        if(p >= 0) kind = data.kind(p);
+      }
+      if(n < 0) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Parses a path of local names.
+   * @param entry entry
+   * @param type index type
+   * @return local names, or {@code null} if the path is invalid
+   */
+  private static byte[][] path(final String entry, final IndexType type) {
+    final String[] steps = entry.split("/");
+    final int sl = steps.length;
+    final byte[][] path = new byte[sl][];
+    for(int s = 0; s < sl; s++) {
+      String step = steps[s].trim();
+      // attribute and token index: last step may reference an attribute
+      if(s == sl - 1 && type != IndexType.TEXT && type != IndexType.FULLTEXT &&
+          step.startsWith("@"))
+        step = step.substring(1);
+      if(!XMLToken.isNCName(token(step))) return null;
+      path[s] = token(step);
+    }
+    return path;
+  }
+
   /**
    * Returns a set of all entries of the requested string (separated by commas).
    * @param names names
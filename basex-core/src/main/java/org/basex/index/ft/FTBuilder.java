@@ -5,10 +5,13 @@ import static org.basex.data.DataText.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.io.*;
 import org.basex.io.out.DataOutput;
 import org.basex.util.*;
 import org.basex.util.ft.*;
@@ -21,12 +24,25 @@ import org.basex.util.list.*;
  * @author Christian Gruen
  */
 public final class FTBuilder extends IndexBuilder {
+  /** Maximum number of texts that will be tokenized in a single batch. */
+  private static final int BATCH = 1 << 12;
+  /** Maximum accumulated length of the texts of a single batch. */
+  private static final int BATCHLEN = 1 << 22;
+
   /** Value trees. */
   private final FTIndexTrees tree;
-  /** Word parser. */
-  private final FTLexer lexer;
+  /** Idle word parsers (one is created for each concurrently running tokenization). */
+  private final ConcurrentLinkedQueue<FTLexer> lexers = new ConcurrentLinkedQueue<>();
+  /** Full-text options. */
+  private final FTOpt fto;
+  /** Number of threads that tokenize the texts. */
+  private final int threads;
   /** Number of indexed tokens. */
   private long ntok;
+  /** Pre values or ids and number of tokens of the indexed texts ({@code id << 16 | length}). */
+  private LongList lengths;
+  /** Total number of tokens of the indexed texts. */
+  private long tokens;
 
   /**
    * Constructor.
@@ -34,11 +50,21 @@ public final class FTBuilder extends IndexBuilder {
    * @throws IOException IOException
    */
   public FTBuilder(final Data data) throws IOException {
+    this(data, Threads.size(Threads.CPU));
+  }
+
+  /**
+   * Constructor.
+   * @param data data reference
+   * @param threads maximum number of threads that tokenize the texts
+   * @throws IOException IOException
+   */
+  FTBuilder(final Data data, final int threads) throws IOException {
     super(data, IndexType.FULLTEXT);
     final MetaData meta = data.meta;
     tree = new FTIndexTrees(data.meta.maxlen);
 
-    final FTOpt fto = new FTOpt();
+    fto = new FTOpt();
     fto.set(FTFlag.DC, meta.diacritics);
     fto.set(FTFlag.ST, meta.stemming);
     fto.cs = meta.casesens ? FTCase.SENSITIVE : FTCase.INSENSITIVE;
@@ -50,7 +76,10 @@ public final class FTBuilder extends IndexBuilder {
     if(meta.stemming && !Stemmer.supportFor(fto.ln))
       throw new BaseXException(NO_STEMMER_X, fto.ln);
 
-    lexer = new FTLexer(fto);
+    // tokenize texts in parallel if the tokenizer and stemmer support it
+    final FTLexer lexer = new FTLexer(fto);
+    lexers.add(lexer);
+    this.threads = lexer.parallel() ? Math.max(1, threads) : 1;
   }
 
   @Override
@@ -58,32 +87,37 @@ public final class FTBuilder extends IndexBuilder {
     Util.debug(detailedInfo());
 
     try {
-      for(pre = 0; pre < size; ++pre) {
-        if((pre & 0x0FFF) == 0) check();
-        if(!indexEntry()) continue;
-
-        // current lexer position
-        final StopWords sw = lexer.ftOpt().sw;
-        lexer.init(data.text(pre, true));
-        int pos = -1;
-        while(lexer.hasNext()) {
-          final byte[] tok = lexer.nextToken();
-          ++pos;
-          // skip too long and stopword tokens
-          if(tok.length <= data.meta.maxlen && !sw.contains(tok)) {
-            // check if main memory is exhausted
-            if((ntok++ & 0xFFFF) == 0 && splitRequired()) {
-              writeIndex(true);
-              clean();
-            }
-            tree.index(tok, pre, pos, splits);
-            count++;
+      final boolean updindex = data.meta.updindex;
+      lengths = new LongList();
+      // texts are read by the calling thread, tokenized in parallel, and indexed in their order.
+      // the next batch is read and tokenized while the tokens of the current batch are indexed.
+      // tasks are run by the shared pool, which limits the number of threads of parallel builds
+      ArrayList<Future<Chunk>> current = null, next = null;
+      try {
+        pre = 0;
+        while(true) {
+          next = batch(threads > 1 ? Threads.CPU : null);
+          if(current != null) {
+            for(final Future<Chunk> chunk : current) index(get(chunk));
           }
+          if(next == null) break;
+          current = next;
         }
+      } finally {
+        // cancel pending tasks if the build was interrupted
+        cancel(current);
+        cancel(next);
+        lexers.clear();
       }
 
       // finalize partial or all index structures
       write(splits > 0);
+      FTStats.write(data, lengths.sort().finish(), tokens);
+      lengths = null;
+      // updatable index: create empty file for pending updates
+      final IOFile updates = data.meta.dbFile(DATAFTX + 'u');
+      if(updindex) updates.write(EMPTY);
+      else updates.delete();
 
       finishIndex();
       return new FTIndex(data);
@@ -95,6 +129,95 @@ public final class FTBuilder extends IndexBuilder {
     }
   }
 
+  /**
+   * Reads the next batch of texts and starts their tokenization.
+   * @param pool thread pool ({@code null} if texts will be tokenized by the calling thread)
+   * @return tokenization results, or {@code null} if all texts have been read
+   * @throws IOException I/O exception
+   */
+  private ArrayList<Future<Chunk>> batch(final ExecutorService pool) throws IOException {
+    final boolean updindex = data.meta.updindex;
+    final int[] ids = new int[BATCH];
+    final byte[][] texts = new byte[BATCH][];
+    int n = 0;
+    for(long length = 0; pre < size && n < BATCH && length < BATCHLEN; pre++) {
+      if((pre & 0x0FFF) == 0) check();
+      if(!indexEntry()) continue;
+      final byte[] text = data.text(pre, true);
+      ids[n] = updindex ? data.id(pre) : pre;
+      texts[n++] = text;
+      length += text.length;
+    }
+    if(n == 0) return null;
+
+    final ArrayList<Future<Chunk>> chunks = new ArrayList<>(threads);
+    final int cs = (n + threads - 1) / threads;
+    for(int s = 0; s < n; s += cs) {
+      final Chunk chunk = new Chunk(ids, texts, s, Math.min(n, s + cs));
+      chunks.add(pool != null ? pool.submit(chunk) :
+        CompletableFuture.completedFuture(chunk.call()));
+    }
+    return chunks;
+  }
+
+  /**
+   * Indexes the tokens of a chunk.
+   * @param chunk chunk
+   * @throws IOException I/O exception
+   */
+  private void index(final Chunk chunk) throws IOException {
+    final TokenList toks = chunk.tokens;
+    final IntList poss = chunk.poss;
+    for(int t = chunk.start, i = 0; t < chunk.end; t++) {
+      final int id = chunk.ids[t];
+      for(final int e = chunk.ends[t - chunk.start]; i < e; i++) {
+        // check if main memory is exhausted
+        if((ntok++ & 0xFFFF) == 0 && splitRequired()) {
+          writeIndex(true);
+          clean();
+        }
+        tree.index(toks.get(i), id, poss.get(i), splits);
+        count++;
+      }
+      final int pos = chunk.counts[t - chunk.start];
+      if(pos > 0) {
+        final char length = FTStats.cap(pos);
+        lengths.add((long) id << 16 | length);
+        tokens += length;
+      }
+    }
+  }
+
+  /**
+   * Cancels tokenization tasks.
+   * @param chunks tasks (can be {@code null})
+   */
+  private static void cancel(final ArrayList<Future<Chunk>> chunks) {
+    if(chunks != null) {
+      for(final Future<Chunk> chunk : chunks) chunk.cancel(true);
+    }
+  }
+
+  /**
+   * Returns the result of a tokenization task.
+   * @param chunk future result
+   * @return chunk
+   * @throws IOException I/O exception
+   */
+  private static Chunk get(final Future<Chunk> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch(final InterruptedException ex) {
+      throw new IOException(ex);
+    } catch(final ExecutionException ex) {
+      // pass on runtime exceptions and errors
+      final Throwable th = ex.getCause();
+      if(th instanceof RuntimeException) throw (RuntimeException) th;
+      if(th instanceof Error) throw (Error) th;
+      throw new IOException(th);
+    }
+  }
+
   /**
    * Writes the index data to disk.
    * @param partial write partial index
@@ -158,7 +281,7 @@ public final class FTBuilder extends IndexBuilder {
    * @param lp last offset
    * @throws IOException I/O exception
    */
-  private static void writeInd(final DataOutput outX, final IntList il, final int ls, final int lp)
+  static void writeInd(final DataOutput outX, final IntList il, final int ls, final int lp)
       throws IOException {
 
     final int is = il.size();
@@ -251,7 +374,7 @@ public final class FTBuilder extends IndexBuilder {
 
   /**
    * Writes full-text data for a single token to disk.
-   * Format: {@code score? pre1 pos1 pre2 pos2 ... (0 score)? pre...}
+   * Format: {@code id1 pos1 id2 pos2 ...}, encoded by {@link FTPostings}.
    * @param out DataOutput for disk access
    * @param vpre compressed pre values
    * @param vpos compressed pos values
@@ -260,13 +383,10 @@ public final class FTBuilder extends IndexBuilder {
   private static void writeFTData(final DataOutput out, final byte[] vpre, final byte[] vpos)
       throws IOException {
 
-    int np = 4, pp = 4;
+    final FTPostings postings = new FTPostings();
     final int ns = Num.size(vpre);
-    while(np < ns) {
-      // full-text data is stored here, with -scoreU, pre1, pos1, ...,
-      // -scoreU, preU, posU
-      for(final int l = np + Num.length(vpre, np); np < l; ++np) out.write(vpre[np]);
-      for(final int l = pp + Num.length(vpos, pp); pp < l; ++pp) out.write(vpos[pp]);
+    for(int np = 4, pp = 4; np < ns; np += Num.length(vpre, np), pp += Num.length(vpos, pp)) {
+      postings.write(out, Num.get(vpre, np), Num.get(vpos, pp));
     }
   }
 
@@ -281,4 +401,69 @@ public final class FTBuilder extends IndexBuilder {
     }
     return false;
   }
+
+  /**
+   * Chunk of texts that are tokenized by a single thread.
+   * Stopwords and tokens that are too long for the index are skipped.
+   */
+  private final class Chunk implements Callable<Chunk> {
+    /** Ids or pre values of the texts (shared by all chunks of a batch). */
+    private final int[] ids;
+    /** Texts (shared by all chunks of a batch). */
+    private final byte[][] texts;
+    /** Index of the first text. */
+    private final int start;
+    /** Index after the last text. */
+    private final int end;
+    /** Tokens of all texts. */
+    private final TokenList tokens = new TokenList();
+    /** Positions of the tokens. */
+    private final IntList poss = new IntList();
+    /** Offsets after the last token of each text. */
+    private final int[] ends;
+    /** Number of tokens of each text (including skipped tokens). */
+    private final int[] counts;
+
+    /**
+     * Constructor.
+     * @param ids ids or pre values of the texts
+     * @param texts texts
+     * @param start index of the first text
+     * @param end index after the last text
+     */
+    Chunk(final int[] ids, final byte[][] texts, final int start, final int end) {
+      this.ids = ids;
+      this.texts = texts;
+      this.start = start;
+      this.end = end;
+      ends = new int[end - start];
+      counts = new int[end - start];
+    }
+
+    @Override
+    public Chunk call() {
+      FTLexer lexer = lexers.poll();
+      if(lexer == null) lexer = new FTLexer(fto);
+      final StopWords sw = lexer.ftOpt().sw;
+      final int maxlen = data.meta.maxlen;
+      for(int t = start; t < end; t++) {
+        lexer.init(texts[t]);
+        int pos = -1;
+        while(lexer.hasNext()) {
+          final byte[] tok = lexer.nextToken();
+          ++pos;
+          // skip too long and stopword tokens
+          if(tok.length <= maxlen && !sw.contains(tok)) {
+            tokens.add(tok);
+            poss.add(pos);
+          }
+        }
+        ends[t - start] = tokens.size();
+        counts[t - start] = pos + 1;
+        texts[t] = null;
+      }
+      lexers.add(lexer);
+      return this;
+    }
+  }
 }
@@ -0,0 +1,134 @@
+package org.basex.index.ft;
+
+import static org.basex.util.FTToken.*;
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.util.list.*;
+import org.basex.util.similarity.*;
+
+/**
+ * Levenshtein automaton for fuzzy lookups in the sorted token lists of the full-text index.
+ * The tokens of a list are traversed like the paths of a trie: a row of the distance matrix is
+ * computed for each token prefix, and rows are reused for the common prefix of subsequent tokens.
+ * If all distances of a row exceed the allowed number of errors, no token with the same prefix
+ * can be similar, and all of them can be skipped. The rows are computed in the same way as in
+ * {@link Levenshtein}.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class FTFuzzy {
+  /** Characters of the query token. */
+  private final int[] chars;
+  /** Maximum number of errors. */
+  private final int k;
+  /** Rows of the distance matrix. */
+  private int[][] rows;
+  /** Characters of the last checked token. */
+  private int[] tchars;
+  /** Byte offsets after the characters of the last checked token. */
+  private int[] ends;
+  /** Last checked token. */
+  private byte[] last;
+  /** Number of rows that have been computed for the last token. */
+  private int valid;
+
+  /**
+   * Constructor.
+   * @param token query token
+   * @param k maximum number of errors
+   */
+  FTFuzzy(final byte[] token, final int k) {
+    final IntList list = new IntList();
+    final int tl = token.length;
+    for(int t = 0; t < tl; t += cl(token, t)) list.add(noDiacritics(lc(cp(token, t))));
+    chars = list.finish();
+    this.k = k;
+  }
+
+  /**
+   * Checks if the automaton can be applied to the specified query token.
+   * @param token query token
+   * @param k maximum number of errors
+   * @return result of check
+   */
+  static boolean supported(final byte[] token, final int k) {
+    return k > 0 && length(token) <= Levenshtein.MAX;
+  }
+
+  /**
+   * Checks a token of the current token list.
+   * @param token token
+   * @return length of the shortest byte prefix that cannot lead to a similar token,
+   *   or {@code -1} if the token may be similar
+   */
+  int check(final byte[] token) {
+    final int tl = token.length;
+    if(rows == null || rows.length <= tl) {
+      final int cl = chars.length;
+      rows = new int[tl + 1][cl + 1];
+      for(int c = 0; c <= cl; c++) rows[0][c] = c;
+      tchars = new int[tl];
+      ends = new int[tl];
+      valid = 0;
+    }
+
+    // reuse rows of the common prefix
+    int t = 0, r = 0;
+    if(last != null) {
+      final int l = Math.min(last.length, tl);
+      while(t < l && last[t] == token[t]) t++;
+      while(r < valid && ends[r] <= t) r++;
+      t = r == 0 ? 0 : ends[r - 1];
+    }
+    last = token;
+
+    while(t < tl) {
+      final int e = noDiacritics(lc(cp(token, t)));
+      t += cl(token, t);
+      tchars[r] = e;
+      ends[r] = t;
+      valid = ++r;
+      if(min(r, e, r > 1 ? tchars[r - 2] : -1) > k) return t;
+    }
+    return -1;
+  }
+
+  /**
+   * Computes a row of the distance matrix and returns its minimum.
+   * @param r row
+   * @param e current character of the token
+   * @param e2 previous character of the token
+   * @return minimum distance
+   */
+  private int min(final int r, final int e, final int e2) {
+    final int[] prev = rows[r - 1], row = rows[r];
+    final int cl = chars.length;
+    row[0] = r;
+    int d = Integer.MAX_VALUE, f2 = r > 1 && cl > 0 ? chars[cl - 1] : -1;
+    for(int c = 0; c < cl; c++) {
+      final int f = chars[c];
+      int v = Math.min(Math.min(prev[c + 1] + 1, row[c] + 1), prev[c] + (e == f ? 0 : 1));
+      if(e == f2 && f == e2) v = prev[c];
+      row[c + 1] = v;
+      d = Math.min(d, v);
+      f2 = f;
+    }
+    return d;
+  }
+
+  /**
+   * Returns the smallest token that is greater than all tokens starting with the specified prefix.
+   * @param token token
+   * @param length length of the prefix
+   * @return token
+   */
+  static byte[] next(final byte[] token, final int length) {
+    // the last byte of a UTF-8 character is never 0xFF
+    final byte[] next = Arrays.copyOf(token, length);
+    next[length - 1]++;
+    return next;
+  }
+}
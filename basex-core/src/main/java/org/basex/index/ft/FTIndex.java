@@ -13,6 +13,8 @@ import org.basex.index.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
 import org.basex.index.value.*;
+import org.basex.io.*;
+import org.basex.io.out.DataOutput;
 import org.basex.io.random.*;
 import org.basex.query.expr.ft.*;
 import org.basex.query.util.*;
@@ -44,7 +46,13 @@ import org.basex.util.similarity.*;
  * </li>
  * <li>File <b>z</b> contains the {@code id/pos} references.
  *   The values are ordered, but not distinct:
- *   {@code pre1/pos1, pre2/pos2, pre3/pos3, ...} [{@link Num}]</li>
+ *   {@code pre1/pos1, pre2/pos2, pre3/pos3, ...} [{@link Num}].
+ *   The values are stored as differences to their predecessors (see {@link FTPostings}).
+ *   If the index is updatable, ids will be stored instead of pre values.</li>
+ * <li>File <b>u</b> only exists if the index is updatable. It contains the updates that
+ *   have not been merged into the other files yet (see {@link FTUpdates}).</li>
+ * <li>File <b>s</b> contains the number of tokens of the indexed texts
+ *   (see {@link FTStats}).</li>
  * </ul>
  *
  * @author BaseX Team 2005-19, BSD License
@@ -54,23 +62,38 @@ public final class FTIndex extends ValueIndex {
   /** Entry size. */
   private static final int ENTRY = 9;
 
+  /** Minimum number of pending updates that will be merged into the index. */
+  private static final int MERGE = 1 << 16;
+
   /** Cached texts. Increases used memory, but speeds up repeated queries. */
-  private final IntObjMap<byte[]> ctext = new IntObjMap<>();
+  private IntObjMap<byte[]> ctext = new IntObjMap<>();
   /** Levenshtein reference. */
   private final Levenshtein ls = new Levenshtein();
 
   /** Index storing each unique token length and pointer
    * on the first token with this length. */
-  private final DataAccess inX;
+  private DataAccess inX;
   /** Index storing each token, its data size and pointer on the data. */
-  private final DataAccess inY;
+  private DataAccess inY;
   /** Storing pre and pos values for each token. */
-  private final DataAccess inZ;
+  private DataAccess inZ;
 
   /** Cache for number of hits and data reference per token. */
-  private final IndexCache cache = new IndexCache();
+  private IndexCache cache = new IndexCache();
   /** Token positions. */
-  private final int[] tp;
+  private int[] tp;
+  /** N-gram lookup for the tokens (lazy instantiation). */
+  private IndexGrams grams;
+
+  /** Collection statistics (lazy instantiation, {@code null} if not available). */
+  private FTStats stats;
+  /** Indicates if the statistics have been opened. */
+  private boolean statsOpened;
+
+  /** Pending updates ({@code null} if the index is not updatable). */
+  private FTUpdates updates;
+  /** Lexer for updated texts (lazy instantiation). */
+  private FTLexer textLexer;
 
   /**
    * Constructor, initializing the index structure.
@@ -79,6 +102,16 @@ public final class FTIndex extends ValueIndex {
    */
   public FTIndex(final Data data) throws IOException {
     super(data, IndexType.FULLTEXT);
+    open();
+    final IOFile file = data.meta.dbFile(DATAFTX + 'u');
+    if(data.meta.updindex && file.exists()) updates = new FTUpdates(file);
+  }
+
+  /**
+   * Opens the index files.
+   * @throws IOException I/O Exception
+   */
+  private void open() throws IOException {
     // cache token length index
     inY = new DataAccess(data.meta.dbFile(DATAFTX + 'y'));
     inZ = new DataAccess(data.meta.dbFile(DATAFTX + 'z'));
@@ -91,6 +124,7 @@ public final class FTIndex extends ValueIndex {
       tp[p] = inX.read4();
     }
     tp[tl - 1] = (int) inY.length();
+    grams = null;
   }
 
   @Override
@@ -101,7 +135,7 @@ public final class FTIndex extends ValueIndex {
     // estimate costs for queries which stretch over multiple index entries
     final FTOpt opt = ((FTLexer) it).ftOpt();
     return IndexCosts.get(opt.is(FZ) || opt.is(WC) ? Math.max(1, data.meta.size >> 4) :
-      entry(tok).size);
+      entry(tok).size + (updates != null ? updates.size(tok) : 0));
   }
 
   @Override
@@ -118,7 +152,10 @@ public final class FTIndex extends ValueIndex {
 
     // return cached or new result
     final IndexEntry e = entry(tok);
-    return e.size > 0 ? iter(e.offset, e.size, inZ, tok) : FTIndexIterator.FTEMPTY;
+    final IntList pr = new IntList(e.size), ps = new IntList(e.size);
+    if(e.size > 0) read(e.offset, e.size, pr, ps);
+    if(updates != null) updates.entries(tok, data, pr, ps);
+    return iter(pr, ps, tok);
   }
 
   /**
@@ -138,6 +175,55 @@ public final class FTIndex extends ValueIndex {
   @Override
   public EntryIterator entries(final IndexEntries entries) {
     final byte[] prefix = entries.get();
+    final EntryIterator iter = entries(prefix);
+    if(updates == null) return iter;
+
+    // merge entries of the index and pending updates
+    final TokenList tokens = new TokenList();
+    synchronized(this) {
+      for(final byte[] token : updates.tokens()) {
+        if(startsWith(token, prefix)) tokens.add(token);
+      }
+    }
+    return new EntryIterator() {
+      byte[] next = iter.next();
+      int t, nr;
+
+      @Override
+      public byte[] next() {
+        synchronized(FTIndex.this) {
+          while(next != null || t < tokens.size()) {
+            final byte[] token = t < tokens.size() ? tokens.get(t) : null;
+            final int d = next == null ? 1 : token == null ? -1 : FTUpdates.compare(next, token);
+            final byte[] entry = d <= 0 ? next : token;
+            nr = 0;
+            if(d <= 0) {
+              nr += entries(next, iter.count());
+              next = iter.next();
+            }
+            if(d >= 0) {
+              nr += updates.size(token);
+              t++;
+            }
+            if(nr > 0) return entry;
+          }
+          return null;
+        }
+      }
+      @Override
+      public int count() {
+        return nr;
+      }
+    };
+  }
+
+  /**
+   * Returns an iterator for all index entries starting with the specified prefix.
+   * Pending updates are ignored.
+   * @param prefix prefix
+   * @return iterator
+   */
+  private EntryIterator entries(final byte[] prefix) {
     return new EntryIterator() {
       int ti = prefix.length - 1, i, e, nr;
       boolean inner;
@@ -191,7 +277,7 @@ public final class FTIndex extends ValueIndex {
    */
   private int find(final byte[] token, final int start, final int end, final int ti) {
     final int tl = ti + ENTRY;
-    int l = 0, h = (end - start) / tl;
+    int l = 0, h = (end - start) / tl - 1;
     while(l <= h) {
       final int m = l + h >>> 1;
       final int p = start + m * tl;
@@ -208,6 +294,22 @@ public final class FTIndex extends ValueIndex {
     return start + l * tl;
   }
 
+  /**
+   * Returns the collection statistics of the index.
+   * @return statistics, or {@code null} if they are not available
+   */
+  public synchronized FTStats stats() {
+    if(!statsOpened) {
+      statsOpened = true;
+      try {
+        stats = FTStats.open(data);
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+    return stats;
+  }
+
   @Override
   public synchronized byte[] info(final MainOptions options) {
     final TokenBuilder tb = new TokenBuilder();
@@ -228,9 +330,11 @@ public final class FTIndex extends ValueIndex {
 
   @Override
   public synchronized void close() {
+    flush();
     inX.close();
     inY.close();
     inZ.close();
+    if(stats != null) stats.close();
   }
 
   @Override
@@ -321,29 +425,70 @@ public final class FTIndex extends ValueIndex {
 
   /**
    * Performs a fuzzy search for the specified token with a maximum number of errors.
+   * If possible, the tokens are traversed with a Levenshtein automaton, and tokens with
+   * prefixes that cannot lead to a hit are skipped.
    * @param token token to look for
    * @param k number of errors allowed
    * @return iterator
    */
   private IndexIterator fuzzy(final byte[] token, final int k) {
-    FTIndexIterator iter = FTIndexIterator.FTEMPTY;
+    final IntList pr = new IntList(), ps = new IntList();
     final int tokl = token.length, tl = tp.length;
     final int e = Math.min(tl - 1, tokl + k);
     int s = Math.max(1, tokl - k) - 1;
+    final boolean prune = FTFuzzy.supported(token, k);
 
     while(++s <= e) {
       int p = tp[s];
       if(p == -1) continue;
       int t = s + 1, r = -1;
       while(t < tl && r == -1) r = tp[t++];
+      final FTFuzzy fuzzy = prune ? new FTFuzzy(token, k) : null;
       while(p < r) {
-        if(ls.similar(inY.readBytes(p, s), token, k)) {
-          iter = FTIndexIterator.union(iter(pointer(p, s), size(p, s), inZ, token), iter);
+        final byte[] tok = inY.readBytes(p, s);
+        final int pl = fuzzy != null ? fuzzy.check(tok) : -1;
+        if(pl != -1) {
+          // skip all tokens with the same prefix
+          p = skip(FTFuzzy.next(tok, pl), p, r, s);
+        } else {
+          if(ls.similar(tok, token, k)) read(pointer(p, s), size(p, s), pr, ps);
+          p += s + ENTRY;
         }
-        p += s + ENTRY;
       }
     }
-    return iter;
+    if(updates != null) {
+      for(final byte[] tok : updates.tokens()) {
+        if(ls.similar(tok, token, k)) updates.entries(tok, data, pr, ps);
+      }
+    }
+    return iter(pr, ps, token);
+  }
+
+  /**
+   * Returns the position of the first token that is equal to or greater than the specified token.
+   * As the token will usually be close to the start position, an exponential search is performed.
+   * @param token token to look for
+   * @param start start position
+   * @param end end position
+   * @param ti entry length
+   * @return position of the token
+   */
+  private int skip(final byte[] token, final int start, final int end, final int ti) {
+    final int tl = ti + ENTRY, n = (end - start) / tl;
+    int l = 0, h = 1;
+    while(h < n && diff(inY.readBytes(start + h * tl, ti), token) < 0) {
+      l = h + 1;
+      h <<= 1;
+    }
+    h = Math.min(h, n) - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1;
+      final int d = diff(inY.readBytes(start + m * tl, ti), token);
+      if(d == 0) return start + m * tl;
+      if(d < 0) l = m + 1;
+      else h = m - 1;
+    }
+    return start + l * tl;
   }
 
   /**
@@ -360,7 +505,22 @@ public final class FTIndex extends ValueIndex {
     final IntList ps = new IntList();
     final byte[] pref = wc.prefix();
     final int pl = pref.length, tl = tp.length;
-    final int l = Math.min(tl - 1, wc.max());
+    // short prefix: check tokens returned by the n-gram lookup
+    final IntList ids = pl < IndexGrams.N ? grams().ids(wc.literal()) : null;
+    if(ids != null) {
+      final int is = ids.size();
+      for(int i = 0, ti = 0, e = 0; i < is; i++) {
+        // find length of token
+        final int p = ids.get(i);
+        while(p >= e) {
+          e = -1;
+          for(int c = ++ti + 1; c < tl && e == -1; c++) e = tp[c];
+        }
+        if(wc.match(inY.readBytes(p, ti))) read(pointer(p, ti), size(p, ti), pr, ps);
+      }
+    }
+
+    final int l = ids != null ? -1 : Math.min(tl - 1, wc.max());
     for(int ti = pl; ti <= l; ti++) {
       int i = tp[ti];
       if(i == -1) continue;
@@ -372,37 +532,85 @@ public final class FTIndex extends ValueIndex {
       while(i < e) {
         final byte[] t = inY.readBytes(i, ti);
         if(!startsWith(t, pref)) break;
-        if(wc.match(t)) {
-          inZ.cursor(pointer(i, ti));
-          final int s = size(i, ti);
-          for(int d = 0; d < s; d++) {
-            pr.add(inZ.readNum());
-            ps.add(inZ.readNum());
-          }
-        }
+        if(wc.match(t)) read(pointer(i, ti), size(i, ti), pr, ps);
         i += ti + ENTRY;
       }
     }
+    if(updates != null) {
+      for(final byte[] t : updates.tokens()) {
+        if(startsWith(t, pref) && wc.match(t)) updates.entries(t, data, pr, ps);
+      }
+    }
     return iter(new FTCache(pr, ps), token);
   }
 
   /**
-   * Returns an iterator for an index entry.
+   * Returns the n-gram lookup for the tokens of the index.
+   * @return n-gram lookup
+   */
+  private IndexGrams grams() {
+    if(grams == null) {
+      final IndexGrams ig = new IndexGrams();
+      final int tl = tp.length;
+      for(int ti = 1; ti < tl - 1; ti++) {
+        final int p = tp[ti];
+        if(p == -1) continue;
+        int c = ti + 1, e = -1;
+        while(c < tl && e == -1) e = tp[c++];
+        for(int i = p; i < e; i += ti + ENTRY) ig.add(inY.readBytes(i, ti), i);
+      }
+      grams = ig;
+    }
+    return grams;
+  }
+
+  /**
+   * Reads the pre values and positions of an index entry.
+   * If the index is updatable, ids are mapped to pre values, and deleted entries are skipped.
    * @param off offset on entries
    * @param size number of id/pos entries
-   * @param da data source
-   * @param token index token
-   * @return iterator
+   * @param pr pre values
+   * @param ps positions
    */
-  private static FTIndexIterator iter(final long off, final int size, final DataAccess da,
-      final byte[] token) {
-    da.cursor(off);
-    final IntList pr = new IntList(size), ps = new IntList(size);
+  private void read(final long off, final int size, final IntList pr, final IntList ps) {
+    inZ.cursor(off);
+    final FTPostings postings = new FTPostings();
     for(int c = 0; c < size; c++) {
-      pr.add(da.readNum());
-      ps.add(da.readNum());
+      postings.read(inZ);
+      final int id = postings.id, pos = postings.pos;
+      if(updates == null) {
+        pr.add(id);
+        ps.add(pos);
+      } else if(!updates.deleted(id)) {
+        pr.add(data.pre(id));
+        ps.add(pos);
+      }
     }
-    return iter(new FTCache(pr, ps), token);
+  }
+
+  /**
+   * Returns the number of entries of a token that have not been deleted.
+   * @param token token
+   * @param count number of stored entries
+   * @return number of entries
+   */
+  private int entries(final byte[] token, final int count) {
+    if(!updates.deletions()) return count;
+    final IndexEntry e = entry(token);
+    final IntList pr = new IntList(e.size), ps = new IntList(e.size);
+    read(e.offset, e.size, pr, ps);
+    return pr.size();
+  }
+
+  /**
+   * Returns an iterator for the specified pre values and positions.
+   * @param pr pre values
+   * @param ps positions
+   * @param token index token
+   * @return iterator
+   */
+  private static FTIndexIterator iter(final IntList pr, final IntList ps, final byte[] token) {
+    return pr.isEmpty() ? FTIndexIterator.FTEMPTY : iter(new FTCache(pr, ps), token);
   }
 
   /**
@@ -430,6 +638,26 @@ public final class FTIndex extends ValueIndex {
         return true;
       }
 
+      @Override
+      public boolean skip(final int p) {
+        // exponential search for the first entry with the specified pre value
+        if(c < size && ftc.pre.get(ftc.order[c]) < p) {
+          int l = c, h = 1;
+          while(l + h < size && ftc.pre.get(ftc.order[l + h]) < p) {
+            l += h;
+            h <<= 1;
+          }
+          h = Math.min(l + h, size);
+          while(l + 1 < h) {
+            final int m = l + h >>> 1;
+            if(ftc.pre.get(ftc.order[m]) < p) l = m;
+            else h = m;
+          }
+          c = h;
+        }
+        return more();
+      }
+
       @Override
       public FTMatches matches() {
         return all;
@@ -450,6 +678,11 @@ public final class FTIndex extends ValueIndex {
         return size;
       }
 
+      @Override
+      public int texts() {
+        return ftc.texts;
+      }
+
       @Override
       public String toString() {
         return Strings.concat(token, '(', size, "x)");
@@ -467,6 +700,8 @@ public final class FTIndex extends ValueIndex {
     private final IntList pre;
     /** Pos values. */
     private final IntList pos;
+    /** Number of distinct pre values. */
+    private final int texts;
 
     /**
      * Constructor.
@@ -480,19 +715,174 @@ public final class FTIndex extends ValueIndex {
       order = Array.createOrder(v, true);
       pre = pr;
       pos = ps;
+      int t = 0;
+      for(int i = 0; i < s; i++) {
+        if(i == 0 || pr.get(order[i]) != pr.get(order[i - 1])) t++;
+      }
+      texts = t;
     }
   }
 
   @Override
-  public void add(final ValueCache vc) {
-    throw Util.notExpected();
+  public synchronized void add(final ValueCache vc) {
+    // index is not updatable: invalidate it
+    if(updates == null) {
+      data.meta.ftindex = false;
+      return;
+    }
+
+    final FTStats st = stats();
+    final FTLexer lex = lexer();
+    final StopWords sw = lex.ftOpt().sw;
+    final TokenList toks = new TokenList();
+    final IntList poss = new IntList();
+    for(final byte[] text : vc) {
+      // tokenize text once, add tokens for all ids
+      toks.reset();
+      poss.reset();
+      lex.init(text);
+      int pos = -1;
+      while(lex.hasNext()) {
+        final byte[] tok = lex.nextToken();
+        ++pos;
+        // skip too long and stopword tokens
+        if(tok.length <= data.meta.maxlen && !sw.contains(tok)) {
+          toks.add(tok);
+          poss.add(pos);
+        }
+      }
+      final IntList ids = vc.ids(text);
+      final int is = ids.size(), ts = toks.size();
+      for(int i = 0; i < is; i++) {
+        for(int t = 0; t < ts; t++) updates.add(toks.get(t), ids.get(i), poss.get(t));
+        if(st != null) st.add(ids.get(i), pos + 1);
+      }
+    }
   }
 
   @Override
-  public void delete(final ValueCache vc) {
-    throw Util.notExpected();
+  public synchronized void delete(final ValueCache vc) {
+    // index is not updatable: invalidate it
+    if(updates == null) {
+      data.meta.ftindex = false;
+      return;
+    }
+
+    final IntList ids = new IntList();
+    for(final byte[] text : vc) ids.add(vc.ids(text).toArray());
+    updates.delete(ids);
+
+    final FTStats st = stats();
+    if(st != null) {
+      for(final int id : ids.toArray()) st.delete(id);
+    }
   }
 
   @Override
-  public void flush() { }
+  public synchronized void flush() {
+    if(stats != null) stats.flush();
+    if(updates == null) return;
+    try {
+      // merge updates if their number exceeds a fraction of the index size
+      if(updates.size() > Math.max(MERGE, inZ.length() >> 5)) merge();
+      else updates.write();
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    }
+  }
+
+  /**
+   * Returns the lexer for tokenizing updated texts.
+   * The options are chosen in accordance with the index builder.
+   * @return lexer
+   */
+  private FTLexer lexer() {
+    if(textLexer == null) {
+      final MetaData meta = data.meta;
+      final FTOpt fto = new FTOpt();
+      fto.set(DC, meta.diacritics);
+      fto.set(ST, meta.stemming);
+      fto.cs = meta.casesens ? FTCase.SENSITIVE : FTCase.INSENSITIVE;
+      fto.sw = new StopWords();
+      fto.sw.compile(data);
+      fto.ln = meta.language;
+      textLexer = new FTLexer(fto);
+    }
+    return textLexer;
+  }
+
+  /**
+   * Merges the pending updates into the index files.
+   * The existing index entries and the updated entries are both sorted by token, so they can be
+   * merged in a single pass.
+   * @throws IOException I/O exception
+   */
+  private void merge() throws IOException {
+    final MetaData meta = data.meta;
+    inX.close();
+    inY.close();
+    inZ.close();
+    for(final char c : new char[] { 'x', 'y', 'z' }) {
+      if(!meta.dbFile(DATAFTX + c).rename(meta.dbFile(DATAFTX + 'm' + c)))
+        throw new IOException("Full-text index could not be merged.");
+    }
+
+    // the temporary files will be deleted when all entries have been read
+    final FTList list = new FTList(data, "m");
+    final TokenList tokens = updates.tokens();
+    try(DataOutput outX = new DataOutput(meta.dbFile(DATAFTX + 'x'));
+        DataOutput outY = new DataOutput(meta.dbFile(DATAFTX + 'y'));
+        DataOutput outZ = new DataOutput(meta.dbFile(DATAFTX + 'z'))) {
+
+      final IntList ind = new IntList();
+      final FTPostings postings = new FTPostings();
+      final int ts = tokens.size();
+      int t = 0;
+      while(list.tok.length > 0 || t < ts) {
+        final byte[] token = t < ts ? tokens.get(t) : null;
+        final int d = list.tok.length == 0 ? 1 : token == null ? -1 :
+          FTUpdates.compare(list.tok, token);
+        final byte[] entry = d <= 0 ? list.tok : token;
+        final long off = outZ.size();
+        int size = 0;
+        postings.reset();
+        if(d <= 0) {
+          final int[] ids = list.prv, pos = list.pov;
+          final int is = list.size;
+          for(int i = 0; i < is; i++) {
+            if(updates.deleted(ids[i])) continue;
+            postings.write(outZ, ids[i], pos[i]);
+            size++;
+          }
+          list.next();
+        }
+        if(d >= 0) {
+          final IntList ids = updates.get(token);
+          final int is = ids.size();
+          for(int i = 0; i < is; i += 2) postings.write(outZ, ids.get(i), ids.get(i + 1));
+          size += is >> 1;
+          t++;
+        }
+        if(size == 0) continue;
+
+        final int el = entry.length;
+        if(ind.isEmpty() || ind.get(ind.size() - 2) < el) {
+          ind.add(el);
+          ind.add((int) outY.size());
+        }
+        outY.writeBytes(entry);
+        outY.write5(off);
+        outY.write4(size);
+      }
+      FTBuilder.writeInd(outX, ind, ind.isEmpty() ? 1 : ind.get(ind.size() - 2) + 1,
+          (int) outY.size());
+    }
+
+    final IOFile file = meta.dbFile(DATAFTX + 'u');
+    file.write(EMPTY);
+    updates = new FTUpdates(file);
+    ctext = new IntObjMap<>();
+    cache = new IndexCache();
+    open();
+  }
 }
@@ -41,6 +41,8 @@ final class FTList {
 
   /** Indexed tokens. */
   private final DataAccess str;
+  /** Decoder for references. */
+  private final FTPostings postings = new FTPostings();
 
   /** Current data size. */
   int size;
@@ -58,6 +60,16 @@ final class FTList {
    * @throws IOException I/O exception
    */
   FTList(final Data data, final int prefix) throws IOException {
+    this(data, Integer.toString(prefix));
+  }
+
+  /**
+   * Constructor, initializing the index structure.
+   * @param data data
+   * @param prefix file prefix
+   * @throws IOException I/O exception
+   */
+  FTList(final Data data, final String prefix) throws IOException {
     files = data.meta.dbFile(DATAFTX + prefix + 'y');
     filed = data.meta.dbFile(DATAFTX + prefix + 'z');
     str = new DataAccess(files);
@@ -92,9 +104,11 @@ final class FTList {
     } else {
       prv = new int[size];
       pov = new int[size];
+      postings.reset();
       for(int j = 0; j < size; ++j) {
-        prv[j] = dat.readNum();
-        pov[j] = dat.readNum();
+        postings.read(dat);
+        prv[j] = postings.id;
+        pov[j] = postings.pos;
       }
     }
   }
@@ -0,0 +1,57 @@
+package org.basex.index.ft;
+
+import java.io.*;
+
+import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
+
+/**
+ * This class encodes and decodes the id/pos references of a full-text index entry.
+ * Ids are stored as differences to the previous id of the same entry. Positions are stored as
+ * differences to the previous position if the id is unchanged, and as absolute values otherwise.
+ * As references are usually sorted, most differences fit into a single byte. Differences may
+ * be negative if the references of an updatable index are not sorted.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class FTPostings {
+  /** Current id. */
+  int id;
+  /** Current position. */
+  int pos;
+
+  /**
+   * Resets the state before a new index entry is encoded or decoded.
+   * @return self reference
+   */
+  FTPostings reset() {
+    id = 0;
+    pos = 0;
+    return this;
+  }
+
+  /**
+   * Writes a reference.
+   * @param out output stream
+   * @param i id
+   * @param p position
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out, final int i, final int p) throws IOException {
+    out.writeNum(i - id);
+    out.writeNum(i == id ? p - pos : p);
+    id = i;
+    pos = p;
+  }
+
+  /**
+   * Reads the next reference and assigns it to {@link #id} and {@link #pos}.
+   * @param in input
+   */
+  void read(final DataAccess in) {
+    final int d = in.readNum(), p = in.readNum();
+    id += d;
+    pos = d == 0 ? pos + p : p;
+  }
+}
@@ -0,0 +1,309 @@
+package org.basex.index.ft;
+
+import static org.basex.data.DataText.*;
+
+import java.io.*;
+
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
+import org.basex.util.list.*;
+
+/**
+ * <p>This class provides collection statistics of the full-text index, which are required
+ * for ranking results with probabilistic relevance models. The statistics are stored in the
+ * file <b>s</b> with the prefix {@link DataText#DATAFTX}.
+ * Structure: {@code [n, t, i0, l0, i1, l1, ...]}.</p>
+ *
+ * <ul>
+ * <li>{@code n} is the number of indexed texts [int].</li>
+ * <li>{@code t} is the total number of tokens of all indexed texts [long].</li>
+ * <li>{@code i0, i1, ...} are the pre values (or ids, if the index is updatable) of the indexed
+ *   texts in ascending order [int], and {@code l0, l1, ...} are the number of their tokens
+ *   [short]. Larger numbers are capped, and {@code 0} is stored for deleted texts.</li>
+ * </ul>
+ *
+ * <p>Texts with new ids are appended. Other texts are cached and merged into the file when the
+ * statistics are flushed.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTStats {
+  /** Offset of the first entry. */
+  private static final int OFFSET = 9;
+  /** Size of an entry. */
+  private static final int ENTRY = 6;
+  /** Maximum text length that can be stored. */
+  private static final int MAX = 0xFFFF;
+
+  /** Data reference. */
+  private final Data data;
+  /** Statistics file. */
+  private final DataAccess da;
+  /** Ids of cached entries (sorted). */
+  private final IntList ids = new IntList();
+  /** Lengths of cached entries. */
+  private final IntList lengths = new IntList();
+  /** Number of entries in the statistics file. */
+  private int entries;
+  /** Number of indexed texts. */
+  private int texts;
+  /** Total number of tokens. */
+  private long tokens;
+  /** Dirty flag. */
+  private boolean dirty;
+
+  /**
+   * Constructor.
+   * @param data data reference
+   * @param file statistics file
+   * @throws IOException I/O exception
+   */
+  private FTStats(final Data data, final IOFile file) throws IOException {
+    this.data = data;
+    da = new DataAccess(file);
+    texts = da.read4(0);
+    tokens = da.read5();
+    entries = (int) ((da.length() - OFFSET) / ENTRY);
+  }
+
+  /**
+   * Opens the statistics of a full-text index.
+   * @param data data reference
+   * @return statistics, or {@code null} if they are not available
+   * @throws IOException I/O exception
+   */
+  static FTStats open(final Data data) throws IOException {
+    final IOFile file = file(data);
+    return file.exists() ? new FTStats(data, file) : null;
+  }
+
+  /**
+   * Writes the statistics of a new full-text index.
+   * @param data data reference
+   * @param lengths pre values or ids and capped text lengths ({@code id << 16 | length}),
+   *   sorted in ascending order
+   * @param tokens total number of tokens (sum of all capped lengths)
+   * @throws IOException I/O exception
+   */
+  static void write(final Data data, final long[] lengths, final long tokens)
+      throws IOException {
+    try(DataOutput out = new DataOutput(file(data))) {
+      out.write4(lengths.length);
+      out.write5(tokens);
+      for(final long length : lengths) {
+        out.write4((int) (length >>> 16));
+        out.write2((int) length & MAX);
+      }
+    }
+  }
+
+  /**
+   * Caps a text length.
+   * @param length number of tokens
+   * @return capped length
+   */
+  static char cap(final int length) {
+    return (char) Math.min(MAX, length);
+  }
+
+  /**
+   * Returns the number of indexed texts.
+   * @return number of texts
+   */
+  public synchronized int texts() {
+    return texts;
+  }
+
+  /**
+   * Returns the average number of tokens of the indexed texts.
+   * @return average length
+   */
+  public synchronized double average() {
+    return texts == 0 ? 0 : (double) tokens / texts;
+  }
+
+  /**
+   * Returns the number of tokens of the specified text.
+   * @param pre pre value
+   * @return number of tokens
+   */
+  public synchronized int length(final int pre) {
+    final int id = data.meta.updindex ? data.id(pre) : pre;
+    final int c = ids.sortedIndexOf(id);
+    if(c >= 0) return lengths.get(c);
+    final int e = find(id);
+    return e >= 0 ? read(e) : 0;
+  }
+
+  /**
+   * Registers the number of tokens of a new text.
+   * @param id id of the text
+   * @param length number of tokens
+   */
+  synchronized void add(final int id, final int length) {
+    if(length == 0) return;
+    final char l = cap(length);
+    final int c = ids.sortedIndexOf(id);
+    if(c >= 0) {
+      remove(lengths.get(c));
+      lengths.set(c, l);
+    } else {
+      final int e = find(id);
+      if(e >= 0) {
+        remove(read(e));
+        write(e, l);
+      } else if(-e - 1 == entries) {
+        // new id: append entry
+        da.cursor(offset(entries++));
+        da.write4(id);
+        write(l);
+      } else {
+        // id of a text that has not been indexed before: cache entry
+        ids.insert(-c - 1, id);
+        lengths.insert(-c - 1, l);
+      }
+    }
+    texts++;
+    tokens += l;
+    dirty = true;
+  }
+
+  /**
+   * Unregisters a text.
+   * @param id id of the text
+   */
+  synchronized void delete(final int id) {
+    final int c = ids.sortedIndexOf(id);
+    if(c >= 0) {
+      ids.remove(c);
+      remove(lengths.remove(c));
+    } else {
+      final int e = find(id);
+      if(e >= 0) {
+        remove(read(e));
+        write(e, 0);
+      }
+    }
+  }
+
+  /**
+   * Writes the statistics to disk.
+   */
+  synchronized void flush() {
+    if(!ids.isEmpty()) merge();
+    if(dirty) {
+      da.write4(0, texts);
+      da.write5(4, tokens);
+      dirty = false;
+    }
+    da.flush();
+  }
+
+  /**
+   * Closes the statistics file.
+   */
+  synchronized void close() {
+    flush();
+    da.close();
+  }
+
+  /**
+   * Merges the cached entries into the statistics file.
+   */
+  private void merge() {
+    // read all entries following the first cached id
+    final int first = -find(ids.get(0)) - 1, es = entries - first;
+    final int[] eids = new int[es], elengths = new int[es];
+    for(int e = 0; e < es; e++) {
+      eids[e] = da.read4(offset(first + e));
+      elengths[e] = read(first + e);
+    }
+    // write merged entries
+    final int cs = ids.size();
+    da.cursor(offset(first));
+    for(int e = 0, c = 0; e < es || c < cs;) {
+      final boolean cached = e == es || c < cs && ids.get(c) < eids[e];
+      da.write4(cached ? ids.get(c) : eids[e]);
+      write(cached ? lengths.get(c++) : elengths[e++]);
+    }
+    entries += cs;
+    ids.reset();
+    lengths.reset();
+  }
+
+  /**
+   * Returns the index of the entry with the specified id.
+   * @param id pre value or id
+   * @return index of the entry, or {@code -(insertion point) - 1} if the id was not found
+   */
+  private int find(final int id) {
+    int l = 0, h = entries - 1;
+    while(l <= h) {
+      final int m = l + h >>> 1, i = da.read4(offset(m));
+      if(i < id) l = m + 1;
+      else if(i > id) h = m - 1;
+      else return m;
+    }
+    return -l - 1;
+  }
+
+  /**
+   * Updates the statistics for a text that is removed.
+   * @param length number of tokens of the text
+   */
+  private void remove(final int length) {
+    if(length == 0) return;
+    texts--;
+    tokens -= length;
+    dirty = true;
+  }
+
+  /**
+   * Reads the text length of an entry.
+   * @param e index of the entry
+   * @return length
+   */
+  private int read(final int e) {
+    final long off = offset(e) + 4;
+    return (da.read1(off) & 0xFF) << 8 | da.read1() & 0xFF;
+  }
+
+  /**
+   * Writes the text length of an entry.
+   * @param e index of the entry
+   * @param length length
+   */
+  private void write(final int e, final int length) {
+    da.cursor(offset(e) + 4);
+    write(length);
+  }
+
+  /**
+   * Writes a text length at the current cursor position.
+   * @param length length
+   */
+  private void write(final int length) {
+    da.writeBytes(new byte[] { (byte) (length >>> 8), (byte) length }, 0, 2);
+  }
+
+  /**
+   * Returns the file offset of an entry.
+   * @param e index of the entry
+   * @return offset
+   */
+  private static long offset(final int e) {
+    return OFFSET + (long) ENTRY * e;
+  }
+
+  /**
+   * Returns the statistics file.
+   * @param data data reference
+   * @return file
+   */
+  private static IOFile file(final Data data) {
+    return data.meta.dbFile(DATAFTX + 's');
+  }
+}
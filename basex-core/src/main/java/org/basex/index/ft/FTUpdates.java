@@ -0,0 +1,210 @@
+package org.basex.index.ft;
+
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * Updates of the full-text index that have not been merged into the main index yet.
+ * The structure consists of a segment with added tokens, ids and positions, and of
+ * the ids of the entries that have been deleted from the main index (tombstones).
+ * It is stored in a file with the following format:
+ *
+ * <ul>
+ *   <li> {@code [d, i...]}: number of deleted ids, and the ids [{@link org.basex.util.Num}]</li>
+ *   <li> {@code [t, (token, [n, (id, pos)...])...]}: number of tokens, and the tokens with
+ *   the number of id/pos pairs, and the pairs</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class FTUpdates {
+  /** Added tokens, with interleaved id/pos pairs. */
+  private final TokenObjMap<IntList> tokens = new TokenObjMap<>();
+  /** Ids of the entries that have been deleted from the main index. */
+  private final IntSet deleted = new IntSet();
+  /** File reference. */
+  private final IOFile file;
+  /** Number of added id/pos pairs. */
+  private int added;
+  /** Dirty flag. */
+  private boolean dirty;
+
+  /**
+   * Constructor. Reads the updates from the specified file.
+   * @param file file
+   * @throws IOException I/O exception
+   */
+  FTUpdates(final IOFile file) throws IOException {
+    this.file = file;
+    if(file.length() == 0) return;
+
+    try(DataInput in = new DataInput(file)) {
+      for(final int id : in.readNums()) deleted.add(id);
+      for(int t = in.readNum(); t > 0; t--) {
+        final byte[] token = in.readToken();
+        final IntList list = new IntList(in.readNums());
+        tokens.put(token, list);
+        added += list.size() >> 1;
+      }
+    }
+  }
+
+  /**
+   * Adds an entry.
+   * @param token token
+   * @param id id
+   * @param pos position
+   */
+  void add(final byte[] token, final int id, final int pos) {
+    IntList list = tokens.get(token);
+    if(list == null) {
+      list = new IntList(2);
+      tokens.put(token, list);
+    }
+    list.add(id).add(pos);
+    added++;
+    dirty = true;
+  }
+
+  /**
+   * Deletes the entries of the specified ids.
+   * @param ids ids
+   */
+  void delete(final IntList ids) {
+    final int is = ids.size();
+    if(is == 0) return;
+    final IntSet set = new IntSet(is);
+    for(int i = 0; i < is; i++) {
+      set.add(ids.get(i));
+      deleted.add(ids.get(i));
+    }
+
+    // remove entries that have been added since the last merge
+    for(final byte[] token : tokens) {
+      final IntList list = tokens.get(token);
+      final int ls = list.size();
+      int n = 0;
+      for(int l = 0; l < ls; l += 2) {
+        final int id = list.get(l);
+        if(set.contains(id)) continue;
+        list.set(n++, id);
+        list.set(n++, list.get(l + 1));
+      }
+      list.size(n);
+      added -= ls - n >> 1;
+    }
+    dirty = true;
+  }
+
+  /**
+   * Checks if the specified id of the main index has been deleted.
+   * @param id id
+   * @return result of check
+   */
+  boolean deleted(final int id) {
+    return deleted.contains(id);
+  }
+
+  /**
+   * Checks if entries of the main index have been deleted.
+   * @return result of check
+   */
+  boolean deletions() {
+    return !deleted.isEmpty();
+  }
+
+  /**
+   * Returns the number of added entries of a token.
+   * @param token token
+   * @return number of entries
+   */
+  int size(final byte[] token) {
+    final IntList list = tokens.get(token);
+    return list == null ? 0 : list.size() >> 1;
+  }
+
+  /**
+   * Returns the added entries of a token.
+   * @param token token
+   * @return interleaved id/pos pairs, or {@code null}
+   */
+  IntList get(final byte[] token) {
+    final IntList list = tokens.get(token);
+    return list == null || list.isEmpty() ? null : list;
+  }
+
+  /**
+   * Adds the pre values and positions of the added entries of a token.
+   * @param token token
+   * @param data data reference
+   * @param pres pre values
+   * @param poss positions
+   */
+  void entries(final byte[] token, final Data data, final IntList pres, final IntList poss) {
+    final IntList list = get(token);
+    if(list == null) return;
+    final int ls = list.size();
+    for(int l = 0; l < ls; l += 2) {
+      pres.add(data.pre(list.get(l)));
+      poss.add(list.get(l + 1));
+    }
+  }
+
+  /**
+   * Returns all added tokens, sorted by their length and lexicographically.
+   * @return tokens
+   */
+  TokenList tokens() {
+    final TokenList list = new TokenList(tokens.size());
+    for(final byte[] token : tokens) {
+      if(get(token) != null) list.add(token);
+    }
+    return list.sort(FTUpdates::compare, true);
+  }
+
+  /**
+   * Returns the number of updates.
+   * @return number of added entries and deleted ids
+   */
+  int size() {
+    return added + deleted.size();
+  }
+
+  /**
+   * Writes the updates to disk if they have been changed.
+   * @throws IOException I/O exception
+   */
+  void write() throws IOException {
+    if(!dirty) return;
+    try(DataOutput out = new DataOutput(file)) {
+      out.writeNums(deleted.toArray());
+      final TokenList list = tokens();
+      out.writeNum(list.size());
+      for(final byte[] token : list) {
+        out.writeToken(token);
+        out.writeNums(tokens.get(token).toArray());
+      }
+    }
+    dirty = false;
+  }
+
+  /**
+   * Compares two tokens in the order of the main index.
+   * @param token1 first token
+   * @param token2 second token
+   * @return result of comparison
+   */
+  static int compare(final byte[] token1, final byte[] token2) {
+    final int d = token1.length - token2.length;
+    return d != 0 ? d : diff(token1, token2);
+  }
+}
@@ -48,6 +48,25 @@ public final class Names extends TokenSet implements Index {
     for(int id = 1; id < size; id++) stats[id] = new Stats(in);
   }
 
+  /**
+   * Reads the histograms and sketches of the statistics.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  public void readSketches(final DataInput in) throws IOException {
+    for(int id = 1; id < size; id++) stats[id].readSketches(in);
+  }
+
+  /**
+   * Writes the histograms and sketches of the statistics.
+   * Must be called after {@link #write(DataOutput)}.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  public void writeSketches(final DataOutput out) throws IOException {
+    for(int id = 1; id < size; id++) stats[id].writeSketches(out);
+  }
+
   /**
    * Initializes the index.
    */
@@ -59,6 +59,25 @@ public final class PathIndex implements Index {
     this.data = data;
   }
 
+  /**
+   * Reads the histograms and sketches of the statistics.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  public void readSketches(final DataInput in) throws IOException {
+    if(root != null) root.readSketches(in);
+  }
+
+  /**
+   * Writes the histograms and sketches of the statistics.
+   * Must be called after {@link #write(DataOutput)}.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  public void writeSketches(final DataOutput out) throws IOException {
+    if(root != null) root.writeSketches(out);
+  }
+
   /**
    * Writes the path summary to the specified output.
    * @param out output stream
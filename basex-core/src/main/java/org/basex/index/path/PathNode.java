@@ -154,6 +154,26 @@ public final class PathNode {
     for(final PathNode child : children) child.write(out, meta);
   }
 
+  /**
+   * Reads the histograms and sketches of the node and its descendants.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  void readSketches(final DataInput in) throws IOException {
+    stats.readSketches(in);
+    for(final PathNode child : children) child.readSketches(in);
+  }
+
+  /**
+   * Writes the histograms and sketches of the node and its descendants.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  void writeSketches(final DataOutput out) throws IOException {
+    stats.writeSketches(out);
+    for(final PathNode child : children) child.writeSketches(out);
+  }
+
   /**
    * Recursively adds the node and its descendants to the specified list.
    * @param nodes node list
@@ -0,0 +1,123 @@
+package org.basex.index.query;
+
+import java.math.*;
+
+import org.basex.index.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * This class stores a range of dates or dateTimes for index access.
+ * Index values are converted to the type of the range limits.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DateRange implements IndexToken {
+  /** Index type. */
+  private final IndexType type;
+  /** Minimum value ({@code null} if the range is open). */
+  public final ADate min;
+  /** Include minimum value. */
+  public final boolean mni;
+  /** Maximum value ({@code null} if the range is open). */
+  public final ADate max;
+  /** Include maximum value. */
+  public final boolean mxi;
+
+  /**
+   * Constructor.
+   * @param type index type
+   * @param min minimum value (can be {@code null})
+   * @param mni include minimum value
+   * @param max maximum value (can be {@code null})
+   * @param mxi include maximum value
+   */
+  public DateRange(final IndexType type, final ADate min, final boolean mni, final ADate max,
+      final boolean mxi) {
+    this.type = type;
+    this.min = min;
+    this.mni = mni;
+    this.max = max;
+    this.mxi = mxi;
+  }
+
+  /**
+   * Returns the type of the range limits.
+   * @return type ({@link AtomType#DAT} or {@link AtomType#DTM})
+   */
+  public Type dateType() {
+    return (min != null ? min : max).type;
+  }
+
+  /**
+   * Checks if the specified value is within the range.
+   * @param value value
+   * @return result of check
+   */
+  public boolean matches(final byte[] value) {
+    final ADate date = date(value, dateType());
+    if(date == null) return false;
+    final BigDecimal seconds = date.toSeconds();
+    if(min != null) {
+      final int c = seconds.compareTo(min.toSeconds());
+      if(c < 0 || c == 0 && !mni) return false;
+    }
+    if(max != null) {
+      final int c = seconds.compareTo(max.toSeconds());
+      if(c > 0 || c == 0 && !mxi) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Converts a value to a date or dateTime.
+   * @param value value
+   * @param type target type ({@link AtomType#DAT} or {@link AtomType#DTM})
+   * @return date, or {@code null} if the value cannot be converted
+   */
+  public static ADate date(final byte[] value, final Type type) {
+    try {
+      return type == AtomType.DAT ? new Dat(value, null) : new Dtm(value, null);
+    } catch(final QueryException ignore) {
+      // value is no valid date
+      return null;
+    }
+  }
+
+  @Override
+  public IndexType type() {
+    return type;
+  }
+
+  @Override
+  public byte[] get() {
+    return Token.EMPTY;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if(this == obj) return true;
+    if(!(obj instanceof DateRange)) return false;
+    final DateRange dr = (DateRange) obj;
+    return type == dr.type && mni == dr.mni && mxi == dr.mxi &&
+        (min == null ? dr.min == null : min.equals(dr.min)) &&
+        (max == null ? dr.max == null : max.equals(dr.max));
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    final TokenBuilder tb = new TokenBuilder().add(mni ? '[' : '(');
+    if(min != null) tb.add(min.string(null));
+    tb.add(',');
+    if(max != null) tb.add(max.string(null));
+    return tb.add(mxi ? ']' : ')').toString();
+  }
+}
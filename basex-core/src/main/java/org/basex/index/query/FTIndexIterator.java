@@ -20,6 +20,8 @@ public abstract class FTIndexIterator implements IndexIterator {
     @Override
     public int size() { return 0; }
     @Override
+    public int texts() { return 0; }
+    @Override
     public void pos(final int p) { }
   };
 
@@ -35,6 +37,25 @@ public abstract class FTIndexIterator implements IndexIterator {
    */
   public abstract void pos(int p);
 
+  /**
+   * Skips all results with smaller pre values than the specified one, and moves the
+   * iterator to the next result. By default, all results are visited sequentially.
+   * @param pre pre value
+   * @return {@code true} if a result was found
+   */
+  public boolean skip(final int pre) {
+    while(more()) {
+      if(pre() >= pre) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the number of distinct texts that will be returned by this iterator.
+   * @return number of texts
+   */
+  public abstract int texts();
+
   /**
    * Merges two index array iterators.
    * @param i1 first index array iterator to merge
@@ -79,6 +100,11 @@ public abstract class FTIndexIterator implements IndexIterator {
         return i1.size() + i2.size();
       }
 
+      @Override
+      public int texts() {
+        return i1.texts() + i2.texts();
+      }
+
       @Override
       public String toString() {
         return "(" + i1 + " | " + i2 + ')';
@@ -97,20 +123,24 @@ public abstract class FTIndexIterator implements IndexIterator {
       final int dis) {
 
     return new FTIndexIterator() {
-      private FTIndexIterator ii1, ii2;
       private FTMatches all;
 
       @Override
       public boolean more() {
-        int d = 0;
+        if(!i1.more() || !i2.more()) return false;
         while(true) {
-          if(d <= 0) ii1 = i1.more() ? i1 : null;
-          if(d >= 0) ii2 = i2.more() ? i2 : null;
-          if(ii1 == null || ii2 == null) return false;
-          d = ii1.pre() - ii2.pre();
-          if(d != 0) continue;
-          all = ii1.matches();
-          final FTMatches all2 = ii2.matches();
+          // skip results that cannot be contained in the other iterator
+          final int d = i1.pre() - i2.pre();
+          if(d < 0) {
+            if(!i1.skip(i2.pre())) return false;
+            continue;
+          }
+          if(d > 0) {
+            if(!i2.skip(i1.pre())) return false;
+            continue;
+          }
+          all = i1.matches();
+          final FTMatches all2 = i2.matches();
           if(dis == 0) {
             for(final FTMatch m1 : all) {
               for(final FTMatch m2 : all2) m1.add(m2);
@@ -119,6 +149,7 @@ public abstract class FTIndexIterator implements IndexIterator {
           } else if(all.phrase(all2, dis)) {
             return true;
           }
+          if(!i1.more() || !i2.more()) return false;
         }
       }
 
@@ -129,7 +160,7 @@ public abstract class FTIndexIterator implements IndexIterator {
 
       @Override
       public int pre() {
-        return ii1.pre();
+        return i1.pre();
       }
 
       @Override
@@ -143,6 +174,11 @@ public abstract class FTIndexIterator implements IndexIterator {
         return Math.min(i1.size(), i2.size());
       }
 
+      @Override
+      public int texts() {
+        return Math.min(i1.texts(), i2.texts());
+      }
+
       @Override
       public String toString() {
         return "(" + i1 + " & " + i2 + ')';
@@ -0,0 +1,114 @@
+package org.basex.index.query;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+import java.util.regex.*;
+
+import org.basex.index.*;
+
+/**
+ * This class stores a substring or pattern search for index access.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class StringMatch implements IndexToken {
+  /** Search mode. */
+  public enum Mode {
+    /** Values containing the token. */ CONTAINS,
+    /** Values ending with the token. */ ENDS_WITH,
+    /** Values matching the pattern. */ MATCHES;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+    }
+  }
+
+  /** Index type. */
+  private final IndexType type;
+  /** Search mode. */
+  public final Mode mode;
+  /** Search token, or regular expression. */
+  public final byte[] token;
+  /** Literal substring that is contained in all results. */
+  public final byte[] literal;
+  /** Pattern ({@code null} if mode is not {@link Mode#MATCHES}). */
+  private final Pattern pattern;
+
+  /**
+   * Constructor for substring searches.
+   * @param type index type
+   * @param mode search mode ({@link Mode#CONTAINS} or {@link Mode#ENDS_WITH})
+   * @param token search token
+   */
+  public StringMatch(final IndexType type, final Mode mode, final byte[] token) {
+    this(type, mode, token, token, null);
+  }
+
+  /**
+   * Constructor for pattern searches.
+   * @param type index type
+   * @param regex regular expression
+   * @param literal literal substring that is contained in all results
+   * @param pattern compiled pattern
+   */
+  public StringMatch(final IndexType type, final byte[] regex, final byte[] literal,
+      final Pattern pattern) {
+    this(type, Mode.MATCHES, regex, literal, pattern);
+  }
+
+  /**
+   * Constructor.
+   * @param type index type
+   * @param mode search mode
+   * @param token search token, or regular expression
+   * @param literal literal substring that is contained in all results
+   * @param pattern pattern (can be {@code null})
+   */
+  private StringMatch(final IndexType type, final Mode mode, final byte[] token,
+      final byte[] literal, final Pattern pattern) {
+    this.type = type;
+    this.mode = mode;
+    this.token = token;
+    this.literal = literal;
+    this.pattern = pattern;
+  }
+
+  /**
+   * Checks if the specified value is a result of this search.
+   * @param value value
+   * @return result of check
+   */
+  public boolean matches(final byte[] value) {
+    switch(mode) {
+      case CONTAINS:  return contains(value, token);
+      case ENDS_WITH: return endsWith(value, token);
+      default:        return pattern.matcher(string(value)).find();
+    }
+  }
+
+  @Override
+  public IndexType type() {
+    return type;
+  }
+
+  @Override
+  public byte[] get() {
+    return EMPTY;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if(this == obj) return true;
+    if(!(obj instanceof StringMatch)) return false;
+    final StringMatch sm = (StringMatch) obj;
+    return type == sm.type && mode == sm.mode && eq(token, sm.token);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash(token);
+  }
+}
@@ -25,6 +25,8 @@ import org.basex.util.list.*;
  * @author Lukas Kircher
  */
 final class Docs {
+  /** Number of lookups after which the paths will be sorted for binary search. */
+  private static final int SCANS = 8;
   /** Data reference. */
   private final Data data;
   /** Pre values of document nodes (may be {@code null}).
@@ -40,6 +42,8 @@ final class Docs {
   private boolean dirty;
   /** Indicates if a path index is available. */
   private boolean pathIndex;
+  /** Number of path lookups since the last update. */
+  private int lookups;
 
   /**
    * Constructor.
@@ -208,6 +212,7 @@ final class Docs {
    */
   private synchronized void update() {
     pathOrder = null;
+    lookups = 0;
     data.meta.dirty = true;
     dirty = true;
   }
@@ -239,22 +244,64 @@ final class Docs {
     final TokenSet set = new TokenSet();
     final IntList il = new IntList();
     final TokenList paths = paths();
-    final int ps = paths.size();
-    for(int p = 0; p < ps; p++) {
-      final byte[] pt = paths.get(p);
-      boolean add = eq(pt, exact);
-      if(!add) {
-        add = startsWith(pt, prefix);
-        if(add && !desc) {
-          final int i = indexOf(pt, SLASH, prefix.length + 1);
-          if(i != -1) add = set.add(substring(pt, prefix.length, i));
-        }
+    if(pathOrder == null && ++lookups < SCANS) {
+      // scan all paths
+      final int ps = paths.size();
+      for(int p = 0; p < ps; p++) {
+        if(matches(paths.get(p), exact, prefix, desc, set)) il.add(docs.get(p));
+      }
+    } else {
+      // repeated lookups: find exact hits and prefixes via binary search
+      final int[] order = order();
+      final int ol = order.length;
+      for(int o = first(exact); o < ol && eq(paths.get(order[o]), exact); o++) {
+        il.add(docs.get(order[o]));
+      }
+      for(int o = first(prefix); o < ol; o++) {
+        final byte[] pt = paths.get(order[o]);
+        if(!startsWith(pt, prefix)) break;
+        if(matches(pt, exact, prefix, desc, set)) il.add(docs.get(order[o]));
       }
-      if(add) il.add(docs.get(p));
     }
     return il.sort();
   }
 
+  /**
+   * Checks if the specified path matches the requested path.
+   * @param path path to be checked
+   * @param exact exact path (empty if only the prefix is relevant)
+   * @param prefix path prefix
+   * @param desc descendant traversal
+   * @param set names of already added child directories
+   * @return result of check
+   */
+  private static boolean matches(final byte[] path, final byte[] exact, final byte[] prefix,
+      final boolean desc, final TokenSet set) {
+    if(eq(path, exact)) return true;
+    if(!startsWith(path, prefix)) return false;
+    if(desc) return true;
+    final int i = indexOf(path, SLASH, prefix.length + 1);
+    return i == -1 || set.add(substring(path, prefix.length, i));
+  }
+
+  /**
+   * Returns the offset to the first sorted path that is equal to or greater than the
+   * specified path.
+   * @param path path
+   * @return offset
+   */
+  private int first(final byte[] path) {
+    final TokenList paths = paths();
+    final int[] order = order();
+    int l = 0, h = order.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(diff(paths.get(order[m]), path) < 0) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+
   /**
    * Returns the pre value of a document node that matches the specified path.
    * @param path input path
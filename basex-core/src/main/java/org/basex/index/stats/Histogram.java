@@ -0,0 +1,146 @@
+package org.basex.index.stats;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+
+/**
+ * Equi-depth histogram for numeric values. While a database is being built, the bucket bounds
+ * are computed from a random sample of fixed size.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class Histogram {
+  /** Maximum number of buckets. */
+  private static final int BUCKETS = 32;
+  /** Maximum number of sampled values. */
+  private static final int SAMPLE = 1024;
+
+  /** Bucket bounds ({@code null} if they need to be computed). */
+  private double[] bounds;
+  /** Sampled values ({@code null} if the histogram has been read from disk). */
+  private double[] sample;
+  /** Number of sampled values. */
+  private int size;
+  /** Number of added values. */
+  private long added;
+  /** Minimum value. */
+  private double min = Double.MAX_VALUE;
+  /** Maximum value. */
+  private double max = -Double.MAX_VALUE;
+  /** State of the random generator (a fixed seed yields reproducible histograms). */
+  private long seed = 0x2545F4914F6CDD1DL;
+
+  /**
+   * Default constructor.
+   */
+  Histogram() {
+    sample = new double[16];
+  }
+
+  /**
+   * Constructor, specifying an input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  Histogram(final DataInput in) throws IOException {
+    final int bl = in.readNum();
+    bounds = new double[bl];
+    for(int b = 0; b < bl; b++) bounds[b] = in.readDouble();
+  }
+
+  /**
+   * Adds a value.
+   * @param value value
+   * @return {@code false} if the histogram has been read from disk and cannot be updated
+   */
+  boolean add(final double value) {
+    if(sample == null) return false;
+
+    if(min > value) min = value;
+    if(max < value) max = value;
+    bounds = null;
+    if(size < SAMPLE) {
+      if(size == sample.length) sample = Arrays.copyOf(sample, size << 1);
+      sample[size++] = value;
+    } else {
+      // reservoir sampling: replace existing values with decreasing probability
+      final long r = random() % (added + 1);
+      if(r < SAMPLE) sample[(int) r] = value;
+    }
+    added++;
+    return true;
+  }
+
+  /**
+   * Writes the histogram to the specified output stream.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out) throws IOException {
+    final double[] bnds = bounds();
+    out.writeNum(bnds.length);
+    for(final double bound : bnds) out.writeDouble(bound);
+  }
+
+  /**
+   * Estimates the fraction of values within the specified range.
+   * @param mn minimum
+   * @param mx maximum
+   * @return fraction (between 0 and 1)
+   */
+  double fraction(final double mn, final double mx) {
+    final double[] bnds = bounds();
+    final int bl = bnds.length - 1;
+    if(bl < 1) return 0;
+
+    double f = 0;
+    for(int b = 0; b < bl; b++) {
+      final double lo = bnds[b], hi = bnds[b + 1];
+      if(hi < mn || lo > mx) continue;
+      // add bucket if it is fully covered or contains a single value; otherwise, interpolate
+      f += lo == hi || mn <= lo && mx >= hi ? 1 :
+        (Math.min(hi, mx) - Math.max(lo, mn)) / (hi - lo);
+    }
+    return f / bl;
+  }
+
+  /**
+   * Returns the bucket bounds. The first and the last bound are the exact minimum and maximum.
+   * @return bounds
+   */
+  private double[] bounds() {
+    if(bounds == null) {
+      final double[] sorted = Arrays.copyOf(sample, size);
+      Arrays.sort(sorted);
+      final int buckets = size == 0 ? -1 : Math.max(1, Math.min(BUCKETS, size - 1));
+      final double[] bnds = new double[buckets + 1];
+      for(int b = 0; b <= buckets; b++) bnds[b] = sorted[(int) ((long) b * (size - 1) / buckets)];
+      if(buckets > 0) {
+        bnds[0] = min;
+        bnds[buckets] = max;
+      }
+      bounds = bnds;
+    }
+    return bounds;
+  }
+
+  /**
+   * Returns a non-negative pseudo-random number.
+   * @return random number
+   */
+  private long random() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 7;
+    seed ^= seed << 17;
+    return seed >>> 1;
+  }
+
+  @Override
+  public String toString() {
+    return bounds().length - 1 + " buckets";
+  }
+}
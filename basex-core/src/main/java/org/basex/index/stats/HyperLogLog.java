@@ -0,0 +1,99 @@
+package org.basex.index.stats;
+
+import java.io.*;
+
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+
+/**
+ * HyperLogLog sketch for estimating the number of distinct values.
+ * The standard error of the estimates is around 6.5%.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class HyperLogLog {
+  /** Number of bits used for addressing registers. */
+  private static final int BITS = 8;
+  /** Number of registers. */
+  private static final int REGISTERS = 1 << BITS;
+
+  /** Registers (maximum number of leading zeros, plus one). */
+  private final byte[] registers;
+
+  /**
+   * Default constructor.
+   */
+  HyperLogLog() {
+    registers = new byte[REGISTERS];
+  }
+
+  /**
+   * Constructor, specifying an input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  HyperLogLog(final DataInput in) throws IOException {
+    registers = in.readToken();
+  }
+
+  /**
+   * Adds a value.
+   * @param value value
+   */
+  void add(final byte[] value) {
+    final long hash = hash(value);
+    final int r = (int) (hash >>> 64 - BITS);
+    // the additional bit limits the rank to 64 - BITS + 1
+    final byte rank = (byte) (Long.numberOfLeadingZeros(hash << BITS | 1L << BITS - 1) + 1);
+    if(registers[r] < rank) registers[r] = rank;
+  }
+
+  /**
+   * Returns the estimated number of distinct values.
+   * @return number of distinct values
+   */
+  long count() {
+    double sum = 0;
+    int zeros = 0;
+    for(final byte rank : registers) {
+      sum += 1.0 / (1L << rank);
+      if(rank == 0) zeros++;
+    }
+    final double m = REGISTERS, estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+    // small cardinalities: use linear counting
+    return Math.round(estimate <= 2.5 * m && zeros != 0 ? m * Math.log(m / zeros) : estimate);
+  }
+
+  /**
+   * Writes the sketch to the specified output stream.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  void write(final DataOutput out) throws IOException {
+    out.writeToken(registers);
+  }
+
+  /**
+   * Computes a 64-bit hash value (FNV-1a, followed by the finalizer of MurmurHash3).
+   * @param value value
+   * @return hash value
+   */
+  private static long hash(final byte[] value) {
+    long h = 0xCBF29CE484222325L;
+    for(final byte b : value) {
+      h ^= b & 0xFF;
+      h *= 0x100000001B3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    return h ^ h >>> 33;
+  }
+
+  @Override
+  public String toString() {
+    return "~" + count() + " distinct";
+  }
+}
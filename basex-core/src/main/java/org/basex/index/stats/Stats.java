@@ -6,8 +6,10 @@ import static org.basex.util.Token.*;
 import java.io.*;
 
 import org.basex.data.*;
+import org.basex.index.query.*;
 import org.basex.io.in.DataInput;
 import org.basex.io.out.DataOutput;
+import org.basex.query.value.type.*;
 import org.basex.util.hash.*;
 
 /**
@@ -30,6 +32,12 @@ public final class Stats {
 
   /** Leaf node flag. Indicates if all nodes only have a text node as child. */
   private boolean leaf;
+  /** Histogram of numeric values ({@code null} if distinct values are cached or unknown). */
+  private Histogram histogram;
+  /** Sketch for distinct values ({@code null} if distinct values are cached or unknown). */
+  private HyperLogLog sketch;
+  /** Indicates if all values are valid dates (bit 1) and dateTimes (bit 2). */
+  private int dates = 3;
 
   /**
    * Default constructor.
@@ -44,6 +52,7 @@ public final class Stats {
 
   /**
    * Constructor, specifying an input stream.
+   * Histograms and sketches are read via {@link #readSketches(DataInput)}.
    * @param in input stream
    * @throws IOException I/O exception
    */
@@ -62,6 +71,18 @@ public final class Stats {
     count = in.readNum();
     leaf = in.readBool();
     in.readDouble();
+    dates = 0;
+  }
+
+  /**
+   * Reads the histogram, the sketch and the date flags from the specified input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  public void readSketches(final DataInput in) throws IOException {
+    histogram = in.readBool() ? new Histogram(in) : null;
+    sketch = in.readBool() ? new HyperLogLog(in) : null;
+    dates = in.readNum();
   }
 
   /**
@@ -95,16 +116,31 @@ public final class Stats {
     out.writeDouble(0);
   }
 
+  /**
+   * Writes the histogram, the sketch and the date flags to the specified output stream.
+   * @param out output stream
+   * @throws IOException I/O exception
+   */
+  public void writeSketches(final DataOutput out) throws IOException {
+    out.writeBool(histogram != null);
+    if(histogram != null) histogram.write(out);
+    out.writeBool(sketch != null);
+    if(sketch != null) sketch.write(out);
+    out.writeNum(dates);
+  }
+
   /**
    * Adds a value. All values are first treated as integer values. If a value cannot be converted
    * to an integer, it is treated as double value. If conversion fails again, it is handled as
    * string category. Next, all values are cached. As soon as their number exceeds a maximum,
-   * the cached values are skipped, and contents are treated as arbitrary strings.
+   * the cached values are skipped, and contents are treated as arbitrary strings. From then on,
+   * the number of distinct values and the distribution of numeric values are estimated.
    * @param value value to be added
    * @param meta meta data
    */
   public void add(final byte[] value, final MetaData meta) {
     byte t = type;
+    double number = Double.NaN;
     final int vl = value.length;
     // only analyze non-empty values
     if(vl > 0) {
@@ -120,6 +156,7 @@ public final class Stats {
         } else {
           if(min > d) min = d;
           if(max < d) max = d;
+          number = d;
         }
       }
       // try to save new value as double
@@ -130,22 +167,91 @@ public final class Stats {
         } else {
           if(min > d) min = d;
           if(max < d) max = d;
+          number = d;
         }
       }
     }
     type = t;
+    if(t == STRING) histogram = null;
+    // check if values can be converted to dates or dateTimes
+    if(dates != 0) {
+      if((dates & 1) != 0 && DateRange.date(value, AtomType.DAT) == null) dates &= ~1;
+      if((dates & 2) != 0 && DateRange.date(value, AtomType.DTM) == null) dates &= ~2;
+    }
 
     // save distinct values
     if(values != null) {
       if(vl > meta.maxlen || vl > 0 && ws(value)) {
         // give up categories if string is too long or only consists of whitespaces
-        values = null;
+        uncache();
       } else {
         values.put(value, Math.max(1, values.get(value) + 1));
         // give up categories if number of entries exceeds limit
-        if(values.size() > meta.maxcats) values = null;
+        if(values.size() > meta.maxcats) uncache();
+        return;
+      }
+    }
+    if(sketch != null) sketch.add(value);
+    // discard histograms that cannot be updated anymore
+    if(histogram != null && !Double.isNaN(number) && !histogram.add(number)) histogram = null;
+  }
+
+  /**
+   * Estimates the fraction of numeric values within the specified range.
+   * @param mn minimum
+   * @param mx maximum
+   * @return fraction (between 0 and 1), or {@code -1} if no estimate is available
+   */
+  public double fraction(final double mn, final double mx) {
+    if(!isNumeric(type)) return -1;
+    if(histogram != null) return histogram.fraction(mn, mx);
+    if(values == null) return -1;
+
+    // compute exact fraction from cached values
+    long all = 0, in = 0;
+    for(final byte[] value : values) {
+      final double d = toDouble(value);
+      if(Double.isNaN(d)) continue;
+      final int c = values.get(value);
+      all += c;
+      if(d >= mn && d <= mx) in += c;
+    }
+    return all == 0 ? -1 : (double) in / all;
+  }
+
+  /**
+   * Indicates if all values can be converted to the specified type.
+   * @param tp type ({@link AtomType#DAT} or {@link AtomType#DTM})
+   * @return result of check
+   */
+  public boolean isDate(final Type tp) {
+    return (dates & (tp == AtomType.DAT ? 1 : 2)) != 0;
+  }
+
+  /**
+   * Returns the (estimated) number of distinct values.
+   * @return number of distinct values, or {@code -1} if no estimate is available
+   */
+  public long distinct() {
+    return values != null ? values.size() : sketch != null ? sketch.count() : -1;
+  }
+
+  /**
+   * Skips the cached values and creates sketches for estimating the distribution of values.
+   */
+  private void uncache() {
+    sketch = new HyperLogLog();
+    if(type == INTEGER || type == DOUBLE) histogram = new Histogram();
+    for(final byte[] value : values) {
+      sketch.add(value);
+      if(histogram != null) {
+        final double d = toDouble(value);
+        if(!Double.isNaN(d)) {
+          for(int c = values.get(value); c > 0; c--) histogram.add(d);
+        }
       }
     }
+    values = null;
   }
 
   /**
@@ -171,6 +277,7 @@ public final class Stats {
       sb.append(", ");
       final int size = values != null ? values.size() : 0;
       if(size > 1) sb.append(size).append(" distinct ");
+      else if(sketch != null) sb.append(sketch).append(' ');
       sb.append(StatsType.toString(type));
       if(size != 1) sb.append('s');
       if(isNumeric(type)) {
@@ -5,6 +5,7 @@ import static org.basex.data.DataText.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.*;
 import java.util.concurrent.atomic.*;
 
 import org.basex.core.*;
@@ -12,8 +13,12 @@ import org.basex.data.*;
 import org.basex.index.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
 import org.basex.io.random.*;
 import org.basex.query.util.*;
+import org.basex.query.value.type.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
 import org.basex.util.list.*;
@@ -39,6 +44,14 @@ public class DiskValues extends ValueIndex {
 
   /** Synchronization object. */
   private final Object monitor = new Object();
+  /** N-gram lookup for the keys (lazily instantiated). */
+  private IndexGrams grams;
+  /** Sorted ids of the values that are too long to be indexed (lazily instantiated). */
+  private IntList longIds;
+  /** Indicates if the ids of long values have been changed. */
+  private boolean longDirty;
+  /** Typed range lookups for the keys (lazily instantiated). */
+  private final HashMap<Type, RangeKeys> ranges = new HashMap<>();
 
   /**
    * Constructor, initializing the index structure.
@@ -96,6 +109,8 @@ public class DiskValues extends ValueIndex {
     return IndexCosts.get(
       it instanceof StringRange ? Math.max(1, data.meta.size / 10) :
       it instanceof NumericRange ? Math.max(1, data.meta.size / 3) :
+      it instanceof DateRange ? Math.max(1, data.meta.size / 10) :
+      it instanceof StringMatch ? costs((StringMatch) it) :
       entry(it.get()).size);
   }
 
@@ -106,6 +121,10 @@ public class DiskValues extends ValueIndex {
       pres = idRange((StringRange) token);
     } else if(token instanceof NumericRange) {
       pres = idRange((NumericRange) token);
+    } else if(token instanceof DateRange) {
+      pres = idRange((DateRange) token);
+    } else if(token instanceof StringMatch) {
+      pres = idMatch((StringMatch) token);
     } else {
       final IndexEntry ie = entry(token.get());
       pres = pres(ie.size, ie.offset);
@@ -131,6 +150,7 @@ public class DiskValues extends ValueIndex {
   @Override
   public final void close() {
     synchronized(monitor) {
+      writeLongIds();
       idxl.close();
       idxr.close();
     }
@@ -156,6 +176,9 @@ public class DiskValues extends ValueIndex {
 
   @Override
   public final void flush() {
+    synchronized(monitor) {
+      writeLongIds();
+    }
     idxl.flush();
     idxr.flush();
   }
@@ -202,6 +225,30 @@ public class DiskValues extends ValueIndex {
     return -(l + 1);
   }
 
+  /**
+   * Discards lookup structures that are derived from the index keys, and updates the ids of the
+   * values that are too long to be indexed. This method is called before the index is updated.
+   * @param vc value cache with the values to be added or deleted
+   * @param add add or delete values
+   */
+  final void changed(final ValueCache vc, final boolean add) {
+    synchronized(monitor) {
+      grams = null;
+      ranges.clear();
+
+      final IntList ids = vc.longIds;
+      final int is = ids.size();
+      if(is == 0) return;
+      final IntList lids = longIds();
+      for(int i = 0; i < is; i++) {
+        final int id = ids.get(i), l = lids.sortedIndexOf(id);
+        if(add && l < 0) lids.insert(-l - 1, id);
+        else if(!add && l >= 0) lids.remove(l);
+      }
+      longDirty = true;
+    }
+  }
+
   // PRIVATE METHODS ==============================================================================
 
   /**
@@ -423,44 +470,198 @@ public class DiskValues extends ValueIndex {
   }
 
   /**
-   * Performs a range query. All index values must be numeric.
+   * Performs a substring or pattern query.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param tok index term
+   * @return results
+   */
+  private IntList idMatch(final StringMatch tok) {
+    final IntList pres = new IntList();
+    synchronized(monitor) {
+      // check candidates of the n-gram lookup, or all keys if the literal is too short
+      final IntList indexes = grams().ids(tok.literal);
+      final int is = indexes != null ? indexes.size() : size();
+      for(int i = 0; i < is; i++) {
+        final int index = indexes != null ? indexes.get(i) : i;
+        final int count = idxl.readNum(idxr.read5(index * 5L));
+        final long offset = idxl.cursor();
+        if(tok.matches(key(idxl.readNum()))) pres.add(pres(count, offset).finish());
+      }
+      // check values that have not been indexed
+      final boolean text = type == IndexType.TEXT;
+      final IntList lids = longIds();
+      final int ls = lids.size();
+      for(int l = 0; l < ls; l++) {
+        final int pre = pre(lids.get(l));
+        if(tok.matches(data.text(pre, text))) pres.add(pre);
+      }
+    }
+    return pres.sort();
+  }
+
+  /**
+   * Estimates the costs of a substring or pattern query: the number of ids of all keys that
+   * are returned by the n-gram lookup, plus the number of values that have not been indexed.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param tok index term
+   * @return costs
+   */
+  private int costs(final StringMatch tok) {
+    synchronized(monitor) {
+      final IntList indexes = grams().ids(tok.literal);
+      if(indexes == null) return Math.max(1, data.meta.size / 10);
+      long costs = longIds().size();
+      final int is = indexes.size();
+      for(int i = 0; i < is; i++) costs += idxl.readNum(idxr.read5(indexes.get(i) * 5L));
+      return (int) Math.min(Integer.MAX_VALUE, costs);
+    }
+  }
+
+  /**
+   * Returns the n-gram lookup for the keys. If it does not exist yet, it is created.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @return n-gram lookup
+   */
+  private IndexGrams grams() {
+    if(grams == null) {
+      final IndexGrams ig = new IndexGrams();
+      final int entries = size();
+      for(int index = 0; index < entries; index++) {
+        idxl.readNum(idxr.read5(index * 5L));
+        ig.add(key(idxl.readNum()), index);
+      }
+      grams = ig;
+    }
+    return grams;
+  }
+
+  /**
+   * Returns the sorted ids of the values that are too long to be indexed. The ids are read from
+   * disk. If no file exists (databases created with older versions), the table is scanned.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @return ids
+   */
+  private IntList longIds() {
+    if(longIds == null) {
+      final IOFile file = data.meta.dbFile(fileSuffix(type) + 'g');
+      if(file.exists()) {
+        try(DataInput in = new DataInput(file)) {
+          longIds = new IntList(in.readNums());
+        } catch(final IOException ex) {
+          Util.debug(ex);
+        }
+      }
+      if(longIds == null) {
+        final IntList ids = new IntList();
+        final IndexNames names = new IndexNames(type, data);
+        final boolean text = type == IndexType.TEXT, updindex = data.meta.updindex;
+        final int kind = text ? Data.TEXT : Data.ATTR, size = data.meta.size;
+        for(int pre = 0; pre < size; pre++) {
+          if(data.kind(pre) == kind && names.contains(pre, text) &&
+              data.textLen(pre, text) > data.meta.maxlen) ids.add(updindex ? data.id(pre) : pre);
+        }
+        longIds = ids.sort();
+      }
+    }
+    return longIds;
+  }
+
+  /**
+   * Writes the ids of the values that are too long to be indexed if they have been changed.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   */
+  private void writeLongIds() {
+    if(!longDirty) return;
+    try(DataOutput out = new DataOutput(data.meta.dbFile(fileSuffix(type) + 'g'))) {
+      out.writeNums(longIds.toArray());
+      longDirty = false;
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    }
+  }
+
+  /**
+   * Performs a numeric range query.
    * <p><em>Important:</em> This method is thread-safe.</p>
    * @param tok index term
    * @return results
    */
   private IntList idRange(final NumericRange tok) {
-    // check if min and max are positive integers with the same number of digits
-    final double min = tok.min, max = tok.max;
-    final int len = max > 0 && (long) max == max ? token(max).length : 0;
-    final boolean simple = len != 0 && min > 0 && (long) min == min && token(min).length == len;
+    final IntList pres = new IntList();
+    synchronized(monitor) {
+      final RangeKeys rk = ranges(AtomType.DBL);
+      final int last = rk.last(tok.max);
+      for(int r = rk.first(tok.min); r < last; r++) add(rk.index(r), pres);
+    }
+    return pres.sort();
+  }
 
+  /**
+   * Performs a date range query.
+   * <p><em>Important:</em> This method is thread-safe.</p>
+   * @param tok index term
+   * @return results
+   */
+  private IntList idRange(final DateRange tok) {
     final IntList pres = new IntList();
     synchronized(monitor) {
-      final int entries = size();
-      final boolean text = type == IndexType.TEXT;
-      for(int index = 0; index < entries; ++index) {
-        final int count = idxl.readNum(idxr.read5(index * 5L));
-        int id = idxl.readNum();
-        final int pre = pre(id);
-
-        final double v = data.textDbl(pre, text);
-        if(v >= min && v <= max) {
-          // value is in range
-          for(int c = 0; c < count; c++) {
-            pres.add(pre(id));
-            id += idxl.readNum();
-          }
-        } else if(simple && v > max && data.textLen(pre, text) == len) {
-          // if limits are integers, if min, max and current value have the same
-          // string length, and if current value is larger than max, test can be
-          // skipped, as all remaining values will be bigger
-          break;
+      final RangeKeys rk = ranges(tok.dateType());
+      final double min = tok.min != null ? RangeKeys.key(tok.min) : Double.NEGATIVE_INFINITY;
+      final double max = tok.max != null ? RangeKeys.key(tok.max) : Double.POSITIVE_INFINITY;
+      final int last = rk.last(max);
+      for(int r = rk.first(min); r < last; r++) {
+        // check limits again, as normalized keys may have been rounded
+        final double key = rk.key(r);
+        final int index = rk.index(r);
+        if(key == min || key == max) {
+          idxl.readNum(idxr.read5(index * 5L));
+          if(!tok.matches(key(idxl.readNum()))) continue;
         }
+        add(index, pres);
       }
     }
     return pres.sort();
   }
 
+  /**
+   * Adds the pre values of the specified index entry.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param index position of the index entry
+   * @param pres pre values
+   */
+  private void add(final int index, final IntList pres) {
+    final int count = idxl.readNum(idxr.read5(index * 5L));
+    for(int c = 0, id = 0; c < count; c++) {
+      id += idxl.readNum();
+      // token index: skip position
+      if(type == IndexType.TOKEN) idxl.readNum();
+      pres.add(pre(id));
+    }
+  }
+
+  /**
+   * Returns the typed range lookup for the keys. If it does not exist yet, it is created.
+   * <p><em>Important:</em> This method is NOT thread-safe.</p>
+   * @param tp type of the keys ({@link AtomType#DBL}, {@link AtomType#DAT} or {@link AtomType#DTM})
+   * @return range lookup
+   */
+  private RangeKeys ranges(final Type tp) {
+    return ranges.computeIfAbsent(tp, t -> {
+      final DoubleList keys = new DoubleList();
+      final IntList indexes = new IntList();
+      final int entries = size();
+      for(int index = 0; index < entries; index++) {
+        idxl.readNum(idxr.read5(index * 5L));
+        final double key = RangeKeys.key(key(idxl.readNum()), t);
+        if(!Double.isNaN(key)) {
+          keys.add(key);
+          indexes.add(index);
+        }
+      }
+      return new RangeKeys(keys, indexes);
+    });
+  }
+
   /**
    * Returns the specified key, considering tokenization.
    * @param id id of key
@@ -26,6 +26,9 @@ import org.basex.util.list.*;
  *   structure. Instead, they can be found by following the id references to
  *   the main table.
  * </li>
+ * <li> {@code DATATXT/ATV + 'g'}: contains the sorted ids of all texts and
+ *   attribute values that are too long to be indexed, stored in the {@link Num}
+ *   format: [size, id1, id2, ...].</li>
  * </ul>
  *
  * @author BaseX Team 2005-19, BSD License
@@ -51,6 +54,7 @@ public final class DiskValuesBuilder extends ValuesBuilder {
 
     try {
       final boolean updindex = data.meta.updindex;
+      final IntList longIds = new IntList();
       for(pre = 0; pre < size; ++pre) {
         if((pre & 0x0FFF) == 0) check();
         if(indexEntry()) {
@@ -64,6 +68,8 @@ public final class DiskValuesBuilder extends ValuesBuilder {
           } else if(data.textLen(pre, text) <= data.meta.maxlen) {
             index.add(data.text(pre, text), id, 0);
             count++;
+          } else {
+            longIds.add(id);
           }
         }
       }
@@ -75,6 +81,13 @@ public final class DiskValuesBuilder extends ValuesBuilder {
         merge();
       }
 
+      if(!tokenize) {
+        final String f = DiskValues.fileSuffix(type);
+        try(DataOutput out = new DataOutput(data.meta.dbFile(f + 'g'))) {
+          out.writeNums(longIds.sort().finish());
+        }
+      }
+
       finishIndex();
       return updindex ? new UpdatableDiskValues(data, type) : new DiskValues(data, type);
 
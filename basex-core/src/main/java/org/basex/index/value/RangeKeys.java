@@ -0,0 +1,122 @@
+package org.basex.index.value;
+
+import static org.basex.util.Token.*;
+
+import org.basex.index.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides a sorted lookup for all keys of a value index that can be converted to a
+ * specific type. The typed keys are normalized to double values: numbers are stored as they are,
+ * and dates and dateTimes are stored as seconds, normalized to UTC. The normalized keys are
+ * ordered in the same way as the typed values, so range queries can be answered by two binary
+ * searches. As dates with fractional seconds may be rounded, keys that are equal to the
+ * normalized limits of a date range must be checked again.
+ *
+ * <p>Memory consumption is linear to the number of convertible keys (12 bytes per key). The
+ * lookups are owned by the index instance and discarded whenever the index is updated, and
+ * they are only created if a range query is evaluated for the specific type.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class RangeKeys {
+  /** Normalized keys, sorted in ascending order. */
+  private final double[] keys;
+  /** Positions of the normalized keys in the value index. */
+  private final int[] indexes;
+
+  /**
+   * Constructor.
+   * @param keys normalized keys
+   * @param indexes positions of the keys in the value index
+   */
+  RangeKeys(final DoubleList keys, final IntList indexes) {
+    final double[] ks = keys.finish();
+    final int[] order = Array.createOrder(ks, true);
+    this.keys = ks;
+    this.indexes = new int[order.length];
+    final int ol = order.length;
+    for(int o = 0; o < ol; o++) this.indexes[o] = indexes.get(order[o]);
+  }
+
+  /**
+   * Returns the normalized key of a value.
+   * @param value value
+   * @param type target type ({@link AtomType#DBL}, {@link AtomType#DAT} or {@link AtomType#DTM})
+   * @return normalized key, or {@link Double#NaN} if the value cannot be converted
+   */
+  static double key(final byte[] value, final Type type) {
+    if(type == AtomType.DBL) return toDouble(value);
+    final ADate date = DateRange.date(value, type);
+    return date == null ? Double.NaN : key(date);
+  }
+
+  /**
+   * Returns the normalized key of a date.
+   * @param date date
+   * @return normalized key
+   */
+  static double key(final ADate date) {
+    return date.toSeconds().doubleValue();
+  }
+
+  /**
+   * Returns the number of keys.
+   * @return number of keys
+   */
+  int size() {
+    return keys.length;
+  }
+
+  /**
+   * Returns the normalized key at the specified position.
+   * @param pos position
+   * @return key
+   */
+  double key(final int pos) {
+    return keys[pos];
+  }
+
+  /**
+   * Returns the position of the key in the value index.
+   * @param pos position
+   * @return position in the value index
+   */
+  int index(final int pos) {
+    return indexes[pos];
+  }
+
+  /**
+   * Returns the position of the first key that is equal to or greater than the specified value.
+   * @param min minimum value
+   * @return position
+   */
+  int first(final double min) {
+    int l = 0, h = keys.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(keys[m] < min) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+
+  /**
+   * Returns the position after the last key that is equal to or smaller than the specified value.
+   * @param max maximum value
+   * @return position
+   */
+  int last(final double max) {
+    int l = 0, h = keys.length;
+    while(l < h) {
+      final int m = l + h >>> 1;
+      if(keys[m] <= max) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+}
@@ -35,6 +35,7 @@ public final class UpdatableDiskValues extends DiskValues {
 
   @Override
   public synchronized void add(final ValueCache values) {
+    changed(values, true);
     // create a sorted list of the new keys and update the old keys
     final TokenList newKeys = new TokenList();
 
@@ -89,6 +90,7 @@ public final class UpdatableDiskValues extends DiskValues {
 
   @Override
   public synchronized void delete(final ValueCache values) {
+    changed(values, false);
     // create a list of the indexes of the keys which should be completely deleted
     final IntList keys = new IntList();
     int p = 0;
@@ -103,6 +105,14 @@ public final class UpdatableDiskValues extends DiskValues {
     deleteKeys(keys);
   }
 
+  @Override
+  public synchronized void prepareDelete(final ValueCache values) {
+    // keys are looked up via the texts of the indexed nodes:
+    // cache them as long as the nodes have not been removed or changed
+    final int sz = size();
+    for(final byte[] key : values) get(key, 0, sz);
+  }
+
   @Override
   protected IntList pres(final int sz, final long offset) {
     return super.pres(sz, offset).sort();
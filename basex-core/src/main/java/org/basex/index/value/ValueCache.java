@@ -22,6 +22,18 @@ public final class ValueCache implements Iterable<byte[]> {
   private final ArrayList<IntList> ids = new ArrayList<>();
   /** Positions. */
   private final ArrayList<IntList> pos;
+  /** Ids of texts that are too long to be indexed. */
+  final IntList longIds = new IntList();
+  /** Number of cached ids. */
+  private int size;
+
+  /**
+   * Constructor for an empty cache.
+   * @param type index type
+   */
+  ValueCache(final IndexType type) {
+    pos = type == IndexType.TOKEN ? new ArrayList<>() : null;
+  }
 
   /**
    * Caches the text and id for a node with specified pre value.
@@ -54,7 +66,7 @@ public final class ValueCache implements Iterable<byte[]> {
     pos = type == IndexType.TOKEN ? new ArrayList<>() : null;
 
     final IndexNames in = new IndexNames(type, data);
-    final boolean text = type == IndexType.TEXT;
+    final boolean text = type == IndexType.TEXT || type == IndexType.FULLTEXT;
     final int pl = pres.size(), kind = text ? Data.TEXT : Data.ATTR;
     for(int p = 0; p < pl; p++) {
       final int pre = pres.get(p);
@@ -64,8 +76,10 @@ public final class ValueCache implements Iterable<byte[]> {
           for(final byte[] token : distinctTokens(data.text(pre, false))) {
             addId(token, pre, ps++, data);
           }
-        } else if(data.textLen(pre, text) <= data.meta.maxlen) {
+        } else if(type == IndexType.FULLTEXT || data.textLen(pre, text) <= data.meta.maxlen) {
           addId(data.text(pre, text), pre, 0, data);
+        } else {
+          longIds.add(data.id(pre));
         }
       }
     }
@@ -92,7 +106,17 @@ public final class ValueCache implements Iterable<byte[]> {
    * @param data data reference
    */
   private void addId(final byte[] text, final int pre, final int ps, final Data data) {
-    final int i = keys.put(text) - 1;
+    add(text, data.id(pre), ps);
+  }
+
+  /**
+   * Adds a single id and position.
+   * @param key key
+   * @param id id
+   * @param ps position
+   */
+  void add(final byte[] key, final int id, final int ps) {
+    final int i = keys.put(key) - 1;
     final boolean exists = i < ids.size();
 
     IntList list;
@@ -102,7 +126,8 @@ public final class ValueCache implements Iterable<byte[]> {
       list = new IntList(1);
       ids.add(list);
     }
-    list.add(data.id(pre));
+    list.add(id);
+    size++;
 
     if(pos != null) {
       if(exists) {
@@ -116,12 +141,58 @@ public final class ValueCache implements Iterable<byte[]> {
   }
 
   /**
-   * Returns an iterator with all keys in sorted order.
+   * Removes a single id.
+   * @param key key
+   * @param id id
+   * @param ps position (ignored if {@code -1})
+   * @return {@code true} if the id was found and removed
+   */
+  boolean remove(final byte[] key, final int id, final int ps) {
+    final int i = keys.id(key) - 1;
+    if(i < 0) return false;
+    final IntList list = ids.get(i), pl = pos != null ? pos.get(i) : null;
+    final int ls = list.size();
+    for(int l = 0; l < ls; l++) {
+      if(list.get(l) == id && (pl == null || ps == -1 || pl.get(l) == ps)) {
+        list.remove(l);
+        if(pl != null) pl.remove(l);
+        size--;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the id of a text that is too long to be indexed.
+   * @param id id
+   * @return {@code true} if the id was found and removed
+   */
+  boolean removeLong(final int id) {
+    if(!longIds.contains(id)) return false;
+    longIds.removeAll(id);
+    return true;
+  }
+
+  /**
+   * Checks if the cache contains no ids.
+   * @return result of check
+   */
+  boolean isEmpty() {
+    return size == 0 && longIds.isEmpty();
+  }
+
+  /**
+   * Returns an iterator with all keys in sorted order. Keys without ids are skipped.
    * @return keys iterator
    */
   @Override
   public Iterator<byte[]> iterator() {
-    return new TokenList(keys).sort().iterator();
+    final TokenList list = new TokenList(keys.size());
+    for(final byte[] key : keys) {
+      if(!ids(key).isEmpty()) list.add(key);
+    }
+    return list.sort().iterator();
   }
 
   /**
@@ -129,7 +200,7 @@ public final class ValueCache implements Iterable<byte[]> {
    * @param key key
    * @return id list
    */
-  IntList ids(final byte[] key) {
+  public IntList ids(final byte[] key) {
     return ids.get(keys.id(key) - 1);
   }
 
@@ -37,6 +37,14 @@ public abstract class ValueIndex implements Index {
    */
   public abstract void delete(ValueCache vc);
 
+  /**
+   * Prepares the deletion of entries. This method is called if index updates are cached and
+   * deletions are applied after the referenced nodes have been removed or changed.
+   * @param vc value cache with [key, id-list] pairs
+   */
+  @SuppressWarnings("unused")
+  public void prepareDelete(final ValueCache vc) { }
+
   /**
    * Add entries to the index.
    * @param vc value cache with [key, id-list] pairs
@@ -0,0 +1,95 @@
+package org.basex.index.value;
+
+import org.basex.index.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * Collects updates of a value index, which will be applied in a single step.
+ * Ids that are added and deleted again within the same bulk operation cancel each other out.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ValueUpdates {
+  /** Ids to be added. */
+  private final ValueCache added;
+  /** Ids to be deleted. */
+  private final ValueCache deleted;
+  /** Ids that have been added (used as fast pre-check when ids are deleted). */
+  private final IntSet addedIds = new IntSet();
+  /** Ids that have been deleted (used as fast pre-check when ids are added). */
+  private final IntSet deletedIds = new IntSet();
+
+  /**
+   * Constructor.
+   * @param type index type
+   */
+  public ValueUpdates(final IndexType type) {
+    added = new ValueCache(type);
+    deleted = new ValueCache(type);
+  }
+
+  /**
+   * Caches the entries to be added to the index.
+   * @param vc value cache
+   */
+  public void add(final ValueCache vc) {
+    for(final byte[] key : vc) {
+      final IntList ids = vc.ids(key), pos = vc.pos(key);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) {
+        final int id = ids.get(i), ps = pos != null ? pos.get(i) : 0;
+        if(!deletedIds.contains(id) || !deleted.remove(key, id, ps)) {
+          added.add(key, id, ps);
+          addedIds.add(id);
+        }
+      }
+    }
+    final IntList ids = vc.longIds;
+    final int is = ids.size();
+    for(int i = 0; i < is; i++) {
+      final int id = ids.get(i);
+      if(!deletedIds.contains(id) || !deleted.removeLong(id)) {
+        added.longIds.add(id);
+        addedIds.add(id);
+      }
+    }
+  }
+
+  /**
+   * Caches the entries to be deleted from the index.
+   * @param vc value cache
+   */
+  public void delete(final ValueCache vc) {
+    for(final byte[] key : vc) {
+      final IntList ids = vc.ids(key), pos = vc.pos(key);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) {
+        final int id = ids.get(i), ps = pos != null ? pos.get(i) : 0;
+        if(!addedIds.contains(id) || !added.remove(key, id, -1)) {
+          deleted.add(key, id, ps);
+          deletedIds.add(id);
+        }
+      }
+    }
+    final IntList ids = vc.longIds;
+    final int is = ids.size();
+    for(int i = 0; i < is; i++) {
+      final int id = ids.get(i);
+      if(!addedIds.contains(id) || !added.removeLong(id)) {
+        deleted.longIds.add(id);
+        deletedIds.add(id);
+      }
+    }
+  }
+
+  /**
+   * Applies the cached updates to the specified index. Deletions are applied first.
+   * @param index value index
+   */
+  public void apply(final ValueIndex index) {
+    if(!deleted.isEmpty()) index.delete(deleted);
+    if(!added.isEmpty()) index.add(added);
+  }
+}
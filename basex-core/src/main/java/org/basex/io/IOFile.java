@@ -1,6 +1,8 @@
 package org.basex.io;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.nio.file.*;
 import java.util.*;
 import java.util.regex.*;
@@ -319,6 +321,45 @@ public final class IOFile extends IO {
     Files.copy(toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
   }
 
+  /**
+   * Writes a range of the file to the specified output stream.
+   * If the stream is backed by a channel, the bytes will be transferred by the operating system.
+   * Otherwise, they will be passed on in chunks.
+   * @param os output stream
+   * @param offset offset of the first byte
+   * @param length number of bytes (will be limited to the file size)
+   * @throws IOException I/O exception
+   */
+  public void copyTo(final OutputStream os, final long offset, final long length)
+      throws IOException {
+
+    try(FileChannel fc = FileChannel.open(toPath(), StandardOpenOption.READ)) {
+      final long end = offset + Math.min(length, Math.max(0, fc.size() - offset));
+      final WritableByteChannel wc = os instanceof FileOutputStream ?
+        ((FileOutputStream) os).getChannel() : os instanceof WritableByteChannel ?
+        (WritableByteChannel) os : null;
+
+      long pos = offset;
+      if(wc != null) {
+        while(pos < end) {
+          final long t = fc.transferTo(pos, end - pos, wc);
+          if(t <= 0) break;
+          pos += t;
+        }
+      } else {
+        // wrap array for each chunk (buffer methods are covariant since Java 9)
+        final byte[] bytes = new byte[(int) Math.max(0, Math.min(end - pos, 1 << 20))];
+        while(pos < end) {
+          final int r = fc.read(ByteBuffer.wrap(bytes, 0, (int) Math.min(end - pos, bytes.length)),
+              pos);
+          if(r == -1) break;
+          os.write(bytes, 0, r);
+          pos += r;
+        }
+      }
+    }
+  }
+
   @Override
   public boolean eq(final IO io) {
     return io instanceof IOFile && (Prop.CASE ? pth.equals(io.pth) : pth.equalsIgnoreCase(io.pth));
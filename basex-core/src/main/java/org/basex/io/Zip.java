@@ -4,6 +4,7 @@ import java.io.*;
 import java.util.zip.*;
 
 import org.basex.core.jobs.*;
+import org.basex.io.in.*;
 import org.basex.io.out.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
@@ -50,6 +51,14 @@ public final class Zip extends Job {
    * @throws IOException I/O exception
    */
   public byte[] read(final String path) throws IOException {
+    // local archives: access entry via central directory
+    if(file instanceof IOFile) {
+      try(ZipFile zf = new ZipFile(((IOFile) file).file())) {
+        final ZipEntry ze = zf.getEntry(path);
+        if(ze == null || ze.isDirectory()) throw new FileNotFoundException(path);
+        return new BufferInput(zf.getInputStream(ze)).content();
+      }
+    }
     try(ZipInputStream in = new ZipInputStream(file.inputStream())) {
       final byte[] cont = getEntry(in, path);
       if(cont == null) throw new FileNotFoundException(path);
@@ -86,12 +95,26 @@ public final class Zip extends Job {
    * @throws IOException I/O exception
    */
   public void zip(final IOFile root, final StringList files) throws IOException {
+    // use simple, fast compression
+    zip(root, files, 1, null, null);
+  }
+
+  /**
+   * Zips the specified files.
+   * @param root root directory
+   * @param files files to add
+   * @param level compression level ({@code 0}: no compression)
+   * @param path path of an additional entry (ignored if {@code null})
+   * @param content content of the additional entry
+   * @throws IOException I/O exception
+   */
+  public void zip(final IOFile root, final StringList files, final int level, final String path,
+      final byte[] content) throws IOException {
     if(!(file instanceof IOFile)) throw new FileNotFoundException(file.path());
 
     curr = 0;
     try(ZipOutputStream out = new ZipOutputStream(new BufferOutput((IOFile) file))) {
-      // use simple, fast compression
-      out.setLevel(1);
+      out.setLevel(level);
       // loop through all files
       total = files.size();
       final byte[] data = new byte[IO.BLOCKSIZE];
@@ -104,6 +127,11 @@ public final class Zip extends Job {
           out.closeEntry();
         }
       }
+      if(path != null) {
+        out.putNextEntry(new ZipEntry(root.name() + '/' + path));
+        out.write(content);
+        out.closeEntry();
+      }
     }
   }
 
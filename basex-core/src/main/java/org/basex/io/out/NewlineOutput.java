@@ -1,5 +1,7 @@
 package org.basex.io.out;
 
+import static org.basex.util.Token.*;
+
 import java.io.*;
 
 /**
@@ -34,6 +36,12 @@ public final class NewlineOutput extends PrintOutput {
     }
   }
 
+  @Override
+  public void print(final byte[] token) throws IOException {
+    final int tl = token.length;
+    for(int t = 0; t < tl; t += cl(token, t)) print(cp(token, t));
+  }
+
   @Override
   public boolean finished() {
     return po.finished();
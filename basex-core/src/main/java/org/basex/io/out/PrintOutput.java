@@ -63,6 +63,13 @@ public class PrintOutput extends OutputStream {
     if(size++ < max) os.write(b);
   }
 
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    final long l = Math.min(len, max - size);
+    if(l > 0) os.write(b, off, (int) l);
+    size += len;
+  }
+
   /**
    * Prints a single codepoint.
    * @param cp codepoint to be printed
@@ -88,12 +95,12 @@ public class PrintOutput extends OutputStream {
 
   /**
    * Prints a token to the output stream.
+   * As tokens are UTF8 encoded, the bytes are written without conversion.
    * @param token token to be written
    * @throws IOException I/O exception
    */
   public void print(final byte[] token) throws IOException {
-    final int tl = token.length;
-    for(int t = 0; t < tl; t += cl(token, t)) print(cp(token, t));
+    write(token, 0, token.length);
   }
 
   /**
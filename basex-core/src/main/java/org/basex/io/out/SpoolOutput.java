@@ -0,0 +1,93 @@
+package org.basex.io.out;
+
+import java.io.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * This class caches the output bytes in main memory. If the specified threshold is exceeded,
+ * all bytes are spooled to a temporary file. The file must be deleted by the caller.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class SpoolOutput extends OutputStream {
+  /** Maximum number of bytes that are cached in main memory. */
+  private final long max;
+  /** Main-memory cache ({@code null} if bytes are spooled). */
+  private ArrayOutput cache = new ArrayOutput();
+  /** Temporary file ({@code null} if bytes are cached in main memory). */
+  private IOFile file;
+  /** File output stream ({@code null} if bytes are cached in main memory). */
+  private BufferOutput out;
+
+  /**
+   * Constructor.
+   * @param max maximum number of bytes that are cached in main memory
+   */
+  public SpoolOutput(final long max) {
+    this.max = max;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    output(1).write(b);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    output(len).write(b, off, len);
+  }
+
+  /**
+   * Writes the contents of the specified input stream.
+   * @param in input stream
+   * @throws IOException I/O exception
+   */
+  public void write(final InputStream in) throws IOException {
+    final byte[] buffer = new byte[IO.BLOCKSIZE];
+    for(int l; (l = in.read(buffer)) != -1;) write(buffer, 0, l);
+  }
+
+  /**
+   * Returns the temporary file.
+   * @return file, or {@code null} if no bytes have been spooled
+   */
+  public IOFile file() {
+    return file;
+  }
+
+  /**
+   * Closes the stream and returns the written bytes.
+   * @return cached bytes, or temporary file
+   * @throws IOException I/O exception
+   */
+  public IO finish() throws IOException {
+    close();
+    return file != null ? file : new IOContent(cache.finish());
+  }
+
+  @Override
+  public void close() throws IOException {
+    if(out != null) out.close();
+  }
+
+  /**
+   * Returns the output stream for the specified number of bytes to be written.
+   * @param len number of bytes to be written
+   * @return output stream
+   * @throws IOException I/O exception
+   */
+  private OutputStream output(final int len) throws IOException {
+    if(cache == null) return out;
+    if(cache.size() + len <= max) return cache;
+
+    // threshold is exceeded: spool cached bytes to temporary file
+    file = new IOFile(File.createTempFile(Prop.NAME + '-', IO.TMPSUFFIX));
+    out = new BufferOutput(file);
+    out.write(cache.buffer(), 0, (int) cache.size());
+    cache = null;
+    return out;
+  }
+}
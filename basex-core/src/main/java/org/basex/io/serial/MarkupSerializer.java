@@ -47,6 +47,8 @@ abstract class MarkupSerializer extends StandardSerializer {
   final boolean content;
   /** Undeclare prefixes. */
   private final boolean undecl;
+  /** Indicates if unescaped character sequences can be directly written to the output. */
+  private final boolean direct;
 
   /** Media type. */
   private final String media;
@@ -83,6 +85,7 @@ abstract class MarkupSerializer extends StandardSerializer {
 
     final boolean html = this instanceof HTMLSerializer;
     final boolean xml = this instanceof XMLSerializer || this instanceof XHTMLSerializer;
+    direct = !html && !mapped() && encoding == Strings.UTF8;
     if(xml || html) {
       if(undecl && ver.equals(V10)) throw SERUNDECL.getIO();
       if(xml) {
@@ -123,14 +126,21 @@ abstract class MarkupSerializer extends StandardSerializer {
     out.print(ATT1);
     final byte[] val = norm(value);
     final int vl = val.length;
-    for(int k = 0; k < vl; k += cl(val, k)) {
-      final int cp = cp(val, k);
-      if(cp == '"') {
-        out.print(E_QUOT);
-      } else if(cp == 0x9 || cp == 0xA) {
-        printHex(cp);
+    for(int k = 0; k < vl;) {
+      final int l = direct ? unescaped(val, k, true) : 0;
+      if(l > 0) {
+        out.write(val, k, l);
+        k += l;
       } else {
-        printChar(cp);
+        final int cp = cp(val, k);
+        if(cp == '"') {
+          out.print(E_QUOT);
+        } else if(cp == 0x9 || cp == 0xA) {
+          printHex(cp);
+        } else {
+          printChar(cp);
+        }
+        k += cl(val, k);
       }
     }
     out.print(ATT2);
@@ -144,8 +154,15 @@ abstract class MarkupSerializer extends StandardSerializer {
       final ArrayList<QNm> qnames = cdata();
       final int vl = val.length;
       if(qnames.isEmpty() || elems.isEmpty() || !qnames.contains(elems.peek())) {
-        for(int k = 0; k < vl; k += cl(val, k)) {
-          printChar(cp(val, k));
+        for(int k = 0; k < vl;) {
+          final int l = direct ? unescaped(val, k, false) : 0;
+          if(l > 0) {
+            out.write(val, k, l);
+            k += l;
+          } else {
+            printChar(cp(val, k));
+            k += cl(val, k);
+          }
         }
       } else {
         out.print(CDATA_O);
@@ -273,6 +290,42 @@ abstract class MarkupSerializer extends StandardSerializer {
     }
   }
 
+  /**
+   * Returns the length of the byte sequence, starting from the specified position, that
+   * contains no characters to be escaped or normalized. As the bytes of a sequence are written
+   * to the output without conversion, newlines and invalid or non-minimal UTF8 encodings
+   * are excluded as well.
+   * @param token token
+   * @param pos start position
+   * @param attribute attribute flag
+   * @return length of byte sequence
+   */
+  private static int unescaped(final byte[] token, final int pos, final boolean attribute) {
+    final int tl = token.length;
+    int p = pos;
+    while(p < tl) {
+      final int b = token[p] & 0xFF;
+      if(b < 0x80) {
+        // ASCII: skip control characters, markup delimiters and newlines
+        if(b < ' ' && (b != '\t' || attribute) || b == 0x7F || b == '&' || b == '<' ||
+            b == '>' || b == '"' && attribute) break;
+        p++;
+      } else {
+        // multi-byte characters: skip C1 control characters and line separator
+        final int l = b < 0xC2 ? 0 : b < 0xE0 ? 2 : b < 0xF0 ? 3 : b < 0xF5 ? 4 : 0;
+        if(l == 0 || p + l > tl) break;
+        boolean valid = true;
+        for(int i = 1; i < l && valid; i++) valid = (token[p + i] & 0xC0) == 0x80;
+        if(!valid) break;
+        final int b1 = token[p + 1] & 0xFF;
+        if(b == 0xC2 ? b1 < 0xA0 : b == 0xE0 ? b1 < 0xA0 : b == 0xF0 ? b1 < 0x90 :
+          b == 0xE2 && b1 == 0x80 && (token[p + 2] & 0xFF) == 0xA8) break;
+        p += l;
+      }
+    }
+    return p - pos;
+  }
+
   /**
    * Prints the document type declaration.
    * @param type document type
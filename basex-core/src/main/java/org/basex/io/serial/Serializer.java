@@ -51,6 +51,13 @@ public abstract class Serializer implements Closeable {
   /** Indicates if an element is currently being opened. */
   private boolean opening;
 
+  /** Data reference of the cached element names. */
+  private Data qnData;
+  /** Cached element names of database nodes, indexed by name ids. */
+  private QNm[] qnames;
+  /** Namespace uri ids of the cached element names. */
+  private int[] qnUris;
+
   /**
    * Returns a default serializer.
    * @param os output stream reference
@@ -382,7 +389,7 @@ public abstract class Serializer implements Closeable {
           nsUri = data.nspaces.uri(data.uriId(pre, kind));
         }
         // open element, serialize namespace declaration if it's new
-        openElement(new QNm(name, nsUri));
+        openElement(qname(data, pre, name, nsUri, nsExist ? data.uriId(pre, kind) : 0));
         if(nsUri == null) nsUri = EMPTY;
         namespace(nsPrefix, nsUri, false);
 
@@ -428,6 +435,38 @@ public abstract class Serializer implements Closeable {
     }
   }
 
+  /**
+   * Returns the name of a database element. Names are cached and reused for subsequent elements
+   * with the same name and namespace uri.
+   * @param data data reference
+   * @param pre pre value
+   * @param name name
+   * @param uri namespace uri (can be {@code null})
+   * @param uriId id of the namespace uri
+   * @return name
+   */
+  private QNm qname(final Data data, final int pre, final byte[] name, final byte[] uri,
+      final int uriId) {
+
+    final int id = data.nameId(pre);
+    if(data != qnData) {
+      qnData = data;
+      qnames = new QNm[data.elemNames.size() + 1];
+      qnUris = new int[qnames.length];
+    }
+    if(id >= qnames.length) {
+      qnames = Arrays.copyOf(qnames, id + 1);
+      qnUris = Arrays.copyOf(qnUris, id + 1);
+    }
+    QNm qnm = qnames[id];
+    if(qnm == null || qnUris[id] != uriId) {
+      qnm = new QNm(name, uri);
+      qnames[id] = qnm;
+      qnUris[id] = uriId;
+    }
+    return qnm;
+  }
+
   /**
    * Serializes a node fragment.
    * @param node database node
@@ -142,6 +142,14 @@ public abstract class StandardSerializer extends OutputSerializer {
     return form == null || ascii(text) ? text : token(Normalizer.normalize(string(text), form));
   }
 
+  /**
+   * Indicates if a character map has been specified.
+   * @return result of check
+   */
+  protected final boolean mapped() {
+    return map != null;
+  }
+
   /**
    * Replaces a character with an entry from the character map.
    * @param cp codepoint
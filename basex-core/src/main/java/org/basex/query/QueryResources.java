@@ -11,6 +11,7 @@ import org.basex.core.cmd.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.io.*;
+import org.basex.query.up.primitives.*;
 import org.basex.query.util.list.*;
 import org.basex.query.util.pkg.*;
 import org.basex.query.value.*;
@@ -442,14 +443,25 @@ public final class QueryResources {
     // overwrite parsing options with default values
     final boolean mem = !context.options.get(MainOptions.FORCECREATE);
     final MainOptions opts = new MainOptions(context.options, true);
-    final Parser parser = new DirParser(io, opts);
 
+    // single documents of read-only queries: check if document has already been parsed
+    final DocCache docs = context.docs;
+    final boolean cache = single && mem && !qc.updating && docs.enabled(io);
+    final String key = cache ? DocCache.key(io, opts, DBOptions.PARSING) : null;
+    if(cache) {
+      final Data data = docs.get(key, io);
+      if(data != null) return addData(data);
+    }
+
+    final long stamp = io.timeStamp();
+    final Parser parser = new DirParser(io, opts);
     final Data data;
     try {
       data = CreateDB.create(io.dbName(), parser, context, opts, mem);
     } catch(final IOException ex) {
       throw IOERR_X.get(ii, ex);
     }
+    if(cache) docs.put(key, io, stamp, data);
     return addData(data);
   }
 
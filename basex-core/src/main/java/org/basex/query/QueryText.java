@@ -388,6 +388,7 @@ public interface QueryText {
   /** Query Info. */ String TEST = "test";
   /** Query Info. */ String MIN = "min";
   /** Query Info. */ String MAX = "max";
+  /** Query Info. */ String RESULTS = "results";
   /** Query Info. */ String INF = "inf";
   /** Query Info. */ String TCL = "tailCall";
   /** Query Info. */ String ENTRIES = "entries";
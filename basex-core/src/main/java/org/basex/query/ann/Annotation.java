@@ -131,6 +131,8 @@ public enum Annotation {
   /** XQuery annotation. */
   _REST_SINGLE("single([key])", arg(STR_O), REST_URI),
   /** XQuery annotation. */
+  _REST_CACHE("cache()", arg(), REST_URI),
+  /** XQuery annotation. */
   _REST_GET("GET()", arg(), REST_URI),
   /** XQuery annotation. */
   _REST_POST("POST([body])", arg(STR_O), REST_URI),
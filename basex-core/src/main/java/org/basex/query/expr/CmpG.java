@@ -4,6 +4,8 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.QueryText.*;
 
 import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.index.stats.*;
 import org.basex.query.*;
 import org.basex.query.expr.CmpV.*;
 import org.basex.query.func.*;
@@ -314,8 +316,9 @@ public class CmpG extends Cmp {
 
   @Override
   public final boolean indexAccessible(final IndexInfo ii) throws QueryException {
-    // only equality expressions on default collation can be rewritten
-    if(op != OpG.EQ || coll != null) return false;
+    // only equality expressions and date ranges on default collation can be rewritten
+    if(coll != null) return false;
+    if(op != OpG.EQ) return op != OpG.NE && dateRange(ii);
 
     Expr expr1 = exprs[0];
     final boolean tokenize = Function.TOKENIZE.is(expr1);
@@ -323,6 +326,28 @@ public class CmpG extends Cmp {
     return ii.create(exprs[1], ii.type(expr1, tokenize ? IndexType.TOKEN : null), false, info);
   }
 
+  /**
+   * Tries to rewrite a comparison with a date or dateTime for range index access.
+   * The index is only used if the statistics indicate that all values of the compared nodes
+   * can be converted to the type of the date. Otherwise, the comparison is evaluated
+   * sequentially, and conversion errors will be raised.
+   * @param ii index info
+   * @return success flag
+   */
+  private boolean dateRange(final IndexInfo ii) {
+    final Expr expr1 = exprs[0], expr2 = exprs[1];
+    if(!(expr2 instanceof Dat || expr2 instanceof Dtm)) return false;
+    final IndexType type = ii.type(expr1, null);
+    if(type == null) return false;
+
+    final ADate date = (ADate) expr2;
+    final Stats stats = CmpR.stats(ii, type, expr1);
+    if(stats == null || !stats.isDate(date.type)) return false;
+
+    final boolean min = op == OpG.GE || op == OpG.GT, incl = op == OpG.GE || op == OpG.LE;
+    return ii.create(new DateRange(type, min ? date : null, incl, min ? null : date, incl), info);
+  }
+
   @Override
   public CmpG copy(final CompileContext cc, final IntObjMap<Var> vm) {
     final CmpG cmp = new CmpG(exprs[0].copy(cc, vm), exprs[1].copy(cc, vm), op, coll, sc, info);
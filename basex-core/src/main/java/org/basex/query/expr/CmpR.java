@@ -2,7 +2,6 @@ package org.basex.query.expr;
 
 import static java.lang.Double.*;
 import static org.basex.query.QueryText.*;
-import static org.basex.util.Token.*;
 
 import org.basex.data.*;
 import org.basex.index.*;
@@ -184,8 +183,8 @@ public final class CmpR extends Single {
     final IndexType type = ii.type(expr, null);
     if(type == null) return false;
 
-    final Stats key = key(ii, type);
-    if(key == null) return false;
+    final Stats key = stats(ii, type, expr);
+    if(key == null || !StatsType.isNumeric(key.type)) return false;
 
     // estimate costs for range access; all values out of range: no results
     final NumericRange nr = new NumericRange(type, Math.max(min, key.min), Math.min(max, key.max));
@@ -198,15 +197,13 @@ public final class CmpR extends Single {
     // estimate costs
     ii.costs = ii.costs(data, nr);
     if(ii.costs == null) return false;
-
-    // skip if numbers are negative, doubles, or of different string length
-    final int mnl = min >= 0 && (long) min == min ? token(min).length : -1;
-    final int mxl = max >= 0 && (long) max == max ? token(max).length : -1;
-    if(mnl != mxl || mnl == -1) return false;
+    // refine estimate with the distribution of the values, or limit it to the number of nodes
+    final double fraction = key.fraction(nr.min, nr.max);
+    ii.costs = IndexCosts.estimate(fraction >= 0 ? key.count * fraction :
+      Math.min(ii.costs.results(), key.count));
 
     // don't use index if min/max values are infinite
-    if(min == NEGATIVE_INFINITY && max == POSITIVE_INFINITY ||
-        token((int) nr.min).length != token((int) nr.max).length) return false;
+    if(min == NEGATIVE_INFINITY && max == POSITIVE_INFINITY) return false;
 
     final TokenBuilder tb = new TokenBuilder();
     tb.add('[').add(min).add(',').add(max).add(']');
@@ -215,12 +212,13 @@ public final class CmpR extends Single {
   }
 
   /**
-   * Retrieves the statistics key for the element/attribute name.
+   * Retrieves the statistics key for the element/attribute name of an index expression.
    * @param ii index info
    * @param type index type
+   * @param expr index expression
    * @return key, or {@code null} if statistics are not available
    */
-  private Stats key(final IndexInfo ii, final IndexType type) {
+  static Stats stats(final IndexInfo ii, final IndexType type, final Expr expr) {
     // statistics are not up-to-date
     final Data data = ii.db.data();
     if(data == null || !data.meta.uptodate || !data.nspaces.isEmpty() ||
@@ -243,8 +241,7 @@ public final class CmpR extends Single {
     }
 
     final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
-    final Stats stats = names.stats(names.id(test.name.local()));
-    return stats == null || StatsType.isNumeric(stats.type) ? stats : null;
+    return names.stats(names.id(test.name.local()));
   }
 
   @Override
@@ -69,14 +69,18 @@ public final class Except extends Set {
 
   @Override
   protected Value nodes(final QueryContext qc) throws QueryException {
+    final int el = exprs.length;
+    final Value[] values = new Value[el];
+    final Value value = bitmaps(qc, Bitmap::andNot, true, values);
+    if(value != null) return value;
+
     final ANodeBuilder nodes = new ANodeBuilder();
-    Iter iter = exprs[0].iter(qc);
+    Iter iter = iter(values, 0, qc);
     for(Item item; (item = qc.next(iter)) != null;) nodes.add(toNode(item));
     nodes.ddo();
 
-    final int el = exprs.length;
     for(int e = 1; e < el && !nodes.isEmpty(); e++) {
-      iter = exprs[e].iter(qc);
+      iter = iter(values, e, qc);
       for(Item item; (item = qc.next(iter)) != null;) nodes.removeAll(toNode(item));
     }
     return nodes.value(this);
@@ -65,15 +65,19 @@ public final class Intersect extends Set {
 
   @Override
   protected Value nodes(final QueryContext qc) throws QueryException {
+    final int el = exprs.length;
+    final Value[] values = new Value[el];
+    final Value value = bitmaps(qc, Bitmap::and, true, values);
+    if(value != null) return value;
+
     ANodeBuilder nodes = new ANodeBuilder();
-    Iter iter = exprs[0].iter(qc);
+    Iter iter = iter(values, 0, qc);
     for(Item item; (item = qc.next(iter)) != null;) nodes.add(toNode(item));
 
-    final int el = exprs.length;
     for(int e = 1; e < el && !nodes.isEmpty(); ++e) {
       nodes.ddo();
       final ANodeBuilder tmp = new ANodeBuilder();
-      iter = exprs[e].iter(qc);
+      iter = iter(values, e, qc);
       for(Item item; (item = qc.next(iter)) != null;) {
         final ANode node = toNode(item);
         if(nodes.contains(node)) tmp.add(node);
@@ -3,12 +3,16 @@ package org.basex.query.expr;
 import static org.basex.query.QueryText.*;
 
 import java.util.*;
+import java.util.function.*;
 
+import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
 
@@ -74,6 +78,55 @@ abstract class Set extends Arr {
     return iters;
   }
 
+  /**
+   * Evaluates the operands with bitmaps. This is possible if all nodes belong to the same
+   * database. The operands are evaluated one by one and assigned to the specified array.
+   * If other nodes are found, evaluation is stopped, and the already evaluated operands can be
+   * reused by the caller (see {@link #iter(Value[], int, QueryContext)}).
+   * @param qc query context
+   * @param op set operation
+   * @param empty skip remaining operands if the intermediate result is empty
+   * @param values evaluated operands (will be assigned)
+   * @return resulting nodes, or {@code null} if bitmaps cannot be used
+   * @throws QueryException query exception
+   */
+  final Value bitmaps(final QueryContext qc, final BinaryOperator<Bitmap> op, final boolean empty,
+      final Value[] values) throws QueryException {
+
+    Data data = null;
+    Bitmap result = null;
+    final int el = exprs.length;
+    for(int e = 0; e < el; e++) {
+      final Value value = exprs[e].value(qc);
+      values[e] = value;
+      final Bitmap bitmap = new Bitmap();
+      final Iter iter = value.iter();
+      for(Item item; (item = qc.next(iter)) != null;) {
+        final ANode node = toNode(item);
+        if(!(node instanceof DBNode) || data != null && node.data() != data) return null;
+        data = node.data();
+        bitmap.add(((DBNode) node).pre());
+      }
+      result = result == null ? bitmap : op.apply(result, bitmap);
+      if(empty && result.isEmpty()) break;
+    }
+    return data == null ? Empty.VALUE : DBNodeSeq.get(result.toArray(), data, this);
+  }
+
+  /**
+   * Returns an iterator for the specified operand.
+   * @param values operands that have already been evaluated (entries can be {@code null})
+   * @param e index of the operand
+   * @param qc query context
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  final Iter iter(final Value[] values, final int e, final QueryContext qc)
+      throws QueryException {
+    final Value value = values[e];
+    return value != null ? value.iter() : exprs[e].iter(qc);
+  }
+
   /**
    * Evaluates the specified iterators.
    * @param qc query context
@@ -103,9 +103,14 @@ public final class Union extends Set {
 
   @Override
   protected Value nodes(final QueryContext qc) throws QueryException {
+    final int el = exprs.length;
+    final Value[] values = new Value[el];
+    final Value value = bitmaps(qc, Bitmap::or, false, values);
+    if(value != null) return value;
+
     final ANodeBuilder nodes = new ANodeBuilder();
-    for(final Expr expr : exprs) {
-      final Iter iter = expr.iter(qc);
+    for(int e = 0; e < el; e++) {
+      final Iter iter = iter(values, e, qc);
       for(Item item; (item = qc.next(iter)) != null;) nodes.add(toNode(item));
     }
     return nodes.value(this);
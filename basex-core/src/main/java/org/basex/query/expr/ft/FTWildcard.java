@@ -125,6 +125,24 @@ public final class FTWildcard {
     return tb.finish();
   }
 
+  /**
+   * Returns the longest literal substring, which is the same for all matches.
+   * @return literal
+   */
+  public byte[] literal() {
+    byte[] literal = EMPTY;
+    final TokenBuilder tb = new TokenBuilder();
+    for(int s = 0; s <= size; s++) {
+      if(s < size && wc[s] != DOT) {
+        tb.add(wc[s]);
+      } else {
+        if(tb.size() > literal.length) literal = tb.toArray();
+        tb.reset();
+      }
+    }
+    return literal;
+  }
+
   /**
    * Checks if the wildcard can match a sub-string in a string.
    * @param t token to search for match
@@ -48,6 +48,8 @@ public final class FTWords extends FTExpr {
   private TokenList tokens;
   /** Full-text options. */
   private FTOpt ftOpt;
+  /** Ranking of index results (can be {@code null}). */
+  private FTRanking ranking;
 
   /**
    * Constructor for scan-based evaluation.
@@ -114,6 +116,16 @@ public final class FTWords extends FTExpr {
     return this;
   }
 
+  /**
+   * Assigns a ranking for index-based evaluation.
+   * @param rnk ranking
+   * @return self reference
+   */
+  public FTWords ranking(final FTRanking rnk) {
+    ranking = rnk;
+    return this;
+  }
+
   @Override
   public FTNode item(final QueryContext qc, final InputInfo ii) throws QueryException {
     final FTTokenizer ftt = get(qc);
@@ -140,6 +152,7 @@ public final class FTWords extends FTExpr {
           final FTTokenizer ftt = FTWords.this.get(qc);
           final FTLexer lexer = new FTLexer(ftOpt).
               lserror(qc.context.options.get(MainOptions.LSERROR));
+          if(ranking != null) ranking.init(data);
 
           // length distinct tokens
           int len = 0;
@@ -148,7 +161,7 @@ public final class FTWords extends FTExpr {
             lexer.init(txt);
             if(!lexer.hasNext()) return null;
 
-            int d = 0;
+            int d = 0, pos = 0, texts = Integer.MAX_VALUE;
             FTIndexIterator ii = null;
             final StopWords sw = ftOpt.sw;
             do {
@@ -160,6 +173,9 @@ public final class FTWords extends FTExpr {
                 final FTIndexIterator iter = lexer.get().length > data.meta.maxlen ?
                   scan(lexer, ftt, data) : (FTIndexIterator) data.iter(lexer);
                 iter.pos(++qc.ftPos);
+                // phrases: the first query position and the rarest token are relevant for ranking
+                if(pos == 0) pos = qc.ftPos;
+                texts = Math.min(texts, iter.texts());
                 if(ii == null) {
                   ii = iter;
                 } else {
@@ -170,6 +186,7 @@ public final class FTWords extends FTExpr {
             } while(lexer.hasNext());
 
             if(ii != null) {
+              if(ranking != null) ranking.add(pos, texts);
               // create or combine iterator
               if(ftiter == null) {
                 length = len;
@@ -186,8 +203,15 @@ public final class FTWords extends FTExpr {
             }
           }
         }
-        return ftiter == null || !ftiter.more() ? null :
-          new FTNode(ftiter.matches(), data, ftiter.pre(), length, ftiter.size());
+        if(ftiter == null) return null;
+        while(ftiter.more()) {
+          final FTMatches matches = ftiter.matches();
+          if(ranking != null && ranking.skip(matches)) continue;
+          final FTNode node = new FTNode(matches, data, ftiter.pre(), length, ftiter.size());
+          if(ranking != null) ranking.score(node);
+          return node;
+        }
+        return null;
       }
     };
   }
@@ -240,6 +264,11 @@ public final class FTWords extends FTExpr {
         // worst case
         return Math.max(1, sz >>> 1);
       }
+      @Override
+      public int texts() {
+        // worst case: each result is a distinct text
+        return size();
+      }
     };
   }
 
@@ -0,0 +1,147 @@
+package org.basex.query.expr.index;
+
+import static org.basex.query.QueryText.*;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This index class retrieves ranges of dates or dateTimes from a value index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DateRangeAccess extends IndexAccess {
+  /** Index token. */
+  private final DateRange index;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param index index token
+   * @param db index database
+   */
+  public DateRangeAccess(final InputInfo info, final DateRange index, final IndexDb db) {
+    super(db, info, index.type());
+    this.index = index;
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final IndexType type = index.type();
+    final Data data = db.data(qc, type);
+
+    return new DBNodeIter(data) {
+      final byte kind = type == IndexType.TEXT ? Data.TEXT : Data.ATTR;
+      final IndexIterator ii = data.inMemory() ? scan(data) : data.iter(index);
+
+      @Override
+      public DBNode next() {
+        return ii.more() ? new DBNode(data, ii.pre(), kind) : null;
+      }
+    };
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    final IndexType it = index.type();
+    final Data data = db.data(qc, it);
+
+    final IndexIterator ii = data.inMemory() ? scan(data) : data.iter(index);
+    final IntList list = new IntList();
+    while(ii.more()) list.add(ii.pre());
+    return DBNodeSeq.get(list.finish(), data, this);
+  }
+
+  /**
+   * Returns scan-based iterator.
+   * @param data data reference
+   * @return node iterator
+   */
+  private IndexIterator scan(final Data data) {
+    return new IndexIterator() {
+      final boolean text = index.type() == IndexType.TEXT;
+      final byte kind = text ? Data.TEXT : Data.ATTR;
+      final int sz = data.meta.size;
+      int pre = -1;
+
+      @Override
+      public int pre() {
+        return pre;
+      }
+      @Override
+      public boolean more() {
+        while(++pre < sz) {
+          if(data.kind(pre) == kind && index.matches(data.text(pre, text))) return true;
+        }
+        return false;
+      }
+      @Override
+      public int size() {
+        return Math.max(1, sz >>> 2);
+      }
+    };
+  }
+
+  @Override
+  public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
+    return new DateRangeAccess(info, index, db.copy(cc, vm));
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return obj instanceof DateRangeAccess && index.equals(((DateRangeAccess) obj).index) &&
+        super.equals(obj);
+  }
+
+  @Override
+  public void plan(final QueryPlan plan) {
+    plan.add(plan.create(this, INDEX, index.type(), TYPE, index.dateType(),
+        MIN, string(index.min), MAX, string(index.max), RESULTS, estimate()), db);
+  }
+
+  @Override
+  public String toString() {
+    final String path = index.type() == IndexType.TEXT ? "//text()" : "//@*";
+    final StringBuilder sb = new StringBuilder();
+    if(index.min != null) {
+      sb.append(". ").append(index.mni ? ">= " : "> ").append(literal(index.min));
+    }
+    if(index.max != null) {
+      if(sb.length() != 0) sb.append(" and ");
+      sb.append(". ").append(index.mxi ? "<= " : "< ").append(literal(index.max));
+    }
+    return Function._DB_OPEN.args(db.source()).substring(1) + path + '[' + sb + ']';
+  }
+
+  /**
+   * Returns the string representation of a range limit.
+   * @param date date (can be {@code null})
+   * @return string or {@code null}
+   */
+  private static byte[] string(final ADate date) {
+    return date != null ? date.string(null) : null;
+  }
+
+  /**
+   * Returns a constructor function for a range limit.
+   * @param date date
+   * @return string
+   */
+  private static String literal(final ADate date) {
+    return date.type + "(" + date + ')';
+  }
+}
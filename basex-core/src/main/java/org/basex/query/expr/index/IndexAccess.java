@@ -17,6 +17,8 @@ import org.basex.util.*;
 public abstract class IndexAccess extends Simple {
   /** Index database. */
   IndexDb db;
+  /** Estimated number of results ({@code -1} if unknown). */
+  public int results = -1;
 
   /**
    * Constructor.
@@ -70,6 +72,14 @@ public abstract class IndexAccess extends Simple {
     return seqType().zeroOrOne() || db.iterable();
   }
 
+  /**
+   * Returns the estimated number of results for the query plan.
+   * @return number of results, or {@code null} if unknown
+   */
+  final Integer estimate() {
+    return results >= 0 ? results : null;
+  }
+
   @Override
   public boolean equals(final Object obj) {
     return obj instanceof IndexAccess && db.equals(((IndexAccess) obj).db);
@@ -114,7 +114,8 @@ public final class StringRangeAccess extends IndexAccess {
 
   @Override
   public void plan(final QueryPlan plan) {
-    plan.add(plan.create(this, INDEX, index.type(), MIN, index.min, MAX, index.max), db);
+    plan.add(plan.create(this, INDEX, index.type(), MIN, index.min, MAX, index.max,
+        RESULTS, estimate()), db);
   }
 
   @Override
@@ -273,7 +273,7 @@ public final class ValueAccess extends IndexAccess {
 
   @Override
   public void plan(final QueryPlan plan) {
-    plan.add(plan.create(this, INDEX, type, NAME, test), db, toExpr());
+    plan.add(plan.create(this, INDEX, type, NAME, test, RESULTS, estimate()), db, toExpr());
   }
 
   @Override
@@ -656,7 +656,7 @@ public abstract class Path extends ParseExpr {
 
         // choose cheapest index access
         for(int e = 0; e < el; e++) {
-          final IndexInfo ii = new IndexInfo(db, cc.qc, step);
+          final IndexInfo ii = new IndexInfo(db, cc.qc, step, parents(s));
           if(!step.exprs[e].indexAccessible(ii)) continue;
 
           if(ii.costs.results() == 0) {
@@ -678,6 +678,15 @@ public abstract class Path extends ParseExpr {
     if(index == null || data != null && index.costs.tooExpensive(data)) return this;
     // skip optimization if it is not enforced
     if(rt instanceof Dummy && !index.enforce()) return this;
+    // skip rewriting if more results are expected than nodes will be visited by a scan
+    if(data != null && data.nspaces.isEmpty() && !index.enforce()) {
+      final ArrayList<PathNode> nodes = pathNodes(data, indexStep);
+      if(nodes != null) {
+        long scan = 0;
+        for(final PathNode node : nodes) scan += node.stats.count;
+        if(index.costs.results() > scan) return this;
+      }
+    }
 
     // rewrite for index access
     cc.info(index.optInfo);
@@ -746,6 +755,17 @@ public abstract class Path extends ParseExpr {
     return resultSteps.isEmpty() ? resultRoot : get(info, resultRoot, resultSteps.finish());
   }
 
+  /**
+   * Returns the steps that precede the specified step.
+   * @param s index of step
+   * @return steps
+   */
+  private Step[] parents(final int s) {
+    final Step[] parents = new Step[s];
+    for(int p = 0; p < s; p++) parents[p] = axisStep(p);
+    return parents;
+  }
+
   /**
    * Checks if steps before index step need to be inverted and traversed.
    * @param data data reference
@@ -549,8 +549,8 @@ public enum Function implements AFunction {
   _ADMIN_DELETE_LOGS(AdminDeleteLogs.class, "delete-logs(date)",
       arg(STR_O), EMP, flag(NDT), ADMIN_URI),
   /** XQuery function. */
-  _ADMIN_LOGS(AdminLogs.class, "logs([date[,merge]])",
-      arg(STR_O, BLN_O), ELM_ZM, flag(NDT), ADMIN_URI),
+  _ADMIN_LOGS(AdminLogs.class, "logs([date[,merge[,options]]])",
+      arg(STR_O, BLN_O, MAP_O), ELM_ZM, flag(NDT), ADMIN_URI),
   /** XQuery function. */
   _ADMIN_SESSIONS(AdminSessions.class, "sessions()", arg(), ELM_ZM, flag(NDT), ADMIN_URI),
   /** XQuery function. */
@@ -853,6 +853,9 @@ public enum Function implements AFunction {
   _FETCH_CONTENT_TYPE(FetchContentType.class, "content-type(uri)", arg(STR_O), STR_O, flag(NDT),
       FETCH_URI),
   /** XQuery function. */
+  _FETCH_INVALIDATE(FetchInvalidate.class, "invalidate([uri])", arg(STR_O), EMP, flag(NDT),
+      FETCH_URI),
+  /** XQuery function. */
   _FETCH_TEXT(FetchText.class, "text(uri[,encoding[,fallback]])",
       arg(STR_O, STR_O, BLN_O), STR_O, flag(NDT), FETCH_URI),
   /** XQuery function. */
@@ -1040,6 +1043,9 @@ public enum Function implements AFunction {
   /** XQuery function. */
   _HTTP_SEND_REQUEST(HttpSendRequest.class, "send-request(request[,href[,bodies]])",
       arg(NOD_O, STR_ZO, ITEM_ZM), ITEM_ZM, flag(NDT), HTTP_URI),
+  /** XQuery function. */
+  _HTTP_SEND_REQUESTS(HttpSendRequests.class, "send-requests(requests[,parallel])",
+      arg(NOD_ZM, ITR_ZO), ARRAY_ZM, flag(NDT), HTTP_URI),
 
   // Index Module
 
@@ -1343,6 +1349,9 @@ public enum Function implements AFunction {
 
   // Validate Module
 
+  /** XQuery function. */
+  _VALIDATE_CACHE_INFO(ValidateCacheInfo.class, "cache-info()", arg(), MAP_O, flag(NDT),
+      VALIDATE_URI),
   /** XQuery function. */
   _VALIDATE_DTD(ValidateDtd.class, "dtd(input[,schema])",
       arg(ITEM_O, ITEM_O), EMP, flag(NDT), VALIDATE_URI),
@@ -1353,14 +1362,14 @@ public enum Function implements AFunction {
   _VALIDATE_DTD_REPORT(ValidateDtdReport.class, "dtd-report(input[,schema])",
       arg(ITEM_O, ITEM_O), ELM_O, flag(NDT), VALIDATE_URI),
   /** XQuery function. */
-  _VALIDATE_RNG(ValidateRng.class, "rng(input,schema[,compact])",
-      arg(ITEM_O, ITEM_O, BLN_O), STR_ZM, flag(NDT), VALIDATE_URI),
+  _VALIDATE_RNG(ValidateRng.class, "rng(input,schema[,compact[,options]])",
+      arg(ITEM_O, ITEM_O, BLN_O, MAP_O), STR_ZM, flag(NDT), VALIDATE_URI),
   /** XQuery function. */
-  _VALIDATE_RNG_INFO(ValidateRngInfo.class, "rng-info(input,schema[,compact])",
-      arg(ITEM_O, ITEM_O, BLN_O), STR_ZM, flag(NDT), VALIDATE_URI),
+  _VALIDATE_RNG_INFO(ValidateRngInfo.class, "rng-info(input,schema[,compact[,options]])",
+      arg(ITEM_O, ITEM_O, BLN_O, MAP_O), STR_ZM, flag(NDT), VALIDATE_URI),
   /** XQuery function. */
-  _VALIDATE_RNG_REPORT(ValidateRngReport.class, "rng-report(input,schema[,compact])",
-      arg(ITEM_O, ITEM_O, BLN_O), ELM_O, flag(NDT), VALIDATE_URI),
+  _VALIDATE_RNG_REPORT(ValidateRngReport.class, "rng-report(input,schema[,compact[,options]])",
+      arg(ITEM_O, ITEM_O, BLN_O, MAP_O), ELM_O, flag(NDT), VALIDATE_URI),
   /** XQuery function. */
   _VALIDATE_XSD(ValidateXsd.class, "xsd(input[,schema[,options]])",
       arg(ITEM_O, ITEM_O, MAP_O), EMP, flag(NDT), VALIDATE_URI),
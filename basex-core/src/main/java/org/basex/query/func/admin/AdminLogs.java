@@ -6,6 +6,7 @@ import static org.basex.query.QueryError.*;
 import java.io.*;
 import java.math.*;
 import java.util.*;
+import java.util.function.*;
 
 import org.basex.io.*;
 import org.basex.query.*;
@@ -60,8 +61,10 @@ public final class AdminLogs extends AdminFn {
     // return content of single log file
     final String name = Token.string(toToken(exprs[0], qc));
     final boolean merge = exprs.length > 1 && toBoolean(exprs[1], qc);
+    final LogsOptions opts = toOptions(2, new LogsOptions(), qc);
 
-    final LinkedList<LogEntry> list = logs(name, qc);
+    final LinkedList<LogEntry> list = logs(name, merge, opts, qc);
+    final Predicate<LogEntry> filter = filter(opts);
     final HashMap<String, LinkedList<LogEntry>> map = new HashMap<>();
     if(merge) {
       // group entries by address
@@ -99,6 +102,9 @@ public final class AdminLogs extends AdminFn {
               }
             }
           }
+          // skip entries that do not match the filter options
+          if(!filter.test(entry)) continue;
+
           // add new element
           final FElem elem = new FElem(ENTRY);
           if(entry.message != null) elem.add(entry.message);
@@ -118,20 +124,31 @@ public final class AdminLogs extends AdminFn {
   /**
    * Returns all log entries.
    * @param name name of log file
+   * @param merge merge flag
+   * @param opts filter options
    * @param qc query context
    * @return list
    * @throws QueryException query exception
    */
-  private LinkedList<LogEntry> logs(final String name, final QueryContext qc)
-      throws QueryException {
+  private LinkedList<LogEntry> logs(final String name, final boolean merge,
+      final LogsOptions opts, final QueryContext qc) throws QueryException {
 
     final Log log = qc.context.log;
     final LogFile file = log.file(name);
     if(file == null) throw WHICHRES_X.get(info, name);
 
+    // skip indexed blocks that contain no relevant entries. If entries are merged, no blocks
+    // are skipped, as the concluding entries of a request may be located in another block
+    final String start = opts.get(LogsOptions.START), end = opts.get(LogsOptions.END);
+    final String user = opts.get(LogsOptions.USER), type = opts.get(LogsOptions.TYPE);
+    final int ms = opts.get(LogsOptions.MS);
     try {
       final LinkedList<LogEntry> logs = new LinkedList<>();
-      for(final String line : file.read()) {
+      for(final String line : file.read(block -> merge ||
+        (start.isEmpty() || block.max.compareTo(start) >= 0) &&
+        (end.isEmpty() || block.min.compareTo(end) < 0) &&
+        (user.isEmpty() || block.users.contains(user)) &&
+        (type.isEmpty() || block.types.contains(type)) && block.ms >= ms)) {
         qc.checkStop();
         final LogEntry entry = new LogEntry();
         final String[] cols = line.split("\t");
@@ -153,4 +170,24 @@ public final class AdminLogs extends AdminFn {
       throw IOERR_X.get(info, ex);
     }
   }
+
+  /**
+   * Returns a filter for log entries.
+   * @param opts filter options
+   * @return filter
+   */
+  private static Predicate<LogEntry> filter(final LogsOptions opts) {
+    final String start = opts.get(LogsOptions.START), end = opts.get(LogsOptions.END);
+    final String user = opts.get(LogsOptions.USER), type = opts.get(LogsOptions.TYPE);
+    final int ms = opts.get(LogsOptions.MS);
+    // entries in legacy format are only returned if no filters are specified
+    final boolean legacy = start.isEmpty() && end.isEmpty() && user.isEmpty() &&
+        type.isEmpty() && ms == 0;
+    return entry -> entry.time == null ? legacy :
+      (start.isEmpty() || entry.time.compareTo(start) >= 0) &&
+      (end.isEmpty() || entry.time.compareTo(end) < 0) &&
+      (user.isEmpty() || entry.user.equals(user)) &&
+      (type.isEmpty() || entry.type.equals(type)) &&
+      entry.ms.doubleValue() >= ms;
+  }
 }
@@ -0,0 +1,22 @@
+package org.basex.query.func.admin;
+
+import org.basex.util.options.*;
+
+/**
+ * Options for filtering log entries.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LogsOptions extends Options {
+  /** Start time (inclusive). */
+  public static final StringOption START = new StringOption("start", "");
+  /** End time (exclusive). */
+  public static final StringOption END = new StringOption("end", "");
+  /** User. */
+  public static final StringOption USER = new StringOption("user", "");
+  /** Type. */
+  public static final StringOption TYPE = new StringOption("type", "");
+  /** Minimum duration in milliseconds. */
+  public static final NumberOption MS = new NumberOption("ms", 0);
+}
@@ -0,0 +1,23 @@
+package org.basex.query.func.fetch;
+
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.seq.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FetchInvalidate extends StandardFunc {
+  @Override
+  public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final String uri = exprs.length > 0 ? sc.resolve(Token.string(toToken(exprs[0], qc))).path() :
+      null;
+    qc.context.docs.invalidate(uri);
+    return Empty.VALUE;
+  }
+}
@@ -7,6 +7,7 @@ import java.io.*;
 
 import org.basex.build.*;
 import org.basex.core.*;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
@@ -42,11 +43,25 @@ public class FetchXml extends StandardFunc {
 
     final MainOptions mopts = MainOptions.get();
     new DBOptions(opts, DBOptions.PARSING, info).assignTo(mopts);
+
+    // documents of read-only queries: check if document has already been parsed
+    final DocCache docs = qc.context.docs;
+    final boolean cache = !qc.updating && docs.enabled(io);
+    final String key = cache ? DocCache.key(io, mopts, DBOptions.PARSING) : null;
+    if(cache) {
+      final Data data = docs.get(key, io);
+      if(data != null) return new DBNode(data);
+    }
+
+    final long stamp = io.timeStamp();
+    final DBNode node;
     try {
-      return new DBNode(Parser.singleParser(io, mopts, ""));
+      node = new DBNode(Parser.singleParser(io, mopts, ""));
     } catch(final IOException ex) {
       throw FETCH_OPEN_X.get(info, ex);
     }
+    if(cache) docs.put(key, io, stamp, node.data());
+    return node;
   }
 
 }
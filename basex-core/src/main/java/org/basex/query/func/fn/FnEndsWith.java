@@ -1,7 +1,11 @@
 package org.basex.query.func.fn;
 
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.index.query.StringMatch.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
+import org.basex.query.util.*;
 import org.basex.query.util.collation.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
@@ -19,4 +23,13 @@ public final class FnEndsWith extends StandardFunc {
     final Collation coll = toCollation(2, qc);
     return Bln.get(coll == null ? Token.endsWith(ss, sb) : coll.endsWith(ss, sb, info));
   }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) {
+    // support limited to default collation and static search strings
+    if(exprs.length != 2 || !(exprs[1] instanceof Str)) return false;
+    final IndexType type = ii.type(exprs[0], null);
+    return type != null &&
+      ii.create(new StringMatch(type, Mode.ENDS_WITH, ((Str) exprs[1]).string()), info);
+  }
 }
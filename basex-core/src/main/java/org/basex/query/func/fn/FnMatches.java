@@ -4,7 +4,10 @@ import static org.basex.util.Token.*;
 
 import java.util.regex.*;
 
+import org.basex.index.*;
+import org.basex.index.query.*;
 import org.basex.query.*;
+import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 
@@ -21,4 +24,78 @@ public final class FnMatches extends RegEx {
     final Pattern pattern = pattern(exprs[1], exprs.length == 3 ? exprs[2] : null, qc, false);
     return Bln.get(pattern.matcher(string(value)).find());
   }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) throws QueryException {
+    // support limited to static patterns without flags
+    if(exprs.length != 2 || !(exprs[1] instanceof Str)) return false;
+    final IndexType type = ii.type(exprs[0], null);
+    if(type == null) return false;
+
+    final byte[] regex = ((Str) exprs[1]).string();
+    return ii.create(new StringMatch(type, regex, literal(regex),
+        pattern(exprs[1], null, ii.qc, false)), info);
+  }
+
+  /**
+   * Returns the longest literal substring that must be contained in all matches of a pattern.
+   * Characters inside groups and character classes, and optional characters are ignored.
+   * @param regex regular expression
+   * @return literal (empty if no literal was found, or if the pattern contains alternatives)
+   */
+  static byte[] literal(final byte[] regex) {
+    if(contains(regex, '|')) return EMPTY;
+
+    final int[] cps = cps(regex);
+    final int cl = cps.length;
+    final TokenBuilder run = new TokenBuilder();
+    byte[] literal = EMPTY;
+    int depth = 0, last = 0;
+    for(int c = 0; c < cl; c++) {
+      final int cp = cps[c];
+      boolean end = true;
+      if(cp == '\\') {
+        // skip escaped character and category
+        if(++c < cl && (cps[c] == 'p' || cps[c] == 'P')) {
+          while(c < cl && cps[c] != '}') c++;
+        }
+      } else if(cp == '[') {
+        // skip character class (including subtractions)
+        for(int d = 0; c < cl; c++) {
+          if(cps[c] == '\\') c++;
+          else if(cps[c] == '[') d++;
+          else if(cps[c] == ']' && --d == 0) break;
+        }
+      } else if(cp == '(') {
+        depth++;
+      } else if(cp == ')') {
+        depth--;
+      } else if(cp == '?' || cp == '*' || cp == '{') {
+        // quantifier: previous character is optional
+        if(!run.isEmpty()) run.size(last);
+        if(cp == '{') {
+          while(c < cl && cps[c] != '}') c++;
+        }
+      } else if(depth == 0 && literal(cp)) {
+        last = run.size();
+        run.add(cp);
+        end = false;
+      }
+      if(end) {
+        if(run.size() > literal.length) literal = run.toArray();
+        run.reset();
+      }
+    }
+    return run.size() > literal.length ? run.finish() : literal;
+  }
+
+  /**
+   * Checks if the specified character is no meta character.
+   * @param cp codepoint
+   * @return result of check
+   */
+  private static boolean literal(final int cp) {
+    return cp != '.' && cp != '^' && cp != '$' && cp != '+' && cp != '?' && cp != '*' &&
+        cp != '{' && cp != '}' && cp != '(' && cp != ')' && cp != '[' && cp != ']';
+  }
 }
@@ -30,4 +30,9 @@ public class FtIndexOptions extends Options {
   /** Option: content. */
   public static final EnumOption<FTContents> CONTENT =
       new EnumOption<>("content", FTContents.class);
+  /** Option: scoring. */
+  public static final EnumOption<FTScoring> SCORING =
+      new EnumOption<>("scoring", FTScoring.DEFAULT);
+  /** Option: top. */
+  public static final NumberOption TOP = new NumberOption("top", 0);
 }
@@ -3,13 +3,19 @@ package org.basex.query.func.ft;
 import static org.basex.query.QueryError.*;
 import static org.basex.util.ft.FTFlag.*;
 
+import java.util.*;
+
 import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.expr.ft.*;
 import org.basex.query.expr.index.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
+import org.basex.query.util.ft.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
 import org.basex.util.ft.*;
 
 /**
@@ -32,8 +38,51 @@ public final class FtSearch extends FtAccess {
     opt.set(WC, opts.get(FtIndexOptions.WILDCARDS));
     if(opt.is(FZ) && opt.is(WC)) throw FT_OPTIONS.get(info, this);
 
-    final FTWords ftw = new FTWords(info, db, terms, mode).init(qc, opt);
-    return new FTIndexAccess(info, options(ftw, opts), db).iter(qc);
+    final FTScoring scoring = opts.get(FtIndexOptions.SCORING);
+    final int top = opts.get(FtIndexOptions.TOP);
+    final FTRanking ranking = scoring != FTScoring.DEFAULT || top > 0 ?
+      new FTRanking(scoring) : null;
+
+    final FTWords ftw = new FTWords(info, db, terms, mode).init(qc, opt).ranking(ranking);
+    final Iter iter = new FTIndexAccess(info, options(ftw, opts), db).iter(qc);
+    return top > 0 ? top(iter, top, ranking, qc).iter() : iter;
+  }
+
+  /**
+   * Returns the results with the highest scores, ordered by descending scores.
+   * Results with the same score are returned in document order.
+   * @param iter results
+   * @param top maximum number of results
+   * @param ranking ranking
+   * @param qc query context
+   * @return best results
+   * @throws QueryException query exception
+   */
+  private static Value top(final Iter iter, final int top, final FTRanking ranking,
+      final QueryContext qc) throws QueryException {
+
+    // the heap contains the best results; the worst of them is placed first
+    final Comparator<Item> comp = (item1, item2) -> {
+      final int c = Double.compare(item1.score(), item2.score());
+      return c != 0 ? c : ((DBNode) item2).pre() - ((DBNode) item1).pre();
+    };
+    final PriorityQueue<Item> heap = new PriorityQueue<>(Math.min(top, 1 << 10), comp);
+    for(Item item; (item = qc.next(iter)) != null;) {
+      if(heap.size() < top) {
+        heap.add(item);
+      } else if(comp.compare(item, heap.peek()) > 0) {
+        heap.poll();
+        heap.add(item);
+      } else {
+        continue;
+      }
+      // further results can be skipped if they cannot exceed the worst of the best results
+      if(heap.size() == top) ranking.min(heap.peek().score());
+    }
+
+    final ItemList list = new ItemList(heap.size());
+    for(final Item item : heap) list.add(item);
+    return list.sort(comp, false).value();
   }
 
   @Override
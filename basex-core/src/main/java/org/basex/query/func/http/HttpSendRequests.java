@@ -0,0 +1,107 @@
+package org.basex.query.func.http;
+
+import static org.basex.query.QueryError.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.array.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.seq.*;
+import org.basex.util.*;
+import org.basex.util.http.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class HttpSendRequests extends StandardFunc {
+  /** Default number of concurrent requests. */
+  private static final int PARALLEL = 16;
+  /** Interval for checking if the query has been stopped (milliseconds). */
+  private static final long WAIT = 100;
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    checkCreate(qc);
+
+    // parse all requests before sending them
+    final HttpRequestParser parser = new HttpRequestParser(info);
+    final ArrayList<HttpRequest> requests = new ArrayList<>();
+    final Iter iter = exprs[0].iter(qc);
+    for(Item req; (req = qc.next(iter)) != null;) {
+      requests.add(parser.parse(toNode(req), Empty.VALUE));
+    }
+    final int size = requests.size();
+    if(size == 0) return Empty.VALUE;
+
+    final Item item = exprs.length > 1 ? exprs[1].atomItem(qc, info) : Empty.VALUE;
+    final long parallel = item == Empty.VALUE ? PARALLEL : toLong(item);
+    final int threads = (int) Math.max(1, Math.min(Math.min(size, parallel),
+        Threads.size(Threads.IO)));
+    final HttpClient client = new HttpClient(info, qc.context.options);
+
+    // send requests concurrently, return responses in the order of the requests.
+    // the shared pool is used by all queries; requests are distributed to a bounded
+    // number of workers, which stop taking requests if the query is interrupted
+    final ArrayList<CompletableFuture<Value>> futures = new ArrayList<>(size);
+    for(int r = 0; r < size; r++) futures.add(new CompletableFuture<>());
+    final AtomicInteger next = new AtomicInteger();
+    final AtomicBoolean stopped = new AtomicBoolean();
+    final Runnable worker = () -> {
+      for(int r; !stopped.get() && (r = next.getAndIncrement()) < size;) {
+        final CompletableFuture<Value> future = futures.get(r);
+        try {
+          future.complete(client.send(null, requests.get(r)));
+        } catch(final Throwable th) {
+          future.completeExceptionally(th);
+        }
+      }
+    };
+    for(int t = 0; t < threads; t++) Threads.IO.execute(worker);
+    try {
+      final ValueBuilder vb = new ValueBuilder(qc);
+      for(final Future<Value> future : futures) {
+        final ArrayBuilder ab = new ArrayBuilder();
+        for(final Item it : response(future, qc)) ab.append(it);
+        vb.add(ab.freeze());
+      }
+      return vb.value();
+    } finally {
+      stopped.set(true);
+    }
+  }
+
+  /**
+   * Waits for a response.
+   * @param future future
+   * @param qc query context
+   * @return response
+   * @throws QueryException query exception
+   */
+  private Value response(final Future<Value> future, final QueryContext qc)
+      throws QueryException {
+
+    try {
+      while(true) {
+        qc.checkStop();
+        try {
+          return future.get(WAIT, TimeUnit.MILLISECONDS);
+        } catch(final TimeoutException ex) {
+          // check again if the query has been stopped
+        }
+      }
+    } catch(final ExecutionException | InterruptedException ex) {
+      final Throwable e = Util.rootException(ex);
+      if(e instanceof QueryException) throw (QueryException) e;
+      throw HC_ERROR_X.get(info, e);
+    }
+  }
+}
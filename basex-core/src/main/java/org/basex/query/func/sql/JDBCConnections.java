@@ -3,8 +3,11 @@ package org.basex.query.func.sql;
 import static org.basex.util.Token.*;
 
 import java.sql.*;
+import java.util.*;
 
+import org.basex.core.*;
 import org.basex.query.*;
+import org.basex.query.func.sql.JDBCPool.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
@@ -20,6 +23,12 @@ public final class JDBCConnections implements QueryResource {
   private int lastId = -1;
   /** Map with all open connections and prepared statements with unique ids. */
   private final TokenObjMap<AutoCloseable> conns = new TokenObjMap<>();
+  /** Connections of all open statements. */
+  private final IdentityHashMap<Statement, Connection> statements = new IdentityHashMap<>();
+  /** Pooled connections. */
+  private final IdentityHashMap<Connection, Pooled> pooled = new IdentityHashMap<>();
+  /** Static options (assigned if pooled connections are added). */
+  private StaticOptions sopts;
 
   /**
    * Adds a connection.
@@ -34,13 +43,43 @@ public final class JDBCConnections implements QueryResource {
   }
 
   /**
-   * Adds a prepared statement.
-   * @param stmt prepared statement
+   * Adds a pooled connection. The connection will be returned to the pool when it is closed.
+   * @param pld pooled connection
+   * @param url url
+   * @param so static options
+   * @return generated id
+   */
+  synchronized Uri add(final Pooled pld, final String url, final StaticOptions so) {
+    pooled.put(pld.conn, pld);
+    sopts = so;
+    return add(pld.conn, url);
+  }
+
+  /**
+   * Creates a statement. The statement will be closed at the latest when the query is closed.
+   * @param conn connection
+   * @return statement
+   * @throws SQLException SQL exception
+   */
+  synchronized Statement statement(final Connection conn) throws SQLException {
+    final Statement stmt = conn.createStatement();
+    statements.put(stmt, conn);
+    return stmt;
+  }
+
+  /**
+   * Adds a prepared statement. If the connection is pooled, a cached statement may be returned.
+   * @param conn connection
+   * @param sql SQL string
    * @return generated id
    * @throws SQLException SQL connection
    */
-  synchronized Uri add(final PreparedStatement stmt) throws SQLException {
-    final String url = string(get(stmt.getConnection())).replaceAll("^(.+)/.+$", "$1");
+  synchronized Uri prepare(final Connection conn, final String sql) throws SQLException {
+    final Pooled pld = pooled.get(conn);
+    final PreparedStatement stmt = pld != null ? pld.prepare(sql) : conn.prepareStatement(sql);
+    statements.put(stmt, conn);
+
+    final String url = string(get(conn)).replaceAll("^(.+)/.+$", "$1");
     final byte[] uri = token(url + "/statement-" + ++lastId);
     conns.put(uri, stmt);
     return Uri.uri(uri);
@@ -75,14 +114,49 @@ public final class JDBCConnections implements QueryResource {
     return null;
   }
 
+  /**
+   * Closes a connection or statement. Pooled connections and their prepared statements
+   * will be returned to the pool. If a connection is closed, its statements will be closed, too.
+   * @param ac connection or statement
+   * @throws SQLException SQL exception
+   */
+  synchronized void close(final AutoCloseable ac) throws SQLException {
+    if(ac instanceof Statement) {
+      final Statement stmt = (Statement) ac;
+      final Connection conn = statements.remove(stmt);
+      final Pooled pld = conn != null ? pooled.get(conn) : null;
+      if(pld != null) pld.release(stmt);
+      else stmt.close();
+    } else if(ac instanceof Connection) {
+      final Connection conn = (Connection) ac;
+      // close statements of the connection and discard their ids
+      for(final Statement stmt : new ArrayList<>(statements.keySet())) {
+        if(statements.get(stmt) == conn) {
+          final byte[] id = get(stmt);
+          if(id != null) conns.remove(id);
+          close(stmt);
+        }
+      }
+      final Pooled pld = pooled.remove(conn);
+      if(pld != null) SqlFn.POOL.release(pld, sopts);
+      else conn.close();
+    }
+  }
+
   @Override
-  public void close() {
+  public synchronized void close() {
+    // close statements before connections
+    final ArrayList<AutoCloseable> list = new ArrayList<>(statements.keySet());
     for(final AutoCloseable ac : conns.values()) {
+      if(ac instanceof Connection) list.add(ac);
+    }
+    for(final AutoCloseable ac : list) {
       try {
-        if(ac != null) ac.close();
+        close(ac);
       } catch(final Exception ex) {
         Util.debug(ex);
       }
     }
+    conns.clear();
   }
 }
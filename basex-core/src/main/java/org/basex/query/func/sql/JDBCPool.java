@@ -0,0 +1,282 @@
+package org.basex.query.func.sql;
+
+import java.sql.*;
+import java.util.*;
+import java.util.Map.Entry;
+
+import org.basex.core.*;
+import org.basex.util.*;
+
+/**
+ * Server-wide pool of JDBC connections. Connections are indexed by their URL and connection
+ * properties (including the credentials). Idle connections are validated before they are reused,
+ * and they are closed if they have not been used for {@link StaticOptions#SQLPOOLTIMEOUT} seconds.
+ * Expired connections are closed by a background timer, which is stopped when the pool is empty.
+ * Prepared statements are cached for each pooled connection.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class JDBCPool {
+  /** Timeout for validating idle connections (seconds). */
+  private static final int VALIDATE = 5;
+  /** Maximum number of cached prepared statements per connection. */
+  private static final int STATEMENTS = 1 << 6;
+  /** Minimum interval for closing expired connections (milliseconds). */
+  private static final long SWEEP = 1000;
+
+  /** Idle connections, indexed by their key. */
+  private final HashMap<String, ArrayDeque<Pooled>> idle = new HashMap<>();
+  /** Timer for closing expired connections ({@code null} if no connections are idle). */
+  private Timer timer;
+  /** Timeout for idle connections (milliseconds). */
+  private long timeout;
+
+  /**
+   * Returns the pool key for the specified connection properties.
+   * @param url URL
+   * @param props connection properties
+   * @return key
+   */
+  static String key(final String url, final Properties props) {
+    return url + '\n' + new TreeMap<>(props);
+  }
+
+  /**
+   * Returns a validated idle connection.
+   * @param key key
+   * @param sopts static options
+   * @return connection, or {@code null} if no idle connection is available
+   */
+  Pooled acquire(final String key, final StaticOptions sopts) {
+    while(true) {
+      final Pooled pooled;
+      synchronized(this) {
+        final ArrayDeque<Pooled> queue = idle.get(key);
+        pooled = queue != null ? queue.pollLast() : null;
+      }
+      if(pooled == null) return null;
+      if(pooled.time + timeout(sopts) > System.currentTimeMillis() && pooled.valid())
+        return pooled;
+      pooled.close();
+    }
+  }
+
+  /**
+   * Returns a connection to the pool. The connection will be closed if it cannot be reset, or if
+   * the maximum number of idle connections has been reached.
+   * @param pooled pooled connection
+   * @param sopts static options
+   */
+  void release(final Pooled pooled, final StaticOptions sopts) {
+    final boolean reset = pooled.reset();
+    final ArrayList<Pooled> close = new ArrayList<>();
+    synchronized(this) {
+      timeout = timeout(sopts);
+      final ArrayDeque<Pooled> queue = idle.computeIfAbsent(pooled.key, k -> new ArrayDeque<>());
+      if(reset && queue.size() < sopts.get(StaticOptions.SQLPOOL)) {
+        pooled.time = System.currentTimeMillis();
+        queue.add(pooled);
+        schedule();
+      } else {
+        if(queue.isEmpty()) idle.remove(pooled.key);
+        close.add(pooled);
+      }
+    }
+    for(final Pooled pld : close) pld.close();
+  }
+
+  /**
+   * Closes all connections that have been idle since the timeout was exceeded.
+   * @param time current time
+   * @return number of closed connections
+   */
+  int sweep(final long time) {
+    final ArrayList<Pooled> close = new ArrayList<>();
+    synchronized(this) {
+      final Iterator<ArrayDeque<Pooled>> queues = idle.values().iterator();
+      while(queues.hasNext()) {
+        final ArrayDeque<Pooled> queue = queues.next();
+        while(!queue.isEmpty() && queue.peekFirst().time + timeout <= time) {
+          close.add(queue.pollFirst());
+        }
+        if(queue.isEmpty()) queues.remove();
+      }
+      // stop timer if no connections are left
+      if(idle.isEmpty() && timer != null) {
+        timer.cancel();
+        timer = null;
+      }
+    }
+    for(final Pooled pld : close) pld.close();
+    return close.size();
+  }
+
+  /**
+   * Starts the timer for closing expired connections.
+   */
+  private void schedule() {
+    if(timer != null) return;
+    final long period = Math.max(SWEEP, timeout / 2);
+    timer = new Timer(Prop.NAME + "-sql-pool", true);
+    timer.schedule(new TimerTask() {
+      @Override
+      public void run() {
+        sweep(System.currentTimeMillis());
+      }
+    }, period, period);
+  }
+
+  /**
+   * Returns the timeout for idle connections.
+   * @param sopts static options
+   * @return timeout (in milliseconds)
+   */
+  private static long timeout(final StaticOptions sopts) {
+    return sopts.get(StaticOptions.SQLPOOLTIMEOUT) * 1000L;
+  }
+
+  /** Pooled connection. Instances must only be used by one query at a time. */
+  static final class Pooled {
+    /** Connection. */
+    final Connection conn;
+    /** Key. */
+    private final String key;
+    /** Cached prepared statements (in the order of their last use). */
+    private final LinkedHashMap<String, PreparedStatement> cache =
+      new LinkedHashMap<>(16, 0.75f, true);
+    /** SQL strings of the prepared statements that are currently in use. */
+    private final IdentityHashMap<PreparedStatement, String> used = new IdentityHashMap<>();
+    /** Initial read-only mode. */
+    private final boolean readOnly;
+    /** Initial transaction isolation level. */
+    private final int isolation;
+    /** Initial catalog (can be {@code null}). */
+    private final String catalog;
+    /** Initial schema ({@code null} if not supported). */
+    private final String schema;
+    /** Time at which the connection was returned to the pool. */
+    private long time;
+
+    /**
+     * Constructor.
+     * @param conn connection
+     * @param key key
+     * @throws SQLException SQL exception
+     */
+    Pooled(final Connection conn, final String key) throws SQLException {
+      this.conn = conn;
+      this.key = key;
+      readOnly = conn.isReadOnly();
+      isolation = conn.getTransactionIsolation();
+      catalog = conn.getCatalog();
+      schema = schema();
+    }
+
+    /**
+     * Returns a cached or new prepared statement.
+     * @param sql SQL string
+     * @return prepared statement
+     * @throws SQLException SQL exception
+     */
+    PreparedStatement prepare(final String sql) throws SQLException {
+      PreparedStatement stmt = cache.remove(sql);
+      if(stmt == null) stmt = conn.prepareStatement(sql);
+      used.put(stmt, sql);
+      return stmt;
+    }
+
+    /**
+     * Releases a statement. Prepared statements are returned to the cache, all other statements
+     * are closed.
+     * @param stmt statement
+     * @throws SQLException SQL exception
+     */
+    void release(final Statement stmt) throws SQLException {
+      final String sql = used.remove(stmt);
+      if(sql == null || stmt.isClosed()) {
+        stmt.close();
+        return;
+      }
+      final PreparedStatement ps = (PreparedStatement) stmt;
+      ps.clearParameters();
+      final PreparedStatement old = cache.put(sql, ps);
+      if(old != null) old.close();
+      if(cache.size() > STATEMENTS) {
+        final Iterator<Entry<String, PreparedStatement>> iter = cache.entrySet().iterator();
+        final PreparedStatement eldest = iter.next().getValue();
+        iter.remove();
+        eldest.close();
+      }
+    }
+
+    /**
+     * Checks if the connection is still valid.
+     * @return result of check
+     */
+    private boolean valid() {
+      try {
+        return conn.isValid(VALIDATE);
+      } catch(final SQLException ex) {
+        Util.debug(ex);
+        return false;
+      }
+    }
+
+    /**
+     * Returns the current schema of the connection.
+     * @return schema, or {@code null} if schemas are not supported by the driver
+     */
+    private String schema() {
+      try {
+        return conn.getSchema();
+      } catch(final SQLException | AbstractMethodError ex) {
+        // JDBC 4.0 drivers do not implement this method
+        Util.debug(ex);
+        return null;
+      }
+    }
+
+    /**
+     * Closes statements that are still in use, discards uncommitted changes and restores the
+     * initial state of the connection (read-only mode, transaction isolation, catalog and schema).
+     * @return success flag
+     */
+    private boolean reset() {
+      try {
+        for(final PreparedStatement stmt : used.keySet()) stmt.close();
+        used.clear();
+        if(conn.isClosed()) return false;
+        if(!conn.getAutoCommit()) conn.rollback();
+        if(conn.isReadOnly() != readOnly) conn.setReadOnly(readOnly);
+        if(conn.getTransactionIsolation() != isolation) conn.setTransactionIsolation(isolation);
+        if(!Objects.equals(conn.getCatalog(), catalog)) conn.setCatalog(catalog);
+        if(schema != null && !schema.equals(schema())) conn.setSchema(schema);
+        conn.clearWarnings();
+        return true;
+      } catch(final SQLException ex) {
+        Util.debug(ex);
+        return false;
+      }
+    }
+
+    /**
+     * Closes all cached statements and the connection.
+     */
+    private void close() {
+      for(final PreparedStatement stmt : cache.values()) {
+        try {
+          stmt.close();
+        } catch(final SQLException ex) {
+          Util.debug(ex);
+        }
+      }
+      cache.clear();
+      try {
+        conn.close();
+      } catch(final SQLException ex) {
+        Util.debug(ex);
+      }
+    }
+  }
+}
@@ -2,6 +2,8 @@ package org.basex.query.func.sql;
 
 import static org.basex.query.QueryError.*;
 
+import java.sql.*;
+
 import org.basex.query.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
@@ -21,8 +23,8 @@ public final class SqlClose extends SqlFn {
     @SuppressWarnings("resource")
     final AutoCloseable ac = get(qc, true);
     try {
-      ac.close();
-    } catch(final Exception ex) {
+      jdbc(qc).close(ac);
+    } catch(final SQLException ex) {
       throw SQL_ERROR_X.get(info, ex);
     }
     return Empty.VALUE;
@@ -6,7 +6,9 @@ import static org.basex.util.Token.*;
 import java.sql.*;
 import java.util.*;
 
+import org.basex.core.*;
 import org.basex.query.*;
+import org.basex.query.func.sql.JDBCPool.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 import org.basex.util.options.*;
@@ -32,35 +34,41 @@ public final class SqlConnect extends SqlFn {
     // URL to relational database
     final String url = string(toToken(exprs[0], qc));
     final JDBCConnections jdbc = jdbc(qc);
-    try {
-      final Connection conn;
-      if(exprs.length > 2) {
-        // credentials
-        final String user = string(toToken(exprs[1], qc));
-        final String pass = string(toToken(exprs[2], qc));
-        if(exprs.length == 4) {
-          // parse connection options
-          final HashMap<String, String> options = toOptions(3, new Options(), qc).free();
 
-          // prepares connection properties
-          final Properties props = new Properties();
-          options.forEach((key, value) -> {
-            if(!key.equals(AUTOCOMMIT)) props.setProperty(key, value);
-          });
-          props.setProperty(USER, user);
-          props.setProperty(PASS, pass);
+    // prepare connection properties
+    final Properties props = new Properties();
+    String autocommit = null;
+    if(exprs.length > 2) {
+      // credentials
+      props.setProperty(USER, string(toToken(exprs[1], qc)));
+      props.setProperty(PASS, string(toToken(exprs[2], qc)));
+      if(exprs.length == 4) {
+        // parse connection options
+        final HashMap<String, String> options = toOptions(3, new Options(), qc).free();
+        options.forEach((key, value) -> {
+          if(!key.equals(AUTOCOMMIT)) props.setProperty(key, value);
+        });
+        autocommit = options.get(AUTOCOMMIT);
+      }
+    }
 
-          // open connection and set auto-commit mode
-          conn = DriverManager.getConnection(url, props);
-          if(options.containsKey(AUTOCOMMIT)) {
-            conn.setAutoCommit(Strings.toBoolean(options.get(AUTOCOMMIT)));
-          }
-        } else {
-          conn = DriverManager.getConnection(url, user, pass);
-        }
-      } else {
-        conn = DriverManager.getConnection(url);
+    try {
+      final StaticOptions sopts = qc.context.soptions;
+      if(sopts.get(StaticOptions.SQLPOOL) > 0) {
+        // reuse idle connection or create new pooled connection
+        final String key = JDBCPool.key(url, props);
+        Pooled pld = POOL.acquire(key, sopts);
+        if(pld == null) pld = new Pooled(DriverManager.getConnection(url, props), key);
+        final Uri uri = jdbc.add(pld, url, sopts);
+        // assign auto-commit mode (default: true)
+        final boolean ac = autocommit == null || Strings.toBoolean(autocommit);
+        if(pld.conn.getAutoCommit() != ac) pld.conn.setAutoCommit(ac);
+        return uri;
       }
+
+      // open connection and set auto-commit mode
+      final Connection conn = DriverManager.getConnection(url, props);
+      if(autocommit != null) conn.setAutoCommit(Strings.toBoolean(autocommit));
       return jdbc.add(conn, url);
     } catch(final SQLException ex) {
       throw SQL_ERROR_X.get(info, ex);
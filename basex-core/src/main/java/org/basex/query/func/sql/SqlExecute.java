@@ -34,6 +34,8 @@ public class SqlExecute extends SqlFn {
   public static class StatementOptions extends Options {
     /** Query timeout. */
     public static final NumberOption TIMEOUT = new NumberOption("timeout", 0);
+    /** Number of rows to be fetched from the database at a time (default: driver setting). */
+    public static final NumberOption FETCHSIZE = new NumberOption("fetchsize", 0);
   }
 
   @Override
@@ -44,9 +46,9 @@ public class SqlExecute extends SqlFn {
     final StatementOptions options = toOptions(2, new StatementOptions(), qc);
 
     try {
-      final Statement stmt = conn.createStatement();
-      stmt.setQueryTimeout(options.get(StatementOptions.TIMEOUT));
-      return iter(stmt, true, stmt.execute(query));
+      final Statement stmt = jdbc(qc).statement(conn);
+      assign(stmt, options);
+      return iter(stmt, true, stmt.execute(query), qc);
     } catch(final SQLTimeoutException ex) {
       throw SQL_TIMEOUT_X.get(info, ex);
     } catch(final SQLException ex) {
@@ -59,20 +61,38 @@ public class SqlExecute extends SqlFn {
     return iter(qc).value(qc, this);
   }
 
+  /**
+   * Assigns statement options.
+   * @param stmt SQL statement
+   * @param options statement options
+   * @throws SQLException SQL exception
+   */
+  static void assign(final Statement stmt, final StatementOptions options) throws SQLException {
+    stmt.setQueryTimeout(options.get(StatementOptions.TIMEOUT));
+    final int fetchsize = options.get(StatementOptions.FETCHSIZE);
+    if(fetchsize > 0) stmt.setFetchSize(fetchsize);
+  }
+
   /**
    * Returns a result iterator, or the number of updated rows.
+   * Rows are lazily fetched from the result set.
    * @param stmt SQL statement
    * @param close close statement after last result
    * @param result result set flag ({@code false}: statement was updating)
+   * @param qc query context
    * @return iterator
    * @throws QueryException query exception
    */
-  final Iter iter(final Statement stmt, final boolean close, final boolean result)
-      throws QueryException {
+  final Iter iter(final Statement stmt, final boolean close, final boolean result,
+      final QueryContext qc) throws QueryException {
 
     try {
       // updating statement: return number of updated rows
-      if(!result) return Int.get(stmt.getUpdateCount()).iter();
+      if(!result) {
+        final Int count = Int.get(stmt.getUpdateCount());
+        if(close) jdbc(qc).close(stmt);
+        return count.iter();
+      }
 
       // create result set iterator
       final ResultSet rs = stmt.getResultSet();
@@ -84,7 +104,7 @@ public class SqlExecute extends SqlFn {
           try {
             if(!rs.next()) {
               rs.close();
-              if(close) stmt.close();
+              if(close) jdbc(qc).close(stmt);
               return null;
             }
 
@@ -64,10 +64,10 @@ public final class SqlExecutePrepared extends SqlExecute {
     final StatementOptions options = toOptions(2, new StatementOptions(), qc);
 
     try {
-      stmt.setQueryTimeout(options.get(StatementOptions.TIMEOUT));
+      assign(stmt, options);
       if(params != null) setParameters(params.childIter(), stmt);
       // If execute returns false, statement was updating: return number of updated rows
-      return iter(stmt, false, stmt.execute());
+      return iter(stmt, false, stmt.execute(), qc);
     } catch(final QueryException ex) {
       // already handled
       throw ex;
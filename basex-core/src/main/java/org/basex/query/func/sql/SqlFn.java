@@ -16,6 +16,9 @@ import org.basex.query.value.type.*;
  * @author Rositsa Shadura
  */
 abstract class SqlFn extends StandardFunc {
+  /** Server-wide connection pool. */
+  static final JDBCPool POOL = new JDBCPool();
+
   /**
    * Returns a prepared statement.
    * @param qc query context
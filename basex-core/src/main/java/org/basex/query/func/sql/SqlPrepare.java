@@ -23,8 +23,7 @@ public final class SqlPrepare extends SqlFn {
     final byte[] prepStmt = toToken(exprs[1], qc);
     try {
       // Keep prepared statement
-      final PreparedStatement prep = conn.prepareStatement(string(prepStmt));
-      return jdbc(qc).add(prep);
+      return jdbc(qc).prepare(conn, string(prepStmt));
     } catch(final SQLException ex) {
       throw SQL_ERROR_X.get(info, ex);
     }
@@ -0,0 +1,112 @@
+package org.basex.query.func.validate;
+
+import java.util.*;
+
+import org.basex.io.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
+
+/**
+ * Cache for compiled schemas. Schemas are only cached if the {@code cache} option is enabled,
+ * and if they are stored as local files.
+ * An entry will be discarded if the modification date of the file has changed.
+ * If the maximum number of entries is exceeded, the least recently used entries will be evicted.
+ * Please note that modifications of included or imported schema files will not be detected.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class SchemaCache {
+  /** Maximum number of cached schemas. */
+  private static final int MAX = 1 << 8;
+
+  /** Cached schemas (in the order of their last access). */
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  /** Number of successful lookups. */
+  private long hits;
+  /** Number of failed lookups. */
+  private long misses;
+  /** Number of evicted or outdated entries. */
+  private long evictions;
+
+  /**
+   * Returns the cache key for the specified schema.
+   * @param schema schema
+   * @param props properties of the schema
+   * @return key, or {@code null} if the schema cannot be cached
+   */
+  static String key(final IO schema, final Object props) {
+    return schema instanceof IOFile ? schema.path() + '\n' + props : null;
+  }
+
+  /**
+   * Returns a cached schema.
+   * @param key key (can be {@code null})
+   * @param schema schema file
+   * @return compiled schema, or {@code null} if no valid entry was found
+   */
+  synchronized Object get(final String key, final IO schema) {
+    if(key == null) return null;
+    final Entry entry = entries.get(key);
+    if(entry != null) {
+      if(entry.stamp == schema.timeStamp()) {
+        hits++;
+        return entry.value;
+      }
+      entries.remove(key);
+      evictions++;
+    }
+    misses++;
+    return null;
+  }
+
+  /**
+   * Caches a compiled schema.
+   * @param key key (can be {@code null})
+   * @param stamp modification date of the schema file, requested before it was compiled
+   * @param value compiled schema
+   */
+  synchronized void put(final String key, final long stamp, final Object value) {
+    if(key == null) return;
+    entries.put(key, new Entry(stamp, value));
+    if(entries.size() > MAX) {
+      final Iterator<Entry> iter = entries.values().iterator();
+      iter.next();
+      iter.remove();
+      evictions++;
+    }
+  }
+
+  /**
+   * Returns cache statistics.
+   * @return map
+   * @throws QueryException query exception
+   */
+  synchronized XQMap info() throws QueryException {
+    final MapBuilder mb = new MapBuilder();
+    mb.put("schemas", Int.get(entries.size()));
+    mb.put("hits", Int.get(hits));
+    mb.put("misses", Int.get(misses));
+    mb.put("evictions", Int.get(evictions));
+    return mb.finish();
+  }
+
+  /** Cached schema. */
+  private static final class Entry {
+    /** Modification date of the schema file. */
+    private final long stamp;
+    /** Compiled schema. */
+    private final Object value;
+
+    /**
+     * Constructor.
+     * @param stamp modification date of the schema file
+     * @param value compiled schema
+     */
+    private Entry(final long stamp, final Object value) {
+      this.stamp = stamp;
+      this.value = value;
+    }
+  }
+}
@@ -18,6 +18,7 @@ import org.basex.query.value.node.*;
 import org.basex.query.value.seq.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
+import org.basex.util.options.*;
 import org.xml.sax.*;
 
 /**
@@ -28,6 +29,15 @@ import org.xml.sax.*;
  * @author Marco Lettere (greedy/verbose validation)
  */
 abstract class ValidateFn extends StandardFunc {
+  /** Validation options. */
+  public static final class ValidateOptions extends Options {
+    /** Cache flag. */
+    public static final BooleanOption CACHE = new BooleanOption("cache", false);
+  }
+
+  /** Cache for compiled schemas. */
+  static final SchemaCache CACHE = new SchemaCache();
+
   /** Report element. */
   private static final String REPORT = "report";
   /** Error element. */
@@ -5,6 +5,7 @@ import static org.basex.query.QueryError.*;
 import java.io.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.io.*;
 import org.basex.query.*;
@@ -34,6 +35,7 @@ public class ValidateRng extends ValidateFn {
         final IO in = read(toNodeOrAtomItem(0, qc), null);
         final Item sch = toNodeOrAtomItem(1, qc);
         final boolean compact = exprs.length > 2 && toBoolean(exprs[2], qc);
+        final ValidateOptions opts = toOptions(3, new ValidateOptions(), qc);
 
         // detect format of schema input
         IO schema;
@@ -44,52 +46,30 @@ public class ValidateRng extends ValidateFn {
           if(!compact || ex.error() != WHICHRES_X) throw ex;
           schema = new IOContent(sch.string(info));
         }
-        schema = prepare(schema, handler);
 
+        // compiled schemas are cached if requested, and if they are stored as local files
+        final String key = opts.get(ValidateOptions.CACHE) ? SchemaCache.key(schema, compact) :
+          null;
+        @SuppressWarnings("unchecked")
+        Queue<Driver> drivers = (Queue<Driver>) CACHE.get(key, schema);
+        if(drivers == null) drivers = new ConcurrentLinkedQueue<>();
+        Driver driver = drivers.poll();
         try {
-          /*
-          PropertyMapBuilder pmb = new PropertyMapBuilder();
-          pmb.put(RngProperty.ERROR_HANDLER, handler);
-          pmb.put(RngProperty.CHECK_ID_IDREF, Flag.PRESENT);
-
-          SchemaReader sr = compact ? CompactSchemaReader.getInstance() : null;
-          ValidationDriver vd = new ValidationDriver(pmb.toPropertyMap(), sr);
-
-          if(vd.loadSchema(schema.inputSource())) vd.validate(in.inputSource());
-          */
-
-          final Class<?>
-            pmbClass = Class.forName("com.thaiopensource.util.PropertyMapBuilder"),
-            flClass = Class.forName("com.thaiopensource.validate.Flag"),
-            vdClass = Class.forName("com.thaiopensource.validate.ValidationDriver"),
-            vpClass = Class.forName("com.thaiopensource.validate.ValidateProperty"),
-            rpClass = Class.forName("com.thaiopensource.validate.prop.rng.RngProperty"),
-            piClass = Class.forName("com.thaiopensource.util.PropertyId"),
-            pmClass = Class.forName("com.thaiopensource.util.PropertyMap"),
-            srClass = Class.forName("com.thaiopensource.validate.SchemaReader"),
-            csrClass = Class.forName("com.thaiopensource.validate.rng.CompactSchemaReader");
-          final Method
-            piPut = piClass.getMethod("put", pmbClass, Object.class),
-            vdLoadSchema = vdClass.getMethod("loadSchema", InputSource.class),
-            vdValidate = vdClass.getMethod("validate", InputSource.class);
-
-          // assign error handler
-          final Object pmb = pmbClass.getDeclaredConstructor().newInstance();
-          piPut.invoke(vpClass.getField("ERROR_HANDLER").get(null), pmb, handler);
-
-          // enable ID/IDREF checks
-          final Object present = flClass.getField("PRESENT").get(null);
-          piPut.invoke(rpClass.getField("CHECK_ID_IDREF").get(null), pmb, present);
-
-          // create driver
-          final Object sr = compact ? csrClass.getMethod("getInstance").invoke(null) : null;
-          final Object pm = pmbClass.getMethod("toPropertyMap").invoke(pmb);
-          final Object vd = vdClass.getConstructor(pmClass, srClass).newInstance(pm, sr);
-
-          // load schema, validate document
-          final Object loaded = vdLoadSchema.invoke(vd, schema.inputSource());
-          if(loaded.equals(Boolean.TRUE)) vdValidate.invoke(vd, in.inputSource());
-
+          if(driver == null) {
+            final long stamp = schema.timeStamp();
+            driver = new Driver(compact, handler);
+            if(!driver.load(prepare(schema, handler))) return;
+            CACHE.put(key, stamp, drivers);
+          } else {
+            driver.handler.target = handler;
+          }
+          try {
+            driver.validate(in);
+          } finally {
+            // validation drivers are not thread-safe: return driver to the pool after use
+            driver.handler.target = null;
+            if(key != null) drivers.offer(driver);
+          }
         } catch(final ClassNotFoundException ex) {
           Util.debug(ex);
           throw VALIDATE_NOTFOUND_X.get(info);
@@ -99,4 +79,107 @@ public class ValidateRng extends ValidateFn {
       }
     });
   }
+
+  /**
+   * Validation driver with a compiled schema.
+   */
+  private static final class Driver {
+    /** Error handler. */
+    private final Handler handler = new Handler();
+    /** Validation driver. */
+    private final Object vd;
+    /** Method for loading a schema. */
+    private final Method load;
+    /** Method for validating a document. */
+    private final Method validate;
+
+    /**
+     * Constructor.
+     * @param compact compact schema
+     * @param target target error handler
+     * @throws Exception exception
+     */
+    private Driver(final boolean compact, final ErrorHandler target) throws Exception {
+      /*
+      PropertyMapBuilder pmb = new PropertyMapBuilder();
+      pmb.put(RngProperty.ERROR_HANDLER, handler);
+      pmb.put(RngProperty.CHECK_ID_IDREF, Flag.PRESENT);
+
+      SchemaReader sr = compact ? CompactSchemaReader.getInstance() : null;
+      ValidationDriver vd = new ValidationDriver(pmb.toPropertyMap(), sr);
+
+      if(vd.loadSchema(schema.inputSource())) vd.validate(in.inputSource());
+      */
+
+      final Class<?>
+        pmbClass = Class.forName("com.thaiopensource.util.PropertyMapBuilder"),
+        flClass = Class.forName("com.thaiopensource.validate.Flag"),
+        vdClass = Class.forName("com.thaiopensource.validate.ValidationDriver"),
+        vpClass = Class.forName("com.thaiopensource.validate.ValidateProperty"),
+        rpClass = Class.forName("com.thaiopensource.validate.prop.rng.RngProperty"),
+        piClass = Class.forName("com.thaiopensource.util.PropertyId"),
+        pmClass = Class.forName("com.thaiopensource.util.PropertyMap"),
+        srClass = Class.forName("com.thaiopensource.validate.SchemaReader"),
+        csrClass = Class.forName("com.thaiopensource.validate.rng.CompactSchemaReader");
+      final Method piPut = piClass.getMethod("put", pmbClass, Object.class);
+      load = vdClass.getMethod("loadSchema", InputSource.class);
+      validate = vdClass.getMethod("validate", InputSource.class);
+
+      // assign error handler
+      handler.target = target;
+      final Object pmb = pmbClass.getDeclaredConstructor().newInstance();
+      piPut.invoke(vpClass.getField("ERROR_HANDLER").get(null), pmb, handler);
+
+      // enable ID/IDREF checks
+      final Object present = flClass.getField("PRESENT").get(null);
+      piPut.invoke(rpClass.getField("CHECK_ID_IDREF").get(null), pmb, present);
+
+      // create driver
+      final Object sr = compact ? csrClass.getMethod("getInstance").invoke(null) : null;
+      final Object pm = pmbClass.getMethod("toPropertyMap").invoke(pmb);
+      vd = vdClass.getConstructor(pmClass, srClass).newInstance(pm, sr);
+    }
+
+    /**
+     * Loads a schema.
+     * @param schema schema
+     * @return success flag
+     * @throws Exception exception
+     */
+    private boolean load(final IO schema) throws Exception {
+      return load.invoke(vd, schema.inputSource()).equals(Boolean.TRUE);
+    }
+
+    /**
+     * Validates a document.
+     * @param in input
+     * @throws Exception exception
+     */
+    private void validate(final IO in) throws Exception {
+      validate.invoke(vd, in.inputSource());
+    }
+  }
+
+  /**
+   * Error handler that forwards errors to the handler of the current validation.
+   */
+  private static final class Handler implements ErrorHandler {
+    /** Target handler. */
+    private ErrorHandler target;
+
+    @Override
+    public void warning(final SAXParseException ex) throws SAXException {
+      target.warning(ex);
+    }
+
+    @Override
+    public void error(final SAXParseException ex) throws SAXException {
+      target.error(ex);
+    }
+
+    @Override
+    public void fatalError(final SAXParseException ex) throws SAXException {
+      target.fatalError(ex);
+    }
+  }
 }
@@ -68,21 +68,34 @@ public class ValidateXsd extends ValidateFn {
         final IO in = read(toNodeOrAtomItem(0, qc), null);
         final Item schema = toNodeOrAtomItem(1, qc);
         final HashMap<String, String> options = toOptions(2, new Options(), qc).free();
+        final boolean cache = Strings.toBoolean(options.remove(ValidateOptions.CACHE.name()));
 
-        // create schema factory and set version
-        final SchemaFactory sf = JAVA ? SchemaFactory.newInstance(FACTORY) :
-          (SchemaFactory) Reflect.get(Reflect.find(IMPL[OFFSET]));
-        // Saxon: use version 1.1
-        if(SAXON) sf.setProperty(SAXON_VERSION_URI, IMPL[OFFSET + 2]);
+        // schema declaration is included in document, or specified as string
+        final IO io = schema == null ? null : read(schema, null);
+        // compiled schemas are cached if requested, and if they are stored as local files
+        final String key = io == null || !cache ? null :
+          SchemaCache.key(io, new TreeMap<>(options));
+        Schema s = (Schema) CACHE.get(key, io);
+        if(s == null) {
+          // create schema factory and set version
+          final SchemaFactory sf = JAVA ? SchemaFactory.newInstance(FACTORY) :
+            (SchemaFactory) Reflect.get(Reflect.find(IMPL[OFFSET]));
+          // Saxon: use version 1.1
+          if(SAXON) sf.setProperty(SAXON_VERSION_URI, IMPL[OFFSET + 2]);
 
-        // assign parser features
-        for(final Entry<String, String> entry : options.entrySet()) {
-          sf.setFeature(entry.getKey(), Strings.toBoolean(entry.getValue()));
-        }
+          // assign parser features
+          for(final Entry<String, String> entry : options.entrySet()) {
+            sf.setFeature(entry.getKey(), Strings.toBoolean(entry.getValue()));
+          }
 
-        // schema declaration is included in document, or specified as string
-        final Schema s = schema == null ? sf.newSchema() :
-          sf.newSchema(new URL(prepare(read(schema, null), handler).url()));
+          if(io == null) {
+            s = sf.newSchema();
+          } else {
+            final long stamp = io.timeStamp();
+            s = sf.newSchema(new URL(prepare(io, handler).url()));
+            CACHE.put(key, stamp, s);
+          }
+        }
 
         final Validator v = s.newValidator();
         v.setErrorHandler(handler);
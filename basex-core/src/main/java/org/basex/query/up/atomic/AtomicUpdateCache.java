@@ -275,9 +275,15 @@ public final class AtomicUpdateCache {
    */
   public void execute(final boolean mergeTexts) {
     data.updateDists = false;
-    applyUpdates();
-    adjustDistances();
-    if(mergeTexts) resolveTextAdjacency();
+    // index changes are merged and applied in a single step
+    data.cacheIndexUpdates(true);
+    try {
+      applyUpdates();
+      adjustDistances();
+      if(mergeTexts) resolveTextAdjacency();
+    } finally {
+      data.cacheIndexUpdates(false);
+    }
     data.updateDists = true;
     clear();
   }
@@ -15,6 +15,8 @@ import org.basex.core.cmd.*;
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.query.*;
+import org.basex.query.util.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
@@ -76,17 +78,17 @@ public final class DBNew {
    * @throws QueryException query exception
    */
   public void prepare(final String name, final boolean create) throws QueryException {
-    final long is = inputs.size();
+    final int is = inputs.size();
     if(is == 0) return;
 
     // check if new resources will be cached on disk
     final boolean cache = cache(create);
     try {
-      if(is == 1) {
-        // single input: create temporary database
-        data = tmpData(name, 0, cache);
+      if(end(0) == is) {
+        // single input, or inputs that can be parsed together: create temporary database
+        data = tmpData(name, 0, is, cache);
       } else {
-        // multiple input: create temporary database and insert inputs
+        // multiple inputs: create temporary database and insert inputs
         final Context ctx = qc.context;
         final MainOptions mopts = ctx.options;
         final StaticOptions sopts = ctx.soptions;
@@ -95,8 +97,9 @@ public final class DBNew {
           new MemData(mopts);
         data.startUpdate(mopts);
         try {
-          for(int i = 0; i < is; i++) {
-            final Data tmpData = tmpData(dbname, i, cache);
+          for(int start = 0, end; start < is; start = end) {
+            end = end(start);
+            final Data tmpData = tmpData(dbname, start, end, cache);
             try {
               copy(tmpData, data);
             } finally {
@@ -163,31 +166,76 @@ public final class DBNew {
   }
 
   /**
-   * Creates a temporary database instance with the contents of the specified input.
+   * Returns the end index of the inputs that can be added in a single pass, starting from the
+   * specified index. Consecutive inputs can be added together if they are of the same kind
+   * (nodes or resources) and if they share the same options.
+   * @param start index of first input
+   * @return index after the last input
+   */
+  private int end(final int start) {
+    final NewInput input = inputs.get(start);
+    final DBOptions options = dboptions.get(start);
+    final int is = inputs.size();
+    int e = start + 1;
+    while(e < is && (inputs.get(e).node == null) == (input.node == null) &&
+        dboptions.get(e).equals(options)) e++;
+    return e;
+  }
+
+  /**
+   * Creates a temporary database instance with the contents of the specified inputs.
    * @param name name of database
-   * @param i index of current input
+   * @param start index of first input
+   * @param end index after the last input
    * @param cache cache data to disk
    * @return database
    * @throws IOException I/O exception
    */
-  private Data tmpData(final String name, final int i, final boolean cache) throws IOException {
+  private Data tmpData(final String name, final int start, final int end, final boolean cache)
+      throws IOException {
     // free memory: clear list entries after retrieval
-    final NewInput input = inputs.get(i);
-    final MainOptions mopts = dboptions.get(i).assignTo(new MainOptions(qc.context.options, true));
-    inputs.set(i, null);
-    dboptions.set(i, null);
-
-    // existing node: create data clip for copied instance
-    ANode node = input.node;
-    if(node != null) {
-      if(node.type != NodeType.DOC) node = new FDoc(name).add(node);
-      final MemData mdata = (MemData) node.copy(mopts, qc).data();
-      mdata.update(0, Data.DOC, token(input.path));
+    final MainOptions mopts = dboptions.get(start).assignTo(
+        new MainOptions(qc.context.options, true));
+    final ArrayList<NewInput> list = new ArrayList<>(end - start);
+    for(int i = start; i < end; i++) {
+      list.add(inputs.get(i));
+      inputs.set(i, null);
+      dboptions.set(i, null);
+    }
+
+    // existing nodes: copy nodes to a single main-memory instance
+    if(list.get(0).node != null) {
+      final ANodeList nodes = new ANodeList(list.size());
+      for(final NewInput input : list) {
+        final ANode node = input.node;
+        nodes.add(node.type == NodeType.DOC ? node : new FDoc(name).add(node));
+      }
+      final MemData mdata = new MemData(mopts);
+      new DataBuilder(mdata, qc).build(nodes);
+      // assign target paths
+      final int size = mdata.meta.size;
+      for(int pre = 0, i = 0; pre < size; pre += mdata.size(pre, Data.DOC), i++) {
+        mdata.update(pre, Data.DOC, token(list.get(i).path));
+      }
       return mdata;
     }
 
     final StaticOptions sopts = qc.context.soptions;
-    final Parser parser = new DirParser(input.io, mopts).target(input.path);
+    final Parser parser = list.size() == 1 ? parser(list.get(0), mopts) :
+      new Parser(list.get(0).io, mopts) {
+        @Override
+        public void parse(final Builder build) throws IOException {
+          // parse all resources in a single pass
+          for(final NewInput input : list) {
+            final Parser p = parser(input, options);
+            try {
+              p.parse(build);
+            } finally {
+              p.close();
+            }
+          }
+        }
+      };
 
     // create temporary database on disk if requested, or if binary data needs to be written
     final Builder builder;
@@ -200,6 +248,16 @@ public final class DBNew {
     return builder.binaryDir(sopts.dbPath(dbname)).build();
   }
 
+  /**
+   * Returns a parser for the specified input.
+   * @param input input
+   * @param mopts main options
+   * @return parser
+   */
+  private static Parser parser(final NewInput input, final MainOptions mopts) {
+    return new DirParser(input.io, mopts).target(input.path);
+  }
+
   /**
    * Adds the contents of the source database to the target database.
    * @param source source database
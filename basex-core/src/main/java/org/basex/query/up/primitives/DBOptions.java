@@ -122,4 +122,14 @@ public final class DBOptions {
     map.forEach(opts::put);
     return opts;
   }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return this == obj || obj instanceof DBOptions && map.equals(((DBOptions) obj).map);
+  }
+
+  @Override
+  public int hashCode() {
+    return map.hashCode();
+  }
 }
@@ -45,6 +45,16 @@ public final class IndexCosts implements Comparable<IndexCosts> {
     return results == 0 ? ZERO : new IndexCosts(results);
   }
 
+  /**
+   * Returns costs for an estimated number of results.
+   * As 0 and 1 denote exact numbers, the returned costs will at least indicate two results.
+   * @param results estimated number of results
+   * @return costs
+   */
+  public static IndexCosts estimate(final double results) {
+    return get((int) Math.min(Integer.MAX_VALUE, Math.max(2, Math.ceil(results))));
+  }
+
   /**
    * Adds index costs.
    * @param ic1 first costs
@@ -2,9 +2,12 @@ package org.basex.query.util;
 
 import static org.basex.query.QueryText.*;
 
+import java.util.*;
+
 import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
 import org.basex.query.*;
@@ -18,6 +21,7 @@ import org.basex.query.value.item.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * This class contains methods for storing information on new index expressions.
@@ -32,6 +36,8 @@ public final class IndexInfo {
   public final IndexDb db;
   /** Step with predicate that can be rewritten for index access. */
   public final Step step;
+  /** Steps of the path that precede the step with the predicate. */
+  private final Step[] parents;
 
   /** Optimization info. */
   public String optInfo;
@@ -52,11 +58,14 @@ public final class IndexInfo {
    * @param db index database
    * @param qc query context
    * @param step step containing the rewritable predicate
+   * @param parents steps of the path that precede the step
    */
-  public IndexInfo(final IndexDb db, final QueryContext qc, final Step step) {
+  public IndexInfo(final IndexDb db, final QueryContext qc, final Step step,
+      final Step... parents) {
     this.qc = qc;
     this.db = db;
     this.step = step;
+    this.parents = parents;
   }
 
   /**
@@ -99,7 +108,8 @@ public final class IndexInfo {
       (it != IndexType.TOKEN && it != IndexType.ATTRIBUTE)) return null;
 
     // reject index access if database is known at runtime, and if it does not match all criteria
-    return data == null || new IndexNames(it, data).contains(qname()) && data.meta.index(it) ?
+    return data == null || new IndexNames(it, data).contains(qname(), names()) &&
+      data.meta.index(it) ?
       it : null;
   }
 
@@ -169,8 +179,15 @@ public final class IndexInfo {
         return false;
 
       // estimate costs for dynamic query terms
-      costs = enforce() ? IndexCosts.ENFORCE_DYNAMIC :
-        IndexCosts.get(Math.max(1, data.meta.size / 10));
+      if(enforce()) {
+        costs = IndexCosts.ENFORCE_DYNAMIC;
+      } else {
+        // average number of occurrences per distinct value, or fixed estimate
+        final Stats stats = data.meta.uptodate ? stats(data, type) : null;
+        final long distinct = stats != null ? stats.distinct() : -1;
+        costs = distinct > 0 ? IndexCosts.estimate((double) stats.count / distinct) :
+          IndexCosts.get(Math.max(1, data.meta.size / 10));
+      }
       root = new ValueAccess(ii, search, type, test, db);
     }
 
@@ -178,6 +195,51 @@ public final class IndexInfo {
     return true;
   }
 
+  /**
+   * Tries to rewrite a substring or pattern search for index access.
+   * The search will be performed on the keys of the value index that are returned by
+   * an n-gram lookup.
+   * @param match substring or pattern search
+   * @param ii input info
+   * @return success flag
+   */
+  public boolean create(final StringMatch match, final InputInfo ii) {
+    // rewriting must be enabled, and the literal must be long enough for an n-gram lookup
+    if(!qc.context.options.get(MainOptions.NGRAMINDEX) ||
+        match.literal.length < IndexGrams.N) return false;
+
+    // sequential main memory scan is usually faster than index access
+    final Data data = db.data();
+    if(data == null ? !enforce() : data.inMemory()) return false;
+
+    costs = costs(data, match);
+    if(costs == null) return false;
+
+    create(new StringMatchAccess(ii, match, db), true,
+        Util.info(OPTINDEX_X_X, match.type() + " " + match.mode, Str.get(match.token)), ii);
+    return true;
+  }
+
+  /**
+   * Tries to rewrite a comparison with a date or dateTime for index access.
+   * The values of the index are converted to the type of the range limits.
+   * @param range date range
+   * @param ii input info
+   * @return success flag
+   */
+  public boolean create(final DateRange range, final InputInfo ii) {
+    // sequential main memory scan is usually faster than index access
+    final Data data = db.data();
+    if(data == null ? !enforce() : data.inMemory()) return false;
+
+    costs = costs(data, range);
+    if(costs == null) return false;
+
+    create(new DateRangeAccess(ii, range, db), true,
+        Util.info(OPTINDEX_X_X, range.type() + " " + range.dateType() + " range", range), ii);
+    return true;
+  }
+
   /**
    * Creates an index expression with an inverted axis path.
    * @param root new root expression
@@ -188,6 +250,10 @@ public final class IndexInfo {
   public void create(final ParseExpr root, final boolean parent, final String opt,
       final InputInfo ii) {
 
+    // attach estimated number of results
+    if(root instanceof IndexAccess && costs != null && costs.results() >= 0) {
+      ((IndexAccess) root).results = costs.results();
+    }
     expr = invert(test == null || !parent ? root :
       Path.get(ii, root, Step.get(ii, Axis.PARENT, test)));
     optInfo = opt;
@@ -213,6 +279,23 @@ public final class IndexInfo {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Returns the statistics of the addressed elements or attributes.
+   * @param data data reference
+   * @param type index type
+   * @return statistics, or {@code null} if they are not available or not up-to-date
+   */
+  private Stats stats(final Data data, final IndexType type) {
+    if(type != IndexType.TEXT && type != IndexType.ATTRIBUTE || !data.meta.uptodate ||
+        !data.nspaces.isEmpty()) return null;
+
+    final byte[][] qname = qname();
+    if(qname == null || qname[0] == null) return null;
+    final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
+    final int id = names.id(qname[0]);
+    return id == 0 ? null : names.stats(id);
+  }
+
   /**
    * Returns the local name and namespace uri of the last name test.
    * If the returned name or uri is {@code null}, it represents a wildcard.
@@ -250,6 +333,43 @@ public final class IndexInfo {
     return new byte[][] { nt.local, nt.name == null ? null : nt.name.uri() };
   }
 
+  /**
+   * Returns the local names of the addressed elements or attributes and their ancestors,
+   * starting with the innermost name. Names are collected as long as the steps are connected
+   * via child or attribute axes. Examples:
+   * <ul>
+   *   <li> /orders/order[status = 'TEXT'] -> status, order, orders </li>
+   *   <li> //order[status = 'TEXT']       -> status, order </li>
+   *   <li> //order[.//status = 'TEXT']    -> status </li>
+   *   <li> //order[@id = 'TEXT']          -> id, order </li>
+   * </ul>
+   * @return local names
+   */
+  private TokenList names() {
+    final ArrayList<Step> steps = new ArrayList<>();
+    Collections.addAll(steps, parents);
+    steps.add(step);
+    if(pred instanceof AxisPath) {
+      final AxisPath path = (AxisPath) pred;
+      final int pl = path.steps.length;
+      for(int p = 0; p < pl; p++) steps.add(path.step(p));
+      // if last step matches text nodes: ignore it
+      final Step st = path.step(pl - 1);
+      if(text && st.axis == Axis.CHILD && st.test == KindTest.TXT) steps.remove(steps.size() - 1);
+    }
+
+    final TokenList names = new TokenList();
+    for(int s = steps.size() - 1; s >= 0; s--) {
+      final Step st = steps.get(s);
+      if(!(st.test instanceof NameTest)) break;
+      final byte[] local = ((NameTest) st.test).local;
+      if(local == null) break;
+      names.add(local);
+      if(st.axis != Axis.CHILD && st.axis != Axis.ATTRIBUTE) break;
+    }
+    return names;
+  }
+
   /**
    * Rewrites the expression for index access.
    * @param root new root expression
@@ -0,0 +1,122 @@
+package org.basex.query.util.ft;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.ft.*;
+import org.basex.query.value.node.*;
+import org.basex.util.ft.*;
+import org.basex.util.list.*;
+
+/**
+ * Ranking of index-based full-text results.
+ *
+ * If the {@link FTScoring#BM25} model is chosen, the document frequencies are derived from the
+ * index entries of the query tokens, and the text lengths are taken from the statistics of the
+ * full-text index. As the maximum score of a result can be computed without accessing its text
+ * length, results can be skipped if they cannot exceed the minimum score of the best results
+ * that have been found so far.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTRanking {
+  /** Scoring model. */
+  private final FTScoring scoring;
+  /** Query positions. */
+  private final IntList poss = new IntList();
+  /** Inverse document frequencies of the query positions. */
+  private final DoubleList idfs = new DoubleList();
+  /** Cached query positions and token positions of a result. */
+  private final LongList cache = new LongList();
+  /** Index statistics ({@code null} if default scoring is applied). */
+  private FTStats stats;
+  /** Minimum score of returned results. */
+  private double min = -1;
+
+  /**
+   * Constructor.
+   * @param scoring scoring model
+   */
+  public FTRanking(final FTScoring scoring) {
+    this.scoring = scoring;
+  }
+
+  /**
+   * Initializes the ranking for the specified database.
+   * Default scoring will be applied if no index statistics are available.
+   * @param data data reference
+   */
+  public void init(final Data data) {
+    poss.reset();
+    idfs.reset();
+    stats = scoring == FTScoring.BM25 && data.meta.ftindex ?
+      ((FTIndex) data.index(IndexType.FULLTEXT)).stats() : null;
+  }
+
+  /**
+   * Registers a query token.
+   * @param pos query position
+   * @param texts number of texts containing the token
+   */
+  public void add(final int pos, final int texts) {
+    if(stats == null) return;
+    poss.add(pos);
+    idfs.add(Scoring.idf(stats.texts(), texts));
+  }
+
+  /**
+   * Assigns the minimum score of the results that will be returned.
+   * @param score score
+   */
+  public void min(final double score) {
+    min = score;
+  }
+
+  /**
+   * Checks if a result can be skipped, because it cannot exceed the minimum score.
+   * @param matches full-text matches
+   * @return result of check
+   */
+  public boolean skip(final FTMatches matches) {
+    return stats != null && min >= 0 && score(matches, 0) <= min;
+  }
+
+  /**
+   * Computes and assigns the score of a result.
+   * @param node full-text node
+   */
+  public void score(final FTNode node) {
+    if(stats == null) node.score();
+    else node.score(score(node.matches(), stats.length(node.pre())));
+  }
+
+  /**
+   * Computes the BM25 score of the specified matches.
+   * @param matches full-text matches
+   * @param length number of tokens of the text ({@code 0}: compute maximum score)
+   * @return score
+   */
+  private double score(final FTMatches matches, final int length) {
+    // collect distinct token positions for each query position
+    cache.reset();
+    for(final FTMatch match : matches) {
+      for(final FTStringMatch sm : match) {
+        if(!sm.exclude) cache.add((long) sm.pos << 32 | sm.start);
+      }
+    }
+    cache.sort().distinct();
+
+    // query positions are registered in ascending order
+    final double avg = stats.average();
+    double score = 0;
+    final int cs = cache.size();
+    for(int c = 0; c < cs;) {
+      final int pos = (int) (cache.get(c) >>> 32);
+      int tf = 0;
+      for(; c < cs && (int) (cache.get(c) >>> 32) == pos; c++) tf++;
+      final int i = poss.sortedIndexOf(pos);
+      if(i >= 0) score += Scoring.bm25(idfs.get(i), tf, length, avg);
+    }
+    return score;
+  }
+}
@@ -372,9 +372,7 @@ public abstract class ADate extends ADateDur {
   public final boolean eq(final Item item, final Collation coll, final StaticContext sc,
       final InputInfo ii) throws QueryException {
     final ADate d = (ADate) (item instanceof ADate ? item : type.cast(item, null, null, ii));
-    final BigDecimal d1 = seconds().add(days().multiply(DAYSECONDS));
-    final BigDecimal d2 = d.seconds().add(d.days().multiply(DAYSECONDS));
-    return d1.compareTo(d2) == 0;
+    return toSeconds().compareTo(d.toSeconds()) == 0;
   }
 
   @Override
@@ -384,16 +382,14 @@ public abstract class ADate extends ADateDur {
 
   @Override
   public final int hash(final InputInfo ii) {
-    return seconds().add(days().multiply(DAYSECONDS)).intValue();
+    return toSeconds().intValue();
   }
 
   @Override
   public int diff(final Item item, final Collation coll, final InputInfo ii)
       throws QueryException {
     final ADate d = (ADate) (item instanceof ADate ? item : type.cast(item, null, null, ii));
-    final BigDecimal d1 = seconds().add(days().multiply(DAYSECONDS));
-    final BigDecimal d2 = d.seconds().add(d.days().multiply(DAYSECONDS));
-    return d1.compareTo(d2);
+    return toSeconds().compareTo(d.toSeconds());
   }
 
   @Override
@@ -409,6 +405,15 @@ public abstract class ADate extends ADateDur {
       tz == Short.MAX_VALUE ? Integer.MIN_VALUE : tz);
   }
 
+  /**
+   * Returns the point in time of this item in seconds, normalized to UTC.
+   * The implicit timezone is applied if no timezone is specified.
+   * @return seconds
+   */
+  public final BigDecimal toSeconds() {
+    return seconds().add(days().multiply(DAYSECONDS));
+  }
+
   /**
    * Returns the date in seconds.
    * @return seconds
@@ -4,6 +4,8 @@ import static org.basex.util.Token.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 import org.basex.core.*;
 import org.basex.core.users.*;
@@ -23,6 +25,9 @@ import org.basex.util.*;
  *   <li><b>Performance</b>: Measured time in milliseconds</li>
  * </ul>
  *
+ * Unless {@link StaticOptions#LOGQUEUE} is set to {@code 0}, entries are queued and written in
+ * batches by a background thread.
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
@@ -38,11 +43,24 @@ public final class Log implements QueryTracer {
     /** OK.      */ OK
   }
 
+  /** Entry that stops the writer thread. */
+  private static final Entry STOP = new Entry(null, null, null, null, null);
+
   /** Static options. */
   private final StaticOptions sopts;
+  /** Queued log entries. */
+  private final BlockingQueue<Entry> queue;
+  /** Number of queued log entries that have not been written yet. */
+  private final AtomicInteger pending = new AtomicInteger();
+  /** Number of dropped log entries. */
+  private final AtomicInteger dropped = new AtomicInteger();
+  /** Drop new entries if the queue is full. */
+  private final boolean drop;
 
   /** Current log file. */
   private LogFile file;
+  /** Thread for writing queued log entries (can be {@code null}). */
+  private volatile Thread writer;
 
   /**
    * Constructor.
@@ -50,6 +68,9 @@ public final class Log implements QueryTracer {
    */
   public Log(final StaticOptions sopts) {
     this.sopts = sopts;
+    final int size = sopts.get(StaticOptions.LOGQUEUE);
+    queue = size > 0 ? new ArrayBlockingQueue<>(size) : null;
+    drop = sopts.get(StaticOptions.LOGDROP);
   }
 
   /**
@@ -58,6 +79,7 @@ public final class Log implements QueryTracer {
    * @return log file, or {@code null} if it does not exist
    */
   public LogFile file(final String name) {
+    flush();
     LogFile lf = file;
     if(lf == null || !lf.valid(name)) lf = new LogFile(name, dir());
     return lf.exists() ? lf : null;
@@ -110,53 +132,177 @@ public final class Log implements QueryTracer {
     // check if logging is disabled
     if(!sopts.get(StaticOptions.LOG)) return;
 
-    // construct log text
-    final Date date = new Date();
-    final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
-    final TokenBuilder tb = new TokenBuilder();
-    tb.add(DateTime.format(date, DateTime.TIME));
-    tb.add('\t').add(address != null ? address.replaceFirst("^/", "") : SERVER);
-    tb.add('\t').add(user != null ? user : UserText.ADMIN);
-    tb.add('\t').add(type);
-    tb.add('\t').add(info != null ? chop(normalize(token(info)), ml) : EMPTY);
-    if(perf != null) tb.add('\t').add(perf);
-    tb.add(Prop.NL);
+    final Entry entry = new Entry(type, info, perf != null ? perf.toString() : null, address,
+        user);
+    if(queue == null) {
+      write(entry);
+      return;
+    }
 
+    // queue log entry: wait, or drop entry if queue is full
+    if(writer == null) start();
+    pending.incrementAndGet();
     try {
-      synchronized(sopts) {
-        // create new log file and write log entry
-        final String name = DateTime.format(date, DateTime.DATE);
-        if(file != null && !file.valid(name)) close();
-        if(file == null) file = LogFile.create(name, dir());
-        // write log entry
-        file.write(tb.finish());
+      if(!drop) {
+        queue.put(entry);
+      } else if(!queue.offer(entry)) {
+        dropped.incrementAndGet();
+        done(1);
       }
-    } catch(final IOException ex) {
-      Util.stack(ex);
+    } catch(final InterruptedException ex) {
+      // entry is discarded: register it as dropped, restore interrupt status
+      Util.debug(ex);
+      dropped.incrementAndGet();
+      done(1);
+      Thread.currentThread().interrupt();
     }
   }
 
   /**
-   * Closes the log file.
+   * Writes entries to the log files.
+   * @param entries entries
    */
-  public void close() {
+  private synchronized void write(final Entry... entries) {
     try {
-      synchronized(sopts) {
-        if(file != null) {
-          file.close();
-          file = null;
+      final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
+      final TokenBuilder tb = new TokenBuilder();
+      for(final Entry entry : entries) {
+        // create new log file
+        final String name = DateTime.format(entry.date, DateTime.DATE);
+        if(file != null && !file.valid(name)) closeFile();
+        if(file == null) file = LogFile.create(name, dir());
+
+        // construct log text
+        final String time = DateTime.format(entry.date, DateTime.TIME);
+        final String user = entry.user != null ? entry.user : UserText.ADMIN;
+        tb.add(time);
+        tb.add('\t').add(entry.address != null ? entry.address.replaceFirst("^/", "") : SERVER);
+        tb.add('\t').add(user);
+        tb.add('\t').add(entry.type);
+        tb.add('\t').add(entry.info != null ? chop(normalize(token(entry.info)), ml) : EMPTY);
+        double ms = 0;
+        if(entry.perf != null) {
+          tb.add('\t').add(entry.perf);
+          ms = toDouble(token(entry.perf.replace(" ms", "")));
         }
+        tb.add(Prop.NL);
+        file.add(tb.next(), time, user, entry.type, Double.isNaN(ms) ? 0 : ms);
       }
+      // write log entries
+      file.flush();
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
+  /**
+   * Starts a thread that writes queued log entries in batches.
+   */
+  private synchronized void start() {
+    if(writer != null) return;
+
+    final Thread thread = new Thread(() -> {
+      final ArrayList<Entry> entries = new ArrayList<>();
+      try {
+        for(boolean stop = false; !stop;) {
+          // wait for next entry, write all queued entries at once
+          entries.add(queue.take());
+          queue.drainTo(entries);
+          // stop after the remaining entries have been written
+          stop = entries.remove(STOP);
+          final int size = entries.size(), d = dropped.getAndSet(0);
+          if(d > 0) {
+            entries.add(new Entry(LogType.ERROR.toString(), d + " log entries were dropped.",
+                null, null, null));
+          }
+          if(!entries.isEmpty()) write(entries.toArray(new Entry[0]));
+          entries.clear();
+          done(size);
+        }
+      } catch(final InterruptedException ex) {
+        Util.debug(ex);
+      } finally {
+        synchronized(this) {
+          if(writer == Thread.currentThread()) writer = null;
+        }
+      }
+    }, "Log");
+    thread.setDaemon(true);
+    writer = thread;
+    thread.start();
+  }
+
+  /**
+   * Registers written or dropped log entries.
+   * @param count number of entries
+   */
+  private void done(final int count) {
+    if(pending.addAndGet(-count) == 0) {
+      synchronized(pending) {
+        pending.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until all queued log entries have been written.
+   */
+  public void flush() {
+    synchronized(pending) {
+      try {
+        while(pending.get() > 0 && writer != null) pending.wait(100);
+      } catch(final InterruptedException ex) {
+        Util.debug(ex);
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Writes all queued entries, stops the writer thread and closes the log file.
+   */
+  public void close() {
+    final Thread thread;
+    synchronized(this) {
+      thread = writer;
+      writer = null;
+    }
+    if(thread != null) {
+      // the writer thread terminates after all entries before the stop entry have been written
+      try {
+        queue.put(STOP);
+        thread.join();
+      } catch(final InterruptedException ex) {
+        Util.debug(ex);
+        Thread.currentThread().interrupt();
+      }
+    }
+    synchronized(this) {
+      try {
+        closeFile();
+      } catch(final IOException ex) {
+        Util.stack(ex);
+      }
+    }
+  }
+
+  /**
+   * Closes the current log file.
+   * @throws IOException I/O exception
+   */
+  private void closeFile() throws IOException {
+    if(file != null) {
+      file.close();
+      file = null;
+    }
+  }
+
   /**
    * Returns all log files.
    * @return log directory
    */
   public IOFile[] files() {
+    flush();
     return dir().children(".*\\" + IO.LOGSUFFIX);
   }
 
@@ -173,4 +319,37 @@ public final class Log implements QueryTracer {
     writeServer(LogType.TRACE, info);
     return false;
   }
+
+  /** Log entry to be written. */
+  private static final class Entry {
+    /** Date. */
+    private final Date date = new Date();
+    /** Type. */
+    private final String type;
+    /** Info string (can be {@code null}). */
+    private final String info;
+    /** Performance string (can be {@code null}). */
+    private final String perf;
+    /** Address string (can be {@code null}). */
+    private final String address;
+    /** User (can be {@code null}). */
+    private final String user;
+
+    /**
+     * Constructor.
+     * @param type type
+     * @param info info string (can be {@code null})
+     * @param perf performance string (can be {@code null})
+     * @param address address string (can be {@code null})
+     * @param user user (can be {@code null})
+     */
+    private Entry(final String type, final String info, final String perf, final String address,
+        final String user) {
+      this.type = type;
+      this.info = info;
+      this.perf = perf;
+      this.address = address;
+      this.user = user;
+    }
+  }
 }
@@ -1,23 +1,46 @@
 package org.basex.server;
 
 import java.io.*;
+import java.util.*;
+import java.util.function.*;
 
 import org.basex.io.*;
 import org.basex.io.in.*;
+import org.basex.util.*;
 import org.basex.util.list.*;
 
 /**
  * Log file instance.
  *
+ * While entries are written, a sidecar index is maintained, which summarizes blocks of
+ * entries (time range, users, types, maximum duration). It is used to skip blocks that
+ * do not contain any relevant entries.
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
 public final class LogFile {
+  /** Suffix of index files. */
+  private static final String IDXSUFFIX = ".idx";
+  /** Minimum size of an indexed block. */
+  static final int BLOCKSIZE = 1 << 18;
+
   /** File reference. */
   final IOFile file;
+  /** Index file reference. */
+  private final IOFile index;
   /** Output stream. */
   FileOutputStream fos;
 
+  /** Buffered log entries. */
+  private final TokenBuilder buffer = new TokenBuilder();
+  /** Buffered index entries. */
+  private final TokenBuilder blocks = new TokenBuilder();
+  /** Current block (can be {@code null}). */
+  private Block block;
+  /** Number of written bytes. */
+  private long size;
+
   /**
    * Creates a new writable log file for the specified date.
    * @param name name of log file
@@ -29,6 +52,7 @@ public final class LogFile {
     final LogFile lf = new LogFile(name, dir);
     dir.md();
     lf.fos = new FileOutputStream(lf.file.file(), true);
+    lf.size = lf.file.length();
     return lf;
   }
 
@@ -39,6 +63,7 @@ public final class LogFile {
    */
   LogFile(final String name, final IOFile dir) {
     file = new IOFile(dir, name + IO.LOGSUFFIX);
+    index = new IOFile(dir, name + IDXSUFFIX);
   }
 
   /**
@@ -64,12 +89,94 @@ public final class LogFile {
     }
   }
 
+  /**
+   * Returns the entries of the specified log file.
+   * Indexed blocks of entries that are rejected by the specified filter will be skipped.
+   * @param filter block filter
+   * @return log entries
+   * @throws IOException I/O exception
+   */
+  public StringList read(final Predicate<Block> filter) throws IOException {
+    synchronized(file) {
+      final StringList list = new StringList();
+      try(RandomAccessFile raf = new RandomAccessFile(file.file(), "r")) {
+        final long length = raf.length();
+        long pos = 0;
+        for(final Block b : blocks()) {
+          // ignore blocks that overlap with the last read range or exceed the file size
+          if(b.offset < pos || b.offset + b.length > length) continue;
+          // read entries that have not been indexed
+          read(raf, pos, b.offset - pos, list);
+          if(filter.test(b)) read(raf, b.offset, b.length, list);
+          pos = b.offset + b.length;
+        }
+        read(raf, pos, length - pos, list);
+      }
+      return list;
+    }
+  }
+
+  /**
+   * Reads the log entries in the specified range.
+   * @param raf file
+   * @param offset file offset
+   * @param length length of range
+   * @param list list for adding entries
+   * @throws IOException I/O exception
+   */
+  private static void read(final RandomAccessFile raf, final long offset, final long length,
+      final StringList list) throws IOException {
+    if(length <= 0) return;
+    raf.seek(offset);
+    final InputStream in = new InputStream() {
+      private long left = length;
+
+      @Override
+      public int read() throws IOException {
+        if(left <= 0) return -1;
+        left--;
+        return raf.read();
+      }
+
+      @Override
+      public int read(final byte[] b, final int off, final int len) throws IOException {
+        if(left <= 0) return -1;
+        final int r = raf.read(b, off, (int) Math.min(len, left));
+        if(r > 0) left -= r;
+        return r;
+      }
+    };
+    try(NewlineInput nli = new NewlineInput(in)) {
+      for(String line; (line = nli.readLine()) != null;) list.add(line);
+    }
+  }
+
+  /**
+   * Returns the indexed blocks.
+   * @return blocks
+   * @throws IOException I/O exception
+   */
+  private ArrayList<Block> blocks() throws IOException {
+    final ArrayList<Block> list = new ArrayList<>();
+    if(index.exists()) {
+      try(NewlineInput nli = new NewlineInput(index)) {
+        for(String line; (line = nli.readLine()) != null;) {
+          final Block b = Block.get(line);
+          if(b != null) list.add(b);
+        }
+      }
+    }
+    list.sort((b1, b2) -> Long.compare(b1.offset, b2.offset));
+    return list;
+  }
+
   /**
    * Deletes the specified log file.
    * @return result of check
    */
   public boolean delete() {
     synchronized(file) {
+      index.delete();
       return file.delete();
     }
   }
@@ -85,14 +192,40 @@ public final class LogFile {
   }
 
   /**
-   * Writes new line to the log file.
+   * Buffers a new line. {@link #flush()} must be called to write buffered lines.
    * @param line line to be written
+   * @param time time
+   * @param user user
+   * @param type type
+   * @param ms duration in milliseconds
+   */
+  void add(final byte[] line, final String time, final String user, final String type,
+      final double ms) {
+    if(block == null) block = new Block(size + buffer.size());
+    block.add(time, user, type, ms);
+    buffer.add(line);
+
+    // finalize block
+    final long length = size + buffer.size() - block.offset;
+    if(length >= BLOCKSIZE) finish(length);
+  }
+
+  /**
+   * Writes buffered lines and index entries to disk.
    * @throws IOException I/O exception
    */
-  void write(final byte[] line) throws IOException {
+  void flush() throws IOException {
     synchronized(file) {
-      fos.write(line);
-      fos.flush();
+      if(!buffer.isEmpty()) {
+        final byte[] bytes = buffer.next();
+        fos.write(bytes);
+        size += bytes.length;
+      }
+      if(!blocks.isEmpty()) {
+        try(FileOutputStream out = new FileOutputStream(index.file(), true)) {
+          out.write(blocks.next());
+        }
+      }
     }
   }
 
@@ -103,12 +236,25 @@ public final class LogFile {
   void close() throws IOException {
     synchronized(file) {
       if(fos != null) {
+        // index remaining entries
+        if(block != null) finish(size + buffer.size() - block.offset);
+        flush();
         fos.close();
         fos = null;
       }
     }
   }
 
+  /**
+   * Finalizes the current block.
+   * @param length length of the block
+   */
+  private void finish(final long length) {
+    block.length = length;
+    blocks.add(block.toString()).add('\n');
+    block = null;
+  }
+
   /**
    * Checks if the log file is still valid.
    * @param name name of log file
@@ -117,4 +263,76 @@ public final class LogFile {
   boolean valid(final String name) {
     return file.name().equals(name + IO.LOGSUFFIX);
   }
+
+  /**
+   * Summary of an indexed block of log entries.
+   */
+  public static final class Block {
+    /** Users. */
+    public final HashSet<String> users = new HashSet<>();
+    /** Types. */
+    public final HashSet<String> types = new HashSet<>();
+    /** Minimum time. */
+    public String min;
+    /** Maximum time. */
+    public String max;
+    /** Maximum duration in milliseconds. */
+    public double ms;
+    /** File offset. */
+    private final long offset;
+    /** Length of the block. */
+    private long length;
+
+    /**
+     * Constructor.
+     * @param offset file offset
+     */
+    private Block(final long offset) {
+      this.offset = offset;
+    }
+
+    /**
+     * Parses an index entry.
+     * @param line line
+     * @return block, or {@code null} if the entry is invalid
+     */
+    private static Block get(final String line) {
+      final String[] cols = line.split("\t", -1);
+      if(cols.length != 7) return null;
+      try {
+        final Block block = new Block(Long.parseLong(cols[0]));
+        block.length = Long.parseLong(cols[1]);
+        block.min = cols[2];
+        block.max = cols[3];
+        block.ms = Double.parseDouble(cols[4]);
+        Collections.addAll(block.users, cols[5].split(" "));
+        Collections.addAll(block.types, cols[6].split(" "));
+        return block;
+      } catch(final NumberFormatException ex) {
+        Util.debug(ex);
+        return null;
+      }
+    }
+
+    /**
+     * Adds an entry to the summary.
+     * @param time time
+     * @param user user
+     * @param type type
+     * @param dur duration in milliseconds
+     */
+    private void add(final String time, final String user, final String type, final double dur) {
+      if(min == null || time.compareTo(min) < 0) min = time;
+      if(max == null || time.compareTo(max) > 0) max = time;
+      users.add(user);
+      types.add(type);
+      ms = Math.max(ms, dur);
+    }
+
+    @Override
+    public String toString() {
+      return offset + "\t" + length + '\t' + min + '\t' + max + '\t' + ms + '\t' +
+        String.join(" ", users) + '\t' + String.join(" ", types);
+    }
+  }
 }
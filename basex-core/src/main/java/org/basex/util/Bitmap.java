@@ -0,0 +1,391 @@
+package org.basex.util;
+
+import static java.lang.Long.*;
+
+import java.util.*;
+
+import org.basex.util.list.*;
+
+/**
+ * Compressed bitmap for non-negative integers (e.g. pre values). The design is similar to
+ * Roaring bitmaps: The integers are partitioned into chunks that share the upper 16 bits.
+ * The lower 16 bits of a chunk are stored in a sorted array if the chunk is sparse, and in a
+ * bit array if it is dense.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Bitmap {
+  /** Maximum number of values in an array chunk. */
+  private static final int MAX = 4096;
+  /** Number of words of a dense chunk. */
+  private static final int WORDS = 1024;
+
+  /** Keys of the chunks (upper 16 bits), sorted in ascending order. */
+  private int[] keys = new int[1];
+  /** Chunks. */
+  private Chunk[] chunks = new Chunk[1];
+  /** Number of chunks. */
+  private int size;
+
+  /**
+   * Adds a value.
+   * @param value value (must be non-negative)
+   */
+  public void add(final int value) {
+    final int key = value >>> 16;
+    // values are usually added in ascending order: check last chunk first
+    int c = size - 1;
+    if(c < 0 || keys[c] != key) {
+      c = Arrays.binarySearch(keys, 0, size, key);
+      if(c < 0) {
+        c = -c - 1;
+        insert(c, key, new Chunk());
+      }
+    }
+    chunks[c].add((char) value);
+  }
+
+  /**
+   * Checks if the specified value is contained in the bitmap.
+   * @param value value
+   * @return result of check
+   */
+  public boolean contains(final int value) {
+    final int c = Arrays.binarySearch(keys, 0, size, value >>> 16);
+    return c >= 0 && chunks[c].contains((char) value);
+  }
+
+  /**
+   * Returns the number of values.
+   * @return number of values
+   */
+  public int cardinality() {
+    int count = 0;
+    for(int c = 0; c < size; c++) count += chunks[c].count;
+    return count;
+  }
+
+  /**
+   * Checks if the bitmap is empty.
+   * @return result of check
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns a new bitmap with all values that occur in both bitmaps.
+   * @param bitmap second bitmap
+   * @return new bitmap
+   */
+  public Bitmap and(final Bitmap bitmap) {
+    final Bitmap result = new Bitmap();
+    for(int c1 = 0, c2 = 0; c1 < size && c2 < bitmap.size;) {
+      final int k1 = keys[c1], k2 = bitmap.keys[c2];
+      if(k1 < k2) {
+        c1++;
+      } else if(k1 > k2) {
+        c2++;
+      } else {
+        result.append(k1, chunks[c1++].and(bitmap.chunks[c2++]));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a new bitmap with all values that occur in one of the bitmaps.
+   * @param bitmap second bitmap
+   * @return new bitmap
+   */
+  public Bitmap or(final Bitmap bitmap) {
+    final Bitmap result = new Bitmap();
+    int c1 = 0, c2 = 0;
+    while(c1 < size && c2 < bitmap.size) {
+      final int k1 = keys[c1], k2 = bitmap.keys[c2];
+      if(k1 < k2) {
+        result.append(k1, chunks[c1++].copy());
+      } else if(k1 > k2) {
+        result.append(k2, bitmap.chunks[c2++].copy());
+      } else {
+        result.append(k1, chunks[c1++].or(bitmap.chunks[c2++]));
+      }
+    }
+    for(; c1 < size; c1++) result.append(keys[c1], chunks[c1].copy());
+    for(; c2 < bitmap.size; c2++) result.append(bitmap.keys[c2], bitmap.chunks[c2].copy());
+    return result;
+  }
+
+  /**
+   * Returns a new bitmap with all values that occur in this, but not in the specified bitmap.
+   * @param bitmap second bitmap
+   * @return new bitmap
+   */
+  public Bitmap andNot(final Bitmap bitmap) {
+    final Bitmap result = new Bitmap();
+    for(int c1 = 0, c2 = 0; c1 < size; c1++) {
+      final int k1 = keys[c1];
+      while(c2 < bitmap.size && bitmap.keys[c2] < k1) c2++;
+      final boolean both = c2 < bitmap.size && bitmap.keys[c2] == k1;
+      result.append(k1, both ? chunks[c1].andNot(bitmap.chunks[c2]) : chunks[c1].copy());
+    }
+    return result;
+  }
+
+  /**
+   * Returns all values in ascending order.
+   * @return values
+   */
+  public int[] toArray() {
+    final IntList list = new IntList(cardinality());
+    for(int c = 0; c < size; c++) chunks[c].values(keys[c] << 16, list);
+    return list.finish();
+  }
+
+  /**
+   * Appends a chunk with a key that is larger than all existing keys.
+   * Empty chunks will be ignored.
+   * @param key key
+   * @param chunk chunk
+   */
+  private void append(final int key, final Chunk chunk) {
+    if(chunk.count != 0) insert(size, key, chunk);
+  }
+
+  /**
+   * Inserts a chunk.
+   * @param c insertion position
+   * @param key key
+   * @param chunk chunk
+   */
+  private void insert(final int c, final int key, final Chunk chunk) {
+    if(size == keys.length) {
+      final int s = Array.newSize(size);
+      keys = Arrays.copyOf(keys, s);
+      chunks = Arrays.copyOf(chunks, s);
+    }
+    Array.insert(keys, c, 1, size, null);
+    Array.insert(chunks, c, 1, size, null);
+    keys[c] = key;
+    chunks[c] = chunk;
+    size++;
+  }
+
+  @Override
+  public String toString() {
+    return Util.className(this) + '[' + cardinality() + " values, " + size + " chunks]";
+  }
+
+  /**
+   * Chunk with the lower 16 bits of values.
+   * Values are either stored in a sorted array or in a bit array.
+   */
+  private static final class Chunk {
+    /** Sorted values ({@code null} if the chunk is dense). */
+    private char[] values;
+    /** Bits ({@code null} if the chunk is sparse). */
+    private long[] words;
+    /** Number of values. */
+    private int count;
+
+    /**
+     * Constructor for an empty sparse chunk.
+     */
+    Chunk() {
+      this(new char[4], null, 0);
+    }
+
+    /**
+     * Constructor.
+     * @param values sorted values (can be {@code null})
+     * @param words bits (can be {@code null})
+     * @param count number of values
+     */
+    Chunk(final char[] values, final long[] words, final int count) {
+      this.values = values;
+      this.words = words;
+      this.count = count;
+    }
+
+    /**
+     * Adds a value.
+     * @param value value
+     */
+    void add(final char value) {
+      if(words != null) {
+        final long bit = 1L << value, word = words[value >>> 6];
+        if((word & bit) == 0) {
+          words[value >>> 6] = word | bit;
+          count++;
+        }
+        return;
+      }
+      // values are usually added in ascending order: check last value first
+      int i = count;
+      if(i != 0 && values[i - 1] >= value) {
+        i = Arrays.binarySearch(values, 0, count, value);
+        if(i >= 0) return;
+        i = -i - 1;
+      }
+      if(count == MAX) {
+        words = bits(values, count);
+        values = null;
+        add(value);
+        return;
+      }
+      if(count == values.length) values = Arrays.copyOf(values, Math.min(MAX, count << 1));
+      System.arraycopy(values, i, values, i + 1, count - i);
+      values[i] = value;
+      count++;
+    }
+
+    /**
+     * Checks if the chunk contains the specified value.
+     * @param value value
+     * @return result of check
+     */
+    boolean contains(final char value) {
+      return words != null ? (words[value >>> 6] & 1L << value) != 0 :
+        Arrays.binarySearch(values, 0, count, value) >= 0;
+    }
+
+    /**
+     * Returns a copy of this chunk.
+     * @return copy
+     */
+    Chunk copy() {
+      return new Chunk(values != null ? Arrays.copyOf(values, count) : null,
+        words != null ? words.clone() : null, count);
+    }
+
+    /**
+     * Computes the intersection with another chunk.
+     * @param chunk other chunk
+     * @return new chunk
+     */
+    Chunk and(final Chunk chunk) {
+      if(words != null && chunk.words != null) {
+        final long[] w = new long[WORDS];
+        for(int i = 0; i < WORDS; i++) w[i] = words[i] & chunk.words[i];
+        return dense(w);
+      }
+      // at least one chunk is sparse: filter its values
+      final Chunk sparse = values != null ? this : chunk, other = sparse == this ? chunk : this;
+      final char[] v = new char[Math.min(count, chunk.count)];
+      int c = 0;
+      for(int i = 0; i < sparse.count; i++) {
+        final char value = sparse.values[i];
+        if(other.contains(value)) v[c++] = value;
+      }
+      return new Chunk(v, null, c);
+    }
+
+    /**
+     * Computes the union with another chunk.
+     * @param chunk other chunk
+     * @return new chunk
+     */
+    Chunk or(final Chunk chunk) {
+      if(values != null && chunk.values != null && count + chunk.count <= MAX) {
+        // merge sorted values
+        final char[] v = new char[count + chunk.count];
+        int i1 = 0, i2 = 0, c = 0;
+        while(i1 < count && i2 < chunk.count) {
+          final char v1 = values[i1], v2 = chunk.values[i2];
+          if(v1 <= v2) i1++;
+          if(v2 <= v1) i2++;
+          v[c++] = v1 < v2 ? v1 : v2;
+        }
+        while(i1 < count) v[c++] = values[i1++];
+        while(i2 < chunk.count) v[c++] = chunk.values[i2++];
+        return new Chunk(v, null, c);
+      }
+      final long[] w1 = words != null ? words : bits(values, count);
+      final long[] w2 = chunk.words != null ? chunk.words : bits(chunk.values, chunk.count);
+      final long[] w = new long[WORDS];
+      for(int i = 0; i < WORDS; i++) w[i] = w1[i] | w2[i];
+      return dense(w);
+    }
+
+    /**
+     * Removes the values of another chunk.
+     * @param chunk other chunk
+     * @return new chunk
+     */
+    Chunk andNot(final Chunk chunk) {
+      if(values != null) {
+        final char[] v = new char[count];
+        int c = 0;
+        for(int i = 0; i < count; i++) {
+          final char value = values[i];
+          if(!chunk.contains(value)) v[c++] = value;
+        }
+        return new Chunk(v, null, c);
+      }
+      final long[] w = words.clone();
+      if(chunk.words != null) {
+        for(int i = 0; i < WORDS; i++) w[i] &= ~chunk.words[i];
+      } else {
+        for(int i = 0; i < chunk.count; i++) {
+          final char value = chunk.values[i];
+          w[value >>> 6] &= ~(1L << value);
+        }
+      }
+      return dense(w);
+    }
+
+    /**
+     * Adds all values to the specified list.
+     * @param high upper bits
+     * @param list list
+     */
+    void values(final int high, final IntList list) {
+      if(values != null) {
+        for(int i = 0; i < count; i++) list.add(high | values[i]);
+      } else {
+        for(int i = 0; i < WORDS; i++) {
+          for(long word = words[i]; word != 0; word &= word - 1) {
+            list.add(high | i << 6 | numberOfTrailingZeros(word));
+          }
+        }
+      }
+    }
+
+    /**
+     * Creates a chunk from the specified bits. A sparse chunk is returned if the number of
+     * values does not exceed the maximum size of an array chunk.
+     * @param w bits
+     * @return chunk
+     */
+    private static Chunk dense(final long[] w) {
+      int c = 0;
+      for(final long word : w) c += bitCount(word);
+      if(c > MAX) return new Chunk(null, w, c);
+
+      final char[] v = new char[c];
+      int i = 0;
+      for(int n = 0; n < WORDS; n++) {
+        for(long word = w[n]; word != 0; word &= word - 1) {
+          v[i++] = (char) (n << 6 | numberOfTrailingZeros(word));
+        }
+      }
+      return new Chunk(v, null, c);
+    }
+
+    /**
+     * Converts sorted values to bits.
+     * @param values values
+     * @param count number of values
+     * @return bits
+     */
+    private static long[] bits(final char[] values, final int count) {
+      final long[] w = new long[WORDS];
+      for(int i = 0; i < count; i++) {
+        final char value = values[i];
+        w[value >>> 6] |= 1L << value;
+      }
+      return w;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package org.basex.util;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Shared thread pools. The pools consist of named daemon threads, which are terminated if they
+ * have been idle for a while. The number of threads per pool is bounded, additional tasks are
+ * queued.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Threads {
+  /** Seconds after which idle threads are terminated. */
+  private static final long KEEPALIVE = 60;
+
+  /** Pool for CPU-bound tasks (one thread per available processor). */
+  public static final ExecutorService CPU =
+      pool("cpu", Runtime.getRuntime().availableProcessors());
+  /** Pool for tasks that mostly wait for I/O. */
+  public static final ExecutorService IO = pool("io", 64);
+
+  /** Private constructor. */
+  private Threads() { }
+
+  /**
+   * Returns the number of threads of the specified pool.
+   * @param pool pool
+   * @return number of threads
+   */
+  public static int size(final ExecutorService pool) {
+    return ((ThreadPoolExecutor) pool).getMaximumPoolSize();
+  }
+
+  /**
+   * Creates a bounded thread pool.
+   * @param name name of the pool (used as part of the thread names)
+   * @param threads maximum number of threads
+   * @return pool
+   */
+  private static ExecutorService pool(final String name, final int threads) {
+    final AtomicInteger count = new AtomicInteger();
+    final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEPALIVE,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+          final String id = Prop.NAME + '-' + name + '-' + count.incrementAndGet();
+          final Thread thread = new Thread(r, id);
+          thread.setDaemon(true);
+          return thread;
+        });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+}
@@ -228,6 +228,14 @@ public final class FTLexer extends FTIterator implements IndexToken {
     return tokens.info();
   }
 
+  /**
+   * Indicates if lexers with the same options can be used in parallel threads.
+   * @return result of check
+   */
+  public boolean parallel() {
+    return tokens.parallel() && (iter == tokens || ((LanguageImpl) iter).parallel());
+  }
+
   /**
    * Returns a new lexer, adopting the tokenizer options.
    * @param opt full-text options
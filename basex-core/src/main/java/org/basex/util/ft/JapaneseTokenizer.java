@@ -149,6 +149,12 @@ final class JapaneseTokenizer extends Tokenizer {
     return new JapaneseTokenizer(f);
   }
 
+  @Override
+  boolean parallel() {
+    // the Igo tagger is shared by all instances
+    return false;
+  }
+
   @Override
   public JapaneseTokenizer init(final byte[] txt) {
     String source = string(txt);
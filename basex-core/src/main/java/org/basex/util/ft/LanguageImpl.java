@@ -44,6 +44,14 @@ abstract class LanguageImpl extends FTIterator implements Comparable<LanguageImp
    */
   abstract Collection<Language> languages();
 
+  /**
+   * Indicates if different instances of this implementation can be used in parallel threads.
+   * @return result of check
+   */
+  boolean parallel() {
+    return true;
+  }
+
   @Override
   public final boolean equals(final Object obj) {
     return this == obj || obj instanceof LanguageImpl && ((LanguageImpl) obj).prec() == prec();
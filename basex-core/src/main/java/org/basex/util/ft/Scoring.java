@@ -11,6 +11,10 @@ import static java.lang.StrictMath.*;
 public final class Scoring {
   /** Logarithmic base for calculating the score value. */
   private static final double LOG = Math.E - 1;
+  /** BM25: saturation of token frequencies. */
+  private static final double K1 = 1.2;
+  /** BM25: normalization of text lengths. */
+  private static final double B = 0.75;
 
   /** Private constructor. */
   private Scoring() { }
@@ -58,4 +62,29 @@ public final class Scoring {
       final int length) {
     return max((double) number / size, log(token * number + 1) / log(length + 1));
   }
+
+  /**
+   * Calculates the inverse document frequency of a token for the BM25 model.
+   * @param texts total number of indexed texts
+   * @param number number of texts containing the token
+   * @return inverse document frequency
+   */
+  public static double idf(final int texts, final int number) {
+    return log(1 + (texts - number + 0.5) / (number + 0.5));
+  }
+
+  /**
+   * Calculates the BM25 score of a token in a text node.
+   * If a length of {@code 0} is supplied, the maximum score for the given frequency is returned.
+   * @param idf inverse document frequency of the token
+   * @param number number of occurrences of the token in the text
+   * @param length number of tokens of the text
+   * @param average average number of tokens of all indexed texts
+   * @return score
+   */
+  public static double bm25(final double idf, final int number, final int length,
+      final double average) {
+    final double norm = average == 0 ? 1 : 1 - B + B * length / average;
+    return idf * number * (K1 + 1) / (number + K1 * norm);
+  }
 }
@@ -88,6 +88,12 @@ final class WordnetStemmer extends Stemmer {
     return new WordnetStemmer(fti);
   }
 
+  @Override
+  boolean parallel() {
+    // the WordNet dictionary is shared by all instances
+    return false;
+  }
+
   @Override
   public boolean supports(final Language lang) {
     return lang.equals(Language.get("en"));
@@ -62,9 +62,21 @@ public final class HttpClient {
    */
   public Value sendRequest(final byte[] href, final ANode request, final Value bodies)
       throws QueryException {
+    return send(href, new HttpRequestParser(info).parse(request, bodies));
+  }
 
-    final HttpRequest req = new HttpRequestParser(info).parse(request, bodies);
+  /**
+   * Sends a parsed HTTP request and returns the response.
+   * Connections will be returned to the keep-alive cache of the JDK if the response has been
+   * processed successfully. This way, subsequent requests to the same host can reuse them.
+   * @param href URL to send the request to (can be {@code null})
+   * @param req request data
+   * @return HTTP response
+   * @throws QueryException query exception
+   */
+  public Value send(final byte[] href, final HttpRequest req) throws QueryException {
     HttpURLConnection conn = null;
+    boolean success = false;
     try {
       // parse request data, set properties
       final String mediaType = req.attribute(OVERRIDE_MEDIA_TYPE);
@@ -83,12 +95,15 @@ public final class HttpClient {
         writePayload(conn.getOutputStream(), req);
       }
 
-      return new HttpResponse(info, options).getResponse(conn, body, mediaType);
+      final Value response = new HttpResponse(info, options).getResponse(conn, body, mediaType);
+      success = true;
+      return response;
 
     } catch(final IOException ex) {
       throw HC_ERROR_X.get(info, ex);
     } finally {
-      if(conn != null) conn.disconnect();
+      // close connection if response could not be processed completely
+      if(conn != null && !success) conn.disconnect();
     }
   }
 
@@ -171,8 +186,13 @@ public final class HttpClient {
     final EnumMap<Request, String> map = authHeaders(conn.getHeaderField(WWW_AUTHENTICATE));
     if(!am.toString().equals(map.get(AUTH_METHOD))) return null;
 
-    // disconnect, return map
-    conn.disconnect();
+    // consume response, return map (the connection can be reused for the next request)
+    final InputStream es = conn.getErrorStream();
+    if(es != null) {
+      try(InputStream is = es) {
+        while(is.read() != -1);
+      }
+    }
     return map;
   }
 
@@ -7,6 +7,7 @@ import static org.basex.util.http.HttpText.*;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.function.*;
 import java.util.zip.*;
 
 import org.basex.build.csv.*;
@@ -15,6 +16,7 @@ import org.basex.build.json.*;
 import org.basex.core.*;
 import org.basex.io.*;
 import org.basex.io.in.*;
+import org.basex.io.out.*;
 import org.basex.io.parse.csv.*;
 import org.basex.io.parse.json.*;
 import org.basex.io.serial.*;
@@ -87,13 +89,9 @@ public final class HttpPayload {
       if(payloads != null) {
         final InputStream in = GZIP.equals(encoding) ? new GZIPInputStream(input) : input;
         // if something goes wrong, input streams will be closed outside the function
-        final byte[] pl = (type.isXML() || type.isText()
-          ? new NewlineInput(in).encoding(type.parameters().get(CHARSET))
-          : BufferInput.get(in)
-        ).content();
         Value value = Empty.VALUE;
         try {
-          value = parse(pl, type);
+          value = parse(in, type);
         } catch(final QueryException ex) {
           // ignore errors if response was triggered by an error anyway
           if(!error) throw ex;
@@ -113,6 +111,35 @@ public final class HttpPayload {
     return payloads.value();
   }
 
+  /**
+   * Interprets a payload stream according to content type and returns a corresponding value.
+   * XML input without explicit charset is streamed into the parser, which will detect the
+   * encoding by itself. Other input is read into main memory first.
+   * @param in input stream
+   * @param type media type
+   * @return interpreted payload
+   * @throws IOException I/O exception
+   * @throws QueryException query exception
+   */
+  private Value parse(final InputStream in, final MediaType type)
+      throws IOException, QueryException {
+
+    final String charset = type.parameters().get(CHARSET);
+    if(type.isXML() && charset == null) {
+      final BufferInput bi = BufferInput.get(in);
+      bi.mark(1);
+      if(bi.read() == -1) return Empty.VALUE;
+      bi.reset();
+      try {
+        return value(new IOStream(bi), options, type);
+      } catch(final IOException ex) {
+        throw HC_PARSE_X.get(info, ex);
+      }
+    }
+    return parse((type.isXML() || type.isText() ? new NewlineInput(in).encoding(charset) :
+      BufferInput.get(in)).content(), type);
+  }
+
   /**
    * Interprets a payload according to content type and returns a corresponding value.
    * @param payload payload
@@ -262,57 +289,119 @@ public final class HttpPayload {
   /**
    * Returns a map with multipart form data.
    * @param type media type
+   * @param spool supplier for output streams that cache the contents of files
    * @return map with file names and contents
    * @throws IOException I/O exception
    * @throws QueryException query exception
    */
-  public HashMap<String, Value> multiForm(final MediaType type) throws IOException, QueryException {
+  public HashMap<String, Value> multiForm(final MediaType type,
+      final Supplier<SpoolOutput> spool) throws IOException, QueryException {
+
     // parse boundary, create helper arrays
-    final byte[] bound = concat(DASHES, boundary(type)), last = concat(bound, DASHES);
+    final byte[] bound = concat(DASHES, boundary(type)), delim = concat(CRLF, bound);
 
     final HashMap<String, Value> data = new HashMap<>();
-    final ByteList cont = new ByteList();
-    int lines = -1;
+    // skip preamble
+    while(true) {
+      final byte[] line = readLine();
+      if(line == null) return data;
+      if(startsWith(line, bound)) break;
+    }
+
     String name = "", filename = null;
     for(byte[] line; (line = readLine()) != null;) {
-      if(lines >= 0) {
-        if(startsWith(line, bound)) {
-          // get old value
-          Value value = data.get(name);
-          if(filename != null) {
-            // assign file and contents, join multiple files
-            final XQMap map = value instanceof XQMap ? (XQMap) value : XQMap.EMPTY;
-            final Str file = Str.get(filename);
-            final B64 contents = B64.get(cont.next());
-            final Value files = new ItemList().add(map.get(file, info)).add(contents).value();
-            value = map.put(file, files, info);
-          } else {
-            // assign string, join multiple strings
-            final Str v = Str.get(cont.next());
-            value = value == null ? v : new ItemList().add(value).add(v).value();
-          }
-
-          if(!name.isEmpty()) data.put(name, value);
-          lines = -1;
-          if(eq(line, last)) break;
-        } else {
-          if(lines++ > 0) cont.add(CRLF);
-          cont.add(line);
-        }
-      } else if(startsWith(lc(line), CONTENT_DISPOSITION)) {
+      if(startsWith(lc(line), CONTENT_DISPOSITION)) {
         // get key and file name
         name = contains(line, token(NAME + '=')) ?
           string(line).replaceAll("^.*?" + NAME + "=\"|\".*", "").replaceAll("\\[]", "") : null;
         filename = contains(line, token(FILENAME + '=')) ?
           string(line).replaceAll("^.*" + FILENAME + "=\"|\"$", "") : null;
       } else if(line.length == 0) {
-        lines = 0;
+        // end of headers: file contents may be spooled, other values are cached in main memory
+        final OutputStream cont = filename != null ? spool.get() : new ArrayOutput();
+        final boolean more = copyPart(delim, cont);
+
+        // get old value
+        Value value = data.get(name);
+        if(filename != null) {
+          // assign file and contents, join multiple files
+          final XQMap map = value instanceof XQMap ? (XQMap) value : XQMap.EMPTY;
+          final Str file = Str.get(filename);
+          final Value files = new ItemList().add(map.get(file, info)).add(binary(cont)).value();
+          value = map.put(file, files, info);
+        } else {
+          // assign string, join multiple strings
+          final Str v = Str.get(((ArrayOutput) cont).finish());
+          value = value == null ? v : new ItemList().add(value).add(v).value();
+        }
+        if(name != null && !name.isEmpty()) data.put(name, value);
+        if(!more) break;
+        name = "";
+        filename = null;
       }
     }
-
     return data;
   }
 
+  /**
+   * Copies the body of a form part to the specified output stream. The body is read in chunks,
+   * and it ends before the delimiter of the next part. The delimiter consists of a line break
+   * and the boundary; the line break may be the one that terminated the last header.
+   * @param delim delimiter
+   * @param out output stream
+   * @return {@code true} if another part follows
+   * @throws IOException I/O exception
+   */
+  private boolean copyPart(final byte[] delim, final OutputStream out) throws IOException {
+    final byte[] buffer = new byte[IO.BLOCKSIZE];
+    final int dl = delim.length;
+    // number of matched delimiter bytes, offset of the matched bytes that belong to the body
+    int bs = 0, m = CRLF.length, o = m;
+    for(int b; (b = input.read()) != -1;) {
+      if(b == delim[m]) {
+        if(++m < dl) continue;
+        // delimiter found: the closing delimiter is followed by two dashes
+        out.write(buffer, 0, bs);
+        final byte[] line = readLine();
+        return line != null && !startsWith(line, DASHES);
+      }
+      // no delimiter: write matched bytes. a carriage return only occurs at the beginning
+      // of the delimiter, so the current byte may only start a new delimiter
+      for(int d = o; d < m; d++) {
+        if(bs == buffer.length) {
+          out.write(buffer, 0, bs);
+          bs = 0;
+        }
+        buffer[bs++] = delim[d];
+      }
+      o = 0;
+      m = b == delim[0] ? 1 : 0;
+      if(m == 0) {
+        if(bs == buffer.length) {
+          out.write(buffer, 0, bs);
+          bs = 0;
+        }
+        buffer[bs++] = (byte) b;
+      }
+    }
+    out.write(buffer, 0, bs);
+    return false;
+  }
+
+  /**
+   * Returns the contents of a file.
+   * @param cont output stream with the cached file contents
+   * @return binary item
+   * @throws IOException I/O exception
+   */
+  private static B64 binary(final OutputStream cont) throws IOException {
+    if(cont instanceof SpoolOutput) {
+      final IO io = ((SpoolOutput) cont).finish();
+      return io instanceof IOFile ? new B64Lazy(io, IOERR_X, true) : B64.get(io.read());
+    }
+    return B64.get(((ArrayOutput) cont).finish());
+  }
+
   // STATIC METHODS ===============================================================================
 
   /**
@@ -324,7 +413,7 @@ public final class HttpPayload {
    * @throws IOException I/O exception
    * @throws QueryException query exception
    */
-  public static Value value(final IOContent input, final MainOptions options, final MediaType type)
+  public static Value value(final IO input, final MainOptions options, final MediaType type)
       throws IOException, QueryException {
 
     Value value = null;
@@ -355,6 +444,8 @@ public final class HttpPayload {
         value = hp.payloads();
       }
     }
-    return value == null ? B64.get(input.read()) : value;
+    if(value != null) return value;
+    // return spooled files as lazy items (their contents will only be requested if required)
+    return input instanceof IOFile ? new B64Lazy(input, IOERR_X, true) : B64.get(input.read());
   }
 }
@@ -36,6 +36,20 @@ public interface HttpText {
   String ACCEPT = "Accept";
   /** HTTP header string. */
   String ALLOW = "Allow";
+  /** HTTP header string. */
+  String ETAG = "ETag";
+  /** HTTP header string. */
+  String IF_NONE_MATCH = "If-None-Match";
+  /** HTTP header string. */
+  String RANGE = "Range";
+  /** HTTP header string. */
+  String IF_RANGE = "If-Range";
+  /** HTTP header string. */
+  String CONTENT_RANGE = "Content-Range";
+  /** HTTP header string. */
+  String ACCEPT_RANGES = "Accept-Ranges";
+  /** Bytes unit. */
+  String BYTES = "bytes";
 
   /** Content-Disposition (lower case). */
   byte[] CONTENT_DISPOSITION = token("content-disposition");
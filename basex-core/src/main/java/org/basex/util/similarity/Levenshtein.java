@@ -17,7 +17,7 @@ import org.basex.util.list.*;
  */
 public final class Levenshtein {
   /** Maximum token size. */
-  private static final int MAX = 50;
+  public static final int MAX = 50;
 
   /** Default number of allowed errors; dynamic calculation if value is 0. */
   private final int error;
@@ -110,15 +110,17 @@ public final class Levenshtein {
       matrix = mx;
     }
 
+    // matrix offsets refer to characters, loop counters to bytes
+    final int tbl = tk.length, sbl = sb.length;
     int e2 = -1, f2 = -1;
-    for(int t = 0; t < tl; t += cl(tk, t)) {
+    for(int t = 0, ti = 0; t < tbl; t += cl(tk, t), ti++) {
       final int e = noDiacritics(lc(cp(tk, t)));
       int d = Integer.MAX_VALUE;
-      for(int s = 0; s < sl; s += cl(sb, s)) {
+      for(int s = 0, si = 0; s < sbl; s += cl(sb, s), si++) {
         final int f = noDiacritics(lc(cp(sb, s)));
-        int c = m(mx[t][s + 1] + 1, mx[t + 1][s] + 1, mx[t][s] + (e == f ? 0 : 1));
-        if(e == f2 && f == e2) c = mx[t][s];
-        mx[t + 1][s + 1] = c;
+        int c = m(mx[ti][si + 1] + 1, mx[ti + 1][si] + 1, mx[ti][si] + (e == f ? 0 : 1));
+        if(e == f2 && f == e2) c = mx[ti][si];
+        mx[ti + 1][si + 1] = c;
         d = Math.min(d, c);
         f2 = f;
       }
@@ -182,7 +184,7 @@ public final class Levenshtein {
   private static boolean same(final byte[] tk, final byte[] sb) {
     final int tl = tk.length, sl = sb.length;
     for(int s = 0, t = 0; t < tl && s < sl; t += cl(tk, t), s += cl(sb, s)) {
-      if(lc(noDiacritics(cp(tk, t))) != lc(noDiacritics(cp(sb, t)))) return false;
+      if(lc(noDiacritics(cp(tk, t))) != lc(noDiacritics(cp(sb, s)))) return false;
     }
     return true;
   }
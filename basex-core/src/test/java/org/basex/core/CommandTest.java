@@ -12,6 +12,7 @@ import org.basex.core.parse.Commands.*;
 import org.basex.core.users.*;
 import org.basex.io.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 import org.junit.*;
 import org.junit.Test;
 
@@ -166,6 +167,138 @@ public class CommandTest extends SandboxTest {
     ok(new DropBackup(NAME));
   }
 
+  /** Create incremental and uncompressed backups. */
+  @Test public final void createBackupIncremental() {
+    ok(new CreateDB(NAME, "<a/>"));
+    ok(new XQuery(_DB_STORE.args(NAME, "raw.bin", "abc")));
+    ok(new Close());
+    final String full = fullBackup("2000-01-01-00-00-00");
+
+    ok(new Set(MainOptions.BACKUPINCREMENTAL, true));
+    ok(new Set(MainOptions.BACKUPCOMPRESS, false));
+    try {
+      ok(new XQuery("insert node <b/> into " + _DB_OPEN.args(NAME) + "/a"));
+      ok(new XQuery(_DB_DELETE.args(NAME, "raw.bin")));
+      ok(new CreateBackup(NAME));
+      ok(new XQuery("insert node <c/> into " + _DB_OPEN.args(NAME) + "/a"));
+    } finally {
+      ok(new Set(MainOptions.BACKUPINCREMENTAL, false));
+      ok(new Set(MainOptions.BACKUPCOMPRESS, true));
+    }
+    final StringList backups = backups(NAME);
+    assertEquals(2, backups.size());
+    assertEquals(full, backups.get(1));
+
+    // restore full backup and incremental backup
+    ok(new Restore(NAME));
+    assertEquals("<a><b/></a>", ok(new XQuery(_DB_OPEN.args(NAME) +
+        " ! serialize(., map { 'indent': 'no' })")));
+    assertEquals("1", ok(new XQuery("count(" + _DB_LIST.args(NAME) + ')')));
+
+    // dropping the incremental backup keeps the full backup
+    ok(new DropBackup(backups.get(0)));
+    assertEquals(full, backups(NAME).get(0));
+    ok(new Restore(NAME));
+    assertEquals("2", ok(new XQuery("count(" + _DB_LIST.args(NAME) + ')')));
+    ok(new DropBackup(NAME));
+  }
+
+  /** Detects files that are rewritten with the same size and modification time. */
+  @Test public final void createBackupChecksum() {
+    ok(new CreateDB(NAME, "<a/>"));
+    ok(new XQuery(_DB_STORE.args(NAME, "raw.bin", "abc")));
+    ok(new Close());
+    fullBackup("2000-01-01-00-00-00");
+
+    final IOFile raw = new IOFile(new IOFile(new IOFile(dbPath(), NAME), IO.RAW), "raw.bin");
+    final long time = raw.timeStamp();
+    ok(new XQuery(_DB_STORE.args(NAME, "raw.bin", "xyz")));
+    ok(new Close());
+    assertTrue(raw.file().setLastModified(time));
+
+    ok(new Set(MainOptions.BACKUPINCREMENTAL, true));
+    try {
+      ok(new CreateBackup(NAME));
+    } finally {
+      ok(new Set(MainOptions.BACKUPINCREMENTAL, false));
+    }
+    ok(new XQuery(_DB_STORE.args(NAME, "raw.bin", "123")));
+    ok(new Restore(NAME));
+    assertEquals("xyz", ok(new XQuery(_CONVERT_BINARY_TO_STRING.args(
+        _DB_RETRIEVE.args(NAME, "raw.bin")))));
+    ok(new DropBackup(NAME));
+  }
+
+  /** Drops a backup that other backups are based on. */
+  @Test public final void dropBackupIncremental() {
+    ok(new CreateDB(NAME, "<a/>"));
+    ok(new Close());
+    final String full = fullBackup("2000-01-01-00-00-00");
+
+    ok(new Set(MainOptions.BACKUPINCREMENTAL, true));
+    try {
+      ok(new XQuery("insert node <b/> into " + _DB_OPEN.args(NAME) + "/a"));
+      ok(new CreateBackup(NAME));
+    } finally {
+      ok(new Set(MainOptions.BACKUPINCREMENTAL, false));
+    }
+    // independent full backup of another database
+    ok(new CreateDB(NAME2, "<a/>"));
+    ok(new CreateBackup(NAME2));
+    assertEquals(2, backups(NAME).size());
+
+    // incremental backup is dropped together with its base
+    ok(new DropBackup(full));
+    assertEquals(0, backups(NAME).size());
+    assertEquals(1, backups(NAME2).size());
+    ok(new DropBackup(NAME2));
+  }
+
+  /**
+   * Creates a full backup of the closed test database with the specified date. The modification
+   * times of all database files are set to the same date, so that all subsequent updates will be
+   * detected by incremental backups.
+   * @param date date of the backup
+   * @return name of the backup
+   */
+  private static String fullBackup(final String date) {
+    final IOFile dir = new IOFile(dbPath(), NAME);
+    final long time = System.currentTimeMillis() - 3600000;
+    for(final String file : dir.descendants()) {
+      assertTrue(new IOFile(dir, file).file().setLastModified(time));
+    }
+    ok(new CreateBackup(NAME));
+    final StringList backups = backups(NAME);
+    assertEquals(1, backups.size());
+    final String backup = NAME + '-' + date;
+    assertTrue(new IOFile(dbPath(), backups.get(0) + IO.ZIPSUFFIX).rename(
+        new IOFile(dbPath(), backup + IO.ZIPSUFFIX)));
+    return backup;
+  }
+
+  /**
+   * Returns the names of all backups of a database, starting with the latest backup.
+   * @param db name of database
+   * @return names of backups
+   */
+  private static StringList backups(final String db) {
+    final StringList backups = new StringList();
+    for(final IOFile file : dbPath().children(db + "-.*\\" + IO.ZIPSUFFIX)) {
+      final String name = file.name();
+      backups.add(name.substring(0, name.lastIndexOf('.')));
+    }
+    return backups.sort(Prop.CASE, false);
+  }
+
+  /**
+   * Returns the database directory used by the tested context.
+   * @return database directory
+   */
+  private static IOFile dbPath() {
+    return new IOFile(ok(new XQuery("db:system()//dbpath/string()")));
+  }
+
+
   /** Command test. */
   @Test public final void createDB() {
     ok(new CreateDB(NAME, FILE));
@@ -67,6 +67,39 @@ public final class IdPreMapTest {
     }
   }
 
+  /** Insert correctness: insert sequences of values at random positions. */
+  @Test public void insertSequenceCorrectness() {
+    final int n = BASEID + ITERATIONS;
+    for(int id = BASEID + 1; id <= n;) {
+      int pre = RANDOM.nextInt(id);
+      for(int i = RANDOM.nextInt(5); i >= 0 && id <= n; i--) {
+        insert(pre++, id++);
+        check();
+      }
+    }
+  }
+
+  /** Insert correctness: insert long sequences of values, then search. */
+  @Test public void longSequenceCorrectness() {
+    final int n = BASEID + ITERATIONS * 10;
+    for(int id = BASEID + 1, pre = 0; id <= n; id++) {
+      if(id % 10 == 0) pre = RANDOM.nextInt(id);
+      insert(pre++, id);
+    }
+    check();
+    // consecutive inserts are merged into single records
+    assertTrue(testedmap.size() < ITERATIONS * 2);
+  }
+
+  /** Delete correctness: delete sequences of values at random positions. */
+  @Test public void deleteSequenceCorrectness() {
+    for(int cnt = BASEID + 1; cnt > 0;) {
+      final int pre = RANDOM.nextInt(cnt);
+      for(int i = RANDOM.nextInt(10); i >= 0 && pre < cnt; i--, cnt--) delete(pre);
+      check();
+    }
+  }
+
   /** Delete correctness: delete values at random positions. */
   @Test public void deleteCorrectness() {
     for(int id = BASEID + 1; id > 0; --id) {
@@ -96,6 +129,21 @@ public final class IdPreMapTest {
     }
   }
 
+  /** Correctness: randomly insert/delete sequences of values at random positions. */
+  @Test public void insertDeleteSequenceCorrectness() {
+    for(int i = 0, cnt = BASEID + 1, id = BASEID + 1; i < ITERATIONS; ++i) {
+      final int l = RANDOM.nextInt(10) + 1;
+      if(RANDOM.nextBoolean() || cnt < l) {
+        int pre = RANDOM.nextInt(cnt + 1);
+        for(int s = 0; s < l; s++, cnt++) insert(pre++, id++);
+      } else {
+        final int pre = RANDOM.nextInt(cnt - l + 1);
+        for(int s = 0; s < l; s++, cnt--) delete(pre);
+      }
+      check();
+    }
+  }
+
   /** Insert performance: insert at random positions. */
   @Test public void insertPerformance() {
     insertPerformance(testedmap);
@@ -0,0 +1,164 @@
+package org.basex.index;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for updates of the full-text index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTIndexUpdateTest extends SandboxTest {
+  /** Query for counting full-text hits. */
+  private static final String COUNT = "count(db:open('" + NAME + "')//text()[. contains text ";
+  /** Query for checking the index flag. */
+  private static final String FTINDEX = "db:info('" + NAME + "')//ftindex/text()";
+
+  /** Creates the test database. */
+  @Before public void setUp() {
+    set(MainOptions.UPDINDEX, true);
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME, "<x>A B</x>"));
+  }
+
+  /** Drops the test database. */
+  @After public void tearDown() {
+    execute(new DropDB(NAME));
+    set(MainOptions.UPDINDEX, false);
+    set(MainOptions.FTINDEX, false);
+  }
+
+  /** Adds, replaces and deletes documents. */
+  @Test public void documents() {
+    query("for $i in 1 to 100 return db:add('" + NAME + "', "
+        + "<a>{ 'A' || $i mod 10 } B</a>, 'a' || $i || '.xml')");
+    query(COUNT + "'A1'])", 10);
+    query(COUNT + "'B'])", 101);
+    query(FTINDEX, true);
+
+    query("for $i in 1 to 100 where $i mod 2 = 0 return db:replace('" + NAME + "', "
+        + "'a' || $i || '.xml', <a>C</a>)");
+    query(COUNT + "'A2'])", 0);
+    query(COUNT + "'B'])", 51);
+    query(COUNT + "'C'])", 50);
+
+    query("for $i in 1 to 100 where $i mod 5 = 0 return db:delete('" + NAME + "', "
+        + "'a' || $i || '.xml')");
+    query(COUNT + "'A5'])", 0);
+    query(COUNT + "'C'])", 40);
+
+    execute(new Close());
+    query(COUNT + "'B'])", 41);
+    query(COUNT + "'C'])", 40);
+    query(FTINDEX, true);
+  }
+
+  /** Updates single nodes. */
+  @Test public void nodes() {
+    query("replace value of node db:open('" + NAME + "')/x/text() with 'C D'");
+    query(COUNT + "'A'])", 0);
+    query(COUNT + "'D'])", 1);
+    query("insert node <y>E D</y> into db:open('" + NAME + "')/x");
+    query(COUNT + "'D'])", 2);
+    query(COUNT + "'E'])", 1);
+    query("delete node db:open('" + NAME + "')/x/text()");
+    query(COUNT + "'D'])", 1);
+    query(COUNT + "'C'])", 0);
+    query(COUNT + "'E D' using fuzzy])", 1);
+    query(COUNT + "'.' using wildcards])", 1);
+    query("string-join(ft:tokens('" + NAME + "'), ' ')", "d e");
+    query(FTINDEX, true);
+  }
+
+  /** Renames elements with included names. */
+  @Test public void rename() {
+    set(MainOptions.FTINCLUDE, "a");
+    try {
+      execute(new CreateDB(NAME, "<x><a>hello</a><b>world</b></x>"));
+      query("rename node db:open('" + NAME + "')//b as 'a'");
+      query("count(db:open('" + NAME + "')//a[text() contains text 'world'])", 1);
+      query("count(ft:search('" + NAME + "', 'world'))", 1);
+
+      query("rename node db:open('" + NAME + "')//a[1] as 'c'");
+      query("count(ft:search('" + NAME + "', 'hello'))", 0);
+      query("count(ft:search('" + NAME + "', 'world'))", 1);
+      query(FTINDEX, true);
+
+      execute(new Close());
+      query("count(ft:search('" + NAME + "', 'hello'))", 0);
+      query("count(ft:search('" + NAME + "', 'world'))", 1);
+    } finally {
+      set(MainOptions.FTINCLUDE, "");
+    }
+  }
+
+  /** Renames ancestors of texts with included paths. */
+  @Test public void renamePaths() {
+    set(MainOptions.FTINCLUDE, "a/b");
+    try {
+      execute(new CreateDB(NAME, "<x><a><b>hello</b></a><c><b>world</b></c></x>"));
+      query("rename node db:open('" + NAME + "')//c as 'a'");
+      query("count(ft:search('" + NAME + "', 'world'))", 1);
+      query("rename node db:open('" + NAME + "')/x/a[1] as 'c'");
+      query("count(ft:search('" + NAME + "', 'hello'))", 0);
+      query("count(db:open('" + NAME + "')//a/b[text() contains text 'world'])", 1);
+
+      execute(new Close());
+      query("count(ft:search('" + NAME + "', 'hello'))", 0);
+      query("count(ft:search('" + NAME + "', 'world'))", 1);
+      query(FTINDEX, true);
+    } finally {
+      set(MainOptions.FTINCLUDE, "");
+    }
+  }
+
+  /** Updates the statistics for ranking results. */
+  @Test public void stats() {
+    final String scores = "string-join(for $n in ft:search('" + NAME + "', 'A', "
+        + "map { 'scoring': 'bm25' }) return $n || '=' || ft:score($n), ' ')";
+    set(MainOptions.FTINCLUDE, "a");
+    try {
+      execute(new CreateDB(NAME, "<x><a>A B</a><b>A</b><a>C</a><b>A A B</b><a>B</a></x>"));
+      // texts that have not been indexed before
+      query("rename node db:open('" + NAME + "')//b[1] as 'a'");
+      query("rename node db:open('" + NAME + "')//b as 'a'");
+      // deleted and new texts
+      query("delete node db:open('" + NAME + "')//a[. = 'C']");
+      query("insert node <a>A C</a> into db:open('" + NAME + "')/x");
+      final String result = query(scores);
+
+      execute(new Close());
+      query(scores, result);
+      execute(new Open(NAME));
+      execute(new OptimizeAll());
+      query(scores, result);
+    } finally {
+      set(MainOptions.FTINCLUDE, "");
+    }
+  }
+
+  /** Merges a large number of updates into the index. */
+  @Test public void merge() {
+    query("for $i in 1 to 20000 return db:add('" + NAME + "', "
+        + "<a>A B C D</a>, 'a' || $i || '.xml')");
+    query("delete node (db:open('" + NAME + "')/a)[position() <= 10000]");
+    query(COUNT + "'A'])", 10001);
+    query(COUNT + "'D'])", 10000);
+    query("ft:tokens('" + NAME + "', 'd')/@count/data()", 10000);
+    execute(new Close());
+    query(COUNT + "'A'])", 10001);
+  }
+
+  /** Index without support for updates. */
+  @Test public void noUpdindex() {
+    set(MainOptions.UPDINDEX, false);
+    execute(new CreateDB(NAME, "<x>A B</x>"));
+    query("insert node <y>C</y> into db:open('" + NAME + "')/x");
+    query(FTINDEX, false);
+    query(COUNT + "'C'])", 1);
+  }
+}
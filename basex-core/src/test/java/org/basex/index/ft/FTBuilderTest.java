@@ -0,0 +1,81 @@
+package org.basex.index.ft;
+
+import static org.basex.data.DataText.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for building the full-text index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTBuilderTest extends SandboxTest {
+  /** Drops the test database. */
+  @After public void tearDown() {
+    execute(new DropDB(NAME));
+    set(MainOptions.SPLITSIZE, 0);
+  }
+
+  /**
+   * Compares indexes built by a single and multiple threads.
+   * @throws IOException I/O exception
+   */
+  @Test public void parallel() throws IOException {
+    final Data data = create(20000);
+    assertEquals(files(data, 1), files(data, 4));
+  }
+
+  /**
+   * Compares indexes built by a single and multiple threads, using partial indexes.
+   * @throws IOException I/O exception
+   */
+  @Test public void parallelSplits() throws IOException {
+    // split after one million tokens
+    set(MainOptions.SPLITSIZE, 1);
+    final Data data = create(60000);
+    assertEquals(files(data, 1), files(data, 4));
+  }
+
+  /**
+   * Creates a database with more texts than are tokenized in a single batch.
+   * @param texts number of texts (each text consists of 20 tokens)
+   * @return data reference
+   */
+  private static Data create(final int texts) {
+    execute(new CreateDB(NAME));
+    query("db:add('" + NAME + "', <x>{ for $i in 1 to " + texts + " return <a>{ "
+        + "string-join(for $j in 1 to 20 return 'T' || ($i * $j) mod 1009, ' ') "
+        + "}</a> }</x>, 'x.xml')");
+    return context.data();
+  }
+
+  /**
+   * Builds the full-text index and returns the contents of the index files.
+   * @param data data reference
+   * @param threads number of threads
+   * @return index files
+   * @throws IOException I/O exception
+   */
+  private static Map<String, String> files(final Data data, final int threads)
+      throws IOException {
+    new FTBuilder(data, threads).build().close();
+    final TreeMap<String, String> files = new TreeMap<>();
+    for(final IOFile file : data.meta.dir.children(DATAFTX + ".*")) {
+      files.put(file.name(), Arrays.toString(file.read()));
+    }
+    assertFalse(files.isEmpty());
+    data.meta.drop(DATAFTX + ".*");
+    return files;
+  }
+}
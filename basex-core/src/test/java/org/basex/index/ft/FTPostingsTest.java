@@ -0,0 +1,153 @@
+package org.basex.index.ft;
+
+import static org.basex.data.DataText.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.out.DataOutput;
+import org.basex.io.random.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the storage format of full-text references.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class FTPostingsTest extends SandboxTest {
+  /** Query that is evaluated with and without index. */
+  private static final String QUERY = "string-join(//x[text() contains text 'b'] ! @n, ' ')";
+
+  /** Drops the test database. */
+  @After public void tearDown() {
+    execute(new DropDB(NAME));
+    set(MainOptions.FTINDEX, false);
+    set(MainOptions.UPDINDEX, false);
+  }
+
+  /**
+   * Writes and reads sorted and unsorted references.
+   * @throws IOException I/O exception
+   */
+  @Test public void references() throws IOException {
+    final int[][] refs = {
+      { 0, 0 }, { 0, 1 }, { 0, 7 }, { 1, 0 }, { 1, 3 }, { 200, 5 }, { 200, 2 },
+      { 3, 9 }, { 3, 4 }, { 100000, 0 }, { 0, 0 }, { Integer.MAX_VALUE >>> 2, 12345 }
+    };
+    final IOFile file = new IOFile(sandbox(), NAME);
+    try {
+      final FTPostings postings = new FTPostings();
+      try(DataOutput out = new DataOutput(file)) {
+        for(final int[] ref : refs) postings.write(out, ref[0], ref[1]);
+      }
+      postings.reset();
+      try(DataAccess in = new DataAccess(file)) {
+        for(final int[] ref : refs) {
+          postings.read(in);
+          assertEquals(ref[0], postings.id);
+          assertEquals(ref[1], postings.pos);
+        }
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  /**
+   * Compares index results after updates and after reopening the database.
+   */
+  @Test public void updates() {
+    set(MainOptions.FTINDEX, true);
+    set(MainOptions.UPDINDEX, true);
+    execute(new CreateDB(NAME, "<xml><x n='1'>a b</x><x n='2'>b b b</x><x n='3'>c</x></xml>"));
+    compare("1 2");
+    query("insert node <x n='4'>c b a b</x> as first into /xml");
+    query("replace value of node //x[@n = '1']/text() with 'a c'");
+    query("delete node //x[@n = '2']");
+    compare("4");
+    execute(new Close());
+    execute(new Open(NAME));
+    compare("4");
+  }
+
+  /**
+   * Flags full-text indexes with an outdated storage format.
+   * @throws IOException I/O exception
+   */
+  @Test public void oldFormat() throws IOException {
+    set(MainOptions.FTINDEX, true);
+    execute(new CreateDB(NAME, "<xml><x n='1'>a b</x></xml>"));
+    final MetaData meta = context.data().meta;
+    final IOFile inf = meta.dbFile(DATAINF);
+
+    // index is flagged as outdated, files are kept until the index is dropped
+    outdate(inf);
+    execute(new Open(NAME));
+    assertFalse(context.data().meta.ftindex);
+    assertTrue(context.data().meta.oldftindex());
+    assertTrue(meta.dir.children(DATAFTX + ".*").length > 0);
+    query(QUERY, "1");
+    execute(new Close());
+
+    // index can be created again
+    execute(new Open(NAME));
+    assertTrue(context.data().meta.oldftindex());
+    execute(new CreateIndex(CmdIndex.FULLTEXT));
+    assertTrue(context.data().meta.ftindex);
+    assertFalse(context.data().meta.oldftindex());
+    query(QUERY, "1");
+
+    // index is rebuilt when the database is optimized
+    outdate(inf);
+    execute(new Open(NAME));
+    execute(new Optimize());
+    assertTrue(context.data().meta.ftindex);
+    assertFalse(context.data().meta.oldftindex());
+    query(QUERY, "1");
+
+    // index files are deleted when the index is dropped
+    outdate(inf);
+    execute(new Open(NAME));
+    execute(new DropIndex(CmdIndex.FULLTEXT));
+    assertFalse(context.data().meta.oldftindex());
+    assertEquals(0, meta.dir.children(DATAFTX + ".*").length);
+    execute(new Close());
+    execute(new Open(NAME));
+    assertFalse(context.data().meta.ftindex);
+    assertFalse(context.data().meta.oldftindex());
+  }
+
+  /**
+   * Closes the database and assigns an outdated index version.
+   * @param inf meta data file
+   * @throws IOException I/O exception
+   */
+  private static void outdate(final IOFile inf) throws IOException {
+    execute(new Close());
+    final byte[] data = inf.read(), key = Token.concat(Token.token(IDBSTR),
+        new byte[] { (byte) ISTORAGE.length() }, Token.token(ISTORAGE));
+    final int i = Token.indexOf(data, key);
+    assertTrue(i != -1);
+    System.arraycopy(Token.token("8.6.0"), 0, data, i + key.length - ISTORAGE.length(), 5);
+    inf.write(data);
+  }
+
+  /**
+   * Compares the result of a full-text query with and without index.
+   * @param expected expected result
+   */
+  private static void compare(final String expected) {
+    assertTrue(context.data().meta.ftindex);
+    query(QUERY, expected);
+    query("declare option db:enforceindex 'true'; " + QUERY, expected);
+  }
+}
@@ -0,0 +1,51 @@
+package org.basex.io.out;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+import org.junit.*;
+
+/**
+ * Test class for the spooling output stream.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class SpoolOutputTest {
+  /**
+   * Bytes are cached in main memory.
+   * @throws IOException I/O exception
+   */
+  @Test public void cache() throws IOException {
+    try(SpoolOutput so = new SpoolOutput(3)) {
+      so.write(Token.token("ab"));
+      so.write('c');
+      final IO io = so.finish();
+      assertTrue(io instanceof IOContent);
+      assertNull(so.file());
+      assertEquals("abc", Token.string(io.read()));
+    }
+  }
+
+  /**
+   * Bytes are spooled to a temporary file.
+   * @throws IOException I/O exception
+   */
+  @Test public void spool() throws IOException {
+    final SpoolOutput so = new SpoolOutput(3);
+    try {
+      so.write(Token.token("ab"));
+      so.write(new ByteArrayInputStream(Token.token("cd")));
+      so.write('e');
+      final IO io = so.finish();
+      assertTrue(io instanceof IOFile);
+      assertSame(io, so.file());
+      assertEquals("abcde", Token.string(io.read()));
+    } finally {
+      assertTrue(so.file().delete());
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package org.basex.query;
 
 import static org.basex.query.QueryError.*;
+import static org.basex.query.func.Function.*;
 
 import org.basex.*;
+import org.basex.core.cmd.*;
 import org.basex.io.serial.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This class tests the serializers.
@@ -85,6 +88,22 @@ public final class SerializerTest extends SandboxTest {
         SerializerOptions.METHOD.arg("text") + "1,2", "1\n2");
   }
 
+  /** Test: escaping of characters in texts and attribute values. */
+  @Test public void escape() {
+    final String input = "<a b='&quot;&#9;&#10;&lt;&amp;&gt;&#x85;&#x2028;&#xE9;'>" +
+        "&amp;&lt;&gt;\"&#9;&#x7F;&#x85;&#xA0;&#x2028;&#xE9;&#x1D11E;</a>";
+    final String output = "<a b=\"&quot;&#x9;&#xA;&lt;&amp;&gt;&#x85;&#x2028;\u00e9\">" +
+        "&amp;&lt;&gt;\"\t&#x7F;&#x85;\u00a0&#x2028;\u00e9\ud834\udd1e</a>";
+    query(input, output);
+
+    execute(new CreateDB(NAME, input));
+    query(_DB_OPEN.args(NAME), output);
+    query(SerializerOptions.ENCODING.arg("US-ASCII") + _DB_OPEN.args(NAME),
+        output.replace("\u00e9", "&#xE9;").replace("\u00a0", "&#xA0;").
+        replace("\ud834\udd1e", "&#x1D11E;"));
+    execute(new DropDB(NAME));
+  }
+
   /** Test: xml:space='preserve'. */
   @Test public void preserve() {
     query("<a xml:space='preserve'>T<b/></a>", "<a xml:space=\"preserve\">T<b/></a>");
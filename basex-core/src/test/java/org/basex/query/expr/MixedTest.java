@@ -142,6 +142,23 @@ public final class MixedTest extends SandboxTest {
     query("((<_><a>A</a><b>B</b></_> update {})/* ! element _ { . })/*/node()", "A\nB");
   }
 
+  /** Set operations on nodes of one or more databases. */
+  @Test public void setOperations() {
+    execute(new CreateDB(NAME, "<xml><a/><b/><c/></xml>"));
+    execute(new CreateDB(NAME + '2', "<xml><a/><b/><c/></xml>"));
+    execute(new Close());
+    final String db1 = "db:open('" + NAME + "')", db2 = "db:open('" + NAME + "2')";
+    // same database
+    query("(" + db1 + "//(c, a) union " + db1 + "//b) ! name()", "a\nb\nc");
+    query("(" + db1 + "//(c, a, b) intersect " + db1 + "//(b, c)) ! name()", "b\nc");
+    query("(" + db1 + "//(c, a, b) except " + db1 + "//(b, c)) ! name()", "a");
+    // different databases and constructed nodes
+    query("count(" + db1 + "//(c, a) union " + db2 + "//(b, a))", 4);
+    query("count(" + db1 + "//(c, a) intersect (" + db2 + "//a, " + db1 + "//a))", 1);
+    query("count(" + db1 + "//(c, a) except (<a/>, " + db1 + "//a))", 1);
+    query("let $a := <a/> return count(($a, " + db1 + "//a) intersect " + db1 + "//(a, b))", 1);
+  }
+
   /**
    * Tests document order across multiple documents or databases.
    * @throws IOException I/O exception
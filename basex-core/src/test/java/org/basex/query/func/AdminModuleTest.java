@@ -38,6 +38,9 @@ public final class AdminModuleTest extends SandboxTest {
     // no logging data exists in the sandbox
     query(func.args(), "");
     error(func.args("2001-01-01"), WHICHRES_X);
+    error(func.args("2001-01-01", false, " map { 'start': '10:00', 'type': 'ERROR' }"),
+        WHICHRES_X);
+    error(func.args("2001-01-01", false, " map { 'unknown': '' }"), INVALIDOPT_X);
   }
 
   /** Test method. */
@@ -3,8 +3,13 @@ package org.basex.query.func;
 import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 
+import static org.junit.Assert.*;
+
 import org.basex.*;
+import org.basex.core.*;
+import org.basex.io.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This class tests the functions of the Fetch Module.
@@ -36,6 +41,49 @@ public final class FetchModuleTest extends SandboxTest {
     error(func.args(XML + 'x'), FETCH_OPEN_X);
   }
 
+  /** Test method. */
+  @Test public void invalidate() {
+    final Function func = _FETCH_INVALIDATE;
+    query(func.args());
+    query(func.args(XML));
+
+    // enable document cache
+    final Context ctx = context;
+    final StaticOptions sopts = new StaticOptions(true);
+    sopts.set(StaticOptions.DOCCACHE, 1);
+    context = new Context(sopts);
+    try {
+      final IOFile file = new IOFile(sandbox(), "cached.xml");
+      final String path = file.path();
+      write(file, "<a/>");
+      final long stamp = file.timeStamp();
+      query(DOC.args(path), "<a/>");
+      query(_FETCH_XML.args(path), "<a/>");
+
+      // modified file with identical timestamp and length: return cached documents
+      write(file, "<b/>");
+      assertTrue(file.file().setLastModified(stamp));
+      query(DOC.args(path), "<a/>");
+      query(_FETCH_XML.args(path), "<a/>");
+      // updating queries: parse file again
+      query(_UPDATE_OUTPUT.args(DOC.args(path)), "<b/>");
+
+      // invalidate cached documents
+      query(func.args(path));
+      query(DOC.args(path), "<b/>");
+      query(_FETCH_XML.args(path), "<b/>");
+
+      // modified file with different length
+      write(file, "<cc/>");
+      assertTrue(file.file().setLastModified(stamp));
+      query(DOC.args(path), "<cc/>");
+      query(_FETCH_XML.args(path), "<cc/>");
+    } finally {
+      context.close();
+      context = ctx;
+    }
+  }
+
   /** Test method. */
   @Test public void text() {
     final Function func = _FETCH_TEXT;
@@ -188,6 +188,49 @@ public final class FtModuleTest extends SandboxTest {
     error(func.args(NAME, "x", " 1"), MAP_X_X);
   }
 
+  /** Test method. */
+  @Test public void searchFuzzy() {
+    final Function func = _FT_SEARCH;
+    execute(new CreateDB(NAME, "<x><t>assignment</t><t>\u00e4ssignment</t><t>assessment</t>"
+        + "<t>signments</t><t>asisgnment</t><t>assignmentsxx</t><t>zassignment</t>"
+        + "<t>\u0436\u0436\u0436\u0436</t><t>\u0436\u0436\u0436a</t></x>"));
+    execute(new CreateIndex(CmdIndex.FULLTEXT));
+
+    final String fuzzy = " map { 'fuzzy': true() }";
+    query("string-join(" + func.args(NAME, "Assignment", fuzzy) + ", ' ')",
+        "assignment \u00e4ssignment asisgnment zassignment");
+    query("string-join(" + func.args(NAME, "assignnemt", fuzzy) + ", ' ')",
+        "assignment \u00e4ssignment");
+    query(func.args(NAME, "\u0436\u0436\u0436\u0436\u0436", fuzzy), "\u0436\u0436\u0436\u0436");
+    query(func.args(NAME, "xyz", fuzzy), "");
+  }
+
+  /** Test method. */
+  @Test public void searchRanking() {
+    final Function func = _FT_SEARCH;
+    set(MainOptions.UPDINDEX, true);
+    execute(new CreateDB(NAME, "<x><t>a b c d</t><t>a a</t><t>b</t><t>a b a b a b a b</t>"
+        + "<t>c</t></x>"));
+    execute(new CreateIndex(CmdIndex.FULLTEXT));
+
+    final String bm25 = "'scoring': 'bm25'";
+    query(func.args(NAME, "a", " map { " + bm25 + " }") + "/string()",
+        "a b c d\na a\na b a b a b a b");
+    query("string-join(" + func.args(NAME, "a", " map { " + bm25 + ", 'top': 2 }") + ", '|')",
+        "a a|a b a b a b a b");
+    query("string-join(" + func.args(NAME, " ('a', 'c')", " map { " + bm25 + ", 'top': 3 }") +
+        ", '|')", "a b c d|c|a a");
+    query("string-join(" + func.args(NAME, "a b", " map { 'mode': 'phrase', " + bm25 +
+        ", 'top': 5 }") + ", '|')", "a b a b a b a b|a b c d");
+    query("count(" + func.args(NAME, "a", " map { 'top': 10 }") + ')', 3);
+
+    // statistics are updated incrementally
+    query("insert node <t>a</t> into db:open('" + NAME + "')/x");
+    query("string-join(" + func.args(NAME, "a", " map { " + bm25 + ", 'top': 2 }") + ", '|')",
+        "a a|a");
+    set(MainOptions.UPDINDEX, false);
+  }
+
   /** Test method. */
   @Test public void tokenize() {
     final Function func = _FT_TOKENIZE;
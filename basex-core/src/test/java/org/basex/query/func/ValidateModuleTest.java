@@ -5,7 +5,9 @@ import static org.basex.query.func.Function.*;
 import static org.junit.Assert.*;
 
 import org.basex.*;
+import org.basex.io.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This class tests the functions of the Validation Module.
@@ -25,6 +27,62 @@ public final class ValidateModuleTest extends SandboxTest {
   /** Test file. */
   private static final String INPUT = DIR + "input.xml";
 
+  /** Test method. */
+  @Test public void cacheInfo() {
+    final Function func = _VALIDATE_CACHE_INFO;
+    final IOFile xsd = new IOFile(sandbox(), "cached.xsd");
+    write(xsd, "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+        "<xs:element name='root'/></xs:schema>");
+    final String path = xsd.path(), cache = " map { 'cache': true() }";
+
+    // schema is only cached if requested
+    final long hits = Long.parseLong(query(func.args() + "?hits"));
+    final long misses = Long.parseLong(query(func.args() + "?misses"));
+    query(_VALIDATE_XSD.args(FILE, path), "");
+    query(func.args() + "?misses - " + misses, 0);
+
+    // compiled schema is cached
+    query(_VALIDATE_XSD.args(FILE, path, cache), "");
+    query(func.args() + "?misses - " + misses, 1);
+    query(_VALIDATE_XSD.args(FILE, path, cache), "");
+    query(func.args() + "?hits - " + hits, 1);
+
+    // modified schema is compiled again
+    write(xsd, "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>" +
+        "<xs:element name='unknown'/></xs:schema>");
+    assertTrue(xsd.file().setLastModified(xsd.timeStamp() + 1000));
+    error(_VALIDATE_XSD.args(FILE, path, cache), VALIDATE_ERROR_X);
+    query(func.args() + "?misses - " + misses, 2);
+  }
+
+  /** Test method. */
+  @Test public void cacheInfoRng() {
+    final Function func = _VALIDATE_CACHE_INFO;
+    final IOFile rng = new IOFile(sandbox(), "cached.rng");
+    write(rng, "<element name='root' xmlns='http://relaxng.org/ns/structure/1.0'>" +
+        "<empty/></element>");
+    final String path = rng.path(), cache = " map { 'cache': true() }";
+
+    // schema is only cached if requested
+    final long hits = Long.parseLong(query(func.args() + "?hits"));
+    final long misses = Long.parseLong(query(func.args() + "?misses"));
+    query(_VALIDATE_RNG.args(FILE, path), "");
+    query(func.args() + "?misses - " + misses, 0);
+
+    // compiled schema is cached
+    query(_VALIDATE_RNG.args(FILE, path, false, cache), "");
+    query(func.args() + "?misses - " + misses, 1);
+    query(_VALIDATE_RNG.args(FILE, path, false, cache), "");
+    query(func.args() + "?hits - " + hits, 1);
+
+    // driver is reused after failed validations
+    error(_VALIDATE_RNG.args(" <unknown/>", path, false, cache), VALIDATE_ERROR_X);
+    error(_VALIDATE_RNG.args("<root>", path, false, cache), VALIDATE_ERROR_X);
+    query(_VALIDATE_RNG.args(FILE, path, false, cache), "");
+    query(func.args() + "?hits - " + hits, 4);
+    query(func.args() + "?misses - " + misses, 1);
+  }
+
   /** Test method. */
   @Test public void dtd() {
     final Function func = _VALIDATE_DTD;
@@ -0,0 +1,283 @@
+package org.basex.query.func.sql;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.*;
+import java.sql.*;
+import java.util.*;
+import java.util.logging.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.query.func.sql.JDBCPool.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the pool of JDBC connections. A proxy-based driver is used, which records the
+ * state of the created connections and statements.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class JDBCPoolTest extends SandboxTest {
+  /** Connection URL. */
+  private static final String URL = "jdbc:pooltest:";
+  /** Query for connecting to the fake database. */
+  private static final String CONNECT = _SQL_CONNECT.args(URL);
+  /** Driver. */
+  private static final FakeDriver DRIVER = new FakeDriver();
+  /** Original database context. */
+  private static Context ctx;
+
+  /**
+   * Registers the driver and enables pooling.
+   * @throws SQLException SQL exception
+   */
+  @BeforeClass public static void init() throws SQLException {
+    DriverManager.registerDriver(DRIVER);
+    ctx = context;
+    final StaticOptions sopts = new StaticOptions(true);
+    sopts.set(StaticOptions.SQLPOOL, 2);
+    context = new Context(sopts);
+  }
+
+  /**
+   * Deregisters the driver and restores the original context.
+   * @throws SQLException SQL exception
+   */
+  @AfterClass public static void finish() throws SQLException {
+    context.close();
+    context = ctx;
+    DriverManager.deregisterDriver(DRIVER);
+  }
+
+  /** Closes all pooled connections. */
+  @After public void tearDown() {
+    SqlFn.POOL.sweep(Long.MAX_VALUE);
+    DRIVER.conns.clear();
+  }
+
+  /** Reuses idle connections. */
+  @Test public void reuse() {
+    query(CONNECT);
+    query(CONNECT);
+    assertEquals(1, DRIVER.conns.size());
+    assertFalse(DRIVER.conns.get(0).closed);
+
+    // connections are created if no idle connection is available
+    query(CONNECT + ", " + CONNECT);
+    assertEquals(2, DRIVER.conns.size());
+    // maximum number of idle connections is exceeded
+    query(CONNECT + ", " + CONNECT + ", " + CONNECT);
+    assertEquals(3, DRIVER.conns.size());
+    assertEquals(1, DRIVER.conns.stream().filter(c -> c.closed).count());
+  }
+
+  /** Validates idle connections before they are reused. */
+  @Test public void validate() {
+    query(CONNECT);
+    final FakeConnection conn = DRIVER.conns.get(0);
+    conn.valid = false;
+    query(CONNECT);
+    assertEquals(2, DRIVER.conns.size());
+    assertTrue(conn.closed);
+  }
+
+  /** Closes expired connections. */
+  @Test public void timeout() {
+    query(CONNECT);
+    final FakeConnection conn = DRIVER.conns.get(0);
+    assertEquals(0, SqlFn.POOL.sweep(System.currentTimeMillis()));
+    assertFalse(conn.closed);
+
+    final long expired = System.currentTimeMillis() +
+        context.soptions.get(StaticOptions.SQLPOOLTIMEOUT) * 1000L;
+    assertEquals(1, SqlFn.POOL.sweep(expired));
+    assertTrue(conn.closed);
+    query(CONNECT);
+    assertEquals(2, DRIVER.conns.size());
+  }
+
+  /** Caches prepared statements. */
+  @Test public void statements() {
+    final String prepare = _SQL_PREPARE.args(" " + CONNECT, "SELECT 1");
+    query(prepare);
+    query(prepare);
+    final FakeConnection conn = DRIVER.conns.get(0);
+    assertEquals(1, conn.statements.size());
+    assertFalse(conn.statements.get(0).closed);
+
+    // statements that are prepared twice in the same query are not cached twice
+    query("let $c := " + CONNECT + " return (" + _SQL_PREPARE.args(" $c", "SELECT 2") + ", " +
+        _SQL_PREPARE.args(" $c", "SELECT 2") + ')');
+    assertEquals(3, conn.statements.size());
+    assertEquals(1, conn.statements.stream().filter(s -> s.closed).count());
+
+    // cached statements are closed with the connection
+    SqlFn.POOL.sweep(Long.MAX_VALUE);
+    assertTrue(conn.closed);
+    assertTrue(conn.statements.stream().allMatch(s -> s.closed));
+  }
+
+  /** Rolls back uncommitted changes when a connection is released. */
+  @Test public void rollback() {
+    final String connect = _SQL_CONNECT.args(URL, "", "", " map { 'autocommit': false() }");
+    query(connect);
+    final FakeConnection conn = DRIVER.conns.get(0);
+    assertEquals(1, conn.rollbacks);
+    // auto-commit mode is assigned when the connection is reused
+    query(_SQL_CONNECT.args(URL, "", "", " map { 'autocommit': true() }"));
+    assertEquals(1, conn.rollbacks);
+    query(connect);
+    assertEquals(1, DRIVER.conns.size());
+    assertEquals(2, conn.rollbacks);
+  }
+
+  /**
+   * Restores the initial state of a connection when it is released.
+   * @throws SQLException SQL exception
+   */
+  @Test public void reset() throws SQLException {
+    final StaticOptions sopts = context.soptions;
+    final JDBCPool pool = new JDBCPool();
+    final String key = JDBCPool.key(URL, new Properties());
+    final Pooled pld = new Pooled(DriverManager.getConnection(URL), key);
+    pld.conn.setReadOnly(true);
+    pld.conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+    pld.conn.setCatalog("c");
+    pld.conn.setSchema("s");
+    pool.release(pld, sopts);
+
+    assertSame(pld, pool.acquire(key, sopts));
+    assertFalse(pld.conn.isReadOnly());
+    assertEquals(Connection.TRANSACTION_READ_COMMITTED, pld.conn.getTransactionIsolation());
+    assertNull(pld.conn.getCatalog());
+    assertEquals("public", pld.conn.getSchema());
+    assertNull(pool.acquire(key, sopts));
+    pool.sweep(Long.MAX_VALUE);
+  }
+
+  /** Driver that creates fake connections. */
+  private static final class FakeDriver implements Driver {
+    /** Created connections. */
+    private final List<FakeConnection> conns = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Connection connect(final String url, final Properties info) {
+      if(!acceptsURL(url)) return null;
+      final FakeConnection conn = new FakeConnection();
+      conns.add(conn);
+      return proxy(Connection.class, conn);
+    }
+
+    @Override
+    public boolean acceptsURL(final String url) {
+      return url.startsWith(URL);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+      return null;
+    }
+  }
+
+  /** State of a fake connection. */
+  private static final class FakeConnection implements InvocationHandler {
+    /** Prepared statements. */
+    private final List<FakeStatement> statements = new ArrayList<>();
+    /** Number of rollbacks. */
+    private int rollbacks;
+    /** Closed flag. */
+    private boolean closed;
+    /** Validity flag. */
+    private boolean valid = true;
+    /** Auto-commit mode. */
+    private boolean autoCommit = true;
+    /** Read-only mode. */
+    private boolean readOnly;
+    /** Transaction isolation level. */
+    private int isolation = Connection.TRANSACTION_READ_COMMITTED;
+    /** Catalog. */
+    private String catalog;
+    /** Schema. */
+    private String schema = "public";
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+      switch(method.getName()) {
+        case "close": closed = true; return null;
+        case "isClosed": return closed;
+        case "isValid": return valid && !closed;
+        case "getAutoCommit": return autoCommit;
+        case "setAutoCommit": autoCommit = (Boolean) args[0]; return null;
+        case "rollback": rollbacks++; return null;
+        case "isReadOnly": return readOnly;
+        case "setReadOnly": readOnly = (Boolean) args[0]; return null;
+        case "getTransactionIsolation": return isolation;
+        case "setTransactionIsolation": isolation = (Integer) args[0]; return null;
+        case "getCatalog": return catalog;
+        case "setCatalog": catalog = (String) args[0]; return null;
+        case "getSchema": return schema;
+        case "setSchema": schema = (String) args[0]; return null;
+        case "prepareStatement":
+          final FakeStatement stmt = new FakeStatement();
+          statements.add(stmt);
+          return proxy(PreparedStatement.class, stmt);
+        case "hashCode": return System.identityHashCode(proxy);
+        case "equals": return proxy == args[0];
+        default: return null;
+      }
+    }
+  }
+
+  /** State of a fake prepared statement. */
+  private static final class FakeStatement implements InvocationHandler {
+    /** Closed flag. */
+    private boolean closed;
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+      switch(method.getName()) {
+        case "close": closed = true; return null;
+        case "isClosed": return closed;
+        case "hashCode": return System.identityHashCode(proxy);
+        case "equals": return proxy == args[0];
+        default: return null;
+      }
+    }
+  }
+
+  /**
+   * Creates a proxy instance.
+   * @param type interface
+   * @param handler invocation handler
+   * @param <T> type
+   * @return proxy
+   */
+  private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+    return type.cast(Proxy.newProxyInstance(JDBCPoolTest.class.getClassLoader(),
+        new Class<?>[] { type }, handler));
+  }
+}
@@ -0,0 +1,119 @@
+package org.basex.query.index;
+
+import static org.basex.data.DataText.*;
+import static org.junit.Assert.*;
+
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests if histograms and distinct-value sketches are used to estimate index costs.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class CostEstimateTest extends QueryPlanTest {
+  /** Class expected in query plan. */
+  private static final String RANGE = Util.className(RangeAccess.class);
+  /** Class expected in query plan. */
+  private static final String VALUE = Util.className(ValueAccess.class);
+  /** Range query. */
+  private static final String QUERY = "count(//n[text() >= 1 and text() <= 100])";
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeClass public static void start() {
+    create();
+  }
+
+  /**
+   * Creates the test database.
+   */
+  private static void create() {
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add("<xml>");
+    for(int i = 1; i <= 1000; i++) {
+      tb.add("<n>").addInt(i).add("</n><s>v").addInt(i % 250).add("</s>");
+    }
+    tb.add("<x><n>1</n><n>2</n><n>3</n></x>");
+    tb.add("</xml>");
+    execute(new CreateDB(NAME, tb.toString()));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterClass public static void finish() {
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Estimates for numeric ranges.
+   */
+  @Test public void range() {
+    check(QUERY, 103, exists(RANGE + "[@results >= 80 and @results <= 130]"));
+    check("count(//n[text() >= 901])", 100,
+        exists(RANGE + "[@results >= 80 and @results <= 130]"));
+
+    // estimates are computed from the statistics that are stored on disk
+    execute(new Close());
+    check("count(db:open('" + NAME + "')//n[text() >= 1 and text() <= 100])", 103,
+        exists(RANGE + "[@results >= 80 and @results <= 130]"));
+    execute(new Open(NAME));
+  }
+
+  /**
+   * Estimates for dynamic equality comparisons.
+   */
+  @Test public void distinct() {
+    check("for $v in ('v1', 'v2') return count(//s[text() = $v])", "4\n4",
+        exists(VALUE + "[@results >= 3 and @results <= 6]"));
+  }
+
+  /**
+   * Estimates after updates.
+   */
+  @Test public void updates() {
+    final IOFile file = context.data().meta.dbFile(DATASKT);
+    try {
+      // histograms and sketches are stored in a separate file
+      execute(new Close());
+      assertTrue(file.exists());
+      execute(new Open(NAME));
+
+      // outdated statistics are not used for estimates
+      query("insert node <n>50</n> into /xml");
+      check(QUERY, 104, empty(RANGE));
+      check("for $v in ('v1', 'v2') return count(//s[text() = $v])", "4\n4",
+          empty(VALUE + "[@results >= 3 and @results <= 6]"));
+      execute(new Close());
+      assertFalse(file.exists());
+      execute(new Open(NAME));
+      check(QUERY, 104, empty(RANGE));
+
+      // statistics are recreated when the database is optimized
+      execute(new Optimize());
+      check(QUERY, 104, exists(RANGE + "[@results >= 80 and @results <= 130]"));
+      execute(new Close());
+      assertTrue(file.exists());
+      execute(new Open(NAME));
+      check(QUERY, 104, exists(RANGE + "[@results >= 80 and @results <= 130]"));
+    } finally {
+      create();
+    }
+  }
+
+  /**
+   * Sequential scans are preferred if the index would return more nodes than a path visits.
+   */
+  @Test public void scan() {
+    check("count(/xml/x/n[text() >= 2])", 2, empty(RANGE));
+    check("count(/xml/n[text() >= 991])", 10, exists(RANGE));
+  }
+}
@@ -0,0 +1,113 @@
+package org.basex.query.index;
+
+import static org.basex.query.QueryError.*;
+
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests if date and numeric range queries are correctly evaluated with(out) the index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DateRangeTest extends QueryPlanTest {
+  /** Class expected in query plan. */
+  private static final String DATES = Util.className(DateRangeAccess.class);
+  /** Class expected in query plan. */
+  private static final String NUMBERS = Util.className(RangeAccess.class);
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeClass public static void start() {
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add("<xml>");
+    for(int i = 1; i <= 28; i++) {
+      final String day = (i < 10 ? "0" : "") + i;
+      tb.add("<d a='2000-02-").add(day).add("T12:00:00Z'>2000-02-").add(day).add("</d>");
+      tb.add("<n>").addInt(i - 14).add("</n><n>").addInt(i).add(".5</n>");
+      // mixed valid and invalid dates
+      tb.add("<m>").add(i % 7 == 0 ? "unknown" : "2000-02-" + day).add("</m>");
+    }
+    tb.add("</xml>");
+    execute(new CreateDB(NAME, tb.toString()));
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterClass public static void finish() {
+    execute(new DropDB(NAME));
+  }
+
+  /**
+   * Date ranges.
+   */
+  @Test public void date() {
+    test("count(//d[text() >= xs:date('2000-02-10')])", 19, DATES);
+    test("count(//d[text() > xs:date('2000-02-10')])", 18, DATES);
+    test("count(//d[text() < xs:date('2000-02-10')])", 9, DATES);
+    test("count(//d[text() <= xs:date('2000-02-10')])", 10, DATES);
+    test("count(//d[text() >= xs:date('2000-02-10') and text() < xs:date('2000-02-20')])",
+        10, DATES);
+    test("count(//d[text() > xs:date('2001-01-01')])", 0, DATES);
+  }
+
+  /**
+   * DateTime ranges.
+   */
+  @Test public void dateTime() {
+    test("count(//d[@a >= xs:dateTime('2000-02-10T12:00:00Z')])", 19, DATES);
+    test("count(//d[@a > xs:dateTime('2000-02-10T12:00:00Z')])", 18, DATES);
+    test("count(//d[@a < xs:dateTime('2000-02-10T14:00:00+02:00')])", 9, DATES);
+  }
+
+  /**
+   * Values that cannot be converted to dates.
+   */
+  @Test public void invalid() {
+    execute(new CreateIndex(CmdIndex.TEXT));
+    execute(new CreateIndex(CmdIndex.ATTRIBUTE));
+    try {
+      // no index access: invalid values are not skipped, but raise conversion errors
+      error("count(//m[text() >= xs:date('2000-02-10')])", DATEFORMAT_X_X_X);
+      error("count(//m[text() < xs:date('2000-02-01')])", DATEFORMAT_X_X_X);
+      error("count(//n[text() >= xs:date('2000-02-10')])", DATEFORMAT_X_X_X);
+      // invalid values of other elements are ignored
+      check("count(//d[text() >= xs:date('2000-02-10')])", 19, exists(DATES));
+    } finally {
+      execute(new DropIndex(CmdIndex.TEXT));
+      execute(new DropIndex(CmdIndex.ATTRIBUTE));
+    }
+  }
+
+  /**
+   * Numeric ranges with negative and decimal numbers.
+   */
+  @Test public void numeric() {
+    test("count(//n[text() >= -5 and text() <= 5])", 15, NUMBERS);
+    test("count(//n[text() > -5 and text() < 5.5])", 14, NUMBERS);
+    test("count(//n[text() >= 9.5 and text() <= 100])", 25, NUMBERS);
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   * @param access class expected in query plan
+   */
+  private static void test(final String query, final Object result, final String access) {
+    execute(new CreateIndex(CmdIndex.TEXT));
+    execute(new CreateIndex(CmdIndex.ATTRIBUTE));
+    check(query, result, exists(access));
+    execute(new DropIndex(CmdIndex.TEXT));
+    execute(new DropIndex(CmdIndex.ATTRIBUTE));
+    check(query, result, empty(access));
+  }
+}
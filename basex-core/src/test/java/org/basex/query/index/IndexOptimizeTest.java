@@ -213,6 +213,53 @@ public final class IndexOptimizeTest extends QueryPlanTest {
     }
   }
 
+  /** Checks the selective index feature with paths. */
+  @Test public void selectivePathIndexTest() {
+    try {
+      set(MainOptions.TEXTINCLUDE, "a/b");
+      set(MainOptions.ATTRINCLUDE, "a/@c");
+      execute(new CreateDB(NAME, "<xml><a c='1'><b>1</b></a><b c='1'>1</b></xml>"));
+
+      check("data(//a[b = '1']/@c)", 1, exists(ValueAccess.class));
+      check("data(//a[b/text() = '1']/@c)", 1, exists(ValueAccess.class));
+      check("data(//a/b[. = '1']/../@c)", 1, exists(ValueAccess.class));
+      check("data(//a[@c = '1']/b)", 1, exists(ValueAccess.class));
+      // paths are not covered by the index
+      check("count(//b[. = '1'])", 2, empty(ValueAccess.class));
+      check("count(//*[b = '1'])", 2, empty(ValueAccess.class));
+      check("count(//*[@c = '1'])", 2, empty(ValueAccess.class));
+    } finally {
+      set(MainOptions.TEXTINCLUDE, "");
+      set(MainOptions.ATTRINCLUDE, "");
+    }
+
+    // renamed elements: values of descendants are updated
+    try {
+      set(MainOptions.UPDINDEX, true);
+      set(MainOptions.TEXTINCLUDE, "order/item/name");
+      set(MainOptions.ATTRINCLUDE, "order/@id,order/item/@id");
+      execute(new CreateDB(NAME, "<xml><x id='7'><item id='8'><name>A</name></item></x>"
+          + "<order id='9'/></xml>"));
+      query("rename node //x as 'order'");
+      check("count(//order[@id = '7'])", 1, exists(ValueAccess.class));
+      check("count(//order/item[@id = '8'])", 1, exists(ValueAccess.class));
+      check("count(//order/item[name/text() = 'A'])", 1, exists(ValueAccess.class));
+      query("rename node //order[@id = '9'] as 'x'");
+      query("count(//order[@id = '9'])", 0);
+      check("count(//order[@id])", 1, empty(ValueAccess.class));
+
+      query("rename node //order as 'y'");
+      query("count(//order[@id = '7'])", 0);
+      query("count(//order/item[name/text() = 'A'])", 0);
+      query("count(db:attribute('" + NAME + "', ('7', '8', '9')))", 0);
+      query("count(db:text('" + NAME + "', 'A'))", 0);
+    } finally {
+      set(MainOptions.UPDINDEX, false);
+      set(MainOptions.TEXTINCLUDE, "");
+      set(MainOptions.ATTRINCLUDE, "");
+    }
+  }
+
   /** Checks mixed downward and upward axes. */
   @Test public void upAndDown() {
     createDoc();
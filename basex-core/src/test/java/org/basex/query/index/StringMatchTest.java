@@ -0,0 +1,143 @@
+package org.basex.query.index;
+
+import static org.basex.data.DataText.*;
+import static org.junit.Assert.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
+import org.basex.query.ast.*;
+import org.basex.query.expr.index.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests if substring and pattern queries are correctly evaluated with(out) the index.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class StringMatchTest extends QueryPlanTest {
+  /** Class expected in query plan. */
+  private static final String ACCESS = Util.className(StringMatchAccess.class);
+
+  /**
+   * Initializes the tests.
+   */
+  @BeforeClass public static void start() {
+    set(MainOptions.MAXLEN, 10);
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add("<xml>");
+    for(int i = 100; i < 1000; i++) {
+      tb.add("<x a='v").addInt(i).add("'>abc").addInt(i).add("</x>");
+    }
+    // values that exceed the maximum length of index entries
+    tb.add("<x a='long value 123'>long value abc123</x>");
+    tb.add("</xml>");
+    execute(new CreateDB(NAME, tb.toString()));
+    set(MainOptions.NGRAMINDEX, true);
+  }
+
+  /**
+   * Finishes the tests.
+   */
+  @AfterClass public static void finish() {
+    execute(new DropDB(NAME));
+    set(MainOptions.NGRAMINDEX, false);
+    set(MainOptions.MAXLEN, 96);
+  }
+
+  /**
+   * Substring searches.
+   */
+  @Test public void contains() {
+    test("count(//x[contains(., 'c12')])", 11);
+    test("count(//x[contains(text(), '123')])", 2);
+    test("count(//text()[contains(., 'abc9')])", 100);
+    test("count(//x[contains(@a, 'v12')])", 10);
+    test("count(//@a[contains(., '123')])", 2);
+    test("count(//x[contains(., 'xyz')])", 0);
+  }
+
+  /**
+   * Suffix searches.
+   */
+  @Test public void endsWith() {
+    test("count(//x[ends-with(., '123')])", 2);
+    test("count(//x[ends-with(@a, '123')])", 2);
+    // search string is too short: no index access
+    scan("count(//x[ends-with(text(), '99')])", 9);
+  }
+
+  /**
+   * Pattern searches.
+   */
+  @Test public void matches() {
+    test("count(//x[matches(., 'bc1.3')])", 11);
+    test("count(//x[matches(., '^abc1+23')])", 1);
+    test("count(//x[matches(@a, 'valu?e')])", 1);
+    // no literal, or alternatives: no index access
+    scan("count(//x[matches(., 'a.c')])", 901);
+    scan("count(//x[matches(., 'abc(1|2)23')])", 3);
+  }
+
+  /**
+   * Updates values that exceed the maximum length of index entries.
+   */
+  @Test public void updates() {
+    final String name = NAME + "Updates";
+    set(MainOptions.UPDINDEX, true);
+    try {
+      execute(new CreateDB(name, "<xml><x>abc123</x><x>long value abc123</x></xml>"));
+      // ids of long values are stored on disk
+      assertTrue(context.data().meta.dbFile(DATATXT + 'g').exists());
+      check("count(//x[contains(text(), '123')])", 2, exists(ACCESS));
+
+      query("insert node <x>another long abc123</x> into /xml");
+      query("delete node //x[text() = 'long value abc123']");
+      query("replace value of node //x[1]/text() with 'long value abc1234'");
+      check("count(//x[contains(text(), '123')])", 2, exists(ACCESS));
+      check("//x[contains(text(), '1234')]/string()", "long value abc1234", exists(ACCESS));
+
+      // changes are written to disk
+      execute(new Close());
+      execute(new Open(name));
+      check("count(//x[contains(text(), '123')])", 2, exists(ACCESS));
+      query("replace value of node //x[1]/text() with 'abc'");
+      execute(new Close());
+      execute(new Open(name));
+      check("count(//x[contains(text(), '123')])", 1, exists(ACCESS));
+      check("//x[contains(text(), 'long')]/string()", "another long abc123", exists(ACCESS));
+    } finally {
+      execute(new DropDB(name));
+      execute(new Open(NAME));
+      set(MainOptions.UPDINDEX, false);
+    }
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   */
+  private static void test(final String query, final Object result) {
+    execute(new CreateIndex(CmdIndex.TEXT));
+    execute(new CreateIndex(CmdIndex.ATTRIBUTE));
+    check(query, result, exists(ACCESS));
+    execute(new DropIndex(CmdIndex.TEXT));
+    execute(new DropIndex(CmdIndex.ATTRIBUTE));
+    check(query, result, empty(ACCESS));
+  }
+
+  /**
+   * Tests a query that cannot be rewritten for index access.
+   * @param query query
+   * @param result expected result
+   */
+  private static void scan(final String query, final Object result) {
+    execute(new CreateIndex(CmdIndex.TEXT));
+    check(query, result, empty(ACCESS));
+    execute(new DropIndex(CmdIndex.TEXT));
+  }
+}
@@ -0,0 +1,128 @@
+package org.basex.query.up;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for updates that add or replace large numbers of documents.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class BulkUpdateTest extends SandboxTest {
+  /** Number of documents. */
+  private static final int DOCS = 10000;
+
+  /** Creates the test database. */
+  @Before public void setUp() {
+    set(MainOptions.UPDINDEX, true);
+    set(MainOptions.TOKENINDEX, true);
+    execute(new CreateDB(NAME));
+  }
+
+  /** Drops the test database. */
+  @After public void tearDown() {
+    execute(new DropDB(NAME));
+    set(MainOptions.UPDINDEX, false);
+    set(MainOptions.TOKENINDEX, false);
+  }
+
+  /** Adds nodes. */
+  @Test public void addNodes() {
+    query("for $i in 1 to " + DOCS + " return db:add('" + NAME + "', " +
+        "<a id='{ $i }'>{ $i mod 10 }</a>, 'a' || $i || '.xml')");
+    query("count(db:open('" + NAME + "'))", DOCS);
+    query("db:open('" + NAME + "', 'a123.xml')/a/@id/string()", 123);
+    query("db:path(db:open('" + NAME + "')[last()])", "a" + DOCS + ".xml");
+    query("count(db:text('" + NAME + "', '3'))", DOCS / 10);
+    query("count(db:attribute('" + NAME + "', '77'))", 1);
+  }
+
+  /** Adds resources with different options. */
+  @Test public void addMixed() {
+    query("db:add('" + NAME + "', <a>1</a>, 'a1.xml'), "
+        + "db:add('" + NAME + "', '<a>2</a>', 'a2.xml'), "
+        + "db:add('" + NAME + "', ' <a> 3 </a> ', 'a3.xml', map { 'chop': false() }), "
+        + "db:add('" + NAME + "', ' <a> 4 </a> ', 'a4.xml'), "
+        + "db:add('" + NAME + "', document { <a>5</a> }, 'a5.xml')");
+    query("string-join(db:open('" + NAME + "') ! (db:path(.) || '=' || a), ' ')",
+        "a1.xml=1 a2.xml=2 a3.xml= 3  a4.xml=4 a5.xml=5");
+  }
+
+  /** Replaces documents. */
+  @Test public void replace() {
+    query("for $i in 1 to " + DOCS + " return db:add('" + NAME + "', " +
+        "<a id='{ $i }'>{ $i mod 10 }</a>, 'a' || $i || '.xml')");
+    query("for $i in 1 to " + DOCS + " return db:replace('" + NAME + "', " +
+        "'a' || $i || '.xml', <b id='{ $i }'>x{ $i mod 10 }</b>)");
+    query("count(db:open('" + NAME + "')/b)", DOCS);
+    query("count(db:text('" + NAME + "', '3'))", 0);
+    query("count(db:text('" + NAME + "', 'x3'))", DOCS / 10);
+    query("count(db:attribute('" + NAME + "', '77'))", 1);
+    query("count(db:token('" + NAME + "', '77'))", 1);
+  }
+
+  /** Looks up documents repeatedly, with and without intervening updates. */
+  @Test public void lookups() {
+    query("for $i in 1 to 100 return db:add('" + NAME + "', <a>{ $i }</a>, "
+        + "'d' || $i mod 3 || '/s' || $i mod 2 || '/a' || $i || '.xml')");
+    // initial lookups scan all paths, further lookups use binary search
+    for(int l = 0; l < 20; l++) {
+      query("count(db:open('" + NAME + "', 'd1'))", 34);
+      query("count(db:open('" + NAME + "', 'd1/s0'))", 17);
+      query("count(db:open('" + NAME + "', 'd'))", 0);
+      query("db:open('" + NAME + "', 'd1/s0/a4.xml')/a/string()", 4);
+      query("count(db:open('" + NAME + "', 'd1/s0/a4'))", 0);
+      query("string-join(sort(db:dir('" + NAME + "', 'd1')), ' ')", "s0 s1");
+    }
+    // lookups after updates
+    query("db:add('" + NAME + "', <a>x</a>, 'd1/s2/x.xml')");
+    query("db:delete('" + NAME + "', 'd1/s0')");
+    for(int l = 0; l < 20; l++) {
+      query("count(db:open('" + NAME + "', 'd1'))", 18);
+      query("count(db:open('" + NAME + "', 'd1/s0'))", 0);
+      query("string-join(sort(db:dir('" + NAME + "', 'd1')), ' ')", "s1 s2");
+    }
+    // replace documents in a single query, based on the results of repeated lookups
+    query("for $i in 1 to 100 where $i mod 3 = 2 return db:replace('" + NAME + "', "
+        + "'d2/s' || $i mod 2 || '/a' || $i || '.xml', <b>{ $i }</b>)");
+    query("count(db:open('" + NAME + "', 'd2')/b)", 33);
+    query("count(db:open('" + NAME + "', 'd2')/a)", 0);
+    query("count(db:open('" + NAME + "'))", 84);
+  }
+
+  /** Replaces documents after the database has been reopened. */
+  @Test public void replaceReopened() {
+    query("for $i in 1 to 200 return db:add('" + NAME + "', "
+        + "<a><b>w{ $i mod 10 } w{ $i mod 7 } w1{ $i mod 3 }</b><c>y</c></a>, "
+        + "'a' || $i || '.xml')");
+    execute(new Close());
+    execute(new Open(NAME));
+    query("for $i in 1 to 200 where $i mod 7 = 0 return db:replace('" + NAME + "', "
+        + "'a' || $i || '.xml', <b>x</b>)");
+    query("count(db:text('" + NAME + "', 'x'))", 28);
+    query("count(db:text('" + NAME + "', 'w0 w0 w11'))", 0);
+  }
+
+  /** Updates and deletes the same nodes. */
+  @Test public void updateDelete() {
+    query("db:add('" + NAME + "', <a id='1'>x</a>, 'a.xml')");
+    query("let $a := db:open('" + NAME + "')/a return ("
+        + "replace value of node $a/text() with 'y', "
+        + "replace value of node $a/@id with '2', "
+        + "delete node $a)");
+    query("count(db:text('" + NAME + "', ('x', 'y')))", 0);
+    query("count(db:attribute('" + NAME + "', ('1', '2')))", 0);
+
+    query("db:add('" + NAME + "', <a id='1'>x</a>, 'a.xml')");
+    query("let $a := db:open('" + NAME + "')/a return ("
+        + "replace value of node $a/text() with 'y', "
+        + "replace value of node $a/@id with '2')");
+    query("count(db:text('" + NAME + "', 'x'))", 0);
+    query("count(db:text('" + NAME + "', 'y'))", 1);
+    query("count(db:attribute('" + NAME + "', '2'))", 1);
+  }
+}
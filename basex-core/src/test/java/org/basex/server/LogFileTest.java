@@ -0,0 +1,197 @@
+package org.basex.server;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the block index of log files.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LogFileTest extends SandboxTest {
+  /** Name of the test log file. */
+  private static final String LOG = "2000-01-01";
+  /** Filler text. */
+  private static final String TEXT = "................................";
+  /** Log file. */
+  private LogFile lf;
+  /** Number of written lines. */
+  private int lines;
+  /** Number of written bytes. */
+  private long size;
+
+  /**
+   * Creates the log file in the log directory of the database context.
+   * @throws IOException I/O exception
+   */
+  @Before public void init() throws IOException {
+    final StaticOptions sopts = context.soptions;
+    lf = LogFile.create(LOG, sopts.dbPath(".").resolve(sopts.get(StaticOptions.LOGPATH)));
+  }
+
+  /**
+   * Deletes the log file.
+   * @throws IOException I/O exception
+   */
+  @After public void tearDown() throws IOException {
+    lf.close();
+    lf.delete();
+  }
+
+  /**
+   * Reads all entries.
+   * @throws IOException I/O exception
+   */
+  @Test public void read() throws IOException {
+    fill("10:00", "1.1.1.1:1", "a", "INFO", 3 * LogFile.BLOCKSIZE);
+    lf.flush();
+    assertEquals(lines, lf.read().size());
+    assertEquals(lines, lf.read(block -> true).size());
+    // entries of the current block have not been indexed yet
+    final int current = lf.read(block -> false).size();
+    assertTrue(current > 0 && current < lines);
+
+    // remaining entries are indexed when the file is closed
+    lf.close();
+    assertEquals(lines, lf.read(block -> true).size());
+    assertEquals(0, lf.read(block -> false).size());
+  }
+
+  /**
+   * Skips indexed blocks.
+   * @throws IOException I/O exception
+   */
+  @Test public void skip() throws IOException {
+    final int a = fill("10:00", "1.1.1.1:1", "a", "INFO", LogFile.BLOCKSIZE);
+    final int b = fill("11:00", "1.1.1.1:1", "b", "ERROR", LogFile.BLOCKSIZE);
+    final int c = fill("12:00", "1.1.1.1:1", "c", "INFO", LogFile.BLOCKSIZE);
+    lf.close();
+
+    final AtomicInteger blocks = new AtomicInteger();
+    final StringList list = lf.read(block -> {
+      blocks.incrementAndGet();
+      return block.users.contains("b");
+    });
+    assertEquals(b, list.size());
+    assertEquals(3, blocks.get());
+
+    // skipped blocks are filtered by time, user, type and duration
+    assertEquals(a + c, count(" map { 'type': 'INFO' }"));
+    assertEquals(b, count(" map { 'user': 'b' }"));
+    assertEquals(b + c, count(" map { 'start': '11:00' }"));
+    assertEquals(a, count(" map { 'end': '11:00' }"));
+    assertEquals(0, count(" map { 'user': 'b', 'type': 'INFO' }"));
+    assertEquals(0, count(" map { 'ms': 2 }"));
+    assertEquals(a + b + c, count(" map { }"));
+  }
+
+  /**
+   * Reads entries without index.
+   * @throws IOException I/O exception
+   */
+  @Test public void noIndex() throws IOException {
+    final int a = fill("10:00", "1.1.1.1:1", "a", "INFO", LogFile.BLOCKSIZE);
+    final int b = fill("11:00", "1.1.1.1:1", "b", "INFO", LogFile.BLOCKSIZE);
+    lf.close();
+    final IOFile index = new IOFile(lf.file.dir(), LOG + ".idx");
+    assertTrue(index.exists());
+    assertTrue(index.delete());
+
+    assertEquals(a + b, lf.read(block -> false).size());
+    assertEquals(b, count(" map { 'user': 'b' }"));
+  }
+
+  /**
+   * Merges entries of a request that spans two indexed blocks.
+   * @throws IOException I/O exception
+   */
+  @Test public void merge() throws IOException {
+    // the request entry concludes the first block
+    final byte[] request = line("10:00:00.000", "2.2.2.2:2", "a", "REQUEST",
+        TEXT + TEXT + TEXT + TEXT, 0);
+    while(size + request.length < LogFile.BLOCKSIZE) {
+      add(line("09:00:00.000", "1.1.1.1:1", "a", "INFO", TEXT, 1));
+    }
+    add(request);
+    assertTrue(size >= LogFile.BLOCKSIZE);
+    // the concluding entry is located in the second block
+    add(line("10:00:01.000", "2.2.2.2:2", "b", "200", "", 5));
+    fill("11:00", "1.1.1.1:1", "a", "INFO", LogFile.BLOCKSIZE);
+    lf.close();
+
+    final String logs = _ADMIN_LOGS.args(LOG, true,
+        " map { 'type': '200', 'end': '10:00:00.500' }");
+    query("count(" + logs + ')', 1);
+    query(logs + "/@user/string()", "b");
+    query(logs + "/@ms/string()", 5);
+  }
+
+  /**
+   * Returns the number of entries returned by admin:logs.
+   * @param options options
+   * @return number of entries
+   */
+  private static int count(final String options) {
+    return Integer.parseInt(query("count(" + _ADMIN_LOGS.args(LOG, false, options) + ')'));
+  }
+
+  /**
+   * Adds entries with increasing times until the specified number of bytes has been written.
+   * @param hour hour and minute
+   * @param address address
+   * @param user user
+   * @param type type
+   * @param bytes minimum number of bytes to be written
+   * @return number of added entries
+   */
+  private int fill(final String hour, final String address, final String user,
+      final String type, final long bytes) {
+    final long max = size + bytes;
+    int c = 0;
+    while(size < max) {
+      final String time = String.format("%s:%02d.%03d", hour, c / 1000 % 60, c % 1000);
+      add(line(time, address, user, type, TEXT, 1));
+      c++;
+    }
+    return c;
+  }
+
+  /**
+   * Adds a log entry.
+   * @param line line
+   */
+  private void add(final byte[] line) {
+    final String[] cols = Token.string(line).split("\t");
+    lf.add(line, cols[0], cols[2], cols[3], Double.parseDouble(cols[5].replace(" ms", "")));
+    size += line.length;
+    lines++;
+  }
+
+  /**
+   * Creates a log line.
+   * @param time time
+   * @param address address
+   * @param user user
+   * @param type type
+   * @param info info
+   * @param ms duration
+   * @return line
+   */
+  private static byte[] line(final String time, final String address, final String user,
+      final String type, final String info, final int ms) {
+    return Token.token(time + '\t' + address + '\t' + user + '\t' + type + '\t' + info + '\t' +
+        ms + " ms" + Prop.NL);
+  }
+}
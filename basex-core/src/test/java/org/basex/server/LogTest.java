@@ -0,0 +1,146 @@
+package org.basex.server;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.regex.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.server.Log.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for writing log entries.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LogTest extends SandboxTest {
+  /** Number of written entries. */
+  private static final int COUNT = 1000;
+  /** Log directory. */
+  private static final IOFile DIR = new IOFile(sandbox(), "logtest");
+
+  /** Deletes the log files. */
+  @After public void tearDown() {
+    DIR.delete();
+  }
+
+  /** Writes entries synchronously. */
+  @Test public void sync() {
+    final Log log = log(0, false);
+    write(log);
+    assertEquals(COUNT, count(read(log), "entry "));
+    log.close();
+  }
+
+  /** Writes queued entries. */
+  @Test public void queued() {
+    final Log log = log(10, false);
+    write(log);
+    // entries are flushed before the log files are accessed
+    final String entries = read(log);
+    assertEquals(COUNT, count(entries, "entry "));
+    // entries are written in their original order
+    assertTrue(entries.indexOf("entry 0") < entries.indexOf("entry " + (COUNT - 1)));
+    log.close();
+  }
+
+  /** Writes all queued entries when the log is closed. */
+  @Test public void close() {
+    final Log log = log(COUNT, false);
+    write(log);
+    log.close();
+    assertEquals(COUNT, count(read(log), "entry "));
+
+    // log can be used again after it has been closed
+    log.writeServer(LogType.INFO, "reopened");
+    assertEquals(1, count(read(log), "reopened"));
+    log.close();
+  }
+
+  /** Drops entries if the queue is full. */
+  @Test public void drop() {
+    final Log log = log(1, true);
+    // block the writer thread
+    synchronized(log) {
+      write(log);
+    }
+    // the number of dropped entries is written with the next entries, or when the log is closed
+    log.close();
+    final String entries = read(log);
+    final Matcher m = Pattern.compile("(\\d+) log entries were dropped").matcher(entries);
+    assertTrue(m.find());
+    final int dropped = Integer.parseInt(m.group(1));
+    assertTrue(dropped > 0);
+    assertEquals(COUNT, count(entries, "entry ") + dropped);
+  }
+
+  /** Registers entries as dropped if the writing thread is interrupted. */
+  @Test public void interrupt() {
+    final Log log = log(10, false);
+    Thread.currentThread().interrupt();
+    log.writeServer(LogType.INFO, "entry 0");
+    // interrupt status is restored
+    assertTrue(Thread.interrupted());
+    log.close();
+    final String entries = read(log);
+    assertEquals(0, count(entries, "entry "));
+    assertEquals(1, count(entries, "1 log entries were dropped"));
+  }
+
+  /**
+   * Creates a log instance.
+   * @param queue size of queue
+   * @param drop drop entries
+   * @return log
+   */
+  private static Log log(final int queue, final boolean drop) {
+    final StaticOptions sopts = new StaticOptions(false);
+    sopts.set(StaticOptions.LOGPATH, DIR.path());
+    sopts.set(StaticOptions.LOGQUEUE, queue);
+    sopts.set(StaticOptions.LOGDROP, drop);
+    return new Log(sopts);
+  }
+
+  /**
+   * Writes log entries.
+   * @param log log
+   */
+  private static void write(final Log log) {
+    for(int c = 0; c < COUNT; c++) log.writeServer(LogType.INFO, "entry " + c);
+  }
+
+  /**
+   * Returns the contents of all log files.
+   * @param log log
+   * @return contents
+   */
+  private static String read(final Log log) {
+    final StringBuilder sb = new StringBuilder();
+    for(final IOFile file : log.files()) {
+      try {
+        sb.append(Token.string(file.read()));
+      } catch(final IOException ex) {
+        fail(Util.message(ex));
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Counts the occurrences of a string.
+   * @param string string
+   * @param sub substring
+   * @return number of occurrences
+   */
+  private static int count(final String string, final String sub) {
+    int c = 0;
+    for(int i = 0; (i = string.indexOf(sub, i)) != -1; i += sub.length()) c++;
+    return c;
+  }
+}
@@ -0,0 +1,88 @@
+package org.basex.util;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for {@link Bitmap}.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class BitmapTest {
+  /** Test method for {@link Bitmap#add(int)} and {@link Bitmap#contains(int)}. */
+  @Test public void add() {
+    final Bitmap bm = new Bitmap();
+    bm.add(70000);
+    bm.add(3);
+    bm.add(3);
+    bm.add(65535);
+    assertEquals(3, bm.cardinality());
+    assertTrue(bm.contains(3));
+    assertTrue(bm.contains(65535));
+    assertTrue(bm.contains(70000));
+    assertFalse(bm.contains(4));
+    assertFalse(bm.contains(65536));
+    assertArrayEquals(new int[] { 3, 65535, 70000 }, bm.toArray());
+  }
+
+  /** Switches between sparse and dense chunks. */
+  @Test public void dense() {
+    final Bitmap bm = new Bitmap(), even = new Bitmap();
+    for(int i = 0; i < 20000; i++) bm.add(i);
+    for(int i = 0; i < 20000; i += 2) even.add(i);
+    assertEquals(20000, bm.cardinality());
+    assertEquals(10000, bm.and(even).cardinality());
+    assertEquals(10000, bm.andNot(even).cardinality());
+    assertTrue(bm.andNot(even).contains(19999));
+    assertFalse(bm.andNot(even).contains(19998));
+    assertEquals(20000, even.or(bm.andNot(even)).cardinality());
+    assertTrue(bm.andNot(bm).isEmpty());
+  }
+
+  /** Compares set operations with the results of sorted sets. */
+  @Test public void operations() {
+    final Random rnd = new Random(1);
+    for(int r = 0; r < 50; r++) {
+      final int range = r % 2 == 0 ? 100000 : 3000000;
+      final TreeSet<Integer> set1 = new TreeSet<>(), set2 = new TreeSet<>();
+      final Bitmap bm1 = new Bitmap(), bm2 = new Bitmap();
+      for(int i = rnd.nextInt(20000); i > 0; i--) {
+        final int v = rnd.nextInt(range);
+        set1.add(v);
+        bm1.add(v);
+      }
+      for(int i = rnd.nextInt(40000), v = 0; i > 0; i--) {
+        v += 1 + rnd.nextInt(4);
+        set2.add(v);
+        bm2.add(v);
+      }
+
+      final TreeSet<Integer> and = new TreeSet<>(set1), or = new TreeSet<>(set1),
+          andNot = new TreeSet<>(set1);
+      and.retainAll(set2);
+      or.addAll(set2);
+      andNot.removeAll(set2);
+      check(and, bm1.and(bm2));
+      check(and, bm2.and(bm1));
+      check(or, bm1.or(bm2));
+      check(andNot, bm1.andNot(bm2));
+    }
+  }
+
+  /**
+   * Compares the values of a bitmap with the expected values.
+   * @param expected expected values
+   * @param bitmap bitmap
+   */
+  private static void check(final TreeSet<Integer> expected, final Bitmap bitmap) {
+    final int[] values = bitmap.toArray();
+    assertEquals(expected.size(), bitmap.cardinality());
+    assertEquals(expected.size(), values.length);
+    int i = 0;
+    for(final int value : expected) assertEquals(value, values[i++]);
+  }
+}
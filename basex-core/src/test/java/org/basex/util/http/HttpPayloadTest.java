@@ -0,0 +1,164 @@
+package org.basex.util.http;
+
+import static org.basex.query.QueryError.*;
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.io.in.*;
+import org.basex.io.out.*;
+import org.basex.query.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
+import org.junit.*;
+
+/**
+ * Tests for parsing HTTP payloads.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class HttpPayloadTest {
+  /** Media type of multipart form data. */
+  private static final MediaType FORM = new MediaType("multipart/form-data; boundary=XX");
+  /** Output streams that have been created for spooling files. */
+  private final ArrayList<SpoolOutput> spooled = new ArrayList<>();
+
+  /** Deletes temporary files. */
+  @After public void tearDown() {
+    for(final SpoolOutput so : spooled) {
+      if(so.file() != null) so.file().delete();
+    }
+    spooled.clear();
+  }
+
+  /**
+   * Parses form fields and files.
+   * @throws Exception exception
+   */
+  @Test public void form() throws Exception {
+    final HashMap<String, Value> form = form(100,
+        "preamble\r\n",
+        "--XX\r\n",
+        "Content-Disposition: form-data; name=\"f\"; filename=\"a.txt\"\r\n",
+        "Content-Type: text/plain\r\n",
+        "\r\n",
+        "line 1\r\nline 2\r\n-- \r\r\n--X\r\n",
+        "\r\n--XX\r\n",
+        "Content-Disposition: form-data; name=\"s\"\r\n",
+        "\r\n",
+        "a\r\n--XX\r\n",
+        "Content-Disposition: form-data; name=\"s\"\r\n",
+        "\r\n",
+        "b\r\n--XX\r\n",
+        "Content-Disposition: form-data; name=\"f\"; filename=\"b.txt\"\r\n",
+        "\r\n",
+        "\r\n--XX\r\n",
+        "Content-Disposition: form-data; name=\"e\"\r\n",
+        "\r\n",
+        "\r\n--XX--\r\n",
+        "epilogue");
+
+    assertEquals(3, form.size());
+    assertEquals("(\"a\", \"b\")", form.get("s").toString());
+    assertEquals("", string(((Item) form.get("e")).string(null)));
+
+    final XQMap files = (XQMap) form.get("f");
+    assertEquals("line 1\r\nline 2\r\n-- \r\r\n--X\r\n", file(files, "a.txt"));
+    assertEquals("", file(files, "b.txt"));
+  }
+
+  /**
+   * Spools large files to disk.
+   * @throws Exception exception
+   */
+  @Test public void spool() throws Exception {
+    // file without line breaks
+    final StringBuilder sb = new StringBuilder();
+    for(int i = 0; i < 100000; i++) sb.append((char) ('a' + i % 26));
+    final String content = sb.toString();
+    final HashMap<String, Value> form = form(1000,
+        "--XX\r\n",
+        "Content-Disposition: form-data; name=\"f\"; filename=\"a.txt\"\r\n",
+        "\r\n",
+        content,
+        "\r\n--XX\r\n",
+        "Content-Disposition: form-data; name=\"f\"; filename=\"b.txt\"\r\n",
+        "\r\n",
+        "small\r\n--XX--\r\n");
+
+    assertEquals(2, spooled.size());
+    assertNotNull(spooled.get(0).file());
+    assertNull(spooled.get(1).file());
+
+    final XQMap files = (XQMap) form.get("f");
+    final Item item = (Item) files.get(Str.get("a.txt"), null);
+    assertTrue(item instanceof B64Lazy);
+    assertEquals(content, string(((B64Lazy) item).binary(null)));
+    assertEquals("small", file(files, "b.txt"));
+  }
+
+  /**
+   * Caches the contents of spooled files if the files are materialized.
+   * @throws Exception exception
+   */
+  @Test public void materialize() throws Exception {
+    final HashMap<String, Value> form = form(0,
+        "--XX\r\n",
+        "Content-Disposition: form-data; name=\"f\"; filename=\"a.txt\"\r\n",
+        "\r\n",
+        "abc\r\n--XX--\r\n");
+
+    final XQMap files = (XQMap) form.get("f");
+    final Item materialized = files.materialize(null, false);
+    final Item item = (Item) files.get(Str.get("a.txt"), null);
+    final B64Lazy other = new B64Lazy(spooled.get(0).file(), IOERR_X, true);
+    tearDown();
+
+    // contents have been cached before the file was deleted
+    assertEquals("abc", file((XQMap) materialized, "a.txt"));
+    assertEquals("abc", string(((B64Lazy) item).binary(null)));
+    try {
+      other.binary(null);
+      fail("Error expected.");
+    } catch(final QueryException ex) {
+      assertEquals(IOERR_X, ex.error());
+    }
+    assertNull(other.materialize(null, false));
+  }
+
+  /**
+   * Parses multipart form data.
+   * @param max maximum number of bytes that are cached in main memory
+   * @param lines lines of the request body
+   * @return form data
+   * @throws Exception exception
+   */
+  private HashMap<String, Value> form(final int max, final String... lines) throws Exception {
+    final StringBuilder sb = new StringBuilder();
+    for(final String line : lines) sb.append(line);
+    try(InputStream is = new ArrayInput(token(sb.toString()))) {
+      final HttpPayload hp = new HttpPayload(is, true, null, new MainOptions());
+      return hp.multiForm(FORM, () -> {
+        final SpoolOutput so = new SpoolOutput(max);
+        spooled.add(so);
+        return so;
+      });
+    }
+  }
+
+  /**
+   * Returns the contents of a file.
+   * @param files files
+   * @param name file name
+   * @return contents
+   * @throws QueryException query exception
+   */
+  private static String file(final XQMap files, final String name) throws QueryException {
+    return string(((B64) files.get(Str.get(name), null)).binary(null));
+  }
+}